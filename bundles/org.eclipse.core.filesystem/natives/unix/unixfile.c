@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010 IBM Corporation and others.
+ * Copyright (c) 2010, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,6 +17,8 @@
 #include <sys/types.h>
 #include <sys/stat.h>
 #include <unistd.h>
+#include <dirent.h>
+#include <fcntl.h>
 #include <errno.h>
 #include <limits.h>
 #include <jni.h>
@@ -35,6 +37,10 @@ static jfieldID attrs_st_size;
 static jfieldID attrs_st_mtime;
 /* The lstat stat field st_mtime_nsec divided by 1 000 000. Only filled on Linux based operating systems. */
 static jfieldID attrs_st_mtime_msec;
+/* The lstat stat field st_mtime_nsec. */
+static jfieldID attrs_st_mtime_nsec;
+/* The lstat stat field st_ino. */
+static jfieldID attrs_st_ino;
 /* Only filled on MACOSX. */
 static jfieldID attrs_st_flags;
 
@@ -51,6 +57,8 @@ JNIEXPORT jint JNICALL Java_org_eclipse_core_internal_filesystem_local_unix_Unix
     attrs_st_mode = (*env)->GetFieldID(env, structStatClass, "st_mode", "I");
     attrs_st_size = (*env)->GetFieldID(env, structStatClass, "st_size", "J");
     attrs_st_mtime = (*env)->GetFieldID(env, structStatClass, "st_mtime", "J");
+    attrs_st_mtime_nsec = (*env)->GetFieldID(env, structStatClass, "st_mtime_nsec", "J");
+    attrs_st_ino = (*env)->GetFieldID(env, structStatClass, "st_ino", "J");
 
 #ifdef MACOSX
     attrs_st_flags = (*env)->GetFieldID(env, structStatClass, "st_flags", "J");
@@ -79,6 +87,18 @@ jbyte* getByteArray(JNIEnv *env, jbyteArray target)
 	return result;
 }
 
+/*
+ * Returns the nanosecond component of the modification time of a struct stat.
+ */
+static jlong mtime_nsec(struct stat *info)
+{
+#ifdef MACOSX
+	return info->st_mtimespec.tv_nsec;
+#else
+	return info->st_mtim.tv_nsec;
+#endif
+}
+
 /*
  * Fills StructStat object with data from struct stat.
  */
@@ -105,6 +125,12 @@ jint convertStatToObject(JNIEnv *env, struct stat info, jobject stat_object)
 	(*env)->SetLongField(env, stat_object, attrs_st_mtime_msec, (info.st_mtim.tv_nsec / (1000 * 1000)));
 #endif
 
+	if (attrs_st_mtime_nsec == 0) return -1;
+	(*env)->SetLongField(env, stat_object, attrs_st_mtime_nsec, mtime_nsec(&info));
+
+	if (attrs_st_ino == 0) return -1;
+	(*env)->SetLongField(env, stat_object, attrs_st_ino, (jlong) info.st_ino);
+
 
 #ifdef MACOSX
 	if (attrs_st_flags == 0) return -1;
@@ -194,6 +220,151 @@ JNIEXPORT jint JNICALL Java_org_eclipse_core_internal_filesystem_local_unix_Unix
 		return code;
 }
 
+/*
+ * A growable buffer for the entries returned by statdir.
+ */
+typedef struct {
+	char *data;
+	size_t length;
+	size_t capacity;
+} statdir_buffer;
+
+/*
+ * Appends the given bytes to the buffer. Returns -1 if the buffer could not be grown.
+ */
+static int statdir_append(statdir_buffer *buffer, const void *data, size_t length)
+{
+	if (buffer->length + length > buffer->capacity) {
+		size_t capacity = buffer->capacity * 2;
+		char *grown;
+		while (capacity < buffer->length + length)
+			capacity *= 2;
+		grown = realloc(buffer->data, capacity);
+		if (grown == NULL)
+			return -1;
+		buffer->data = grown;
+		buffer->capacity = capacity;
+	}
+	memcpy(buffer->data + buffer->length, data, length);
+	buffer->length += length;
+	return 0;
+}
+
+static int statdir_append_int(statdir_buffer *buffer, jint value)
+{
+	return statdir_append(buffer, &value, sizeof(jint));
+}
+
+static int statdir_append_long(statdir_buffer *buffer, jlong value)
+{
+	return statdir_append(buffer, &value, sizeof(jlong));
+}
+
+/*
+ * Class:     org_eclipse_core_internal_filesystem_local_unix_UnixFileNatives
+ * Method:    statdir
+ * Signature: ([B)[B
+ *
+ * Stats all entries of a directory relative to the directory's file descriptor,
+ * following symbolic links like stat, and returns them in a single array in
+ * native byte order. Each entry consists of:
+ *   jint name length, name bytes, jint STATDIR_* flags, jint st_mode,
+ *   jlong st_size, jlong st_mtime, jlong st_mtime_nsec / 1 000 000, jlong st_mtime_nsec,
+ *   jlong st_ino, jlong st_flags,
+ *   jint link target length, link target bytes.
+ * Returns NULL if the directory could not be read.
+ */
+JNIEXPORT jbyteArray JNICALL Java_org_eclipse_core_internal_filesystem_local_unix_UnixFileNatives_statdir
+  (JNIEnv *env, jclass clazz, jbyteArray path)
+{
+	char *name;
+	DIR *dir;
+	int fd;
+	int failed = 0;
+	struct dirent *entry;
+	statdir_buffer buffer;
+	jbyteArray result = NULL;
+
+	name = (char*) getByteArray(env, path);
+	dir = opendir(name);
+	free(name);
+	if (dir == NULL)
+		return NULL;
+	fd = dirfd(dir);
+	buffer.length = 0;
+	buffer.capacity = 64 * 1024;
+	buffer.data = malloc(buffer.capacity);
+	if (buffer.data == NULL) {
+		closedir(dir);
+		return NULL;
+	}
+	while (!failed) {
+		struct stat info;
+		jint flags = 0;
+		jint name_length;
+		jlong mtime_msec = 0;
+		jlong st_flags = 0;
+		ssize_t target_length = 0;
+		char target[PATH_MAX + 1];
+
+		errno = 0;
+		entry = readdir(dir);
+		if (entry == NULL) {
+			failed = errno != 0;
+			break;
+		}
+		if (strcmp(entry->d_name, ".") == 0 || strcmp(entry->d_name, "..") == 0)
+			continue;
+		memset(&info, 0, sizeof(info));
+		if (fstatat(fd, entry->d_name, &info, AT_SYMLINK_NOFOLLOW) == 0) {
+			if (S_ISLNK(info.st_mode)) {
+				flags |= STATDIR_SYMLINK;
+				if (fstatat(fd, entry->d_name, &info, 0) != 0) {
+					flags |= STATDIR_STAT_FAILED;
+					if (errno != ENOENT)
+						flags |= STATDIR_IO_ERROR;
+					memset(&info, 0, sizeof(info));
+				}
+				target_length = readlinkat(fd, entry->d_name, target, PATH_MAX);
+				if (target_length < 0)
+					target_length = 0;
+			}
+		} else {
+			flags |= STATDIR_STAT_FAILED;
+			if (errno != ENOENT)
+				flags |= STATDIR_IO_ERROR;
+			memset(&info, 0, sizeof(info));
+		}
+#ifndef MACOSX
+		mtime_msec = info.st_mtim.tv_nsec / (1000 * 1000);
+#endif
+#ifdef MACOSX
+		st_flags = info.st_flags;
+#endif
+		name_length = strlen(entry->d_name);
+		failed = statdir_append_int(&buffer, name_length)
+			|| statdir_append(&buffer, entry->d_name, name_length)
+			|| statdir_append_int(&buffer, flags)
+			|| statdir_append_int(&buffer, info.st_mode)
+			|| statdir_append_long(&buffer, info.st_size)
+			|| statdir_append_long(&buffer, info.st_mtime)
+			|| statdir_append_long(&buffer, mtime_msec)
+			|| statdir_append_long(&buffer, mtime_nsec(&info))
+			|| statdir_append_long(&buffer, (jlong) info.st_ino)
+			|| statdir_append_long(&buffer, st_flags)
+			|| statdir_append_int(&buffer, (jint) target_length)
+			|| statdir_append(&buffer, target, target_length);
+	}
+	closedir(dir);
+	if (!failed) {
+		result = (*env)->NewByteArray(env, buffer.length);
+		if (result != NULL)
+			(*env)->SetByteArrayRegion(env, result, 0, buffer.length, (jbyte*) buffer.data);
+	}
+	free(buffer.data);
+	return result;
+}
+
 /*
  * Class:     org_eclipse_core_internal_filesystem_local_unix_UnixFileNatives
  * Method:    readlink
@@ -232,6 +403,17 @@ JNIEXPORT jint JNICALL Java_org_eclipse_core_internal_filesystem_local_unix_Unix
 	return errno;
 }
 
+/*
+ * Class:     org_eclipse_core_internal_filesystem_local_unix_UnixFileNatives
+ * Method:    statdirversion
+ * Signature: ()I
+ */
+JNIEXPORT jint JNICALL Java_org_eclipse_core_internal_filesystem_local_unix_UnixFileNatives_statdirversion
+  (JNIEnv *env, jclass clazz)
+{
+	return STATDIR_VERSION;
+}
+
 /*
  * Class:     org_eclipse_core_internal_filesystem_local_unix_UnixFileNatives
  * Method:    libattr
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010 IBM Corporation and others.
+ * Copyright (c) 2010, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -18,6 +18,20 @@
 #undef CHFLAGS_SUPPORTED
 #define CHFLAGS_SUPPORTED 2L
 
+/*
+ * Version of the layout of the entries returned by statdir, mirrored in
+ * UnixFileNatives. Increment it whenever the layout changes, so that Java code
+ * never parses the entries of a library with another layout.
+ *   1: name, flags, st_mode, st_size, st_mtime, milliseconds, st_flags, link target
+ *   2: adds the nanoseconds of st_mtime and st_ino before st_flags
+ */
+#define STATDIR_VERSION 2
+
+/* Flags of the entries returned by statdir, mirrored in UnixFileNatives. */
+#define STATDIR_SYMLINK 1
+#define STATDIR_STAT_FAILED 2
+#define STATDIR_IO_ERROR 4
+
 /*
  * Get a null-terminated byte array from a java byte array. The returned bytearray
  * needs to be freed when not used anymore. Use free(result) to do that.
@@ -79,6 +93,22 @@ JNIEXPORT jint JNICALL Java_org_eclipse_core_internal_filesystem_local_unix_Unix
 JNIEXPORT jint JNICALL Java_org_eclipse_core_internal_filesystem_local_unix_UnixFileNatives_lstat
   (JNIEnv *, jclass, jbyteArray, jobject);
 
+/*
+ * Class:     org_eclipse_core_internal_filesystem_local_unix_UnixFileNatives
+ * Method:    statdir
+ * Signature: ([B)[B
+ */
+JNIEXPORT jbyteArray JNICALL Java_org_eclipse_core_internal_filesystem_local_unix_UnixFileNatives_statdir
+  (JNIEnv *, jclass, jbyteArray);
+
+/*
+ * Class:     org_eclipse_core_internal_filesystem_local_unix_UnixFileNatives
+ * Method:    statdirversion
+ * Signature: ()I
+ */
+JNIEXPORT jint JNICALL Java_org_eclipse_core_internal_filesystem_local_unix_UnixFileNatives_statdirversion
+  (JNIEnv *, jclass);
+
 /*
  * Class:     org_eclipse_core_internal_filesystem_local_unix_UnixFileNatives
  * Method:    readlink
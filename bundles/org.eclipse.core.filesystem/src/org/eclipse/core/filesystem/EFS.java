@@ -16,6 +16,7 @@ package org.eclipse.core.filesystem;
 
 import java.net.URI;
 import org.eclipse.core.filesystem.provider.FileInfo;
+import org.eclipse.core.internal.filesystem.CachingFileSystem;
 import org.eclipse.core.internal.filesystem.InternalFileSystemCore;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -105,6 +106,17 @@ public class EFS {
 	 */
 	public static final int CACHE = 1 << 12;
 
+	/**
+	 * Option flag constant (value 1 &lt;&lt;13) indicating that the children
+	 * of a directory may be copied or deleted concurrently, using a bounded
+	 * number of threads. File systems that do not support this ignore it.
+	 *
+	 * @see IFileStore#copy(IFileStore, int, IProgressMonitor)
+	 * @see IFileStore#delete(int, IProgressMonitor)
+	 * @since 1.10
+	 */
+	public static final int PARALLEL = 1 << 13;
+
 	/**
 	 * Attribute constant (value 1 &lt;&lt;1) indicating that a
 	 * file is read only.
@@ -479,6 +491,48 @@ public class EFS {
 		return InternalFileSystemCore.getInstance().getStore(uri);
 	}
 
+	/**
+	 * Returns a file system that caches the file information and child lists
+	 * of the given file system. This is meant for file systems whose backend is
+	 * slow to query, such as network file systems, and should not be used for
+	 * the local file system.
+	 * <p>
+	 * Cached information is discarded after the given time to live, when it is
+	 * changed through a store of the returned file system, and when
+	 * {@link #invalidateCache(URI)} is called for its location. Other changes
+	 * are not seen until the information expires.
+	 * </p>
+	 * <p>
+	 * A file system contributed to the <code>filesystems</code> extension point
+	 * is cached this way if its extension specifies a <code>cacheTimeToLive</code>.
+	 * </p>
+	 *
+	 * @param fileSystem the file system to cache
+	 * @param timeToLive the time in milliseconds for which information is cached
+	 * @return a caching file system with the same scheme as the given one
+	 * @see #invalidateCache(URI)
+	 * @since 1.10
+	 */
+	public static IFileSystem getCachingFileSystem(IFileSystem fileSystem, long timeToLive) {
+		if (fileSystem instanceof CachingFileSystem)
+			fileSystem = ((CachingFileSystem) fileSystem).getDelegate();
+		return new CachingFileSystem(fileSystem, timeToLive);
+	}
+
+	/**
+	 * Discards the information that caching file systems hold for the given
+	 * location and everything below it. Clients that are notified of changes
+	 * by the backend of a file system should call this method, so the changes
+	 * are seen before the cached information expires.
+	 *
+	 * @param location the location whose information is no longer valid
+	 * @see #getCachingFileSystem(IFileSystem, long)
+	 * @since 1.10
+	 */
+	public static void invalidateCache(URI location) {
+		CachingFileSystem.invalidateAll(location);
+	}
+
 	/**
 	 * This class is not intended to be instantiated.
 	 */
@@ -85,6 +85,24 @@ public interface IFileInfo extends Comparable<IFileInfo>, Cloneable {
 	 */
 	public String getStringAttribute(int attribute);
 
+	/**
+	 * Returns a fingerprint of the state of this file, or {@link EFS#NONE} if
+	 * the file system cannot provide one. The fingerprint complements the last
+	 * modified time: it changes when the file is rewritten or replaced within
+	 * the resolution of the last modified time, or when its length changes.
+	 * <p>
+	 * Fingerprints are opaque values that may only be compared for equality with
+	 * other fingerprints of the same file. A file whose fingerprint has not
+	 * changed may still have changed if the file system cannot detect it.
+	 * </p>
+	 *
+	 * @return the fingerprint of this file, or {@link EFS#NONE}
+	 * @since 1.10
+	 */
+	public default long getFingerprint() {
+		return EFS.NONE;
+	}
+
 	/**
 	 * Returns the last modified time for this file, or {@link EFS#NONE}
 	 * if the file does not exist or the last modified time could not be computed.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 IBM Corporation and others.
+ * Copyright (c) 2005, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,12 +15,15 @@
 ******************************************************************************/
 package org.eclipse.core.filesystem;
 
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.*;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import org.eclipse.core.filesystem.provider.FileStore;
 import org.eclipse.core.internal.filesystem.FileStoreUtil;
+import org.eclipse.core.internal.filesystem.Messages;
+import org.eclipse.core.internal.filesystem.Policy;
 import org.eclipse.core.runtime.*;
+import org.eclipse.osgi.util.NLS;
 
 /**
  * A file store is responsible for storage and retrieval of a single file in some file system.
@@ -133,10 +136,14 @@ public interface IFileStore extends IAdaptable {
 	 * deferred. Part of the copy task may be executed without rollback until
 	 * the exception occurs. The order of copy operations is not specified.
 	 * </p>
+	 * <p>
+	 * The {@link EFS#PARALLEL} option flag allows file systems that support it
+	 * to copy the children of a directory concurrently.
+	 * </p>
 	 *
 	 * @param destination The destination of the copy.
 	 * @param options bit-wise or of option flag constants (
-	 * {@link EFS#OVERWRITE} or {@link EFS#SHALLOW}).
+	 * {@link EFS#OVERWRITE}, {@link EFS#SHALLOW} or {@link EFS#PARALLEL}).
 	 * @param monitor a progress monitor, or <code>null</code> if progress
 	 *    reporting and cancellation are not desired
 	 * @exception CoreException if this method fails. Reasons include:
@@ -164,9 +171,14 @@ public interface IFileStore extends IAdaptable {
 	 * Deletion of a file with attribute {@link EFS#ATTRIBUTE_SYMLINK} will always
 	 * delete the link, rather than the target of the link.
 	 * </p>
+	 * <p>
+	 * The {@link EFS#PARALLEL} option flag allows file systems that support it
+	 * to delete the children of a directory concurrently. The problems reported
+	 * are the same as without this flag.
+	 * </p>
 	 *
-	 * @param options bit-wise or of option flag constants (currently only {@link EFS#NONE}
-	 * is applicable).
+	 * @param options bit-wise or of option flag constants ({@link EFS#NONE}
+	 * or {@link EFS#PARALLEL}).
 	 * @param monitor a progress monitor, or <code>null</code> if progress
 	 *    reporting and cancellation are not desired
 	 * @exception CoreException if this method fails. Reasons include:
@@ -504,6 +516,42 @@ public interface IFileStore extends IAdaptable {
 	 */
 	public void putInfo(IFileInfo info, int options, IProgressMonitor monitor) throws CoreException;
 
+	/**
+	 * Returns a read-only buffer with the contents of this file.
+	 * <p>
+	 * Files in the local file system are memory-mapped, so the returned buffer
+	 * reads the file on demand without copying it to the heap. Other file
+	 * stores read their contents into a heap buffer. Like the contents read from
+	 * an input stream, the returned buffer may or may not reflect changes to the
+	 * file that are made after this call. On some platforms, a memory-mapped
+	 * file cannot be deleted or overwritten until the returned buffer has been
+	 * garbage collected.
+	 * </p>
+	 *
+	 * @param options bit-wise or of option flag constants (currently only {@link EFS#NONE}
+	 * is applicable).
+	 * @param monitor a progress monitor, or <code>null</code> if progress
+	 *    reporting and cancellation are not desired
+	 * @return A read-only buffer with the contents of this file.
+	 * @exception CoreException if this method fails. The status code associated with exception
+	 *     reflects the cause of the failure. Reasons include:
+	 * <ul>
+	 * <li>{@link EFS#ERROR_NOT_EXISTS} - This store does not exist.</li>
+	 * <li>{@link EFS#ERROR_WRONG_TYPE} - This store represents a directory.</li>
+	 * <li>{@link EFS#ERROR_READ} - The contents could not be read, or do not fit in a buffer.</li>
+	 * </ul>
+	 * @see #openInputStream(int, IProgressMonitor)
+	 * @since org.eclipse.core.filesystem 1.10
+	 */
+	public default ByteBuffer readBuffer(int options, IProgressMonitor monitor) throws CoreException {
+		try (InputStream in = openInputStream(options, monitor)) {
+			return ByteBuffer.wrap(in.readAllBytes()).asReadOnlyBuffer();
+		} catch (IOException e) {
+			Policy.error(EFS.ERROR_READ, NLS.bind(Messages.couldNotRead, toString()), e);
+			return null; // can't get here
+		}
+	}
+
 	/**
 	 * Returns a file in the local file system with the same state as this file.
 	 * <p>
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 IBM Corporation and others.
+ * Copyright (c) 2005, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -43,6 +43,11 @@ public class FileInfo implements IFileInfo {
 
 	private int errorCode = NONE;
 
+	/**
+	 * The fingerprint of the file state.
+	 */
+	private long fingerprint = EFS.NONE;
+
 	/**
 	 * The last modified time.
 	 */
@@ -138,6 +143,14 @@ public class FileInfo implements IFileInfo {
 		return null;
 	}
 
+	/**
+	 * @since 1.10
+	 */
+	@Override
+	public long getFingerprint() {
+		return fingerprint;
+	}
+
 	@Override
 	public long getLastModified() {
 		return lastModified;
@@ -230,6 +243,18 @@ public class FileInfo implements IFileInfo {
 		this.errorCode = errorCode;
 	}
 
+	/**
+	 * Sets the fingerprint of the state of this file. A value of {@link EFS#NONE}
+	 * indicates that the file system cannot provide one.
+	 *
+	 * @param value the fingerprint of this file, or {@link EFS#NONE}
+	 * @see IFileInfo#getFingerprint()
+	 * @since 1.10
+	 */
+	public void setFingerprint(long value) {
+		this.fingerprint = value;
+	}
+
 	@Override
 	public void setLastModified(long value) {
 		lastModified = value;
@@ -0,0 +1,244 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.filesystem;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import org.eclipse.core.filesystem.*;
+import org.eclipse.core.filesystem.provider.FileStore;
+import org.eclipse.core.runtime.*;
+
+/**
+ * A store of a {@link CachingFileSystem}. Information is fetched from the
+ * store of the delegate file system on a cache miss, and all changes made
+ * through this store discard the information they affect.
+ */
+public class CachingFileStore extends FileStore {
+	private final IFileStore delegate;
+	private final CachingFileSystem fileSystem;
+	private String key;
+
+	/**
+	 * Returns the store of the delegate file system for the given store.
+	 */
+	private static IFileStore unwrap(IFileStore store) {
+		return store instanceof CachingFileStore ? ((CachingFileStore) store).delegate : store;
+	}
+
+	CachingFileStore(CachingFileSystem fileSystem, IFileStore delegate) {
+		this.fileSystem = fileSystem;
+		this.delegate = delegate;
+	}
+
+	@Override
+	public IFileInfo[] childInfos(int options, IProgressMonitor monitor) throws CoreException {
+		IFileInfo[] infos = fileSystem.getCachedChildInfos(getKey());
+		if (infos == null) {
+			infos = delegate.childInfos(options, monitor);
+			fileSystem.putChildInfos(getKey(), infos);
+		}
+		return infos;
+	}
+
+	@Override
+	public String[] childNames(int options, IProgressMonitor monitor) throws CoreException {
+		IFileInfo[] infos = fileSystem.getCachedChildInfos(getKey());
+		if (infos == null)
+			return delegate.childNames(options, monitor);
+		String[] names = new String[infos.length];
+		for (int i = 0; i < infos.length; i++)
+			names[i] = infos[i].getName();
+		return names;
+	}
+
+	@Override
+	public IFileStore[] childStores(int options, IProgressMonitor monitor) throws CoreException {
+		IFileStore[] stores = delegate.childStores(options, monitor);
+		for (int i = 0; i < stores.length; i++)
+			stores[i] = fileSystem.wrap(stores[i]);
+		return stores;
+	}
+
+	@Override
+	public void copy(IFileStore destination, int options, IProgressMonitor monitor) throws CoreException {
+		try {
+			delegate.copy(unwrap(destination), options, monitor);
+		} finally {
+			invalidate(destination, true);
+		}
+	}
+
+	@Override
+	public void delete(int options, IProgressMonitor monitor) throws CoreException {
+		try {
+			delegate.delete(options, monitor);
+		} finally {
+			invalidate(this, true);
+		}
+	}
+
+	@Override
+	public IFileInfo fetchInfo(int options, IProgressMonitor monitor) throws CoreException {
+		IFileInfo info = fileSystem.getCachedInfo(getKey());
+		if (info == null) {
+			info = delegate.fetchInfo(options, monitor);
+			fileSystem.putInfo(getKey(), info);
+		}
+		return info;
+	}
+
+	@Override
+	public <T> T getAdapter(Class<T> adapter) {
+		T result = super.getAdapter(adapter);
+		return result != null ? result : delegate.getAdapter(adapter);
+	}
+
+	@Deprecated
+	@Override
+	public IFileStore getChild(IPath path) {
+		return fileSystem.wrap(delegate.getChild(path));
+	}
+
+	@Override
+	public IFileStore getChild(String name) {
+		return fileSystem.wrap(delegate.getChild(name));
+	}
+
+	/**
+	 * Returns the store of the file system whose information is cached.
+	 */
+	public IFileStore getDelegate() {
+		return delegate;
+	}
+
+	@Override
+	public IFileStore getFileStore(IPath path) {
+		return fileSystem.wrap(delegate.getFileStore(path));
+	}
+
+	@Override
+	public IFileSystem getFileSystem() {
+		return fileSystem;
+	}
+
+	private String getKey() {
+		if (key == null)
+			key = CachingFileSystem.keyOf(delegate.toURI());
+		return key;
+	}
+
+	@Override
+	public String getName() {
+		return delegate.getName();
+	}
+
+	@Override
+	public IFileStore getParent() {
+		IFileStore parent = delegate.getParent();
+		return parent == null ? null : fileSystem.wrap(parent);
+	}
+
+	/**
+	 * Discards the cached information of the given store, if it is a store of a
+	 * caching file system.
+	 */
+	private void invalidate(IFileStore store, boolean deep) {
+		if (store instanceof CachingFileStore) {
+			CachingFileStore target = (CachingFileStore) store;
+			target.fileSystem.invalidate(target.delegate.toURI(), deep);
+		}
+	}
+
+	@Override
+	public boolean isParentOf(IFileStore other) {
+		return delegate.isParentOf(unwrap(other));
+	}
+
+	@Override
+	public IFileStore mkdir(int options, IProgressMonitor monitor) throws CoreException {
+		try {
+			delegate.mkdir(options, monitor);
+		} finally {
+			invalidate(this, false);
+			if ((options & EFS.SHALLOW) == 0) {
+				// missing ancestors may have been created as well
+				for (IFileStore parent = getParent(); parent != null; parent = parent.getParent())
+					invalidate(parent, false);
+			}
+		}
+		return this;
+	}
+
+	@Override
+	public void move(IFileStore destination, int options, IProgressMonitor monitor) throws CoreException {
+		try {
+			delegate.move(unwrap(destination), options, monitor);
+		} finally {
+			invalidate(this, true);
+			invalidate(destination, true);
+		}
+	}
+
+	@Override
+	public InputStream openInputStream(int options, IProgressMonitor monitor) throws CoreException {
+		return delegate.openInputStream(options, monitor);
+	}
+
+	@Override
+	public OutputStream openOutputStream(int options, IProgressMonitor monitor) throws CoreException {
+		invalidate(this, false);
+		OutputStream out = delegate.openOutputStream(options, monitor);
+		return new FilterOutputStream(out) {
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				out.write(b, off, len);
+			}
+
+			@Override
+			public void close() throws IOException {
+				try {
+					super.close();
+				} finally {
+					// the length and time stamp change with the contents
+					invalidate(CachingFileStore.this, false);
+				}
+			}
+		};
+	}
+
+	@Override
+	public void putInfo(IFileInfo info, int options, IProgressMonitor monitor) throws CoreException {
+		try {
+			delegate.putInfo(info, options, monitor);
+		} finally {
+			invalidate(this, false);
+		}
+	}
+
+	@Override
+	public ByteBuffer readBuffer(int options, IProgressMonitor monitor) throws CoreException {
+		return delegate.readBuffer(options, monitor);
+	}
+
+	@Override
+	public File toLocalFile(int options, IProgressMonitor monitor) throws CoreException {
+		return delegate.toLocalFile(options, monitor);
+	}
+
+	@Override
+	public URI toURI() {
+		return delegate.toURI();
+	}
+}
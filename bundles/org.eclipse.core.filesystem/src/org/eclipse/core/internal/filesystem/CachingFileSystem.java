@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.filesystem;
+
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.core.filesystem.*;
+import org.eclipse.core.filesystem.provider.FileInfo;
+import org.eclipse.core.filesystem.provider.FileSystem;
+import org.eclipse.core.runtime.IPath;
+
+/**
+ * A file system that caches the file information and child lists of another
+ * file system, as returned by {@link EFS#getCachingFileSystem(IFileSystem, long)}.
+ * <p>
+ * Cached information expires after the time to live of the file system. It is
+ * also discarded when it is changed through a store of this file system, and
+ * when {@link EFS#invalidateCache(URI)} is called for a location, for example
+ * because a change was reported by the file system's backend.
+ * </p>
+ * <p>
+ * Callers may modify the information they get, so copies of the cached
+ * information are returned.
+ * </p>
+ */
+public class CachingFileSystem extends FileSystem {
+	/**
+	 * A cached value and the time at which it expires.
+	 */
+	private static final class Entry<T> {
+		final long expiry;
+		final T value;
+
+		Entry(T value, long expiry) {
+			this.value = value;
+			this.expiry = expiry;
+		}
+	}
+
+	/**
+	 * All caching file systems, so {@link EFS#invalidateCache(URI)} reaches them.
+	 */
+	private static final Set<CachingFileSystem> instances = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+	private final Map<String, Entry<IFileInfo[]>> children = new ConcurrentHashMap<>();
+	private final IFileSystem delegate;
+	private final Map<String, Entry<IFileInfo>> infos = new ConcurrentHashMap<>();
+	private final long timeToLive;
+
+	/**
+	 * Discards the cached information of the given location and everything
+	 * below it in all caching file systems.
+	 */
+	public static void invalidateAll(URI location) {
+		CachingFileSystem[] all;
+		synchronized (instances) {
+			all = instances.toArray(new CachingFileSystem[instances.size()]);
+		}
+		for (CachingFileSystem fileSystem : all)
+			if (fileSystem.getScheme().equals(location.getScheme()))
+				fileSystem.invalidate(location, true);
+	}
+
+	/**
+	 * Returns the key of the given location, which is the same for all URIs of
+	 * a location, with or without trailing separator. Keys are not encoded, so
+	 * the key of a child is the key of its parent, a separator and its name.
+	 */
+	static String keyOf(URI location) {
+		String authority = location.getAuthority();
+		String key = location.getScheme() + "://" + (authority == null ? "" : authority) + location.getPath(); //$NON-NLS-1$ //$NON-NLS-2$
+		if (key.endsWith("/")) //$NON-NLS-1$
+			key = key.substring(0, key.length() - 1);
+		return key;
+	}
+
+	private static IFileInfo copy(IFileInfo info) {
+		return info instanceof FileInfo ? (IFileInfo) ((FileInfo) info).clone() : info;
+	}
+
+	public CachingFileSystem(IFileSystem delegate, long timeToLive) {
+		this.delegate = delegate;
+		this.timeToLive = timeToLive;
+		initialize(delegate.getScheme());
+		instances.add(this);
+	}
+
+	@Override
+	public int attributes() {
+		return delegate.attributes();
+	}
+
+	@Override
+	public boolean canDelete() {
+		return delegate.canDelete();
+	}
+
+	@Override
+	public boolean canWrite() {
+		return delegate.canWrite();
+	}
+
+	/**
+	 * Returns copies of the cached child information of the directory with the
+	 * given key, or <code>null</code> if none is cached.
+	 */
+	IFileInfo[] getCachedChildInfos(String key) {
+		Entry<IFileInfo[]> entry = children.get(key);
+		if (entry == null)
+			return null;
+		if (entry.expiry < System.currentTimeMillis()) {
+			children.remove(key, entry);
+			return null;
+		}
+		IFileInfo[] result = new IFileInfo[entry.value.length];
+		for (int i = 0; i < result.length; i++)
+			result[i] = copy(entry.value[i]);
+		return result;
+	}
+
+	/**
+	 * Returns a copy of the cached information of the store with the given key,
+	 * or <code>null</code> if none is cached.
+	 */
+	IFileInfo getCachedInfo(String key) {
+		Entry<IFileInfo> entry = infos.get(key);
+		if (entry == null)
+			return null;
+		if (entry.expiry < System.currentTimeMillis()) {
+			infos.remove(key, entry);
+			return null;
+		}
+		return copy(entry.value);
+	}
+
+	/**
+	 * Returns the file system whose information is cached.
+	 */
+	public IFileSystem getDelegate() {
+		return delegate;
+	}
+
+	@Override
+	public IFileStore getStore(IPath path) {
+		return wrap(delegate.getStore(path));
+	}
+
+	@Override
+	public IFileStore getStore(URI uri) {
+		return wrap(delegate.getStore(uri));
+	}
+
+	@Override
+	public IFileStore fromLocalFile(java.io.File file) {
+		IFileStore store = delegate.fromLocalFile(file);
+		return store == null ? null : wrap(store);
+	}
+
+	/**
+	 * Discards the cached information of the given location, and the cached
+	 * child list of its parent. If <code>deep</code> is true, the information
+	 * of everything below the location is discarded as well.
+	 */
+	void invalidate(URI location, boolean deep) {
+		String key = keyOf(location);
+		infos.remove(key);
+		children.remove(key);
+		int separator = key.lastIndexOf('/');
+		if (separator > 0)
+			children.remove(key.substring(0, separator));
+		if (deep) {
+			String prefix = key + '/';
+			infos.keySet().removeIf(k -> k.startsWith(prefix));
+			children.keySet().removeIf(k -> k.startsWith(prefix));
+		}
+	}
+
+	@Override
+	public boolean isCaseSensitive() {
+		return delegate.isCaseSensitive();
+	}
+
+	/**
+	 * Caches the given child information of the directory with the given key,
+	 * and the information of each child.
+	 */
+	void putChildInfos(String key, IFileInfo[] childInfos) {
+		long expiry = System.currentTimeMillis() + timeToLive;
+		IFileInfo[] cached = new IFileInfo[childInfos.length];
+		for (int i = 0; i < cached.length; i++) {
+			cached[i] = copy(childInfos[i]);
+			infos.put(key + '/' + cached[i].getName(), new Entry<>(cached[i], expiry));
+		}
+		children.put(key, new Entry<>(cached, expiry));
+	}
+
+	/**
+	 * Caches the given information of the store with the given key.
+	 */
+	void putInfo(String key, IFileInfo info) {
+		infos.put(key, new Entry<>(copy(info), System.currentTimeMillis() + timeToLive));
+	}
+
+	/**
+	 * Returns a store of this file system for the given store of the delegate.
+	 */
+	IFileStore wrap(IFileStore store) {
+		if (store instanceof CachingFileStore || !getScheme().equals(store.getFileSystem().getScheme()))
+			return store;
+		return new CachingFileStore(this, store);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 IBM Corporation and others.
+ * Copyright (c) 2005, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,9 @@ package org.eclipse.core.internal.filesystem;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.*;
 import org.eclipse.core.filesystem.*;
 import org.eclipse.core.filesystem.provider.FileStore;
 import org.eclipse.core.internal.filesystem.local.LocalFile;
@@ -25,10 +28,67 @@ import org.eclipse.osgi.util.NLS;
 /**
  * An instance of this class represents a directory on disk where cached
  * files can be stored. Files in the cache expire on VM exit.
+ * <p>
+ * The cached copy of a file is reused as long as the time stamp and length of
+ * the file, and of the copy itself, are unchanged. The total size of the
+ * reused copies is bounded, and the least recently used copies are no longer
+ * reused when it is exceeded. Concurrent requests for the same file wait for
+ * a single copy to be made.
+ * </p>
+ * <p>
+ * The bound only limits which copies are reused, not the disk space of the
+ * cache. A copy that was returned by {@link #cache(IFileStore, IProgressMonitor)}
+ * is never deleted before the end of the session, even if it is no longer
+ * reused, because its callers may still be using it. Every copy is returned
+ * to the request that made it, so copies that are no longer reused stay on
+ * disk until the session ends, as all copies did before they were reused.
+ * </p>
  */
 public class FileCache {
 	private static final String CACHE_DIR_NAME = "filecache";//$NON-NLS-1$
 
+	/**
+	 * The default maximum total size in bytes of the reused copies, which can be
+	 * changed with the system property {@value #MAX_REUSED_SIZE_PROPERTY}. It
+	 * does not limit the disk space of the cache.
+	 */
+	private static final long DEFAULT_MAX_REUSED_SIZE = 1024L * 1024 * 1024;
+
+	private static final String MAX_REUSED_SIZE_PROPERTY = "eclipse.filesystem.fileCache.maxReusedSize"; //$NON-NLS-1$
+
+	/**
+	 * How often, in milliseconds, a request waiting for the copy made by another
+	 * request checks for cancelation.
+	 */
+	private static final long WAIT_INTERVAL = 100;
+
+	/**
+	 * A reused copy of a file.
+	 */
+	private static final class Entry {
+		final File file;
+		final long fileLastModified;
+		final long lastModified;
+		final long length;
+		final long sourceLength;
+
+		Entry(File file, IFileInfo sourceInfo) {
+			this.file = file;
+			this.fileLastModified = file.lastModified();
+			this.length = file.length();
+			this.lastModified = sourceInfo.getLastModified();
+			this.sourceLength = sourceInfo.getLength();
+		}
+
+		/**
+		 * Returns whether this copy still has the state of the file with the
+		 * given information, and has not been changed since it was made.
+		 */
+		boolean isValid(IFileInfo sourceInfo) {
+			return lastModified == sourceInfo.getLastModified() && sourceLength == sourceInfo.getLength() && file.isFile() && file.length() == length && file.lastModified() == fileLastModified;
+		}
+	}
+
 	/**
 	 * Cached constant indicating if the current OS is Mac OSX
 	 */
@@ -54,6 +114,25 @@ public class FileCache {
 
 	private File cacheDir;
 
+	/**
+	 * The reused copies by location of their file, least recently used first.
+	 * Guarded by this cache.
+	 */
+	private final LinkedHashMap<URI, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long maxReusedSize = Long.getLong(MAX_REUSED_SIZE_PROPERTY, DEFAULT_MAX_REUSED_SIZE).longValue();
+
+	/**
+	 * The total size of the reused copies. Guarded by this cache.
+	 */
+	private long reusedSize;
+
+	/**
+	 * The copies that are being made, by location and state of their file.
+	 * Guarded by this cache.
+	 */
+	private final Map<String, CompletableFuture<File>> transfers = new HashMap<>();
+
 	/**
 	 * Public accessor to obtain the singleton file cache instance,
 	 * creating the cache lazily if necessary.
@@ -95,6 +174,9 @@ public class FileCache {
 			IFileInfo myInfo = source.fetchInfo(EFS.NONE, subMonitor.newChild(1));
 			if (!myInfo.exists())
 				return new File(cacheDir, "Non-Existent-" + System.currentTimeMillis()); //$NON-NLS-1$
+			// without a time stamp a copy cannot be validated, so it is not reused
+			if (!myInfo.isDirectory() && myInfo.getLastModified() != EFS.NONE)
+				return cacheFile(source, myInfo, subMonitor.newChild(2));
 			File result;
 			if (myInfo.isDirectory()) {
 				result = getUniqueDirectory(cacheDir, false);
@@ -112,6 +194,142 @@ public class FileCache {
 		}
 	}
 
+	/**
+	 * Returns a copy of the given file with the given information, reusing a
+	 * previous copy if it is still valid, or waiting for a copy that is being
+	 * made by another request.
+	 */
+	private File cacheFile(IFileStore source, IFileInfo info, IProgressMonitor monitor) throws CoreException {
+		URI location = source.toURI();
+		String key = location + "@" + info.getLastModified() + ':' + info.getLength(); //$NON-NLS-1$
+		while (true) {
+			CompletableFuture<File> transfer;
+			boolean owner = false;
+			synchronized (this) {
+				Entry entry = entries.get(location);
+				if (entry != null) {
+					if (entry.isValid(info))
+						return entry.file;
+					remove(location);
+				}
+				transfer = transfers.get(key);
+				if (transfer == null) {
+					transfer = new CompletableFuture<>();
+					transfers.put(key, transfer);
+					owner = true;
+				}
+			}
+			if (owner)
+				return transfer(source, info, key, transfer, monitor);
+			File result = await(transfer, monitor);
+			if (result != null)
+				return result;
+			// the other request was canceled, try again
+		}
+	}
+
+	/**
+	 * Waits for a copy made by another request. Returns <code>null</code> if
+	 * that request failed for a reason other than a problem with the file.
+	 */
+	private File await(CompletableFuture<File> transfer, IProgressMonitor monitor) throws CoreException {
+		while (true) {
+			if (monitor != null && monitor.isCanceled())
+				throw new OperationCanceledException();
+			try {
+				return transfer.get(WAIT_INTERVAL, TimeUnit.MILLISECONDS);
+			} catch (TimeoutException e) {
+				// still copying
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new OperationCanceledException();
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof CoreException)
+					throw (CoreException) e.getCause();
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Copies the given file, adds the copy to the reused copies, and
+	 * completes the given transfer with it.
+	 */
+	private File transfer(IFileStore source, IFileInfo info, String key, CompletableFuture<File> transfer, IProgressMonitor monitor) throws CoreException {
+		File result = null;
+		try {
+			try {
+				result = File.createTempFile(source.getFileSystem().getScheme(), "efs", cacheDir); //$NON-NLS-1$
+			} catch (IOException e) {
+				Policy.error(EFS.ERROR_WRITE, NLS.bind(Messages.couldNotWrite, toString()));
+			}
+			source.copy(new LocalFile(result), EFS.OVERWRITE, monitor);
+			result.deleteOnExit();
+			synchronized (this) {
+				transfers.remove(key);
+				put(source.toURI(), new Entry(result, info));
+			}
+			transfer.complete(result);
+			return result;
+		} catch (CoreException | RuntimeException | Error e) {
+			synchronized (this) {
+				transfers.remove(key);
+			}
+			if (result != null)
+				result.delete();
+			transfer.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the maximum total size in bytes of the reused copies. Copies that
+	 * are no longer reused still use disk space until the end of the session.
+	 */
+	public synchronized long getMaxReusedSize() {
+		return maxReusedSize;
+	}
+
+	/**
+	 * Returns the total size in bytes of the reused copies.
+	 */
+	public synchronized long getReusedSize() {
+		return reusedSize;
+	}
+
+	/**
+	 * Sets the maximum total size in bytes of the reused copies, and stops
+	 * reusing the least recently used copies that exceed it. The most recently
+	 * used copy is kept even if it exceeds the maximum on its own. Copies that
+	 * are no longer reused are still deleted at the end of the session only.
+	 */
+	public synchronized void setMaxReusedSize(long maxReusedSize) {
+		this.maxReusedSize = maxReusedSize;
+		evict();
+	}
+
+	private void evict() {
+		Iterator<Entry> iterator = entries.values().iterator();
+		while (reusedSize > maxReusedSize && entries.size() > 1) {
+			Entry entry = iterator.next();
+			iterator.remove();
+			reusedSize -= entry.length;
+		}
+	}
+
+	private void put(URI location, Entry entry) {
+		remove(location);
+		entries.put(location, entry);
+		reusedSize += entry.length;
+		evict();
+	}
+
+	private void remove(URI location) {
+		Entry entry = entries.remove(location);
+		if (entry != null)
+			reusedSize -= entry.length;
+	}
+
 	/**
 	 * Performs initial cleanup of any old cached state left over from previous
 	 * sessions.
@@ -72,9 +72,13 @@ public class InternalFileSystemCore implements IRegistryChangeListener {
 			IConfigurationElement element = (IConfigurationElement) result;
 			FileSystem fs = (FileSystem) element.createExecutableExtension("run"); //$NON-NLS-1$
 			fs.initialize(scheme);
+			IFileSystem fileSystem = fs;
+			long timeToLive = getCacheTimeToLive(element);
+			if (timeToLive > 0)
+				fileSystem = new CachingFileSystem(fs, timeToLive);
 			//store the file system instance so we don't have to keep recreating it
-			registry.put(scheme, fs);
-			return fs;
+			registry.put(scheme, fileSystem);
+			return fileSystem;
 		} catch (CoreException e) {
 			//remove this invalid file system from the registry
 			registry.remove(scheme);
@@ -82,6 +86,22 @@ public class InternalFileSystemCore implements IRegistryChangeListener {
 		}
 	}
 
+	/**
+	 * Returns the time to live of cached information specified by the given
+	 * file system extension, or <code>0</code> if its information is not cached.
+	 */
+	private long getCacheTimeToLive(IConfigurationElement element) {
+		String value = element.getAttribute("cacheTimeToLive"); //$NON-NLS-1$
+		if (value == null)
+			return 0;
+		try {
+			return Long.parseLong(value.trim());
+		} catch (NumberFormatException e) {
+			Policy.log(IStatus.WARNING, NLS.bind(Messages.invalidCacheTimeToLive, value, element.getAttribute("scheme")), e); //$NON-NLS-1$
+			return 0;
+		}
+	}
+
 	/**
 	 * Implements the method {@link EFS#getLocalFileSystem()}
 	 *
@@ -36,6 +36,7 @@ public class Messages extends NLS {
 	public static String failedReadDuringWrite;
 	public static String fileExists;
 	public static String fileNotFound;
+	public static String invalidCacheTimeToLive;
 	public static String moving;
 	public static String noFileSystem;
 	public static String noImplDelete;
@@ -20,6 +20,8 @@ package org.eclipse.core.internal.filesystem.local;
 
 import java.io.*;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.*;
 import org.eclipse.core.filesystem.*;
 import org.eclipse.core.filesystem.URIUtil;
@@ -35,6 +37,18 @@ import org.eclipse.osgi.util.NLS;
  * operating system's file system.
  */
 public class LocalFile extends FileStore {
+	/**
+	 * The number of bytes copied by one call to {@link FileChannel#transferTo}.
+	 * Progress is reported and cancellation is checked between these chunks.
+	 */
+	private static final long TRANSFER_CHUNK = 8 * 1024 * 1024;
+
+	/**
+	 * Files smaller than this are read into a heap buffer by {@link #readBuffer},
+	 * since mapping them costs more than reading them.
+	 */
+	private static final long MAP_THRESHOLD = 64 * 1024;
+
 	/**
 	 * The java.io.File that this store represents.
 	 */
@@ -98,6 +112,15 @@ public class LocalFile extends FileStore {
 		}
 	}
 
+	@Override
+	public IFileInfo[] childInfos(int options, IProgressMonitor monitor) throws CoreException {
+		// fetch the information of all children at once if the natives support it
+		IFileInfo[] infos = LocalFileNativesManager.fetchChildInfos(filePath);
+		if (infos != null)
+			return infos;
+		return super.childInfos(options, monitor);
+	}
+
 	@Override
 	public String[] childNames(int options, IProgressMonitor monitor) {
 		String[] names = file.list();
@@ -126,6 +149,77 @@ public class LocalFile extends FileStore {
 		super.copy(destFile, options, monitor);
 	}
 
+	/**
+	 * Copies the children of a directory to another local directory in parallel
+	 * if {@link EFS#PARALLEL} is specified.
+	 */
+	@Override
+	protected void copyDirectory(IFileInfo sourceInfo, IFileStore destination, int options, IProgressMonitor monitor) throws CoreException {
+		if ((options & EFS.PARALLEL) == 0 || (options & EFS.SHALLOW) != 0 || !(destination instanceof LocalFile)) {
+			super.copyDirectory(sourceInfo, destination, options & ~EFS.PARALLEL, monitor);
+			return;
+		}
+		new ParallelFileOperation(monitor).copyDirectory(this, sourceInfo, destination, options & ~EFS.PARALLEL);
+	}
+
+	/**
+	 * Copies the contents of this file to another local file with
+	 * {@link FileChannel#transferTo}, so the operating system can copy the
+	 * bytes directly (for example with copy_file_range or sendfile on Linux)
+	 * instead of passing them through a Java buffer. The attributes are still
+	 * transferred with {@link IFileStore#putInfo}. Copies to other file
+	 * systems use the stream based implementation.
+	 */
+	@Override
+	protected void copyFile(IFileInfo sourceInfo, IFileStore destFile, int options, IProgressMonitor monitor) throws CoreException {
+		if (!(destFile instanceof LocalFile)) {
+			super.copyFile(sourceInfo, destFile, options, monitor);
+			return;
+		}
+		if ((options & EFS.OVERWRITE) == 0 && destFile.fetchInfo().exists())
+			Policy.error(EFS.ERROR_EXISTS, NLS.bind(Messages.fileExists, destFile));
+		long length = sourceInfo.getLength();
+		SubMonitor subMonitor = SubMonitor.convert(monitor, NLS.bind(Messages.copying, filePath), 2 + (int) (length / TRANSFER_CHUNK));
+		// the streams report problems opening either file the same way as the stream based copy
+		InputStream in = openInputStream(EFS.NONE, subMonitor.newChild(1));
+		OutputStream out = null;
+		// whether all bytes were copied, after which the copy is kept like the stream based copy does
+		boolean copied = false;
+		try {
+			out = destFile.openOutputStream(EFS.NONE, subMonitor.newChild(1));
+			FileChannel source = ((FileInputStream) in).getChannel();
+			FileChannel destination = ((FileOutputStream) out).getChannel();
+			long size = source.size();
+			long position = 0;
+			while (position < size) {
+				long transferred = source.transferTo(position, Math.min(TRANSFER_CHUNK, size - position), destination);
+				// the source was truncated while copying
+				if (transferred <= 0)
+					throw new IOException(NLS.bind(Messages.couldNotRead, filePath));
+				position += transferred;
+				subMonitor.split(1);
+			}
+			in.close();
+			out.close();
+			copied = true;
+			destFile.putInfo(sourceInfo, EFS.SET_ATTRIBUTES | EFS.SET_LAST_MODIFIED, null);
+		} catch (IOException e) {
+			Policy.safeClose(in);
+			Policy.safeClose(out);
+			if (!copied)
+				destFile.delete(EFS.NONE, null);
+			String message = NLS.bind(Messages.couldNotWrite, ((LocalFile) destFile).filePath);
+			Policy.error(EFS.ERROR_WRITE, message, e);
+		} catch (CoreException | RuntimeException e) {
+			Policy.safeClose(in);
+			Policy.safeClose(out);
+			//if we failed to write, try to cleanup the half written file
+			if (out != null && !copied)
+				destFile.delete(EFS.NONE, null);
+			throw e;
+		}
+	}
+
 	@Override
 	public void delete(int options, IProgressMonitor monitor) throws CoreException {
 		if (monitor == null)
@@ -136,7 +230,10 @@ public class LocalFile extends FileStore {
 			monitor.beginTask(NLS.bind(Messages.deleting, this), 200);
 			String message = Messages.deleteProblem;
 			MultiStatus result = new MultiStatus(Policy.PI_FILE_SYSTEM, EFS.ERROR_DELETE, message, null);
-			internalDelete(file, filePath, result, monitor);
+			if ((options & EFS.PARALLEL) != 0)
+				new ParallelFileOperation(monitor).delete(this, result);
+			else
+				internalDelete(file, filePath, result, monitor);
 			if (!result.isOK())
 				throw new CoreException(result);
 		} finally {
@@ -217,63 +314,88 @@ public class LocalFile extends FileStore {
 			throw new OperationCanceledException();
 		}
 		try {
-			try {
-				// First try to delete - this should succeed for files and symbolic links to directories.
-				Files.deleteIfExists(target.toPath());
-				return true;
-			} catch (AccessDeniedException e) {
-				// If the file is read only, it can't be deleted via Files.deleteIfExists()
-				// see https://bugs.eclipse.org/bugs/show_bug.cgi?id=500306
-				if (target.delete()) {
-					return true;
-				}
-				throw e;
-			}
+			deleteFileOrLink(target);
+			return true;
 		} catch (DirectoryNotEmptyException e) {
 			monitor.subTask(NLS.bind(Messages.deleting, target));
 			String[] list = target.list();
 			if (list == null)
 				list = EMPTY_STRING_ARRAY;
-			int parentLength = pathToDelete.length();
 			boolean failedRecursive = false;
 			for (String element : list) {
 				if (monitor.isCanceled()) {
 					throw new OperationCanceledException();
 				}
-				// Optimized creation of child path object
-				StringBuilder childBuffer = new StringBuilder(parentLength + element.length() + 1);
-				childBuffer.append(pathToDelete);
-				childBuffer.append(File.separatorChar);
-				childBuffer.append(element);
-				String childName = childBuffer.toString();
+				String childName = childPath(pathToDelete, element);
 				// Try best effort on all children so put logical OR at end.
 				failedRecursive = !internalDelete(new java.io.File(childName), childName, status, monitor) || failedRecursive;
 				monitor.worked(1);
 			}
-			try {
-				// Don't try to delete the root if one of the children failed.
-				if (!failedRecursive && Files.deleteIfExists(target.toPath()))
-					return true;
-			} catch (Exception e1) {
-				// We caught a runtime exception so log it.
-				String message = NLS.bind(Messages.couldnotDelete, target.getAbsolutePath());
-				status.add(new Status(IStatus.ERROR, Policy.PI_FILE_SYSTEM, EFS.ERROR_DELETE, message, e1));
-				return false;
-			}
-			// If we got this far, we failed.
-			String message = null;
-			if (fetchInfo().getAttribute(EFS.ATTRIBUTE_READ_ONLY)) {
-				message = NLS.bind(Messages.couldnotDeleteReadOnly, target.getAbsolutePath());
-			} else {
-				message = NLS.bind(Messages.couldnotDelete, target.getAbsolutePath());
-			}
-			status.add(new Status(IStatus.ERROR, Policy.PI_FILE_SYSTEM, EFS.ERROR_DELETE, message, null));
-			return false;
+			return deleteDirectory(target, failedRecursive, status);
 		} catch (IOException e) {
+			status.add(deleteError(target, e));
+			return false;
+		}
+	}
+
+	/**
+	 * Deletes the given file. This succeeds for files, empty directories and
+	 * symbolic links to directories, and throws a {@link DirectoryNotEmptyException}
+	 * for other directories.
+	 */
+	static void deleteFileOrLink(File target) throws IOException {
+		try {
+			Files.deleteIfExists(target.toPath());
+		} catch (AccessDeniedException e) {
+			// If the file is read only, it can't be deleted via Files.deleteIfExists()
+			// see https://bugs.eclipse.org/bugs/show_bug.cgi?id=500306
+			if (!target.delete())
+				throw e;
+		}
+	}
+
+	/**
+	 * Deletes a directory after its children have been deleted, and adds a
+	 * problem to the given status if that is not possible.
+	 *
+	 * @param failedRecursive whether deleting one of the children failed
+	 */
+	boolean deleteDirectory(File target, boolean failedRecursive, MultiStatus status) {
+		try {
+			// Don't try to delete the root if one of the children failed.
+			if (!failedRecursive && Files.deleteIfExists(target.toPath()))
+				return true;
+		} catch (Exception e1) {
+			// We caught a runtime exception so log it.
 			String message = NLS.bind(Messages.couldnotDelete, target.getAbsolutePath());
-			status.add(new Status(IStatus.ERROR, Policy.PI_FILE_SYSTEM, EFS.ERROR_DELETE, message, e));
+			status.add(new Status(IStatus.ERROR, Policy.PI_FILE_SYSTEM, EFS.ERROR_DELETE, message, e1));
 			return false;
 		}
+		// If we got this far, we failed.
+		String message = null;
+		if (fetchInfo().getAttribute(EFS.ATTRIBUTE_READ_ONLY)) {
+			message = NLS.bind(Messages.couldnotDeleteReadOnly, target.getAbsolutePath());
+		} else {
+			message = NLS.bind(Messages.couldnotDelete, target.getAbsolutePath());
+		}
+		status.add(new Status(IStatus.ERROR, Policy.PI_FILE_SYSTEM, EFS.ERROR_DELETE, message, null));
+		return false;
+	}
+
+	static IStatus deleteError(File target, IOException e) {
+		String message = NLS.bind(Messages.couldnotDelete, target.getAbsolutePath());
+		return new Status(IStatus.ERROR, Policy.PI_FILE_SYSTEM, EFS.ERROR_DELETE, message, e);
+	}
+
+	/**
+	 * Optimized creation of child path object
+	 */
+	static String childPath(String parentPath, String name) {
+		StringBuilder childBuffer = new StringBuilder(parentPath.length() + name.length() + 1);
+		childBuffer.append(parentPath);
+		childBuffer.append(File.separatorChar);
+		childBuffer.append(name);
+		return childBuffer.toString();
 	}
 
 	@Override
@@ -464,6 +586,30 @@ public class LocalFile extends FileStore {
 			Policy.error(EFS.ERROR_NOT_EXISTS, NLS.bind(Messages.fileNotFound, filePath));
 	}
 
+	@Override
+	public ByteBuffer readBuffer(int options, IProgressMonitor monitor) throws CoreException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE)
+				Policy.error(EFS.ERROR_READ, NLS.bind(Messages.couldNotRead, filePath));
+			if (size >= MAP_THRESHOLD)
+				return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			ByteBuffer buffer = ByteBuffer.allocate((int) size);
+			while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+				// keep reading
+			}
+			buffer.flip();
+			return buffer.asReadOnlyBuffer();
+		} catch (NoSuchFileException e) {
+			Policy.error(EFS.ERROR_NOT_EXISTS, NLS.bind(Messages.fileNotFound, filePath), e);
+		} catch (IOException e) {
+			if (file.isDirectory())
+				Policy.error(EFS.ERROR_WRONG_TYPE, NLS.bind(Messages.notAFile, filePath), e);
+			Policy.error(EFS.ERROR_READ, NLS.bind(Messages.couldNotRead, filePath), e);
+		}
+		return null; // can't get here
+	}
+
 	@Override
 	public File toLocalFile(int options, IProgressMonitor monitor) throws CoreException {
 		if (options == EFS.CACHE)
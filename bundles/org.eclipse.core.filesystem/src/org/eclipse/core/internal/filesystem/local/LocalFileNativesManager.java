@@ -65,6 +65,14 @@ public class LocalFileNativesManager {
 		return HANDLER.fetchFileInfo(fileName);
 	}
 
+	/**
+	 * Returns the information of all children of the given directory, or
+	 * <code>null</code> if it has to be fetched for each child.
+	 */
+	public static IFileInfo[] fetchChildInfos(String dirName) {
+		return HANDLER.fetchChildInfos(dirName);
+	}
+
 	public static boolean putFileInfo(String fileName, IFileInfo info, int options) {
 		return HANDLER.putFileInfo(fileName, info, options);
 	}
@@ -24,5 +24,14 @@ public abstract class NativeHandler {
 
 	public abstract FileInfo fetchFileInfo(String fileName);
 
+	/**
+	 * Returns the information of all children of the given directory, or
+	 * <code>null</code> if this handler cannot fetch it more efficiently than
+	 * by calling {@link #fetchFileInfo(String)} for each child.
+	 */
+	public IFileInfo[] fetchChildInfos(String dirName) {
+		return null;
+	}
+
 	public abstract boolean putFileInfo(String fileName, IFileInfo info, int options);
 }
@@ -0,0 +1,262 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.filesystem.local;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.core.filesystem.*;
+import org.eclipse.core.internal.filesystem.Messages;
+import org.eclipse.core.internal.filesystem.Policy;
+import org.eclipse.core.runtime.*;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Copies or deletes a local directory tree on a bounded pool of threads, as
+ * requested by {@link EFS#PARALLEL}.
+ * <p>
+ * Each file is copied or deleted the same way as by the sequential operation.
+ * Problems are collected per directory and merged in the order in which the
+ * sequential operation would have reported them, so a failed deletion
+ * reports the same {@link MultiStatus}, and a failed copy throws the
+ * exception of the first child that failed. The sequential copy stops at
+ * that child, so the copies of the children after it are deleted again. The
+ * children of a directory that already existed at the destination are
+ * copied one after the other instead, since they may overwrite files that
+ * could not be restored.
+ * </p>
+ * <p>
+ * Progress monitors are not thread safe, so the workers only count the
+ * files they are done with, and the calling thread reports that count to
+ * the monitor and forwards cancellation to the workers.
+ * </p>
+ */
+final class ParallelFileOperation {
+	/**
+	 * The maximum number of threads working on one operation.
+	 */
+	static final int MAX_PARALLELISM = 8;
+
+	/**
+	 * How often, in milliseconds, the calling thread reports progress.
+	 */
+	private static final long PROGRESS_INTERVAL = 100;
+
+	private volatile boolean canceled;
+	private final AtomicInteger completed = new AtomicInteger();
+	private final IProgressMonitor monitor;
+
+	/**
+	 * Copies a directory and its children.
+	 */
+	private final class CopyTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final IFileStore destination;
+		private final int options;
+		CoreException problem;
+		private final LocalFile source;
+		private final IFileInfo sourceInfo;
+
+		CopyTask(LocalFile source, IFileInfo sourceInfo, IFileStore destination, int options) {
+			this.source = source;
+			this.sourceInfo = sourceInfo;
+			this.destination = destination;
+			this.options = options;
+		}
+
+		@Override
+		protected void compute() {
+			checkCanceled();
+			try {
+				IFileInfo info = sourceInfo != null ? sourceInfo : source.fetchInfo();
+				if (info.isDirectory())
+					copyDirectory(info);
+				else
+					source.copy(destination, options, null);
+			} catch (CoreException e) {
+				problem = e;
+			} finally {
+				completed.incrementAndGet();
+			}
+		}
+
+		private void copyDirectory(IFileInfo info) throws CoreException {
+			IFileStore[] children = source.childStores(EFS.NONE, null);
+			boolean existed = destination.fetchInfo().exists();
+			// create directory
+			destination.mkdir(EFS.NONE, null);
+			// copy attributes
+			destination.putInfo(info, EFS.SET_ATTRIBUTES | EFS.SET_LAST_MODIFIED, null);
+			CopyTask[] tasks = new CopyTask[children.length];
+			for (int i = 0; i < children.length; i++)
+				tasks[i] = new CopyTask((LocalFile) children[i], null, destination.getChild(children[i].getName()), options);
+			if (existed) {
+				for (CopyTask task : tasks) {
+					task.invoke();
+					if (task.problem != null)
+						throw task.problem;
+				}
+				return;
+			}
+			invokeAll(tasks);
+			for (int i = 0; i < tasks.length; i++) {
+				if (tasks[i].problem == null)
+					continue;
+				// leave the same partial copy as the sequential copy
+				for (int j = i + 1; j < tasks.length; j++) {
+					try {
+						tasks[j].destination.delete(EFS.NONE, null);
+					} catch (CoreException e) {
+						// the problem of the failed child is reported
+					}
+				}
+				throw tasks[i].problem;
+			}
+		}
+	}
+
+	/**
+	 * Deletes a file or a directory and its children.
+	 */
+	private final class DeleteTask extends RecursiveTask<Boolean> {
+		private static final long serialVersionUID = 1L;
+		private final String path;
+		private MultiStatus status;
+		private final LocalFile store;
+		private final File target;
+
+		DeleteTask(LocalFile store, File target, String path) {
+			this.store = store;
+			this.target = target;
+			this.path = path;
+		}
+
+		@Override
+		protected Boolean compute() {
+			checkCanceled();
+			try {
+				LocalFile.deleteFileOrLink(target);
+				return Boolean.TRUE;
+			} catch (DirectoryNotEmptyException e) {
+				String[] list = target.list();
+				if (list == null)
+					list = new String[0];
+				DeleteTask[] children = new DeleteTask[list.length];
+				for (int i = 0; i < list.length; i++) {
+					String childName = LocalFile.childPath(path, list[i]);
+					children[i] = new DeleteTask(store, new File(childName), childName);
+				}
+				invokeAll(children);
+				boolean failedRecursive = false;
+				for (DeleteTask child : children) {
+					failedRecursive = !child.join().booleanValue() || failedRecursive;
+					if (child.status != null)
+						getStatus().addAll(child.status);
+				}
+				return Boolean.valueOf(store.deleteDirectory(target, failedRecursive, getStatus()));
+			} catch (IOException e) {
+				getStatus().add(LocalFile.deleteError(target, e));
+				return Boolean.FALSE;
+			} finally {
+				completed.incrementAndGet();
+			}
+		}
+
+		/**
+		 * Returns the problems of this task, created on demand since most
+		 * files are deleted without problems.
+		 */
+		MultiStatus getStatus() {
+			if (status == null)
+				status = new MultiStatus(Policy.PI_FILE_SYSTEM, EFS.ERROR_DELETE, Messages.deleteProblem, null);
+			return status;
+		}
+	}
+
+	ParallelFileOperation(IProgressMonitor monitor) {
+		this.monitor = monitor == null ? new NullProgressMonitor() : monitor;
+	}
+
+	void checkCanceled() {
+		if (canceled)
+			throw new OperationCanceledException();
+	}
+
+	/**
+	 * Copies the given directory and its children to the given destination.
+	 */
+	void copyDirectory(LocalFile source, IFileInfo sourceInfo, IFileStore destination, int options) throws CoreException {
+		IProgressMonitor progress = new InfiniteProgress(monitor);
+		progress.beginTask(NLS.bind(Messages.copying, source.toString()), 200);
+		try {
+			CopyTask task = new CopyTask(source, sourceInfo, destination, options);
+			run(task, progress);
+			if (task.problem != null)
+				throw task.problem;
+		} finally {
+			progress.done();
+		}
+	}
+
+	/**
+	 * Deletes the given store and its children, and adds all problems to the given status.
+	 * The monitor given to this operation must already have been started.
+	 */
+	void delete(LocalFile store, MultiStatus status) {
+		DeleteTask task = new DeleteTask(store, store.file, store.filePath);
+		run(task, monitor);
+		if (task.status != null)
+			status.addAll(task.status);
+	}
+
+	/**
+	 * Runs the given task on a new bounded pool, and reports the progress of
+	 * the workers to the given monitor until the task is done.
+	 */
+	private void run(ForkJoinTask<?> task, IProgressMonitor progress) {
+		ForkJoinPool pool = new ForkJoinPool(Math.min(MAX_PARALLELISM, Runtime.getRuntime().availableProcessors()));
+		int reported = 0;
+		try {
+			pool.execute(task);
+			while (true) {
+				try {
+					task.get(PROGRESS_INTERVAL, TimeUnit.MILLISECONDS);
+					return;
+				} catch (TimeoutException e) {
+					// still running
+				} finally {
+					for (int done = completed.get(); reported < done; reported++)
+						progress.worked(1);
+				}
+				if (progress.isCanceled())
+					canceled = true;
+			}
+		} catch (InterruptedException e) {
+			canceled = true;
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new IllegalStateException(cause);
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
@@ -28,8 +28,26 @@ public class StructStat {
 	public long st_size;
 	public long st_mtime;
 	public long st_mtime_msec; // millisecond component of the file timestamp, filled on Linux systems
+	public long st_mtime_nsec; // nanosecond component of the file timestamp
+	public long st_ino;
 	public long st_flags; // Filled only on Mac OS X
 
+	/**
+	 * Returns a fingerprint of the inode, size and modification time with
+	 * nanoseconds, or {@link EFS#NONE} if the inode was not filled by the
+	 * library. The change time is not included, since it also changes when
+	 * only the permissions of a file are changed.
+	 */
+	long getFingerprint() {
+		if (st_ino == 0)
+			return EFS.NONE;
+		long hash = st_ino;
+		hash = 31 * hash + st_size;
+		hash = 31 * hash + st_mtime;
+		hash = 31 * hash + st_mtime_nsec;
+		return hash == EFS.NONE ? 1 : hash;
+	}
+
 	public FileInfo toFileInfo() {
 		FileInfo info = new FileInfo();
 		info.setExists(true);
@@ -39,6 +57,7 @@ public class StructStat {
 			lastModified += st_mtime_msec;
 		}
 		info.setLastModified(lastModified);
+		info.setFingerprint(getFingerprint());
 		if ((st_mode & UnixFileFlags.S_IFMT) == UnixFileFlags.S_IFDIR)
 			info.setDirectory(true);
 		if ((st_flags & (UnixFileFlags.UF_IMMUTABLE | UnixFileFlags.SF_IMMUTABLE)) != 0)
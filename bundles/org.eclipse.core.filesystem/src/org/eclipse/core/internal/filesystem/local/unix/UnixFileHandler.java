@@ -31,6 +31,11 @@ public class UnixFileHandler extends NativeHandler {
 		return UnixFileNatives.fetchFileInfo(fileName);
 	}
 
+	@Override
+	public IFileInfo[] fetchChildInfos(String dirName) {
+		return UnixFileNatives.fetchChildInfos(dirName);
+	}
+
 	@Override
 	public boolean putFileInfo(String fileName, IFileInfo info, int options) {
 		return UnixFileNatives.putFileInfo(fileName, info, options);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2017 IBM Corporation and others.
+ * Copyright (c) 2010, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,8 +16,10 @@ package org.eclipse.core.internal.filesystem.local.unix;
 
 import java.io.File;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
-import java.util.Enumeration;
+import java.util.*;
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileInfo;
 import org.eclipse.core.filesystem.provider.FileInfo;
@@ -31,9 +33,17 @@ public abstract class UnixFileNatives {
 	private static final int UNICODE_SUPPORTED = 1 << 0;
 	private static final int CHFLAGS_SUPPORTED = 1 << 1;
 	private static final int ENOENT = 2; // errno value for "No such file or directory"
+	// version of the layout of the entries returned by statdir, see unixfile.h
+	private static final int STATDIR_VERSION = 2;
+	// flags of the entries returned by statdir, see unixfile.h
+	private static final int STATDIR_SYMLINK = 1 << 0;
+	private static final int STATDIR_STAT_FAILED = 1 << 1;
+	private static final int STATDIR_IO_ERROR = 1 << 2;
 
 	private static final boolean usingNatives;
 	private static final int libattr;
+	/** Whether the loaded library provides statdir with the expected layout */
+	private static final boolean statdirSupported;
 
 	static {
 		boolean _usingNatives = false;
@@ -50,6 +60,19 @@ public abstract class UnixFileNatives {
 			usingNatives = _usingNatives;
 			libattr = _libattr;
 		}
+		statdirSupported = usingNatives && isStatdirVersion();
+	}
+
+	/**
+	 * Returns whether the entries returned by statdir have the layout this
+	 * class parses. Libraries built before statdir was added do not have it.
+	 */
+	private static boolean isStatdirVersion() {
+		try {
+			return statdirversion() == STATDIR_VERSION;
+		} catch (UnsatisfiedLinkError e) {
+			return false;
+		}
 	}
 
 	private static boolean isLibraryPresent() {
@@ -110,6 +133,63 @@ public abstract class UnixFileNatives {
 		return info;
 	}
 
+	/**
+	 * Returns the information of all children of the given directory, fetched
+	 * with a single native call, or <code>null</code> if the directory could
+	 * not be read or the native library does not support it. The information
+	 * of each child is the same as returned by {@link #fetchFileInfo(String)}.
+	 */
+	public static IFileInfo[] fetchChildInfos(String dirName) {
+		if (!statdirSupported)
+			return null;
+		byte[] entries = statdir(fileNameToBytes(dirName));
+		if (entries == null)
+			return null;
+		ByteBuffer buffer = ByteBuffer.wrap(entries).order(ByteOrder.nativeOrder());
+		List<FileInfo> infos = new ArrayList<>();
+		StructStat stat = new StructStat();
+		while (buffer.hasRemaining()) {
+			String name = readFileName(buffer);
+			int flags = buffer.getInt();
+			stat.st_mode = buffer.getInt();
+			stat.st_size = buffer.getLong();
+			stat.st_mtime = buffer.getLong();
+			stat.st_mtime_msec = buffer.getLong();
+			stat.st_mtime_nsec = buffer.getLong();
+			stat.st_ino = buffer.getLong();
+			stat.st_flags = buffer.getLong();
+			String target = readFileName(buffer);
+			FileInfo info;
+			if ((flags & STATDIR_STAT_FAILED) == 0) {
+				info = stat.toFileInfo();
+			} else {
+				info = new FileInfo();
+				if ((flags & STATDIR_IO_ERROR) != 0)
+					info.setError(IFileInfo.IO_ERROR);
+			}
+			if ((flags & STATDIR_SYMLINK) != 0) {
+				info.setAttribute(EFS.ATTRIBUTE_SYMLINK, true);
+				if (!target.isEmpty())
+					info.setStringAttribute(EFS.ATTRIBUTE_LINK_TARGET, target);
+			}
+			info.setName(name);
+			infos.add(info);
+		}
+		return infos.toArray(new IFileInfo[infos.size()]);
+	}
+
+	/**
+	 * Reads a file name written by statdir as its length followed by its bytes.
+	 */
+	private static String readFileName(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		if (length == 0)
+			return ""; //$NON-NLS-1$
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return bytesToFileName(bytes, length);
+	}
+
 	public static boolean putFileInfo(String fileName, IFileInfo info, int options) {
 		int code = 0;
 		byte[] name = fileNameToBytes(fileName);
@@ -201,6 +281,10 @@ public abstract class UnixFileNatives {
 
 	private static final native int lstat(byte[] path, StructStat buf);
 
+	private static final native byte[] statdir(byte[] path);
+
+	private static final native int statdirversion();
+
 	private static final native int readlink(byte[] path, byte[] buf, long bufsiz);
 
 	private static final native int errno();
@@ -15,7 +15,7 @@ package org.eclipse.core.internal.resources;
 
 import java.util.*;
 import java.util.Map.Entry;
-import org.eclipse.core.internal.utils.Cache;
+import org.eclipse.core.internal.utils.ConcurrentCache;
 import org.eclipse.core.internal.watson.ElementTree;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.ResourcesPlugin;
@@ -73,7 +73,7 @@ public class SpySupport {
 	}
 	public static boolean isContentDescriptionCached(File file) {
 		ResourceInfo info = file.getResourceInfo(false, false);
-		Cache.Entry entry = ((Workspace) ResourcesPlugin.getWorkspace()).getContentDescriptionManager().getCache().getEntry(file.getFullPath(), false);
+		ConcurrentCache.Entry<?, ?> entry = ((Workspace) ResourcesPlugin.getWorkspace()).getContentDescriptionManager().getCache().getEntry(file.getFullPath(), false);
 		return entry != null && info.getContentId() == entry.getTimestamp();
 	}
 }
@@ -17,6 +17,7 @@ package org.eclipse.core.internal.dtree;
 import java.io.DataInput;
 import java.io.IOException;
 import org.eclipse.core.internal.utils.Messages;
+import org.eclipse.core.internal.utils.PathInterner;
 import org.eclipse.core.runtime.*;
 
 /**
@@ -63,7 +64,7 @@ public class DataTreeReader {
 	 */
 	protected AbstractDataTreeNode readNode(IPath parentPath, String newProjectName) throws IOException {
 		/* read the node name */
-		String name = input.readUTF();
+		String name = PathInterner.intern(input.readUTF());
 
 		/* read the node type */
 		int nodeType = readNumber();
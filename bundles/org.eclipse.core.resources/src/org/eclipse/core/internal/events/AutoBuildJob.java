@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2015 IBM Corporation and others.
+ * Copyright (c) 2003, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -151,7 +151,9 @@ class AutoBuildJob extends Job implements Preferences.IPropertyChangeListener {
 		final ISchedulingRule rule = workspace.getRuleFactory().buildRule();
 		SubMonitor split = subMonitor.split(1); // will throw OperationCanceledException if autobuild canceled
 		try {
+			long waitStart = System.nanoTime();
 			workspace.prepareOperation(rule, split);
+			ResourceMetrics.recordSince(ResourceMetrics.LOCKS, "autobuild", waitStart); //$NON-NLS-1$
 			workspace.beginOperation(true);
 			final int trigger = IncrementalProjectBuilder.AUTO_BUILD;
 			workspace.broadcastBuildEvent(workspace, IResourceChangeEvent.PRE_BUILD, trigger);
@@ -0,0 +1,400 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.events;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.internal.dtree.DeltaDataTree;
+import org.eclipse.core.internal.dtree.NodeComparison;
+import org.eclipse.core.internal.resources.*;
+import org.eclipse.core.internal.utils.ConcurrentCache;
+import org.eclipse.core.internal.utils.Messages;
+import org.eclipse.core.internal.utils.WrappedRuntimeException;
+import org.eclipse.core.internal.watson.*;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.jobs.Job;
+
+/**
+ * Computes fingerprints of the inputs of builders that declare the
+ * fingerprintInputs attribute in their extension. The inputs of a builder are
+ * the resources of its project and of the projects it is interested in. When
+ * the fingerprint did not change since the last build, the builder is not
+ * called even though the resource delta is not empty, for example because
+ * files were touched or written again with the same contents.
+ * <p>
+ * The fingerprint is the sum of the hashes of the paths and types of the
+ * resources and of the contents of the files that exist locally, so it is
+ * updated from the delta between two trees rather than computed again from
+ * all resources. The hashes of file contents are cached by the node id and
+ * content id of the file, which change whenever the build delta reports the
+ * file as replaced or its contents as changed, so a file is only read again
+ * after the workspace saw it change. The hashes of the files in the last
+ * built trees are saved with the builders, so the fingerprint is still
+ * updated from the delta after a restart.
+ * </p>
+ * <p>
+ * If a fingerprint cannot be updated from the delta, because the previous
+ * fingerprint is unknown or the hash of a changed file is no longer cached,
+ * the builder is called, and its fingerprint is computed from all its inputs
+ * by a job that runs outside the workspace lock.
+ * </p>
+ */
+class BuildInputFingerprint {
+	private static final String ALGORITHM = "SHA-256"; //$NON-NLS-1$
+
+	/**
+	 * Fingerprint value indicating that the inputs are unknown.
+	 */
+	static final long NONE = 0;
+
+	/**
+	 * Identifies one version of the contents of a file.
+	 */
+	private static final class ContentKey {
+		private final int contentId;
+		private final long nodeId;
+
+		ContentKey(long nodeId, int contentId) {
+			this.contentId = contentId;
+			this.nodeId = nodeId;
+		}
+
+		ContentKey(ResourceInfo info) {
+			this(info.getNodeId(), info.getContentId());
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof ContentKey))
+				return false;
+			ContentKey other = (ContentKey) obj;
+			return contentId == other.contentId && nodeId == other.nodeId;
+		}
+
+		@Override
+		public int hashCode() {
+			return Long.hashCode(nodeId) * 31 + contentId;
+		}
+	}
+
+	/**
+	 * A request to compute the fingerprint of a builder for its last built tree.
+	 */
+	private static final class Request {
+		final InternalBuilder builder;
+		final IProject[] interestingProjects;
+		final ElementTree tree;
+
+		Request(InternalBuilder builder, ElementTree tree, IProject[] interestingProjects) {
+			this.builder = builder;
+			this.tree = tree;
+			this.interestingProjects = interestingProjects;
+		}
+	}
+
+	/**
+	 * Computes the fingerprints of the builders whose fingerprint could not be
+	 * updated from the delta.
+	 */
+	private final class ComputeJob extends Job {
+		ComputeJob() {
+			super(Messages.events_building_0);
+			setSystem(true);
+			setPriority(Job.DECORATE);
+		}
+
+		@Override
+		public boolean belongsTo(Object family) {
+			return family == BuildInputFingerprint.this;
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			while (true) {
+				Request request;
+				synchronized (requests) {
+					Iterator<Request> it = requests.values().iterator();
+					if (!it.hasNext())
+						return Status.OK_STATUS;
+					request = it.next();
+					it.remove();
+				}
+				long fingerprint;
+				try {
+					fingerprint = compute(request.tree, request.builder.getProject(), request.interestingProjects, monitor);
+				} catch (OperationCanceledException e) {
+					return Status.CANCEL_STATUS;
+				}
+				request.builder.setInputFingerprint(fingerprint, request.tree, request.interestingProjects);
+			}
+		}
+	}
+
+	private final ConcurrentCache<ContentKey, Long> contentHashes = new ConcurrentCache<>(1000, 50000, 0.1);
+	private final ComputeJob computeJob = new ComputeJob();
+	private final Map<InternalBuilder, Request> requests = new LinkedHashMap<>();
+	private final Workspace workspace;
+
+	private static MessageDigest newDigest() throws IOException {
+		try {
+			return MessageDigest.getInstance(ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private static Collection<IProject> projectsOf(IProject project, IProject[] interestingProjects) {
+		TreeMap<String, IProject> projects = new TreeMap<>();
+		projects.put(project.getName(), project);
+		for (IProject interestingProject : interestingProjects)
+			projects.put(interestingProject.getName(), interestingProject);
+		return projects.values();
+	}
+
+	/**
+	 * Returns whether the given infos of a resource have the same hash.
+	 */
+	private static boolean sameHash(ResourceInfo oldInfo, ResourceInfo newInfo) {
+		if (oldInfo == null || newInfo == null)
+			return oldInfo == newInfo;
+		if (oldInfo.getType() != newInfo.getType() || oldInfo.isSet(ICoreConstants.M_PHANTOM) != newInfo.isSet(ICoreConstants.M_PHANTOM))
+			return false;
+		if (oldInfo.getType() != IResource.FILE)
+			return true;
+		return oldInfo.isSet(ICoreConstants.M_LOCAL_EXISTS) == newInfo.isSet(ICoreConstants.M_LOCAL_EXISTS) && new ContentKey(oldInfo).equals(new ContentKey(newInfo));
+	}
+
+	private static long toLong(byte[] digest) {
+		return ByteBuffer.wrap(digest).getLong();
+	}
+
+	BuildInputFingerprint(Workspace workspace) {
+		this.workspace = workspace;
+	}
+
+	/**
+	 * Forgets the cached hashes of file contents and the pending computations.
+	 */
+	void clear() {
+		synchronized (requests) {
+			requests.clear();
+		}
+		computeJob.cancel();
+		contentHashes.discardAll();
+	}
+
+	/**
+	 * Returns the fingerprint of the given project and interesting projects in
+	 * the given tree, or {@link #NONE} if a file could not be read. Reads all
+	 * files whose contents are not cached.
+	 *
+	 * @exception OperationCanceledException if the monitor is canceled
+	 */
+	long compute(ElementTree tree, IProject project, IProject[] interestingProjects, IProgressMonitor monitor) {
+		long[] result = {0};
+		try {
+			MessageDigest digest = newDigest();
+			IElementContentVisitor visitor = (elementTree, requestor, contents) -> {
+				ResourceInfo info = (ResourceInfo) contents;
+				if (info.isSet(ICoreConstants.M_PHANTOM))
+					return false;
+				if (monitor.isCanceled())
+					throw new OperationCanceledException();
+				try {
+					result[0] += hash(digest, requestor.requestPath(), info, true);
+				} catch (CoreException | IOException e) {
+					throw new WrappedRuntimeException(e);
+				}
+				return true;
+			};
+			for (IProject current : projectsOf(project, interestingProjects))
+				if (tree.includes(current.getFullPath()))
+					new ElementTreeIterator(tree, current.getFullPath()).iterate(visitor);
+		} catch (IOException | WrappedRuntimeException e) {
+			// the build decides whether the file is really missing
+			return NONE;
+		}
+		return result[0] == NONE ? 1 : result[0];
+	}
+
+	/**
+	 * Computes the fingerprint of the given builder for the given tree, which
+	 * is its last built tree, in the background. The fingerprint is only set if
+	 * the builder was not built again in the meantime.
+	 */
+	void computeLater(InternalBuilder builder, ElementTree tree) {
+		synchronized (requests) {
+			requests.put(builder, new Request(builder, tree, builder.getInterestingProjects()));
+		}
+		computeJob.schedule();
+	}
+
+	/**
+	 * Reads the hashes of file contents written by {@link #writeContentHashes}.
+	 */
+	void readContentHashes(DataInput input) throws IOException {
+		int count = input.readInt();
+		for (int i = 0; i < count; i++) {
+			long nodeId = input.readLong();
+			int contentId = input.readInt();
+			contentHashes.addEntry(new ContentKey(nodeId, contentId), input.readLong(), 0);
+		}
+	}
+
+	/**
+	 * Returns the fingerprint of the given project and interesting projects in
+	 * the new tree, given their fingerprint in the old tree. Only the resources
+	 * that differ between the trees are visited. Returns {@link #NONE} if the
+	 * old fingerprint is unknown, the hash of an old file is no longer cached,
+	 * or a file could not be read.
+	 */
+	long update(long fingerprint, ElementTree oldTree, ElementTree newTree, IProject project, IProject[] interestingProjects) {
+		if (fingerprint == NONE || oldTree == null)
+			return NONE;
+		if (oldTree == newTree)
+			return fingerprint;
+		long result = fingerprint;
+		try {
+			MessageDigest digest = newDigest();
+			for (IProject current : projectsOf(project, interestingProjects)) {
+				IPath path = current.getFullPath();
+				if (!oldTree.includes(path) && !newTree.includes(path))
+					continue;
+				DeltaDataTree delta = oldTree.getDataTree().compareWith(newTree.getDataTree(), ResourceComparator.getBuildComparator(), path);
+				Long change = update(digest, delta, Path.ROOT, path);
+				if (change == null)
+					return NONE;
+				result += change;
+			}
+		} catch (CoreException | IOException e) {
+			return NONE;
+		}
+		return result == NONE ? 1 : result;
+	}
+
+	/**
+	 * Returns the change of the fingerprint for the given node of a
+	 * comparison tree and its descendants, or <code>null</code> if the hash
+	 * of an old file is not cached.
+	 */
+	private Long update(MessageDigest digest, DeltaDataTree delta, IPath pathInDelta, IPath path) throws CoreException, IOException {
+		long change = 0;
+		NodeComparison comparison = (NodeComparison) delta.getData(pathInDelta);
+		ResourceInfo oldInfo = (ResourceInfo) comparison.getOldData();
+		ResourceInfo newInfo = (ResourceInfo) comparison.getNewData();
+		if (comparison.getComparison() != 0 && !sameHash(oldInfo, newInfo)) {
+			if (oldInfo != null) {
+				Long oldHash = hash(digest, path, oldInfo, false);
+				if (oldHash == null)
+					return null;
+				change -= oldHash;
+			}
+			if (newInfo != null)
+				change += hash(digest, path, newInfo, true);
+		}
+		for (IPath child : delta.getChildren(pathInDelta)) {
+			Long childChange = update(digest, delta, child, path.append(child.lastSegment()));
+			if (childChange == null)
+				return null;
+			change += childChange;
+		}
+		return change;
+	}
+
+	/**
+	 * Returns the hash of the given resource, or <code>null</code> if the
+	 * contents of the file are not cached and may not be read.
+	 */
+	private Long hash(MessageDigest digest, IPath path, ResourceInfo info, boolean read) throws CoreException, IOException {
+		if (info.isSet(ICoreConstants.M_PHANTOM))
+			return 0L;
+		digest.update(path.toString().getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+		digest.update((byte) info.getType());
+		if (info.getType() == IResource.FILE && info.isSet(ICoreConstants.M_LOCAL_EXISTS)) {
+			Long contentHash = getContentHash(path, info, read);
+			if (contentHash == null) {
+				digest.reset();
+				return null;
+			}
+			digest.update(ByteBuffer.allocate(Long.BYTES).putLong(contentHash).array());
+		}
+		return toLong(digest.digest());
+	}
+
+	private Long getContentHash(IPath path, ResourceInfo info, boolean read) throws CoreException, IOException {
+		ContentKey key = new ContentKey(info);
+		ConcurrentCache.Entry<ContentKey, Long> entry = contentHashes.getEntry(key);
+		if (entry != null)
+			return entry.getCached();
+		if (!read)
+			return null;
+		MessageDigest digest = newDigest();
+		byte[] buffer = new byte[8192];
+		try (InputStream in = workspace.newResource(path, IResource.FILE).getStore().openInputStream(EFS.NONE, null)) {
+			for (int count; (count = in.read(buffer)) != -1;)
+				digest.update(buffer, 0, count);
+		}
+		long hash = toLong(digest.digest());
+		contentHashes.addEntry(key, hash, 0);
+		return hash;
+	}
+
+	/**
+	 * Writes the cached hashes of the contents of the files in the inputs of
+	 * the given builders in their last built trees. File format is:
+	 * int - number of hashes
+	 * for each hash:
+	 *    long - node id of the file
+	 *    int - content id of the file
+	 *    long - hash of the contents
+	 */
+	void writeContentHashes(DataOutput output, List<BuilderPersistentInfo> builders) throws IOException {
+		Map<ContentKey, Long> hashes = new LinkedHashMap<>();
+		for (BuilderPersistentInfo builder : builders) {
+			ElementTree tree = builder.getLastBuiltTree();
+			if (tree == null || builder.getInputFingerprint() == NONE)
+				continue;
+			IElementContentVisitor visitor = (elementTree, requestor, contents) -> {
+				ResourceInfo info = (ResourceInfo) contents;
+				if (info.isSet(ICoreConstants.M_PHANTOM))
+					return false;
+				if (info.getType() == IResource.FILE && info.isSet(ICoreConstants.M_LOCAL_EXISTS)) {
+					ContentKey key = new ContentKey(info);
+					ConcurrentCache.Entry<ContentKey, Long> entry = contentHashes.getEntry(key, false);
+					if (entry != null)
+						hashes.put(key, entry.getCached());
+				}
+				return true;
+			};
+			IProject project = workspace.getRoot().getProject(builder.getProjectName());
+			for (IProject current : projectsOf(project, builder.getInterestingProjects()))
+				if (tree.includes(current.getFullPath()))
+					new ElementTreeIterator(tree, current.getFullPath()).iterate(visitor);
+		}
+		output.writeInt(hashes.size());
+		for (Map.Entry<ContentKey, Long> entry : hashes.entrySet()) {
+			output.writeLong(entry.getKey().nodeId);
+			output.writeInt(entry.getKey().contentId);
+			output.writeLong(entry.getValue());
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2000, 2021 IBM Corporation and others.
+ *  Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -19,8 +19,10 @@
  *******************************************************************************/
 package org.eclipse.core.internal.events;
 
+import java.io.*;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.eclipse.core.internal.dtree.DeltaDataTree;
@@ -129,6 +131,12 @@ public class BuildManager implements ICoreConstants, IManager, ILifecycleListene
 	 */
 	final private DeltaCache<DeltaDataTree> deltaTreeCache = new DeltaCache<>();
 
+	/**
+	 * Computes the fingerprints of the inputs of builders that declare the
+	 * fingerprintInputs attribute
+	 */
+	private final BuildInputFingerprint inputFingerprint;
+
 	private ILock lock;
 
 	/**
@@ -158,6 +166,12 @@ public class BuildManager implements ICoreConstants, IManager, ILifecycleListene
 	 */
 	private final Map<IProject, Boolean> restartBuildImmediately;
 
+	/**
+	 * Number of builder invocations that were skipped because the fingerprint
+	 * of the inputs of the builder did not change
+	 */
+	private final AtomicLong skippedBuilds = new AtomicLong();
+
 	// Shows if we are in the parallel build loop or not
 	boolean parallelBuild;
 
@@ -175,6 +189,7 @@ public class BuildManager implements ICoreConstants, IManager, ILifecycleListene
 		this.workspace = workspace;
 		this.currentBuilders = Collections.synchronizedSet(new HashSet<>());
 		this.autoBuildJob = new AutoBuildJob(workspace);
+		this.inputFingerprint = new BuildInputFingerprint(workspace);
 		projectsToRebuild = ConcurrentHashMap.newKeySet();
 		restartBuildImmediately = new ConcurrentHashMap<>();
 		this.lock = workspaceLock;
@@ -208,8 +223,10 @@ public class BuildManager implements ICoreConstants, IManager, ILifecycleListene
 
 			//don't build if this builder doesn't respond to the trigger
 			if (!isBuilding) {
-				if (clean)
+				if (clean) {
 					currentBuilder.setLastBuiltTree(null);
+					currentBuilder.setInputFingerprint(BuildInputFingerprint.NONE);
+				}
 				return;
 			}
 
@@ -217,14 +234,33 @@ public class BuildManager implements ICoreConstants, IManager, ILifecycleListene
 			currentTree = ((trigger == IncrementalProjectBuilder.FULL_BUILD) || clean) ? null : workspace.getElementTree();
 			int depth = -1;
 			ISchedulingRule rule = null;
+			boolean invoked = false;
+			boolean upToDate = false;
+			// the fingerprint of the inputs in the tree, and the projects it covers, before the build
+			ElementTree fingerprintTree = workspace.getElementTree();
+			IProject[] fingerprintProjects = currentBuilder.getInterestingProjects();
+			long fingerprint = BuildInputFingerprint.NONE;
 			try {
 				//short-circuit if none of the projects this builder cares about have changed.
 				if (!needsBuild(currentBuilder, trigger)) {
+					upToDate = true;
 					//use up the progress allocated for this builder
 					monitor.beginTask("", 1); //$NON-NLS-1$
 					monitor.done();
 					return;
 				}
+				//short-circuit if the contents of the projects this builder cares about are unchanged
+				fingerprint = getInputFingerprint(currentBuilder, trigger, fingerprintTree);
+				if (fingerprint != BuildInputFingerprint.NONE && fingerprint == currentBuilder.getInputFingerprint()) {
+					if (Policy.DEBUG_BUILD_NEEDED)
+						Policy.debug(toString(currentBuilder) + " does not need building because its inputs are unchanged"); //$NON-NLS-1$
+					upToDate = true;
+					skippedBuilds.incrementAndGet();
+					ResourceMetrics.record(ResourceMetrics.SKIPPED_BUILDS, builder.getCommand().getBuilderName(), 1);
+					monitor.beginTask("", 1); //$NON-NLS-1$
+					monitor.done();
+					return;
+				}
 				rule = builder.getRule(trigger, args);
 				String name = currentBuilder.getLabel();
 				String message;
@@ -243,14 +279,24 @@ public class BuildManager implements ICoreConstants, IManager, ILifecycleListene
 				depth = getWorkManager().beginUnprotected();
 				// Acquire the rule required for running this builder
 				if (rule != null) {
+					long waitStart = System.nanoTime();
 					Job.getJobManager().beginRule(rule, monitor);
+					ResourceMetrics.recordSince(ResourceMetrics.LOCKS, "builder rule", waitStart); //$NON-NLS-1$
 					// Now that we've acquired the rule, changes may have been made concurrently, ensure we're pointing at the
 					// correct currentTree so delta contains concurrent changes made in areas guarded by the scheduling rule
 					if (currentTree != null)
 						currentTree = workspace.getElementTree();
 				}
 				//do the build
-				SafeRunner.run(getSafeRunnable(currentBuilder, trigger, args, status, monitor));
+				invoked = true;
+				long buildStart = System.nanoTime();
+				try {
+					SafeRunner.run(getSafeRunnable(currentBuilder, trigger, args, status, monitor));
+				} finally {
+					long elapsed = System.nanoTime() - buildStart;
+					ResourceMetrics.record(ResourceMetrics.BUILDERS, builder.getCommand().getBuilderName(), elapsed);
+					ResourceMetrics.record(ResourceMetrics.PROJECTS, builder.getProject().getName(), elapsed);
+				}
 			} finally {
 				// Re-acquire the WS lock, then release the scheduling rule
 				if (depth >= 0) {
@@ -262,11 +308,13 @@ public class BuildManager implements ICoreConstants, IManager, ILifecycleListene
 				// Be sure to clean up after ourselves.
 				if (clean || currentBuilder.wasForgetStateRequested()) {
 					currentBuilder.setLastBuiltTree(null);
+					currentBuilder.setInputFingerprint(BuildInputFingerprint.NONE);
 				} else if (currentBuilder.wasRememberStateRequested()) {
 					// If remember last build state, and FULL_BUILD
 					// last tree must be set to => null for next build
 					if (trigger == IncrementalProjectBuilder.FULL_BUILD) {
 						currentBuilder.setLastBuiltTree(null);
+						currentBuilder.setInputFingerprint(BuildInputFingerprint.NONE);
 					}
 					// else don't modify the last built tree
 				} else {
@@ -274,6 +322,17 @@ public class BuildManager implements ICoreConstants, IManager, ILifecycleListene
 					ElementTree lastTree = workspace.getElementTree();
 					lastTree.immutable();
 					currentBuilder.setLastBuiltTree(lastTree);
+					// the fingerprint is still valid if the inputs did not change
+					if (!upToDate && fingerprintsInputs(currentBuilder)) {
+						if (invoked && Arrays.equals(fingerprintProjects, currentBuilder.getInterestingProjects()))
+							fingerprint = inputFingerprint.update(fingerprint, fingerprintTree, lastTree, currentBuilder.getProject(), fingerprintProjects);
+						else
+							fingerprint = BuildInputFingerprint.NONE;
+						currentBuilder.setInputFingerprint(fingerprint);
+						// compute the fingerprint outside the workspace lock, without delaying the build
+						if (invoked && fingerprint == BuildInputFingerprint.NONE)
+							inputFingerprint.computeLater(currentBuilder, lastTree);
+					}
 				}
 				hookEndBuild(builder);
 			}
@@ -695,6 +754,7 @@ public class BuildManager implements ICoreConstants, IManager, ILifecycleListene
 						info = new BuilderPersistentInfo(project.getName(), supportsConfigs ? config.getName() : null, builderName, i);
 						info.setLastBuildTree(oldTree);
 						info.setInterestingProjects(((InternalBuilder) builder).getInterestingProjects());
+						info.setInputFingerprint(((InternalBuilder) builder).getInputFingerprint());
 					}
 				}
 				if (info != null)
@@ -934,11 +994,13 @@ public class BuildManager implements ICoreConstants, IManager, ILifecycleListene
 					startTime = System.currentTimeMillis();
 					Policy.debug("Computing delta for project: " + project.getName()); //$NON-NLS-1$
 				}
-				IResourceDelta result = ResourceDeltaFactory.computeDelta(workspace, currentLastBuiltTree, currentTree, project.getFullPath(), -1);
+				ResourceDelta result = ResourceDeltaFactory.computeDelta(workspace, currentLastBuiltTree, currentTree, project.getFullPath(), -1);
 				if (Policy.DEBUG_BUILD_FAILURE && result == null)
 					Policy.debug("Build: no delta " + debugBuilder() + " [" + debugProject() + "] " + project.getFullPath()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				if (result != null)
+					ResourceMetrics.record(ResourceMetrics.DELTAS, project.getName(), result.countNodes());
 				if (Policy.DEBUG_BUILD_DELTA)
-					Policy.debug("Finished computing delta, time: " + (System.currentTimeMillis() - startTime) + "ms" + ((ResourceDelta) result).toDeepDebugString()); //$NON-NLS-1$ //$NON-NLS-2$
+					Policy.debug("Finished computing delta, time: " + (System.currentTimeMillis() - startTime) + "ms" + result.toDeepDebugString()); //$NON-NLS-1$ //$NON-NLS-2$
 
 				return result;
 			});
@@ -1000,6 +1062,15 @@ public class BuildManager implements ICoreConstants, IManager, ILifecycleListene
 		};
 	}
 
+	/**
+	 * Returns the number of builder invocations that were skipped because the
+	 * fingerprint of the inputs of the builder did not change since its last
+	 * build.
+	 */
+	public long getSkippedBuildCount() {
+		return skippedBuilds.get();
+	}
+
 	/**
 	 * We know the work manager is always available in the middle of
 	 * a build.
@@ -1024,6 +1095,7 @@ public class BuildManager implements ICoreConstants, IManager, ILifecycleListene
 				//make sure the builder persistent info is deleted for the project move case
 				if (project.isAccessible())
 					setBuildersPersistentInfo(project, null);
+				ResourceMetrics.discardProject(project.getName());
 		}
 	}
 
@@ -1064,6 +1136,8 @@ public class BuildManager implements ICoreConstants, IManager, ILifecycleListene
 			Policy.debug("Top-level build-end time: " + (System.currentTimeMillis() - overallTimeStamp)); //$NON-NLS-1$
 			overallTimeStamp = -1;
 		}
+		if (Policy.DEBUG_METRICS)
+			Policy.debug("Metrics after build: " + ResourceMetrics.toJSON()); //$NON-NLS-1$
 	}
 
 	/**
@@ -1124,6 +1198,7 @@ public class BuildManager implements ICoreConstants, IManager, ILifecycleListene
 				builder.setLastBuiltTree(tree);
 			}
 			builder.setInterestingProjects(info.getInterestingProjects());
+			builder.setInputFingerprint(info.getInputFingerprint());
 		}
 		builder.setCommand(command);
 		builder.setBuildConfig(buildConfiguration);
@@ -1174,6 +1249,7 @@ public class BuildManager implements ICoreConstants, IManager, ILifecycleListene
 		builder.setLabel(extension.getLabel());
 		builder.setNatureId(natureId);
 		builder.setCallOnEmptyDelta(getBooleanAttribute(configs[0], "callOnEmptyDelta")); //$NON-NLS-1$
+		builder.setFingerprintInputs(getBooleanAttribute(configs[0], "fingerprintInputs")); //$NON-NLS-1$
 		return (IncrementalProjectBuilder) builder;
 	}
 
@@ -1185,6 +1261,14 @@ public class BuildManager implements ICoreConstants, IManager, ILifecycleListene
 		autoBuildJob.interrupt();
 	}
 
+	/**
+	 * Waits until the fingerprints of the inputs of builders that are computed
+	 * in the background are computed.
+	 */
+	public void joinInputFingerprints(IProgressMonitor monitor) throws InterruptedException {
+		Job.getJobManager().join(inputFingerprint, monitor);
+	}
+
 	/**
 	 * Returns whether an autobuild is pending (requested but not yet completed).
 	 */
@@ -1219,6 +1303,33 @@ public class BuildManager implements ICoreConstants, IManager, ILifecycleListene
 		return res;
 	}
 
+	/**
+	 * Returns whether the given builder may be skipped when the fingerprint of
+	 * its inputs did not change.
+	 */
+	private boolean fingerprintsInputs(InternalBuilder builder) {
+		return builder.fingerprintInputs() && !builder.callOnEmptyDelta();
+	}
+
+	/**
+	 * Returns the fingerprint of the inputs of the given builder in the given
+	 * tree, updated from the delta since its last built tree, or
+	 * {@link BuildInputFingerprint#NONE} if the builder does not declare the
+	 * fingerprintInputs attribute, the trigger always builds, or the
+	 * fingerprint of its last built tree is unknown.
+	 */
+	private long getInputFingerprint(InternalBuilder builder, int trigger, ElementTree tree) {
+		if (trigger != IncrementalProjectBuilder.INCREMENTAL_BUILD && trigger != IncrementalProjectBuilder.AUTO_BUILD)
+			return BuildInputFingerprint.NONE;
+		if (!fingerprintsInputs(builder))
+			return BuildInputFingerprint.NONE;
+		long lastFingerprint = builder.getInputFingerprint();
+		if (lastFingerprint == BuildInputFingerprint.NONE)
+			return BuildInputFingerprint.NONE;
+		tree.immutable();
+		return inputFingerprint.update(lastFingerprint, builder.getLastBuiltTree(), tree, builder.getProject(), builder.getInterestingProjects());
+	}
+
 	/**
 	 * Returns true if the given builder needs to be invoked, and false
 	 * otherwise.
@@ -1373,6 +1484,14 @@ public class BuildManager implements ICoreConstants, IManager, ILifecycleListene
 		projectsToRebuild.add(project);
 	}
 
+	/**
+	 * Reads the hashes of the contents of the inputs of builders written by
+	 * {@link #writeInputContentHashes(DataOutput, List)}.
+	 */
+	public void readInputContentHashes(DataInput input) throws IOException {
+		inputFingerprint.readContentHashes(input);
+	}
+
 	/**
 	 * Sets the builder infos for the given build config.  The builder infos are
 	 * an ArrayList of BuilderPersistentInfo.
@@ -1422,6 +1541,7 @@ public class BuildManager implements ICoreConstants, IManager, ILifecycleListene
 	@Override
 	public void shutdown(IProgressMonitor monitor) {
 		autoBuildJob.cancel();
+		inputFingerprint.clear();
 	}
 
 	@Override
@@ -1556,4 +1676,13 @@ public class BuildManager implements ICoreConstants, IManager, ILifecycleListene
 		this.earlyExitFromBuildLoopAllowed = earlyExitFromBuildLoopAllowed;
 	}
 
+	/**
+	 * Writes the known hashes of the contents of the inputs of the given
+	 * builders in their last built trees, so that their fingerprints can still
+	 * be updated from the delta in the next session.
+	 */
+	public void writeInputContentHashes(DataOutput output, List<BuilderPersistentInfo> builders) throws IOException {
+		inputFingerprint.writeContentHashes(output, builders);
+	}
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -29,6 +29,11 @@ public class BuilderPersistentInfo {
 	protected ElementTree lastBuildTree;
 	protected String projectName;
 	protected String configName;
+	/**
+	 * Fingerprint of the inputs of the last build, or
+	 * {@link BuildInputFingerprint#NONE} if it is unknown.
+	 */
+	protected long inputFingerprint = BuildInputFingerprint.NONE;
 
 	public BuilderPersistentInfo(String projectName, String builderName, int buildSpecIndex) {
 		this(projectName, null, builderName, buildSpecIndex);
@@ -58,6 +63,10 @@ public class BuilderPersistentInfo {
 		return configName;
 	}
 
+	public long getInputFingerprint() {
+		return inputFingerprint;
+	}
+
 	public IProject[] getInterestingProjects() {
 		return interestingProjects;
 	}
@@ -74,6 +83,10 @@ public class BuilderPersistentInfo {
 		this.configName = configName;
 	}
 
+	public void setInputFingerprint(long fingerprint) {
+		inputFingerprint = fingerprint;
+	}
+
 	public void setInterestingProjects(IProject[] projects) {
 		interestingProjects = projects;
 	}
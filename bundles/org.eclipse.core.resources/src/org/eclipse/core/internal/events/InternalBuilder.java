@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -61,6 +61,17 @@ public abstract class InternalBuilder {
 	 */
 	private boolean callOnEmptyDelta = false;
 
+	/**
+	 * The value of the fingerprintInputs builder extension attribute.
+	 */
+	private boolean fingerprintInputs = false;
+
+	/**
+	 * The fingerprint of the inputs of the last build, or
+	 * {@link BuildInputFingerprint#NONE} if it is unknown.
+	 */
+	private long inputFingerprint = BuildInputFingerprint.NONE;
+
 	/*
 	 *  @see IncrementalProjectBuilder#build
 	 */
@@ -72,6 +83,13 @@ public abstract class InternalBuilder {
 	final boolean callOnEmptyDelta() {
 		return callOnEmptyDelta;
 	}
+
+	/**
+	 * Returns the value of the fingerprintInputs builder extension attribute.
+	 */
+	final boolean fingerprintInputs() {
+		return fingerprintInputs;
+	}
 	/*
 	 * @see IncrementalProjectBuilder
 	 */
@@ -123,7 +141,11 @@ public abstract class InternalBuilder {
 		return context;
 	}
 
-	final IProject[] getInterestingProjects() {
+	final synchronized long getInputFingerprint() {
+		return inputFingerprint;
+	}
+
+	final synchronized IProject[] getInterestingProjects() {
 		return interestingProjects;
 	}
 
@@ -131,7 +153,7 @@ public abstract class InternalBuilder {
 		return label;
 	}
 
-	final ElementTree getLastBuiltTree() {
+	final synchronized ElementTree getLastBuiltTree() {
 		return oldState;
 	}
 
@@ -204,7 +226,24 @@ public abstract class InternalBuilder {
 		this.command = value;
 	}
 
-	final void setInterestingProjects(IProject[] value) {
+	final void setFingerprintInputs(boolean value) {
+		this.fingerprintInputs = value;
+	}
+
+	final synchronized void setInputFingerprint(long value) {
+		this.inputFingerprint = value;
+	}
+
+	/**
+	 * Sets the fingerprint of the inputs, computed for the given last built
+	 * tree and interesting projects, unless the builder ran again since.
+	 */
+	final synchronized void setInputFingerprint(long value, ElementTree tree, IProject[] projects) {
+		if (oldState == tree && interestingProjects == projects)
+			this.inputFingerprint = value;
+	}
+
+	final synchronized void setInterestingProjects(IProject[] value) {
 		interestingProjects = value;
 	}
 
@@ -212,7 +251,7 @@ public abstract class InternalBuilder {
 		this.label = value;
 	}
 
-	final void setLastBuiltTree(ElementTree value) {
+	final synchronized void setLastBuiltTree(ElementTree value) {
 		oldState = value;
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -292,6 +292,7 @@ public class NotificationManager implements IManager, ILifecycleListener {
 					final IResourceChangeListener listener = resourceListener.listener;
 					if (ResourceStats.TRACE_LISTENERS)
 						ResourceStats.startNotify(listener);
+					long notifyStart = System.nanoTime();
 					SafeRunner.run(new ISafeRunnable() {
 						@Override
 						public void handleException(Throwable e) {
@@ -305,6 +306,7 @@ public class NotificationManager implements IManager, ILifecycleListener {
 							listener.resourceChanged(event);
 						}
 					});
+					ResourceMetrics.recordSince(ResourceMetrics.LISTENERS, listener.getClass().getName(), notifyStart);
 					if (ResourceStats.TRACE_LISTENERS)
 						ResourceStats.endNotify();
 				}
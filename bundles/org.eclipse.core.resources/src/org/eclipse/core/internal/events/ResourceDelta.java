@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -99,6 +99,16 @@ public class ResourceDelta extends PlatformObject implements IResourceDelta {
 		}
 	}
 
+	/**
+	 * Returns the number of nodes in this delta, including this one.
+	 */
+	int countNodes() {
+		int count = 1;
+		for (ResourceDelta child : children)
+			count += child.countNodes();
+		return count;
+	}
+
 	@Override
 	public IResourceDelta findMember(IPath path) {
 		int segmentCount = path.segmentCount();
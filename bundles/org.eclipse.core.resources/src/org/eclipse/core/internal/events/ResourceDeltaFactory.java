@@ -18,6 +18,7 @@ import java.util.Map;
 import org.eclipse.core.internal.dtree.DeltaDataTree;
 import org.eclipse.core.internal.dtree.NodeComparison;
 import org.eclipse.core.internal.resources.*;
+import org.eclipse.core.internal.utils.PathInterner;
 import org.eclipse.core.internal.watson.ElementTree;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResourceDelta;
@@ -51,7 +52,7 @@ public class ResourceDeltaFactory {
 			delta = newTree.getDataTree().compareWith(oldTree.getDataTree(), comparator, root);
 
 		delta = delta.asReverseComparisonTree(comparator);
-		IPath pathInTree = root.isRoot() ? Path.ROOT : root;
+		IPath pathInTree = root.isRoot() ? Path.ROOT : PathInterner.intern(root);
 		IPath pathInDelta = Path.ROOT;
 
 		// get the marker deltas for the delta info object....if needed
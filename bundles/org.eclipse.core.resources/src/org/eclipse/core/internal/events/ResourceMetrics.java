@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.events;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates the time spent in builders, resource change listeners, save
+ * operations and waiting for the workspace lock, and the sizes of the deltas
+ * computed for builders. Unlike {@link ResourceStats}, which relies on
+ * {@link org.eclipse.core.runtime.PerformanceStats} being enabled by trace
+ * options, the metrics are always recorded: recording only updates the
+ * counters of a metric, so it is cheap enough to leave on in production.
+ * <p>
+ * Each metric is identified by a category, such as {@link #BUILDERS}, and a
+ * name within that category, such as the id of a builder. Durations are
+ * recorded in nanoseconds. {@link #toJSON()} returns a snapshot of all
+ * metrics, which is traced after every build and save when the
+ * <code>org.eclipse.core.resources/metrics</code> debug option is set.
+ * </p>
+ * <p>
+ * The metrics of a project are discarded when it is deleted or moved. Other
+ * names, such as those of listener classes, are not discarded, so once a
+ * category has {@link #MAX_NAMES} names, the values of new names are recorded
+ * under {@link #OTHER}.
+ * </p>
+ */
+public class ResourceMetrics {
+	/**
+	 * The aggregated values recorded for one name of a category.
+	 */
+	public static final class Metric {
+		private final LongAdder count = new LongAdder();
+		private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+		private final LongAdder total = new LongAdder();
+
+		void add(long value) {
+			count.increment();
+			total.add(value);
+			max.accumulate(value);
+		}
+
+		/**
+		 * Returns the number of recorded values.
+		 */
+		public long getCount() {
+			return count.sum();
+		}
+
+		/**
+		 * Returns the largest recorded value.
+		 */
+		public long getMax() {
+			return max.get();
+		}
+
+		/**
+		 * Returns the sum of the recorded values.
+		 */
+		public long getTotal() {
+			return total.sum();
+		}
+	}
+
+	/** Run time of builders, by builder id */
+	public static final String BUILDERS = "builders"; //$NON-NLS-1$
+	/** Number of nodes of the deltas computed for builders, by project name */
+	public static final String DELTAS = "deltas"; //$NON-NLS-1$
+	/** Run time of resource change listeners, by class name */
+	public static final String LISTENERS = "listeners"; //$NON-NLS-1$
+	/** Time spent waiting for the workspace lock or scheduling rules, by operation */
+	public static final String LOCKS = "locks"; //$NON-NLS-1$
+	/** Run time of all builders of a project, by project name */
+	public static final String PROJECTS = "projects"; //$NON-NLS-1$
+	/** Run time of save operations and their phases, by phase */
+	public static final String SAVE = "save"; //$NON-NLS-1$
+	/** Run time of save participants while saving, by class name */
+	public static final String SAVE_PARTICIPANTS = "save.participants"; //$NON-NLS-1$
+	/** Builds skipped because the inputs of the builder did not change, by builder id */
+	public static final String SKIPPED_BUILDS = "skipped.builds"; //$NON-NLS-1$
+
+	/** The largest number of names of a category */
+	public static final int MAX_NAMES = 1000;
+	/** The name under which values are recorded once a category has {@link #MAX_NAMES} names */
+	public static final String OTHER = "(other)"; //$NON-NLS-1$
+
+	private static final Map<String, Map<String, Metric>> metrics = new ConcurrentHashMap<>();
+
+	private static void appendString(StringBuilder buffer, String value) {
+		buffer.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\')
+				buffer.append('\\').append(c);
+			else if (c < 0x20)
+				buffer.append(String.format("\\u%04x", (int) c)); //$NON-NLS-1$
+			else
+				buffer.append(c);
+		}
+		buffer.append('"');
+	}
+
+	/**
+	 * Discards the metric with the given category and name.
+	 */
+	public static void discard(String category, String name) {
+		Map<String, Metric> names = metrics.get(category);
+		if (names != null)
+			names.remove(name);
+	}
+
+	/**
+	 * Discards the metrics of the project with the given name.
+	 */
+	public static void discardProject(String name) {
+		discard(DELTAS, name);
+		discard(PROJECTS, name);
+	}
+
+	/**
+	 * Returns the metric with the given category and name, or <code>null</code>
+	 * if nothing was recorded for it.
+	 */
+	public static Metric getMetric(String category, String name) {
+		Map<String, Metric> names = metrics.get(category);
+		return names == null ? null : names.get(name);
+	}
+
+	/**
+	 * Adds a value to the metric with the given category and name.
+	 */
+	public static void record(String category, String name, long value) {
+		Map<String, Metric> names = metrics.computeIfAbsent(category, c -> new ConcurrentHashMap<>());
+		Metric metric = names.get(name);
+		if (metric == null)
+			metric = names.computeIfAbsent(names.size() < MAX_NAMES ? name : OTHER, n -> new Metric());
+		metric.add(value);
+	}
+
+	/**
+	 * Records the time elapsed since the given start, as returned by
+	 * {@link System#nanoTime()}.
+	 */
+	public static void recordSince(String category, String name, long start) {
+		record(category, name, System.nanoTime() - start);
+	}
+
+	/**
+	 * Discards all metrics.
+	 */
+	public static void reset() {
+		metrics.clear();
+	}
+
+	/**
+	 * Returns a snapshot of all metrics as a JSON object, which maps each
+	 * category to an object mapping the names of its metrics to their
+	 * <code>count</code>, <code>total</code> and <code>max</code>.
+	 */
+	public static String toJSON() {
+		StringBuilder buffer = new StringBuilder();
+		buffer.append('{');
+		boolean firstCategory = true;
+		for (Map.Entry<String, Map<String, Metric>> category : new TreeMap<>(metrics).entrySet()) {
+			if (!firstCategory)
+				buffer.append(',');
+			firstCategory = false;
+			appendString(buffer, category.getKey());
+			buffer.append(":{"); //$NON-NLS-1$
+			boolean firstName = true;
+			for (Map.Entry<String, Metric> entry : new TreeMap<>(category.getValue()).entrySet()) {
+				if (!firstName)
+					buffer.append(',');
+				firstName = false;
+				Metric metric = entry.getValue();
+				appendString(buffer, entry.getKey());
+				buffer.append(":{\"count\":").append(metric.getCount()); //$NON-NLS-1$
+				buffer.append(",\"total\":").append(metric.getTotal()); //$NON-NLS-1$
+				buffer.append(",\"max\":").append(metric.getMax()).append('}'); //$NON-NLS-1$
+			}
+			buffer.append('}');
+		}
+		return buffer.append('}').toString();
+	}
+}
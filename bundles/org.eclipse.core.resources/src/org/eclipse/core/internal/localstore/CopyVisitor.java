@@ -16,8 +16,7 @@ package org.eclipse.core.internal.localstore;
 
 import java.net.URI;
 import java.util.LinkedList;
-import org.eclipse.core.filesystem.EFS;
-import org.eclipse.core.filesystem.IFileStore;
+import org.eclipse.core.filesystem.*;
 import org.eclipse.core.internal.resources.*;
 import org.eclipse.core.internal.utils.Messages;
 import org.eclipse.core.resources.*;
@@ -102,7 +101,8 @@ public class CopyVisitor implements IUnifiedTreeVisitor {
 			sourceStore.copy(destinationStore, EFS.SHALLOW, monitor.newChild(0));
 			//create the destination in the workspace
 			ResourceInfo info = localManager.getWorkspace().createResource(destination, updateFlags);
-			localManager.updateLocalSync(info, destinationStore.fetchInfo().getLastModified());
+			IFileInfo destinationInfo = destinationStore.fetchInfo();
+			localManager.updateLocalSync(info, destinationInfo.getLastModified(), destinationInfo.getFingerprint());
 			//update timestamps on aliases
 			getWorkspace().getAliasManager().updateAliases(destination, destinationStore, IResource.DEPTH_ZERO, monitor);
 			if (destination.getType() == IResource.FILE)
@@ -159,12 +159,9 @@ public class CopyVisitor implements IUnifiedTreeVisitor {
 		/* we don't care about folder last modified */
 		if (node.isFolder() && node.getResource().getType() == IResource.FOLDER)
 			return true;
-		/* is lastModified different? */
+		/* is lastModified or the fingerprint different? */
 		Resource target = (Resource) node.getResource();
-		long lastModifed = target.getResourceInfo(false, false).getLocalSyncInfo();
-		if (lastModifed != node.getLastModified())
-			return false;
-		return true;
+		return FileSystemResourceManager.isInSync(target.getResourceInfo(false, false), node.getLastModified(), node.getFingerprint());
 	}
 
 	protected void synchronize(UnifiedTreeNode node) throws CoreException {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -22,7 +22,12 @@ package org.eclipse.core.internal.localstore;
 
 import java.io.*;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import org.eclipse.core.filesystem.*;
 import org.eclipse.core.filesystem.URIUtil;
 import org.eclipse.core.internal.refresh.RefreshManager;
@@ -33,7 +38,6 @@ import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.*;
 import org.eclipse.core.runtime.Preferences.PropertyChangeEvent;
 import org.eclipse.osgi.util.NLS;
-import org.xml.sax.InputSource;
 
 /**
  * Manages the synchronization between the workspace's view and the file system.
@@ -48,8 +52,18 @@ public class FileSystemResourceManager implements ICoreConstants, IManager, Pref
 
 	private volatile boolean lightweightAutoRefreshEnabled;
 
+	private volatile boolean refreshOnAccessEnabled;
+
+	private final LightweightRefresher lightweightRefresher;
+
+	private final ProjectLocationIndex projectLocations;
+
+	private final ProjectDescriptionCache descriptionCache = new ProjectDescriptionCache();
+
 	public FileSystemResourceManager(Workspace workspace) {
 		this.workspace = workspace;
+		this.lightweightRefresher = new LightweightRefresher(workspace);
+		this.projectLocations = new ProjectLocationIndex(workspace, this);
 	}
 
 	/**
@@ -84,7 +98,8 @@ public class FileSystemResourceManager implements ICoreConstants, IManager, Pref
 			results.add(Path.ROOT);
 			return results;
 		}
-		for (IProject project : root.getProjects(IContainer.INCLUDE_HIDDEN)) {
+		// only the projects that may contain the location, or have links to check
+		for (IProject project : projectLocations.getCandidates(location)) {
 			if (!project.exists())
 				continue;
 			//check the project location
@@ -178,7 +193,7 @@ public class FileSystemResourceManager implements ICoreConstants, IManager, Pref
 	 * @param locationURI the URI to convert
 	 * @return a file URI or <code>null</code>
 	 */
-	private URI getFileURI(URI locationURI) {
+	URI getFileURI(URI locationURI) {
 		try {
 			IFileStore testLocationStore = EFS.getStore(locationURI);
 			java.io.File storeAsFile = testLocationStore.toLocalFile(EFS.NONE, null);
@@ -376,6 +391,9 @@ public class FileSystemResourceManager implements ICoreConstants, IManager, Pref
 	 * are not considered.
 	 */
 	private boolean descriptionChanged(IFile descriptionFile, byte[] newContents) {
+		//no need to read the file if it is known to be different
+		if (descriptionCache.isChanged(descriptionFile.getProject(), ((Resource) descriptionFile).getStore(), newContents))
+			return true;
 		//buffer size: twice the description length, but maximum 8KB
 		int bufsize = newContents.length > 4096 ? 8192 : newContents.length * 2;
 		try (
@@ -453,7 +471,7 @@ public class FileSystemResourceManager implements ICoreConstants, IManager, Pref
 		ResourceInfo info = target.getResourceInfo(false, false);
 		if (target.exists(target.getFlags(info), true)) {
 			IFileInfo fileInfo = getStore(target).fetchInfo();
-			if (!fileInfo.isDirectory() && info.getLocalSyncInfo() == fileInfo.getLastModified())
+			if (!fileInfo.isDirectory() && isInSync(info, fileInfo.getLastModified(), fileInfo.getFingerprint()))
 				return true;
 		}
 		return false;
@@ -673,6 +691,7 @@ public class FileSystemResourceManager implements ICoreConstants, IManager, Pref
 		long lastModified = ((Resource) descriptionFile).getResourceInfo(false, false).getLocalSyncInfo();
 		ResourceInfo info = ((Resource) target).getResourceInfo(false, true);
 		updateLocalSync(info, lastModified);
+		descriptionCache.written(target, descriptionFileStore, lastModified, newContents);
 
 		//for backwards compatibility, ensure the old .prj file is deleted
 		getWorkspace().getMetaArea().clearOldDescription(target);
@@ -758,13 +777,22 @@ public class FileSystemResourceManager implements ICoreConstants, IManager, Pref
 		return lightweightAutoRefreshEnabled;
 	}
 
+	/**
+	 * Check whether the preference {@link ResourcesPlugin#PREF_LIGHTWEIGHT_AUTO_REFRESH_ON_ACCESS}
+	 * is enabled.
+	 * @return whether containers are checked for changes on disk when they are accessed
+	 */
+	public boolean isRefreshOnAccessEnabled() {
+		return refreshOnAccessEnabled;
+	}
+
 	public void link(Resource target, URI location, IFileInfo fileInfo) throws CoreException {
 		initializeStore(target, location);
 		ResourceInfo info = target.getResourceInfo(false, true);
 		long lastModified = fileInfo == null ? 0 : fileInfo.getLastModified();
 		if (lastModified == 0)
 			info.clearModificationStamp();
-		updateLocalSync(info, lastModified);
+		updateLocalSync(info, lastModified, fileInfo == null ? EFS.NONE : fileInfo.getFingerprint());
 	}
 
 	/**
@@ -823,10 +851,95 @@ public class FileSystemResourceManager implements ICoreConstants, IManager, Pref
 	public void propertyChange(PropertyChangeEvent event) {
 		if (ResourcesPlugin.PREF_LIGHTWEIGHT_AUTO_REFRESH.equals(event.getProperty()))
 			lightweightAutoRefreshEnabled = Boolean.parseBoolean(event.getNewValue().toString());
+		else if (ResourcesPlugin.PREF_LIGHTWEIGHT_AUTO_REFRESH_ON_ACCESS.equals(event.getProperty())) {
+			refreshOnAccessEnabled = Boolean.parseBoolean(event.getNewValue().toString());
+			lightweightRefresher.clear();
+		}
+	}
+
+	/**
+	 * Requests a refresh of the direct members of the given container, or of
+	 * the parent of the given file, if its directory changed since it was last
+	 * accessed and {@link ResourcesPlugin#PREF_LIGHTWEIGHT_AUTO_REFRESH_ON_ACCESS}
+	 * is enabled.
+	 *
+	 * @see LightweightRefresher
+	 */
+	public void refreshOnAccess(IResource target) {
+		if (refreshOnAccessEnabled)
+			lightweightRefresher.check(target);
 	}
 
 	public InputStream read(IFile target, boolean force, IProgressMonitor monitor) throws CoreException {
 		IFileStore store = getStore(target);
+		checkReadable(target, store, force);
+		try {
+			return store.openInputStream(EFS.NONE, monitor);
+		} catch (CoreException e) {
+			if (e.getStatus().getCode() == EFS.ERROR_NOT_EXISTS) {
+				String message = NLS.bind(Messages.localstore_fileNotFound, store.toString());
+				throw new ResourceException(IResourceStatus.RESOURCE_NOT_FOUND, target.getFullPath(), message, e);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the contents of the given file. Local files are read with a
+	 * single call instead of through a stream. The checks are the same as
+	 * for {@link #read(IFile, boolean, IProgressMonitor)}.
+	 */
+	public byte[] readAllBytes(IFile target, boolean force, IProgressMonitor monitor) throws CoreException {
+		IFileStore store = getStore(target);
+		checkReadable(target, store, force);
+		java.io.File file = store.toLocalFile(EFS.NONE, null);
+		if (file == null) {
+			try (InputStream in = read(target, true, monitor)) {
+				return in.readAllBytes();
+			} catch (IOException e) {
+				String message = NLS.bind(Messages.localstore_couldNotRead, store.toString());
+				throw new ResourceException(IResourceStatus.FAILED_READ_LOCAL, target.getFullPath(), message, e);
+			}
+		}
+		try {
+			return Files.readAllBytes(file.toPath());
+		} catch (NoSuchFileException e) {
+			String message = NLS.bind(Messages.localstore_fileNotFound, store.toString());
+			throw new ResourceException(IResourceStatus.RESOURCE_NOT_FOUND, target.getFullPath(), message, e);
+		} catch (IOException e) {
+			String message = NLS.bind(Messages.localstore_couldNotRead, store.toString());
+			throw new ResourceException(IResourceStatus.FAILED_READ_LOCAL, target.getFullPath(), message, e);
+		}
+	}
+
+	/**
+	 * Returns a read-only buffer with the contents of the given file, which is
+	 * memory-mapped for local files. The checks are the same as for
+	 * {@link #read(IFile, boolean, IProgressMonitor)}.
+	 */
+	public ByteBuffer readBuffer(IFile target, boolean force, IProgressMonitor monitor) throws CoreException {
+		IFileStore store = getStore(target);
+		checkReadable(target, store, force);
+		try {
+			return store.readBuffer(EFS.NONE, monitor);
+		} catch (CoreException e) {
+			if (e.getStatus().getCode() == EFS.ERROR_NOT_EXISTS) {
+				String message = NLS.bind(Messages.localstore_fileNotFound, store.toString());
+				throw new ResourceException(IResourceStatus.RESOURCE_NOT_FOUND, target.getFullPath(), message, e);
+			}
+			if (e.getStatus().getCode() == EFS.ERROR_READ) {
+				String message = NLS.bind(Messages.localstore_couldNotRead, store.toString());
+				throw new ResourceException(IResourceStatus.FAILED_READ_LOCAL, target.getFullPath(), message, e);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Fails if the given file does not exist, or if it is out of sync and
+	 * <code>force</code> is false.
+	 */
+	private void checkReadable(IFile target, IFileStore store, boolean force) throws CoreException {
 		if (lightweightAutoRefreshEnabled || !force) {
 			final IFileInfo fileInfo = store.fetchInfo();
 			if (!fileInfo.exists()) {
@@ -837,7 +950,7 @@ public class FileSystemResourceManager implements ICoreConstants, IManager, Pref
 			ResourceInfo info = ((Resource) target).getResourceInfo(true, false);
 			int flags = ((Resource) target).getFlags(info);
 			((Resource) target).checkExists(flags, true);
-			if (fileInfo.getLastModified() != info.getLocalSyncInfo()) {
+			if (!isInSync(info, fileInfo.getLastModified(), fileInfo.getFingerprint())) {
 				asyncRefresh(target);
 				if (!force) {
 					String message = NLS.bind(Messages.localstore_resourceIsOutOfSync, target.getFullPath());
@@ -845,15 +958,6 @@ public class FileSystemResourceManager implements ICoreConstants, IManager, Pref
 				}
 			}
 		}
-		try {
-			return store.openInputStream(EFS.NONE, monitor);
-		} catch (CoreException e) {
-			if (e.getStatus().getCode() == EFS.ERROR_NOT_EXISTS) {
-				String message = NLS.bind(Messages.localstore_fileNotFound, store.toString());
-				throw new ResourceException(IResourceStatus.RESOURCE_NOT_FOUND, target.getFullPath(), message, e);
-			}
-			throw e;
-		}
 	}
 
 	/**
@@ -890,11 +994,12 @@ public class FileSystemResourceManager implements ICoreConstants, IManager, Pref
 		ProjectDescription description = null;
 		//hold onto any exceptions until after sync info is updated, then throw it
 		ResourceException error = null;
-		try (
-			InputStream in = new BufferedInputStream(descriptionStore.openInputStream(EFS.NONE, SubMonitor.convert(null)));
-		) {
-			// IFileStore#openInputStream may cancel the monitor, thus the monitor state is checked
-			description = new ProjectDescriptionReader(target).read(new InputSource(in));
+		try {
+			//use the description parsed ahead of time if the file did not change since
+			description = descriptionCache.take(target, descriptionStore);
+			if (description == null)
+				// IFileStore#openInputStream may cancel the monitor, thus the monitor state is checked
+				description = descriptionCache.parse(target, descriptionStore);
 		} catch (OperationCanceledException e) {
 			String msg = NLS.bind(Messages.resources_missingProjectMeta, target.getName());
 			throw new ResourceException(IResourceStatus.FAILED_READ_METADATA, target.getFullPath(), msg, e);
@@ -966,6 +1071,8 @@ public class FileSystemResourceManager implements ICoreConstants, IManager, Pref
 	protected boolean refreshResource(IResource target, int depth, boolean updateAliases, IProgressMonitor monitor) throws CoreException {
 		String title = NLS.bind(Messages.localstore_refreshing, target.getFullPath());
 		SubMonitor subMonitor = SubMonitor.convert(monitor, title, 100);
+		// an explicit refresh must not see information cached by the file system
+		EFS.invalidateCache(((Resource) target).getStore().toURI());
 		IFileTree fileTree = null;
 		// If there can be more than one resource to refresh, try to get the whole tree in one shot, if the file system supports it.
 		if (depth != IResource.DEPTH_ZERO) {
@@ -1034,7 +1141,7 @@ public class FileSystemResourceManager implements ICoreConstants, IManager, Pref
 		//actual value may be different depending on file system granularity
 		fileInfo = store.fetchInfo();
 		long actualValue = fileInfo.getLastModified();
-		updateLocalSync(info, actualValue);
+		updateLocalSync(info, actualValue, fileInfo.getFingerprint());
 		return actualValue;
 	}
 
@@ -1073,25 +1180,98 @@ public class FileSystemResourceManager implements ICoreConstants, IManager, Pref
 			workspace.getRefreshManager().refresh(resource);
 	}
 
+	/**
+	 * Parses the description files of the given open projects in parallel, so
+	 * reading their descriptions with {@link #read(IProject, boolean)} while
+	 * the workspace is restored does not parse them one after another.
+	 */
+	public void prefetchDescriptions(IProject[] projects) {
+		List<IProject> openProjects = new ArrayList<>(projects.length);
+		for (IProject project : projects)
+			if (project.isOpen())
+				openProjects.add(project);
+		if (openProjects.size() < 2)
+			return;
+		// never use a shared ForkJoinPool.commonPool() as it may be busy with other tasks, which might deadlock:
+		ForkJoinPool forkJoinPool = new ForkJoinPool(ForkJoinPool.getCommonPoolParallelism());
+		try {
+			forkJoinPool.submit(() -> openProjects.parallelStream().forEach(project -> {
+				//like read(project, true), but without touching the resource tree
+				ProjectDescription privateDescription = new ProjectDescription();
+				getWorkspace().getMetaArea().readPrivateDescription(project, privateDescription);
+				URI location = privateDescription.getLocationURI();
+				if (location == null)
+					location = URIUtil.toURI(getProjectDefaultLocation(project));
+				try {
+					descriptionCache.prefetch(project, EFS.getStore(location).getChild(IProjectDescription.DESCRIPTION_FILE_NAME));
+				} catch (CoreException e) {
+					//read it when it is needed
+				}
+			})).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			//the remaining descriptions are read when they are needed
+		} finally {
+			forkJoinPool.shutdown();
+		}
+	}
+
+	/**
+	 * Forgets the descriptions parsed by {@link #prefetchDescriptions(IProject[])}
+	 * that were not read.
+	 */
+	public void clearPrefetchedDescriptions() {
+		descriptionCache.clearParsed();
+	}
+
 	@Override
 	public void shutdown(IProgressMonitor monitor) throws CoreException {
 		if (_historyStore != null)
 			_historyStore.shutdown(monitor);
 		ResourcesPlugin.getPlugin().getPluginPreferences().removePropertyChangeListener(this);
+		workspace.removeResourceChangeListener(projectLocations);
+		descriptionCache.clear();
 	}
 
 	@Override
 	public void startup(IProgressMonitor monitor) {
 		Preferences preferences = ResourcesPlugin.getPlugin().getPluginPreferences();
 		preferences.addPropertyChangeListener(this);
+		workspace.addLifecycleListener(projectLocations);
+		workspace.addResourceChangeListener(projectLocations, IResourceChangeEvent.POST_CHANGE);
 		lightweightAutoRefreshEnabled = preferences.getBoolean(ResourcesPlugin.PREF_LIGHTWEIGHT_AUTO_REFRESH);
+		refreshOnAccessEnabled = preferences.getBoolean(ResourcesPlugin.PREF_LIGHTWEIGHT_AUTO_REFRESH_ON_ACCESS);
+	}
+
+	/**
+	 * Returns whether the given last modified time and fingerprint of a file
+	 * match the local sync info of its resource. The fingerprint is only compared
+	 * if both the file system and the resource have one, so a change within the
+	 * granularity of the last modified time can be detected where possible.
+	 */
+	public static boolean isInSync(ResourceInfo info, long lastModified, long fingerprint) {
+		if (info.getLocalSyncInfo() != lastModified)
+			return false;
+		long localFingerprint = info.getLocalSyncFingerprint();
+		return localFingerprint == EFS.NONE || fingerprint == EFS.NONE || localFingerprint == fingerprint;
 	}
 
 	/**
+	 * Sets the local sync info of the given resource, and forgets its fingerprint.
 	 * The ResourceInfo must be mutable.
 	 */
 	public void updateLocalSync(ResourceInfo info, long localSyncInfo) {
+		updateLocalSync(info, localSyncInfo, EFS.NONE);
+	}
+
+	/**
+	 * Sets the local sync info and fingerprint of the given resource.
+	 * The ResourceInfo must be mutable.
+	 */
+	public void updateLocalSync(ResourceInfo info, long localSyncInfo, long fingerprint) {
 		info.setLocalSyncInfo(localSyncInfo);
+		info.setLocalSyncFingerprint(fingerprint);
 		if (localSyncInfo == I_NULL_SYNC_INFO)
 			info.clear(M_LOCAL_EXISTS);
 		else
@@ -1106,94 +1286,135 @@ public class FileSystemResourceManager implements ICoreConstants, IManager, Pref
 	 * is thrown.
 	 */
 	public void write(IFile target, InputStream content, IFileInfo fileInfo, int updateFlags, boolean append, IProgressMonitor monitor) throws CoreException {
-		SubMonitor subMonitor = SubMonitor.convert(monitor, 4);
 		try {
-			IFileStore store = getStore(target);
-			if (fileInfo.getAttribute(EFS.ATTRIBUTE_READ_ONLY)) {
-				String message = NLS.bind(Messages.localstore_couldNotWriteReadOnly, target.getFullPath());
-				throw new ResourceException(IResourceStatus.FAILED_WRITE_LOCAL, target.getFullPath(), message, null);
+			write(target, fileInfo, updateFlags, append, (store, options, subMonitor) -> {
+				OutputStream out = store.openOutputStream(options, subMonitor.split(1));
+				FileUtil.transferStreams(content, out, store.toString(), subMonitor.split(1));
+			}, monitor);
+		} finally {
+			FileUtil.safeClose(content);
+		}
+	}
+
+	/**
+	 * Writes the given contents to the given file with the same checks as
+	 * {@link #write(IFile, InputStream, IFileInfo, int, boolean, IProgressMonitor)}.
+	 * Local files are written with a single call instead of through a stream.
+	 */
+	public void write(IFile target, byte[] content, IFileInfo fileInfo, int updateFlags, IProgressMonitor monitor) throws CoreException {
+		write(target, fileInfo, updateFlags, false, (store, options, subMonitor) -> {
+			java.io.File file = store.toLocalFile(EFS.NONE, null);
+			if (file == null) {
+				try (OutputStream out = store.openOutputStream(options, subMonitor.split(1))) {
+					out.write(content);
+				} catch (IOException e) {
+					String message = NLS.bind(Messages.localstore_couldNotWrite, store.toString());
+					throw new ResourceException(IResourceStatus.FAILED_WRITE_LOCAL, target.getFullPath(), message, e);
+				}
+				return;
 			}
-			long lastModified = fileInfo.getLastModified();
-			if (BitMask.isSet(updateFlags, IResource.FORCE)) {
-				if (append && !target.isLocal(IResource.DEPTH_ZERO) && !fileInfo.exists()) {
-					// force=true, local=false, existsInFileSystem=false
-					String message = NLS.bind(Messages.resources_mustBeLocal, target.getFullPath());
-					throw new ResourceException(IResourceStatus.RESOURCE_NOT_LOCAL, target.getFullPath(), message, null);
+			try {
+				Files.write(file.toPath(), content);
+			} catch (IOException e) {
+				String message = NLS.bind(Messages.localstore_couldNotWrite, store.toString());
+				throw new ResourceException(IResourceStatus.FAILED_WRITE_LOCAL, target.getFullPath(), message, e);
+			}
+		}, monitor);
+	}
+
+	/**
+	 * Writes the contents of a file to its store, given the options for opening it.
+	 */
+	@FunctionalInterface
+	private interface ContentWriter {
+		void write(IFileStore store, int options, SubMonitor monitor) throws CoreException;
+	}
+
+	private void write(IFile target, IFileInfo fileInfo, int updateFlags, boolean append, ContentWriter writer, IProgressMonitor monitor) throws CoreException {
+		SubMonitor subMonitor = SubMonitor.convert(monitor, 4);
+		IFileStore store = getStore(target);
+		if (fileInfo.getAttribute(EFS.ATTRIBUTE_READ_ONLY)) {
+			String message = NLS.bind(Messages.localstore_couldNotWriteReadOnly, target.getFullPath());
+			throw new ResourceException(IResourceStatus.FAILED_WRITE_LOCAL, target.getFullPath(), message, null);
+		}
+		long lastModified = fileInfo.getLastModified();
+		if (BitMask.isSet(updateFlags, IResource.FORCE)) {
+			if (append && !target.isLocal(IResource.DEPTH_ZERO) && !fileInfo.exists()) {
+				// force=true, local=false, existsInFileSystem=false
+				String message = NLS.bind(Messages.resources_mustBeLocal, target.getFullPath());
+				throw new ResourceException(IResourceStatus.RESOURCE_NOT_LOCAL, target.getFullPath(), message, null);
+			}
+		} else {
+			if (target.isLocal(IResource.DEPTH_ZERO)) {
+				ResourceInfo info = ((Resource) target).getResourceInfo(true, false);
+				if (info == null) {
+					throw new IllegalStateException("No ResourceInfo for: " + target); //$NON-NLS-1$
+				}
+				// test if timestamp and fingerprint are the same since last synchronization
+				if (!isInSync(info, lastModified, fileInfo.getFingerprint())) {
+					asyncRefresh(target);
+					String message = NLS.bind(Messages.localstore_resourceIsOutOfSync, target.getFullPath());
+					throw new ResourceException(IResourceStatus.OUT_OF_SYNC_LOCAL, target.getFullPath(), message, null);
+				}
+				if (!fileInfo.exists()) {
+					asyncRefresh(target);
+					String message = NLS.bind(Messages.localstore_resourceDoesNotExist, target.getFullPath());
+					throw new ResourceException(IResourceStatus.NOT_FOUND_LOCAL, target.getFullPath(), message, null);
 				}
 			} else {
-				if (target.isLocal(IResource.DEPTH_ZERO)) {
-					ResourceInfo info = ((Resource) target).getResourceInfo(true, false);
-					if (info == null) {
-						throw new IllegalStateException("No ResourceInfo for: " + target); //$NON-NLS-1$
-					}
-					// test if timestamp is the same since last synchronization
-					if (lastModified != info.getLocalSyncInfo()) {
-						asyncRefresh(target);
-						String message = NLS.bind(Messages.localstore_resourceIsOutOfSync, target.getFullPath());
-						throw new ResourceException(IResourceStatus.OUT_OF_SYNC_LOCAL, target.getFullPath(), message, null);
-					}
-					if (!fileInfo.exists()) {
-						asyncRefresh(target);
-						String message = NLS.bind(Messages.localstore_resourceDoesNotExist, target.getFullPath());
-						throw new ResourceException(IResourceStatus.NOT_FOUND_LOCAL, target.getFullPath(), message, null);
-					}
-				} else {
-					if (fileInfo.exists()) {
-						String message = NLS.bind(Messages.localstore_resourceExists, target.getFullPath());
-						throw new ResourceException(IResourceStatus.EXISTS_LOCAL, target.getFullPath(), message, null);
-					}
-					if (append) {
-						String message = NLS.bind(Messages.resources_mustBeLocal, target.getFullPath());
-						throw new ResourceException(IResourceStatus.RESOURCE_NOT_LOCAL, target.getFullPath(), message, null);
-					}
+				if (fileInfo.exists()) {
+					String message = NLS.bind(Messages.localstore_resourceExists, target.getFullPath());
+					throw new ResourceException(IResourceStatus.EXISTS_LOCAL, target.getFullPath(), message, null);
 				}
-			}
-			// add entry to History Store.
-			if (BitMask.isSet(updateFlags, IResource.KEEP_HISTORY) && fileInfo.exists()
-					&& FileSystemResourceManager.storeHistory(target))
-				//never move to the history store, because then the file is missing if write fails
-				getHistoryStore().addState(target.getFullPath(), store, fileInfo, false);
-			if (!fileInfo.exists()) {
-				IFileStore parent = store.getParent();
-				IFileInfo parentInfo = parent.fetchInfo();
-				if (!parentInfo.exists()) {
-					parent.mkdir(EFS.NONE, null);
+				if (append) {
+					String message = NLS.bind(Messages.resources_mustBeLocal, target.getFullPath());
+					throw new ResourceException(IResourceStatus.RESOURCE_NOT_LOCAL, target.getFullPath(), message, null);
 				}
 			}
-
-			// On Windows an attempt to open an output stream on a hidden file results in FileNotFoundException.
-			// See https://bugs.eclipse.org/bugs/show_bug.cgi?id=194216
-			boolean restoreHiddenAttribute = false;
-			if (fileInfo.exists() && fileInfo.getAttribute(EFS.ATTRIBUTE_HIDDEN) && Platform.getOS().equals(Platform.OS_WIN32)) {
-				fileInfo.setAttribute(EFS.ATTRIBUTE_HIDDEN, false);
-				store.putInfo(fileInfo, EFS.SET_ATTRIBUTES, subMonitor.split(1));
-				restoreHiddenAttribute = true;
-			} else {
-				subMonitor.split(1);
+		}
+		// add entry to History Store.
+		if (BitMask.isSet(updateFlags, IResource.KEEP_HISTORY) && fileInfo.exists()
+				&& FileSystemResourceManager.storeHistory(target))
+			//never move to the history store, because then the file is missing if write fails
+			getHistoryStore().addState(target.getFullPath(), store, fileInfo, false);
+		if (!fileInfo.exists()) {
+			IFileStore parent = store.getParent();
+			IFileInfo parentInfo = parent.fetchInfo();
+			if (!parentInfo.exists()) {
+				parent.mkdir(EFS.NONE, null);
 			}
-			int options = append ? EFS.APPEND : EFS.NONE;
-			OutputStream out = store.openOutputStream(options, subMonitor.split(1));
+		}
+
+		// On Windows an attempt to open an output stream on a hidden file results in FileNotFoundException.
+		// See https://bugs.eclipse.org/bugs/show_bug.cgi?id=194216
+		boolean restoreHiddenAttribute = false;
+		if (fileInfo.exists() && fileInfo.getAttribute(EFS.ATTRIBUTE_HIDDEN) && Platform.getOS().equals(Platform.OS_WIN32)) {
+			fileInfo.setAttribute(EFS.ATTRIBUTE_HIDDEN, false);
+			store.putInfo(fileInfo, EFS.SET_ATTRIBUTES, subMonitor.split(1));
+			restoreHiddenAttribute = true;
+		} else {
+			subMonitor.split(1);
+		}
+		int options = append ? EFS.APPEND : EFS.NONE;
+		try {
+			writer.write(store, options, subMonitor);
+		} finally {
 			if (restoreHiddenAttribute) {
 				fileInfo.setAttribute(EFS.ATTRIBUTE_HIDDEN, true);
-				store.putInfo(fileInfo, EFS.SET_ATTRIBUTES, subMonitor.split(1));
-			} else {
-				subMonitor.split(1);
-			}
-			FileUtil.transferStreams(content, out, store.toString(), subMonitor.split(1));
-			// get the new last modified time and stash in the info
-			lastModified = store.fetchInfo().getLastModified();
-			ResourceInfo info = ((Resource) target).getResourceInfo(false, true);
-			if (info == null) {
-				// happens see Bug 571133
-				throw new IllegalStateException("No ResourceInfo for: " + target); //$NON-NLS-1$
+				store.putInfo(fileInfo, EFS.SET_ATTRIBUTES, subMonitor.newChild(1));
 			}
-			updateLocalSync(info, lastModified);
-			info.incrementContentId();
-			info.clear(M_CONTENT_CACHE);
-			workspace.updateModificationStamp(info);
-		} finally {
-			FileUtil.safeClose(content);
 		}
+		// get the new last modified time and fingerprint and stash in the info
+		IFileInfo newFileInfo = store.fetchInfo();
+		ResourceInfo info = ((Resource) target).getResourceInfo(false, true);
+		if (info == null) {
+			// happens see Bug 571133
+			throw new IllegalStateException("No ResourceInfo for: " + target); //$NON-NLS-1$
+		}
+		updateLocalSync(info, newFileInfo.getLastModified(), newFileInfo.getFingerprint());
+		info.incrementContentId();
+		info.clear(M_CONTENT_CACHE);
+		workspace.updateModificationStamp(info);
 	}
 
 	/**
@@ -1215,7 +1436,8 @@ public class FileSystemResourceManager implements ICoreConstants, IManager, Pref
 		}
 		store.mkdir(EFS.NONE, monitor);
 		ResourceInfo info = ((Resource) target).getResourceInfo(false, true);
-		updateLocalSync(info, store.fetchInfo().getLastModified());
+		IFileInfo fileInfo = store.fetchInfo();
+		updateLocalSync(info, fileInfo.getLastModified(), fileInfo.getFingerprint());
 	}
 
 	/**
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.localstore;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.core.filesystem.*;
+import org.eclipse.core.internal.refresh.RefreshManager;
+import org.eclipse.core.internal.resources.*;
+import org.eclipse.core.resources.*;
+import org.eclipse.core.runtime.IPath;
+
+/**
+ * Checks containers for changes on disk when they are accessed, if
+ * {@link ResourcesPlugin#PREF_LIGHTWEIGHT_AUTO_REFRESH_ON_ACCESS} is enabled.
+ * <p>
+ * The modification time of the directory of each container that is accessed
+ * is remembered. Adding, removing or renaming a member changes it, so when a
+ * container is accessed again and the time differs, a refresh of the container
+ * and its direct members is requested. Changed contents of existing files are
+ * found by the checks done when files are read or written.
+ * </p>
+ * <p>
+ * The first access of a container only remembers the time, so changes made
+ * before that are found by a refresh or by the other auto-refresh mechanisms.
+ * A container is checked at most once per {@link #CHECK_INTERVAL}, so
+ * accessing it in a loop costs one file system call. Only containers in the
+ * local file system are checked.
+ * </p>
+ */
+public class LightweightRefresher {
+	/**
+	 * Time (in milliseconds) during which a container is not checked again.
+	 */
+	public static final long CHECK_INTERVAL = 1000;
+
+	/**
+	 * The number of remembered directories at which all are forgotten.
+	 */
+	private static final int MAX_ENTRIES = 100000;
+
+	private static final class Stamp {
+		final long checked;
+		final long lastModified;
+
+		Stamp(long lastModified, long checked) {
+			this.lastModified = lastModified;
+			this.checked = checked;
+		}
+	}
+
+	private final Map<IPath, Stamp> stamps = new ConcurrentHashMap<>();
+	private final Workspace workspace;
+
+	public LightweightRefresher(Workspace workspace) {
+		this.workspace = workspace;
+	}
+
+	/**
+	 * Checks the directory of the given container, or of the parent of the
+	 * given file, and requests a refresh if it changed since the last check.
+	 */
+	public void check(IResource resource) {
+		Resource container = (Resource) (resource.getType() == IResource.FILE ? resource.getParent() : resource);
+		if (container.getType() == IResource.ROOT)
+			return;
+		IPath path = container.getFullPath();
+		long now = System.currentTimeMillis();
+		Stamp stamp = stamps.get(path);
+		if (stamp != null && now - stamp.checked < CHECK_INTERVAL)
+			return;
+		// use the resource info rather than API that checks existence, which calls back
+		if (!container.exists(container.getFlags(container.getResourceInfo(false, false)), true) || !((Project) container.getProject()).isOpen())
+			return;
+		FileSystemResourceManager localManager = workspace.getFileSystemManager();
+		URI location = localManager.locationURIFor(container, false);
+		if (location == null || !EFS.SCHEME_FILE.equals(location.getScheme()))
+			return;
+		IFileInfo info = localManager.getStore(container).fetchInfo();
+		long lastModified = info.exists() && info.isDirectory() ? info.getLastModified() : EFS.NONE;
+		if (stamps.size() >= MAX_ENTRIES)
+			stamps.clear();
+		stamps.put(path, new Stamp(lastModified, now));
+		if (stamp != null && stamp.lastModified != lastModified) {
+			RefreshManager refreshManager = workspace.getRefreshManager();
+			// refreshManager can be null during shutdown
+			if (refreshManager != null)
+				refreshManager.refreshMembers((IContainer) container);
+		}
+	}
+
+	/**
+	 * Forgets all directories.
+	 */
+	public void clear() {
+		stamps.clear();
+	}
+}
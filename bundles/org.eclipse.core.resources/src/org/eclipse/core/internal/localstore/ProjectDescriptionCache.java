@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.localstore;
+
+import java.io.*;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.core.filesystem.*;
+import org.eclipse.core.internal.resources.ProjectDescription;
+import org.eclipse.core.internal.resources.ProjectDescriptionReader;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.*;
+import org.xml.sax.InputSource;
+
+/**
+ * Remembers the project description files that were read or written, so they
+ * are not read more often than necessary.
+ * <p>
+ * Descriptions can be parsed ahead of time, for example in parallel while the
+ * workspace is restored. A parsed description is handed out once, if the time
+ * stamp and length of its file did not change since it was parsed.
+ * </p>
+ * <p>
+ * For every project, the stamp of the description file and a hash of its
+ * contents, which ignores line endings, are kept. When a description is
+ * written, a different hash tells that it changed without reading the file.
+ * Equal hashes still require comparing the contents.
+ * </p>
+ */
+public class ProjectDescriptionCache {
+	private static final class Entry {
+		final ProjectDescription description;
+		final int hash;
+		final long lastModified;
+		final long length;
+		final URI location;
+
+		Entry(URI location, long lastModified, long length, int hash, ProjectDescription description) {
+			this.location = location;
+			this.lastModified = lastModified;
+			this.length = length;
+			this.hash = hash;
+			this.description = description;
+		}
+
+		boolean matches(URI otherLocation, IFileInfo info) {
+			return location.equals(otherLocation) && info.exists() && info.getLastModified() == lastModified && info.getLength() == length;
+		}
+	}
+
+	private final Map<IProject, Entry> parsed = new ConcurrentHashMap<>();
+	private final Map<IProject, Entry> stamps = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns a hash of the given contents in which all sequences of line
+	 * terminators are equal, since differences in line endings are ignored
+	 * when a description is written.
+	 */
+	static int hash(byte[] contents) {
+		int hash = 1;
+		boolean newLine = false;
+		for (byte b : contents) {
+			if (b == '\r' || b == '\n') {
+				newLine = true;
+				continue;
+			}
+			if (newLine) {
+				hash = 31 * hash + '\n';
+				newLine = false;
+			}
+			hash = 31 * hash + b;
+		}
+		return newLine ? 31 * hash + '\n' : hash;
+	}
+
+	/**
+	 * Forgets all descriptions and stamps.
+	 */
+	public void clear() {
+		parsed.clear();
+		stamps.clear();
+	}
+
+	/**
+	 * Forgets the descriptions that were parsed ahead of time and not used.
+	 */
+	public void clearParsed() {
+		parsed.clear();
+	}
+
+	/**
+	 * Returns <code>true</code> if the description file of the given project
+	 * is known to differ from the given contents, and <code>false</code> if
+	 * the file has to be compared.
+	 */
+	public boolean isChanged(IProject project, IFileStore store, byte[] newContents) {
+		Entry stamp = stamps.get(project);
+		return stamp != null && stamp.hash != hash(newContents) && stamp.matches(store.toURI(), store.fetchInfo());
+	}
+
+	/**
+	 * Reads and parses the description file of the given project, and
+	 * remembers its stamp. Returns <code>null</code> if the description could
+	 * not be parsed.
+	 */
+	public ProjectDescription parse(IProject project, IFileStore store) throws CoreException, IOException {
+		IFileInfo info = store.fetchInfo();
+		byte[] contents;
+		try (InputStream in = store.openInputStream(EFS.NONE, SubMonitor.convert(null))) {
+			contents = in.readAllBytes();
+		}
+		ProjectDescription description = new ProjectDescriptionReader(project).read(new InputSource(new ByteArrayInputStream(contents)));
+		stamps.put(project, new Entry(store.toURI(), info.getLastModified(), info.getLength(), hash(contents), null));
+		return description;
+	}
+
+	/**
+	 * Parses the description file of the given project ahead of time, so a
+	 * later call to {@link #take(IProject, IFileStore)} does not parse it.
+	 * Failures are ignored: the file is read again when the description is
+	 * needed.
+	 */
+	public void prefetch(IProject project, IFileStore store) {
+		try {
+			IFileInfo info = store.fetchInfo();
+			if (!info.exists())
+				return;
+			ProjectDescription description = parse(project, store);
+			if (description != null)
+				parsed.put(project, new Entry(store.toURI(), info.getLastModified(), info.getLength(), 0, description));
+		} catch (CoreException | IOException | RuntimeException e) {
+			// read it again later
+		}
+	}
+
+	/**
+	 * Records the stamp and contents of a description file that was just
+	 * written.
+	 */
+	public void written(IProject project, IFileStore store, long lastModified, byte[] contents) {
+		parsed.remove(project);
+		stamps.put(project, new Entry(store.toURI(), lastModified, contents.length, hash(contents), null));
+	}
+
+	/**
+	 * Returns the description of the given project that was parsed ahead of
+	 * time, if its file did not change since, or <code>null</code>. The
+	 * description is returned only once.
+	 */
+	public ProjectDescription take(IProject project, IFileStore store) {
+		Entry entry = parsed.remove(project);
+		if (entry == null || !entry.matches(store.toURI(), store.fetchInfo()))
+			return null;
+		return entry.description;
+	}
+}
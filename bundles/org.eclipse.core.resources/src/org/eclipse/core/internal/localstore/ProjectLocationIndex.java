@@ -0,0 +1,229 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.localstore;
+
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.internal.events.ILifecycleListener;
+import org.eclipse.core.internal.events.LifecycleEvent;
+import org.eclipse.core.internal.resources.*;
+import org.eclipse.core.resources.*;
+
+/**
+ * An index of the locations of all projects, so the projects whose location
+ * contains a given location are found in time proportional to the number of
+ * segments of the location rather than to the number of projects.
+ * <p>
+ * Locations are kept in a tree of path segments for each scheme and
+ * authority. A project that is not in the local file system is indexed under
+ * both its own location and its local file location, if there is one. The
+ * projects with links are indexed by the scheme of their location, since
+ * {@link FileSystemResourceManager} checks their links for locations of
+ * other schemes.
+ * </p>
+ * <p>
+ * The index only narrows down the projects to check: callers still compare
+ * the locations of the returned projects. It is built lazily and discarded
+ * when projects are created, deleted, opened, closed or moved, or their
+ * description or links change. The lifecycle events of these changes come
+ * before the change, so from then on until the end of the operation the
+ * index is built for each request and not kept.
+ * </p>
+ */
+public class ProjectLocationIndex implements ILifecycleListener, IResourceChangeListener {
+	private static final class Node {
+		Map<String, Node> children;
+		List<IProject> projects;
+
+		Node getChild(String segment) {
+			if (children == null)
+				children = new HashMap<>(4);
+			return children.computeIfAbsent(segment, s -> new Node());
+		}
+	}
+
+	/**
+	 * An immutable index of the projects at one point in time.
+	 */
+	private static final class Snapshot {
+		/** Projects with links, by the scheme of the project location. */
+		final Map<String, List<IProject>> linkedProjects = new HashMap<>();
+		/** Trees of project locations, by scheme and authority. */
+		final Map<String, Node> roots = new HashMap<>();
+		final int version;
+
+		Snapshot(int version) {
+			this.version = version;
+		}
+
+		void add(URI location, IProject project) {
+			String[] segments = segmentsOf(location);
+			if (segments == null)
+				return;
+			Node node = roots.computeIfAbsent(rootKeyOf(location), k -> new Node());
+			for (String segment : segments)
+				node = node.getChild(segment);
+			if (node.projects == null)
+				node.projects = new ArrayList<>(1);
+			node.projects.add(project);
+		}
+	}
+
+	/**
+	 * Whether projects or links are changing in the current operation. Set by
+	 * the lifecycle events and cleared after the post change event.
+	 */
+	private volatile boolean changing;
+	private final FileSystemResourceManager localManager;
+	private volatile Snapshot snapshot;
+	private final AtomicInteger version = new AtomicInteger();
+	private final Workspace workspace;
+
+	/**
+	 * Returns the key of the tree for the scheme and authority of the given
+	 * location. Schemes are compared ignoring case, like {@link URI#relativize(URI)} does.
+	 */
+	static String rootKeyOf(URI location) {
+		String authority = location.getRawAuthority();
+		return location.getScheme().toLowerCase(Locale.ROOT) + "://" + (authority == null ? "" : authority); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Returns the raw segments of the normalized path of the given location,
+	 * or <code>null</code> if it has no path.
+	 */
+	static String[] segmentsOf(URI location) {
+		if (location.isOpaque() || location.getScheme() == null)
+			return null;
+		String path = location.normalize().getRawPath();
+		if (path == null)
+			return null;
+		List<String> segments = new ArrayList<>();
+		for (String segment : path.split("/")) //$NON-NLS-1$
+			if (!segment.isEmpty())
+				segments.add(segment);
+		return segments.toArray(new String[segments.size()]);
+	}
+
+	public ProjectLocationIndex(Workspace workspace, FileSystemResourceManager localManager) {
+		this.workspace = workspace;
+		this.localManager = localManager;
+	}
+
+	private Snapshot build(int buildVersion) {
+		Snapshot result = new Snapshot(buildVersion);
+		for (IProject project : workspace.getRoot().getProjects(IContainer.INCLUDE_HIDDEN)) {
+			if (!project.exists())
+				continue;
+			URI location = localManager.locationURIFor(project, true);
+			if (location == null)
+				continue;
+			result.add(location, project);
+			if (!EFS.SCHEME_FILE.equals(location.getScheme())) {
+				URI fileLocation = localManager.getFileURI(location);
+				if (fileLocation != null)
+					result.add(fileLocation, project);
+			}
+			ProjectDescription description = ((Project) project).internalGetDescription();
+			if (description != null && description.getLinks() != null && !description.getLinks().isEmpty())
+				result.linkedProjects.computeIfAbsent(location.getScheme(), s -> new ArrayList<>()).add(project);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the projects whose locations may contain the given location,
+	 * and the projects with links whose location has another scheme, ordered
+	 * like {@link IWorkspaceRoot#getProjects(int)}.
+	 */
+	public Collection<IProject> getCandidates(URI location) {
+		Snapshot current = getSnapshot();
+		TreeMap<String, IProject> result = new TreeMap<>();
+		String[] segments = segmentsOf(location);
+		Node node = segments == null ? null : current.roots.get(rootKeyOf(location));
+		for (int i = 0; node != null; i++) {
+			if (node.projects != null)
+				for (IProject project : node.projects)
+					result.put(project.getName(), project);
+			if (i == segments.length || node.children == null)
+				break;
+			node = node.children.get(segments[i]);
+		}
+		for (Map.Entry<String, List<IProject>> entry : current.linkedProjects.entrySet())
+			if (!entry.getKey().equals(location.getScheme()))
+				for (IProject project : entry.getValue())
+					result.put(project.getName(), project);
+		return result.values();
+	}
+
+	private Snapshot getSnapshot() {
+		Snapshot current = snapshot;
+		int currentVersion = version.get();
+		if (changing)
+			return build(currentVersion);
+		if (current != null && current.version == currentVersion)
+			return current;
+		current = build(currentVersion);
+		snapshot = current;
+		return current;
+	}
+
+	@Override
+	public void handleEvent(LifecycleEvent event) {
+		switch (event.kind) {
+			case LifecycleEvent.PRE_PROJECT_CLOSE :
+			case LifecycleEvent.PRE_PROJECT_CREATE :
+			case LifecycleEvent.PRE_PROJECT_DELETE :
+			case LifecycleEvent.PRE_PROJECT_OPEN :
+			case LifecycleEvent.PRE_PROJECT_MOVE :
+			case LifecycleEvent.POST_PROJECT_CHANGE :
+			case LifecycleEvent.PRE_LINK_CHANGE :
+			case LifecycleEvent.PRE_LINK_COPY :
+			case LifecycleEvent.PRE_LINK_CREATE :
+			case LifecycleEvent.PRE_LINK_DELETE :
+			case LifecycleEvent.PRE_LINK_MOVE :
+				changing = true;
+				invalidate();
+				break;
+		}
+	}
+
+	/**
+	 * Discards the index. It is built again on the next request.
+	 */
+	public void invalidate() {
+		version.incrementAndGet();
+	}
+
+	@Override
+	public void resourceChanged(IResourceChangeEvent event) {
+		// the lifecycle events come before the change, so check again after it
+		if (changing) {
+			changing = false;
+			invalidate();
+			return;
+		}
+		IResourceDelta delta = event.getDelta();
+		if (delta == null)
+			return;
+		for (IResourceDelta child : delta.getAffectedChildren(IResourceDelta.ADDED | IResourceDelta.REMOVED | IResourceDelta.CHANGED, IContainer.INCLUDE_HIDDEN)) {
+			if (child.getKind() != IResourceDelta.CHANGED || (child.getFlags() & (IResourceDelta.DESCRIPTION | IResourceDelta.OPEN)) != 0) {
+				invalidate();
+				return;
+			}
+		}
+	}
+}
@@ -71,7 +71,7 @@ public class RefreshLocalVisitor implements IUnifiedTreeVisitor, ILocalStoreCons
 		info = workspace.createResource(target, false);
 		/* Mark this resource as having unknown children */
 		info.set(ICoreConstants.M_CHILDREN_UNKNOWN);
-		target.getLocalManager().updateLocalSync(info, node.getLastModified());
+		target.getLocalManager().updateLocalSync(info, node.getLastModified(), node.getFingerprint());
 	}
 
 	protected void deleteResource(UnifiedTreeNode node, Resource target) throws CoreException {
@@ -84,7 +84,7 @@ public class RefreshLocalVisitor implements IUnifiedTreeVisitor, ILocalStoreCons
 			//handle concurrent deletion
 			if (info != null) {
 				info.clearModificationStamp();
-				target.getLocalManager().updateLocalSync(info, node.getLastModified());
+				target.getLocalManager().updateLocalSync(info, node.getLastModified(), node.getFingerprint());
 			}
 			return;
 		}
@@ -107,7 +107,7 @@ public class RefreshLocalVisitor implements IUnifiedTreeVisitor, ILocalStoreCons
 		}
 		node.setResource(target);
 		info = target.getResourceInfo(false, true);
-		target.getLocalManager().updateLocalSync(info, node.getLastModified());
+		target.getLocalManager().updateLocalSync(info, node.getLastModified(), node.getFingerprint());
 	}
 
 	protected void folderToFile(UnifiedTreeNode node, Resource target) throws CoreException {
@@ -125,7 +125,7 @@ public class RefreshLocalVisitor implements IUnifiedTreeVisitor, ILocalStoreCons
 		}
 		node.setResource(target);
 		info = target.getResourceInfo(false, true);
-		target.getLocalManager().updateLocalSync(info, node.getLastModified());
+		target.getLocalManager().updateLocalSync(info, node.getLastModified(), node.getFingerprint());
 	}
 
 	/**
@@ -140,7 +140,7 @@ public class RefreshLocalVisitor implements IUnifiedTreeVisitor, ILocalStoreCons
 	protected void makeLocal(UnifiedTreeNode node, Resource target) {
 		ResourceInfo info = target.getResourceInfo(false, true);
 		if (info != null)
-			target.getLocalManager().updateLocalSync(info, node.getLastModified());
+			target.getLocalManager().updateLocalSync(info, node.getLastModified(), node.getFingerprint());
 	}
 
 	/**
@@ -154,7 +154,7 @@ public class RefreshLocalVisitor implements IUnifiedTreeVisitor, ILocalStoreCons
 		ResourceInfo info = target.getResourceInfo(false, true);
 		if (info == null)
 			return;
-		target.getLocalManager().updateLocalSync(info, node.getLastModified());
+		target.getLocalManager().updateLocalSync(info, node.getLastModified(), node.getFingerprint());
 		info.incrementContentId();
 		// forget content-related caching flags
 		info.clear(ICoreConstants.M_CONTENT_CACHE);
@@ -275,7 +275,7 @@ public class RefreshLocalVisitor implements IUnifiedTreeVisitor, ILocalStoreCons
 				/* compare file last modified */
 				if (targetType == IResource.FILE && !node.isFolder()) {
 					ResourceInfo info = target.getResourceInfo(false, false);
-					if (info != null && info.getModificationStamp() != IResource.NULL_STAMP && info.getLocalSyncInfo() == node.getLastModified())
+					if (info != null && info.getModificationStamp() != IResource.NULL_STAMP && FileSystemResourceManager.isInSync(info, node.getLastModified(), node.getFingerprint()))
 						return true;
 				}
 			} else {
@@ -67,6 +67,14 @@ public class UnifiedTreeNode implements ILocalStoreConstants {
 		return child;
 	}
 
+	/**
+	 * Returns the fingerprint of this node in the local file system.
+	 * @see IFileInfo#getFingerprint()
+	 */
+	public long getFingerprint() {
+		return fileInfo == null ? EFS.NONE : fileInfo.getFingerprint();
+	}
+
 	public long getLastModified() {
 		return fileInfo == null ? 0 : fileInfo.getLastModified();
 	}
@@ -14,6 +14,7 @@
 package org.eclipse.core.internal.refresh;
 
 import java.util.Collection;
+import org.eclipse.core.internal.resources.ResourceRuleSet;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.*;
@@ -98,7 +99,7 @@ public class MonitorJob extends Job {
 		 * @return a new {@link MonitorRule}.
 		 */
 		static MonitorRule create(Collection<IResource> resources) {
-			return new MonitorRule(MultiRule.combine(resources.toArray(SCHEDULING_RULE__EMPTY_ARR)));
+			return new MonitorRule(ResourceRuleSet.combine(resources.toArray(SCHEDULING_RULE__EMPTY_ARR)));
 		}
 
 		@Override
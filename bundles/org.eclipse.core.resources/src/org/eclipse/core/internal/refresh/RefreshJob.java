@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2004, 2015 IBM Corporation and others.
+ *  Copyright (c) 2004, 2022 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -58,12 +58,45 @@ public class RefreshJob extends WorkspaceJob {
 	public static final int UPDATE_DELAY = 200;
 
 	/**
-	 * List of refresh requests. Requests are processed in order from
-	 * the end of the list. Requests can be added to either the beginning
-	 * or the end of the list depending on whether they are explicit user
-	 * requests or background refresh requests.
+	 * Time (in milliseconds) that a batch of refreshes should take. The number
+	 * of refreshes in a batch is adapted to the measured time of a refresh.
 	 */
-	private final List<IResource> fRequests;
+	public static final int BATCH_DURATION = 500;
+
+	/**
+	 * Average time (in milliseconds) of a refresh above which the disk is
+	 * considered busy, and the job pauses between batches to leave the disk and
+	 * the workspace to other jobs
+	 */
+	public static final int SLOW_IO_LATENCY = 50;
+
+	/** Longest pause between two batches (in milliseconds) */
+	public static final int MAX_PAUSE = 1000;
+
+	/**
+	 * The pending refresh requests. Explicit requests are handled before
+	 * the background requests for the children of refreshed resources, and
+	 * requests for priority resources are handled before all others.
+	 */
+	private final RefreshRequestQueue fRequests;
+
+	/**
+	 * Containers whose direct members need refreshing. They are refreshed
+	 * before the other requests, since they are cheap and requested when
+	 * resources are accessed.
+	 */
+	private final Set<IContainer> fMemberRequests = new LinkedHashSet<>();
+
+	/**
+	 * The resources that are refreshed before all others, like the files
+	 * open in editors.
+	 */
+	private volatile IResource[] priorityResources = new IResource[0];
+
+	/**
+	 * The average time (in milliseconds) of a refresh, or -1 if unknown.
+	 */
+	private volatile long latency = -1;
 
 	/**
 	 * The history of path prefixes visited during this refresh job invocation.
@@ -89,7 +122,7 @@ public class RefreshJob extends WorkspaceJob {
 	protected RefreshJob(int fastRefreshThreshold, int slowRefreshThreshold, int baseRefreshDepth,
 			int depthIncreaseStep, int updateDelay, int maxRecursionDeep) {
 		super(Messages.refresh_jobName);
-		this.fRequests = new ArrayList<>(1);
+		this.fRequests = new RefreshRequestQueue();
 		this.fastRefreshThreshold = fastRefreshThreshold;
 		this.slowRefreshThreshold = slowRefreshThreshold;
 		this.baseRefreshDepth = baseRefreshDepth;
@@ -105,24 +138,26 @@ public class RefreshJob extends WorkspaceJob {
 	 */
 	private synchronized void addRequest(IResource resource) {
 		IPath toAdd = resource.getFullPath();
-		for (Iterator<IResource> it = fRequests.iterator(); it.hasNext();) {
-			IPath request = it.next().getFullPath();
-			//discard any existing requests the same or below the resource to be added
-			if (toAdd.isPrefixOf(request))
-				it.remove();
-			//nothing to do if the resource to be added is a child of an existing request
-			else if (request.isPrefixOf(toAdd))
-				return;
+		boolean urgent = false;
+		for (IResource priority : priorityResources) {
+			IPath priorityPath = priority.getFullPath();
+			if (priorityPath.isPrefixOf(toAdd))
+				urgent = true;
+			//refresh the priority resources below the resource to be added first
+			else if (toAdd.isPrefixOf(priorityPath))
+				fRequests.addFirst(priority, true);
 		}
-		//finally add the new request to the front of the queue
-		fRequests.add(resource);
+		fRequests.addFirst(resource, urgent);
+	}
+
+	private synchronized void addMemberRequest(IContainer container) {
+		fMemberRequests.add(container);
 	}
 
 	private synchronized void addRequests(List<IResource> list) {
 		//add requests to the end of the queue
-		if (!list.isEmpty()) {
-			fRequests.addAll(0, list);
-		}
+		for (IResource resource : list)
+			fRequests.addLast(resource, isPriority(resource));
 	}
 
 	@Override
@@ -155,6 +190,29 @@ public class RefreshJob extends WorkspaceJob {
 		return children;
 	}
 
+	/**
+	 * Returns the average time in milliseconds of a refresh, or -1 if no
+	 * refresh was done yet.
+	 */
+	public long getLatency() {
+		return latency;
+	}
+
+	/**
+	 * Returns the time in milliseconds that the last refreshed resource
+	 * waited in the queue.
+	 */
+	public synchronized long getLag() {
+		return fRequests.getLag();
+	}
+
+	/**
+	 * Returns the number of resources waiting to be refreshed.
+	 */
+	public synchronized int getQueueDepth() {
+		return fRequests.size() + fMemberRequests.size();
+	}
+
 	/**
 	 * Returns the path prefixes visited by this job so far.
 	 */
@@ -173,15 +231,32 @@ public class RefreshJob extends WorkspaceJob {
 		return rootPathHistory;
 	}
 
+	private boolean isPriority(IResource resource) {
+		IPath path = resource.getFullPath();
+		for (IResource priority : priorityResources)
+			if (priority.getFullPath().isPrefixOf(path))
+				return true;
+		return false;
+	}
+
+	/**
+	 * Returns the next container whose members need refreshing, or <code>null</code> if there are none
+	 */
+	private synchronized IContainer nextMemberRequest() {
+		Iterator<IContainer> it = fMemberRequests.iterator();
+		if (!it.hasNext())
+			return null;
+		IContainer container = it.next();
+		it.remove();
+		return container;
+	}
+
 	/**
 	 * Returns the next item to refresh, or <code>null</code> if there are no requests
 	 */
 	private synchronized IResource nextRequest() {
 		// synchronized: in order to atomically obtain and clear requests
-		int len = fRequests.size();
-		if (len == 0)
-			return null;
-		return fRequests.remove(len - 1);
+		return fRequests.poll();
 	}
 
 	/**
@@ -194,6 +269,39 @@ public class RefreshJob extends WorkspaceJob {
 		schedule(updateDelay);
 	}
 
+	/**
+	 * Refreshes the given container and its direct members.
+	 */
+	public void refreshMembers(IContainer container) {
+		if (container == null)
+			return;
+		addMemberRequest(container);
+		schedule(updateDelay);
+	}
+
+	/**
+	 * Refreshes the containers whose direct members were requested to be refreshed.
+	 */
+	private void refreshMemberRequests(SubMonitor subMonitor, MultiStatus errors) {
+		IContainer container;
+		while ((container = nextMemberRequest()) != null) {
+			try {
+				container.refreshLocal(IResource.DEPTH_ONE, subMonitor.split(1));
+			} catch (CoreException e) {
+				errors.merge(new Status(IStatus.ERROR, ResourcesPlugin.PI_RESOURCES, 1, errors.getMessage(), e));
+			}
+		}
+	}
+
+	/**
+	 * Sets the resources to refresh before all others, like the files open
+	 * in editors. Requests for resources at or below them are handled first,
+	 * and requests for their ancestors refresh them first.
+	 */
+	public void setPriorityResources(IResource[] resources) {
+		priorityResources = resources.clone();
+	}
+
 	@Override
 	public IStatus runInWorkspace(IProgressMonitor monitor) {
 		long start = System.currentTimeMillis();
@@ -206,17 +314,24 @@ public class RefreshJob extends WorkspaceJob {
 				Policy.debug(RefreshManager.DEBUG_PREFIX + " starting refresh job"); //$NON-NLS-1$
 			int refreshCount = 0;
 			int depth = 2;
+			int batchCount = 0;
+			long batchStart = System.currentTimeMillis();
 
 			IResource toRefresh;
-			while ((toRefresh = nextRequest()) != null) {
+			while (true) {
+				refreshMemberRequests(subMonitor, errors);
+				if ((toRefresh = nextRequest()) == null)
+					break;
 				try {
-					subMonitor.setWorkRemaining(Math.max(fRequests.size(), 100));
+					subMonitor.setWorkRemaining(Math.max(getQueueDepth(), 100));
 					refreshCount++;
+					batchCount++;
 					long refreshTime = -System.currentTimeMillis();
 					toRefresh.refreshLocal(baseRefreshDepth + depth, subMonitor.split(1));
 					refreshTime += System.currentTimeMillis();
 					if (refreshTime > longestRefresh)
 						longestRefresh = refreshTime;
+					latency = latency < 0 ? refreshTime : (latency * 7 + refreshTime) / 8;
 					//show occasional progress
 					if (refreshCount % depthIncreaseStep == 0) {
 						//be polite to other threads (no effect on some platforms)
@@ -244,6 +359,18 @@ public class RefreshJob extends WorkspaceJob {
 				} catch (CoreException e) {
 					errors.merge(new Status(IStatus.ERROR, ResourcesPlugin.PI_RESOURCES, 1, errors.getMessage(), e));
 				}
+				//the batch size follows the time a refresh takes
+				if (batchCount >= Math.max(1, BATCH_DURATION / Math.max(1, latency))) {
+					long batchTime = System.currentTimeMillis() - batchStart;
+					if (Policy.DEBUG_AUTO_REFRESH)
+						Policy.debug(RefreshManager.DEBUG_PREFIX + " refreshed " + batchCount + " resources in: " + batchTime + "ms, queue depth: " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+								+ getQueueDepth() + ", lag: " + getLag() + "ms, latency: " + latency + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					//leave a busy disk to others for a while
+					if (latency > SLOW_IO_LATENCY && shouldRun())
+						pause(Math.min(MAX_PAUSE, batchTime / 2), subMonitor);
+					batchCount = 0;
+					batchStart = System.currentTimeMillis();
+				}
 			}
 		} finally {
 			pathPrefixHistory = null;
@@ -256,9 +383,24 @@ public class RefreshJob extends WorkspaceJob {
 		return Status.OK_STATUS;
 	}
 
+	/**
+	 * Waits for the given time in milliseconds, unless the job is canceled.
+	 */
+	private void pause(long millis, IProgressMonitor monitor) {
+		long end = System.currentTimeMillis() + millis;
+		for (long remaining = millis; remaining > 0 && !monitor.isCanceled(); remaining = end - System.currentTimeMillis()) {
+			try {
+				Thread.sleep(Math.min(remaining, 100));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
 	@Override
 	public synchronized boolean shouldRun() {
-		return !fRequests.isEmpty();
+		return !fRequests.isEmpty() || !fMemberRequests.isEmpty();
 	}
 
 	/**
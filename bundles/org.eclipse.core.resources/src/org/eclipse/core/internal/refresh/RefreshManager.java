@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2015 IBM Corporation and others.
+ * Copyright (c) 2004, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -88,6 +88,27 @@ public class RefreshManager implements IRefreshResult, IManager, Preferences.IPr
 			refreshJob.refresh(resource);
 	}
 
+	/**
+	 * Refreshes the given container and its direct members in the background.
+	 */
+	public void refreshMembers(IContainer container) {
+		//do nothing if we have already shutdown
+		if (refreshJob != null)
+			refreshJob.refreshMembers(container);
+	}
+
+	/**
+	 * Sets the resources that auto-refresh handles before all others, like
+	 * the files open in editors.
+	 *
+	 * @see RefreshJob#setPriorityResources(IResource[])
+	 */
+	public void setPriorityResources(IResource[] resources) {
+		//do nothing if we have already shutdown
+		if (refreshJob != null)
+			refreshJob.setPriorityResources(resources);
+	}
+
 	/**
 	 * Shuts down the refresh manager.  This only happens when
 	 * the resources plugin is going away.
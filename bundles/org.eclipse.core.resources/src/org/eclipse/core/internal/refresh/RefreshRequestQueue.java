@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.refresh;
+
+import java.util.*;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+
+/**
+ * The pending requests of the {@link RefreshJob}.
+ * <p>
+ * Requests are kept in a tree of path segments. A request is dropped if the
+ * same resource or one of its ancestors is already pending, and pending
+ * requests below a new request are merged into it. Both take time
+ * proportional to the length of the path rather than to the number of
+ * pending requests.
+ * </p>
+ * <p>
+ * Urgent requests are handled before all other requests. An urgent request
+ * is only merged into another urgent request, so requests for the resources
+ * the user is looking at are not held up by a pending request for their
+ * whole project.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class RefreshRequestQueue {
+	private static final class Node {
+		Map<String, Node> children;
+		final String name;
+		final Node parent;
+		Request request;
+
+		Node(Node parent, String name) {
+			this.parent = parent;
+			this.name = name;
+		}
+
+		Node getChild(String childName) {
+			if (children == null)
+				children = new HashMap<>(4);
+			return children.computeIfAbsent(childName, n -> new Node(this, n));
+		}
+
+		boolean isEmpty() {
+			return request == null && (children == null || children.isEmpty());
+		}
+	}
+
+	private static final class Request {
+		boolean canceled;
+		final long created;
+		final Node node;
+		final IResource resource;
+		final boolean urgent;
+
+		Request(IResource resource, boolean urgent, Node node) {
+			this.resource = resource;
+			this.urgent = urgent;
+			this.node = node;
+			this.created = System.currentTimeMillis();
+		}
+	}
+
+	private long lag;
+	private int mergedCount;
+	private final Deque<Request> requests = new ArrayDeque<>();
+	private final Node root = new Node(null, null);
+	private int size;
+	private final Deque<Request> urgentRequests = new ArrayDeque<>();
+
+	/**
+	 * Adds a request for the given resource, to be handled before all
+	 * requests of the same urgency that are already pending. Returns
+	 * <code>false</code> if the resource is covered by a pending request.
+	 */
+	public boolean addFirst(IResource resource, boolean urgent) {
+		Request request = add(resource, urgent);
+		if (request == null)
+			return false;
+		(urgent ? urgentRequests : requests).addFirst(request);
+		return true;
+	}
+
+	/**
+	 * Adds a request for the given resource, to be handled after all
+	 * requests of the same urgency that are already pending. Returns
+	 * <code>false</code> if the resource is covered by a pending request.
+	 */
+	public boolean addLast(IResource resource, boolean urgent) {
+		Request request = add(resource, urgent);
+		if (request == null)
+			return false;
+		(urgent ? urgentRequests : requests).addLast(request);
+		return true;
+	}
+
+	private Request add(IResource resource, boolean urgent) {
+		IPath path = resource.getFullPath();
+		int segmentCount = path.segmentCount();
+		Node node = root;
+		for (int i = 0;; i++) {
+			if (node.request != null && (node.request.urgent || !urgent)) {
+				mergedCount++;
+				return null;
+			}
+			if (i == segmentCount)
+				break;
+			node = node.getChild(path.segment(i));
+		}
+		if (node.request != null)
+			cancel(node.request);
+		if (node.children != null)
+			node.children.values().removeIf(child -> merge(child, urgent));
+		Request request = new Request(resource, urgent, node);
+		node.request = request;
+		size++;
+		return request;
+	}
+
+	private void cancel(Request request) {
+		request.canceled = true;
+		request.node.request = null;
+		mergedCount++;
+		size--;
+	}
+
+	/**
+	 * Discards all pending requests.
+	 */
+	public void clear() {
+		requests.clear();
+		urgentRequests.clear();
+		root.children = null;
+		root.request = null;
+		size = 0;
+	}
+
+	/**
+	 * Returns the time in milliseconds that the last request returned by
+	 * {@link #poll()} was pending.
+	 */
+	public long getLag() {
+		return lag;
+	}
+
+	/**
+	 * Returns the number of requests that were dropped or merged into
+	 * another request so far.
+	 */
+	public int getMergedCount() {
+		return mergedCount;
+	}
+
+	/**
+	 * Returns the time in milliseconds that the oldest pending request has
+	 * been waiting, or zero if there are no requests.
+	 */
+	public long getOldestAge() {
+		long oldest = Long.MAX_VALUE;
+		for (Request request : urgentRequests)
+			if (!request.canceled)
+				oldest = Math.min(oldest, request.created);
+		for (Request request : requests)
+			if (!request.canceled)
+				oldest = Math.min(oldest, request.created);
+		return oldest == Long.MAX_VALUE ? 0 : System.currentTimeMillis() - oldest;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Cancels the requests at and below the given node that are not more
+	 * urgent than a new request for an ancestor, and returns whether the
+	 * node can be removed.
+	 */
+	private boolean merge(Node node, boolean urgent) {
+		if (node.request != null && (urgent || !node.request.urgent))
+			cancel(node.request);
+		if (node.children != null)
+			node.children.values().removeIf(child -> merge(child, urgent));
+		return node.isEmpty();
+	}
+
+	/**
+	 * Removes and returns the resource of the next request, or
+	 * <code>null</code> if there are no requests.
+	 */
+	public IResource poll() {
+		Request request;
+		while ((request = urgentRequests.pollFirst()) != null || (request = requests.pollFirst()) != null) {
+			if (request.canceled)
+				continue;
+			Node node = request.node;
+			node.request = null;
+			while (node.parent != null && node.isEmpty()) {
+				node.parent.children.remove(node.name);
+				node = node.parent;
+			}
+			size--;
+			lag = System.currentTimeMillis() - request.created;
+			return request.resource;
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the number of pending requests.
+	 */
+	public int size() {
+		return size;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -53,6 +53,9 @@ import org.eclipse.osgi.util.NLS;
  * following occasions:
  *  -  when projects are deleted, opened, closed, or moved
  *  - when linked resources are created, deleted, or moved.
+ * Only the locations of the changed projects and linked resources are updated,
+ * and only the projects whose locations overlap them are checked for aliases
+ * again.
  */
 public class AliasManager implements IManager, ILifecycleListener, IResourceChangeListener {
 	public static class AddToCollectionDoit implements Doit {
@@ -124,37 +127,133 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 	/**
 	 * Maintains a mapping of FileStore-&gt;IResource, such that multiple resources
 	 * mapped from the same location are tolerated.
+	 * <p>
+	 * Locations are kept in a tree of path segments for each file system,
+	 * authority and query, so finding the resources at, above or below a
+	 * location takes time proportional to the number of segments of the
+	 * location, and locations can be added and removed one by one.
+	 * </p>
 	 */
 	class LocationMap {
+		private final class Node {
+			Map<String, Node> children;
+			/**
+			 * The number of resources at and below this node.
+			 */
+			int count;
+			final String name;
+			final Node parent;
+			/**
+			 * An IResource, an ArrayList of IResource, or null
+			 */
+			Object value;
+
+			Node(Node parent, String name) {
+				this.parent = parent;
+				this.name = name;
+			}
+
+			int valueCount() {
+				if (value == null)
+					return 0;
+				return value instanceof IResource ? 1 : ((List<?>) value).size();
+			}
+
+			@SuppressWarnings("unchecked")
+			void valuesDo(Doit doit) {
+				if (value instanceof List) {
+					for (IResource resource : new ArrayList<>((List<IResource>) value))
+						doit.doit(resource);
+				} else if (value != null) {
+					doit.doit((IResource) value);
+				}
+			}
+
+			/**
+			 * Calls the given doit for the resources at and below this node.
+			 */
+			void subtreeDo(Doit doit) {
+				if (count == 0)
+					return;
+				valuesDo(doit);
+				if (children != null)
+					for (Node child : new ArrayList<>(children.values()))
+						child.subtreeDo(doit);
+			}
+		}
+
 		/**
-		 * Map of FileStore-&gt;IResource OR FileStore-&gt;ArrayList of (IResource)
+		 * The trees of locations, by file system, authority and query.
 		 */
-		private final SortedMap<IFileStore, Object> map = new TreeMap<>(IFileStore::compareTo);
+		private final Map<String, Node> roots = new HashMap<>();
+
+		/**
+		 * Returns the node of the given location, or <code>null</code> if it
+		 * does not exist and should not be created.
+		 */
+		private Node nodeFor(IFileStore location, boolean create) {
+			URI uri;
+			try {
+				uri = location.toURI().normalize();
+			} catch (Exception e) {
+				// protect against misbehaving 3rd party code in file system implementations
+				uri = null;
+			}
+			String key = location.getFileSystem().getScheme();
+			if (uri != null)
+				key += '|' + uri.getScheme() + '|' + uri.getAuthority() + '|' + uri.getQuery();
+			Node node = roots.get(key);
+			if (node == null) {
+				if (!create)
+					return null;
+				node = new Node(null, key);
+				roots.put(key, node);
+			}
+			String path = uri == null ? null : uri.getPath();
+			if (path == null)
+				return node;
+			for (String segment : path.split("/")) { //$NON-NLS-1$
+				if (segment.isEmpty())
+					continue;
+				Node child = node.children == null ? null : node.children.get(segment);
+				if (child == null) {
+					if (!create)
+						return null;
+					child = new Node(node, segment);
+					if (node.children == null)
+						node.children = new HashMap<>(4);
+					node.children.put(segment, child);
+				}
+				node = child;
+			}
+			return node;
+		}
 
 		/**
 		 * Adds the given resource to the map, keyed by the given location.
 		 * Returns true if a new entry was added, and false otherwise.
 		 */
 		public boolean add(IFileStore location, IResource resource) {
-			Object oldValue = map.get(location);
+			Node node = nodeFor(location, true);
+			Object oldValue = node.value;
 			if (oldValue == null) {
-				map.put(location, resource);
-				return true;
-			}
-			if (oldValue instanceof IResource) {
+				node.value = resource;
+			} else if (oldValue instanceof IResource) {
 				if (resource.equals(oldValue))
 					return false;//duplicate
 				ArrayList<Object> newValue = new ArrayList<>(2);
 				newValue.add(oldValue);
 				newValue.add(resource);
-				map.put(location, newValue);
-				return true;
+				node.value = newValue;
+			} else {
+				@SuppressWarnings("unchecked")
+				ArrayList<IResource> list = (ArrayList<IResource>) oldValue;
+				if (list.contains(resource))
+					return false;//duplicate
+				list.add(resource);
 			}
-			@SuppressWarnings("unchecked")
-			ArrayList<IResource> list = (ArrayList<IResource>) oldValue;
-			if (list.contains(resource))
-				return false;//duplicate
-			list.add(resource);
+			for (; node != null; node = node.parent)
+				node.count++;
 			return true;
 		}
 
@@ -162,7 +261,7 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 		 * Method clear.
 		 */
 		public void clear() {
-			map.clear();
+			roots.clear();
 		}
 
 		/**
@@ -170,28 +269,14 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 		 * given location as a prefix.
 		 */
 		public void matchingPrefixDo(IFileStore prefix, Doit doit) {
-			SortedMap<IFileStore, Object> matching;
-			IFileStore prefixParent = prefix.getParent();
-			if (prefixParent != null) {
-				//endPoint is the smallest possible path greater than the prefix that doesn't
-				//match the prefix
-				IFileStore endPoint = prefixParent.getChild(prefix.getName() + "\0"); //$NON-NLS-1$
-				matching = map.subMap(prefix, endPoint);
-			} else {
-				matching = map;
-			}
-			for (Object value : matching.values()) {
-				if (value == null)
-					return;
-				if (value instanceof List) {
-					@SuppressWarnings("unchecked")
-					Iterator<IResource> duplicates = ((List<IResource>) value).iterator();
-					while (duplicates.hasNext())
-						doit.doit(duplicates.next());
-				} else {
-					doit.doit((IResource) value);
-				}
+			if (prefix.getParent() == null) {
+				for (Node root : new ArrayList<>(roots.values()))
+					root.subtreeDo(doit);
+				return;
 			}
+			Node node = nodeFor(prefix, false);
+			if (node != null)
+				node.subtreeDo(doit);
 		}
 
 		/**
@@ -199,17 +284,9 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 		 * location.
 		 */
 		public void matchingResourcesDo(IFileStore location, Doit doit) {
-			Object value = map.get(location);
-			if (value == null)
-				return;
-			if (value instanceof List) {
-				@SuppressWarnings("unchecked")
-				Iterator<IResource> duplicates = ((List<IResource>) value).iterator();
-				while (duplicates.hasNext())
-					doit.doit(duplicates.next());
-			} else {
-				doit.doit((IResource) value);
-			}
+			Node node = nodeFor(location, false);
+			if (node != null)
+				node.valuesDo(doit);
 		}
 
 		/**
@@ -217,45 +294,63 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 		 * whose location overlaps another resource in the map.
 		 */
 		public void overLappingResourcesDo(Doit doit) {
-			Iterator<Map.Entry<IFileStore, Object>> entries = map.entrySet().iterator();
-			IFileStore previousStore = null;
-			IResource previousResource = null;
-			while (entries.hasNext()) {
-				Map.Entry<IFileStore, Object> current = entries.next();
-				//value is either single resource or List of resources
-				IFileStore currentStore = current.getKey();
-				IResource currentResource = null;
-				Object value = current.getValue();
-				if (value instanceof List) {
-					//if there are several then they're all overlapping
-					@SuppressWarnings("unchecked")
-					Iterator<IResource> duplicates = ((List<IResource>) value).iterator();
-					while (duplicates.hasNext())
-						doit.doit(duplicates.next().getProject());
-				} else {
-					//value is a single resource
-					currentResource = (IResource) value;
-				}
-				if (previousStore != null) {
-					//check for overlap with previous
-					//Note: previous is always shorter due to map sorting rules
-					if (previousStore.isParentOf(currentStore)) {
-						//resources will be null if they were in a list, in which case
-						//they've already been passed to the doit
-						if (previousResource != null) {
-							doit.doit(previousResource.getProject());
-							//null out previous resource so we don't call doit twice with same resource
-							previousResource = null;
-						}
-						if (currentResource != null)
-							doit.doit(currentResource.getProject());
-						//keep iterating with the same previous store because there may be more overlaps
-						continue;
-					}
+			for (Node root : roots.values())
+				overLappingResourcesDo(root, null, doit);
+		}
+
+		/**
+		 * Calls the given doit with the project of every resource at or below
+		 * the given node that overlaps another resource. The ancestor is the
+		 * closest node above the given node that has resources, if any.
+		 */
+		private void overLappingResourcesDo(Node node, Node ancestor, Doit doit) {
+			if (node.count == 0)
+				return;
+			if (node.value != null) {
+				if (ancestor != null || node.valueCount() > 1 || node.count > node.valueCount()) {
+					//the resources at the node overlap each other, an ancestor or a descendant
+					node.valuesDo(resource -> doit.doit(resource.getProject()));
 				}
-				previousStore = currentStore;
-				previousResource = currentResource;
+				ancestor = node;
+			}
+			if (node.children != null)
+				for (Node child : node.children.values())
+					overLappingResourcesDo(child, ancestor, doit);
+		}
+
+		/**
+		 * Invoke the given doit for every resource whose location is the same
+		 * as, a prefix of, or below the given location.
+		 */
+		public void overlappingDo(IFileStore location, Doit doit) {
+			Node node = nodeFor(location, false);
+			if (node == null) {
+				//the location is not in the map, but may be below a location in the map
+				for (IFileStore parent = location.getParent(); parent != null && node == null; parent = parent.getParent())
+					node = nodeFor(parent, false);
+				for (; node != null; node = node.parent)
+					node.valuesDo(doit);
+				return;
 			}
+			node.subtreeDo(doit);
+			for (Node parent = node.parent; parent != null; parent = parent.parent)
+				parent.valuesDo(doit);
+		}
+
+		/**
+		 * Returns whether a resource at the given location overlaps another
+		 * resource in the map.
+		 */
+		public boolean overlaps(IFileStore location) {
+			Node node = nodeFor(location, false);
+			if (node == null)
+				return false;
+			if (node.count > 1)
+				return true;
+			for (Node parent = node.parent; parent != null; parent = parent.parent)
+				if (parent.value != null)
+					return true;
+			return false;
 		}
 
 		/**
@@ -263,22 +358,36 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 		 * was actually removed, and false otherwise.
 		 */
 		public boolean remove(IFileStore location, IResource resource) {
-			Object oldValue = map.get(location);
+			Node node = nodeFor(location, false);
+			if (node == null)
+				return false;
+			Object oldValue = node.value;
 			if (oldValue == null)
 				return false;
 			if (oldValue instanceof IResource) {
-				if (resource.equals(oldValue)) {
-					map.remove(location);
-					return true;
+				if (!resource.equals(oldValue))
+					return false;
+				node.value = null;
+			} else {
+				@SuppressWarnings("unchecked")
+				ArrayList<IResource> list = (ArrayList<IResource>) oldValue;
+				if (!list.remove(resource))
+					return false;
+				if (list.isEmpty())
+					node.value = null;
+				else if (list.size() == 1)
+					node.value = list.get(0);
+			}
+			for (; node != null; node = node.parent) {
+				node.count--;
+				if (node.count == 0) {
+					if (node.parent == null)
+						roots.remove(node.name);
+					else
+						node.parent.children.remove(node.name);
 				}
-				return false;
 			}
-			@SuppressWarnings("unchecked")
-			ArrayList<IResource> list = (ArrayList<IResource>) oldValue;
-			boolean wasRemoved = list.remove(resource);
-			if (list.isEmpty())
-				map.remove(location);
-			return wasRemoved;
+			return true;
 		}
 	}
 
@@ -306,10 +415,30 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 	private final Set<IResource> changedLinks = new HashSet<>();
 
 	/**
-	 * This flag is true when projects have been created or deleted and the
-	 * location map has not been updated accordingly.
+	 * The projects that have been created, deleted, opened, closed or changed
+	 * their description, and whose locations have not been updated in the
+	 * location map accordingly.
+	 */
+	private final Set<IProject> changedProjects = new HashSet<>();
+
+	/**
+	 * The projects whose resources were added to or removed from the location
+	 * map, or overlap such resources, and whose membership in the aliased
+	 * projects set needs to be checked again.
+	 */
+	private final Set<IProject> affectedProjects = new HashSet<>();
+
+	/**
+	 * The projects that are not in their default location.
 	 */
-	private boolean changedProjects = false;
+	private final Set<IProject> nonDefaultProjects = new HashSet<>();
+
+	/**
+	 * Maps each project to the locations of the project and of its linked
+	 * resources in the location map, so they can be removed when the project
+	 * changes.
+	 */
+	private final Map<IProject, Map<IResource, IFileStore>> projectLocations = new HashMap<>();
 
 	/**
 	 * The Doit class used for finding aliases.
@@ -349,11 +478,11 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 	private void addToLocationsMap(IProject project) {
 		IFileStore location = ((Resource) project).getStore();
 		if (location != null)
-			locationsMap.add(location, project);
+			addLocation(project, location);
 		ProjectDescription description = ((Project) project).internalGetDescription();
 		if (description == null)
 			return;
-		if (description.getLocationURI() != null)
+		if (description.getLocationURI() != null && nonDefaultProjects.add(project))
 			nonDefaultResourceCount++;
 		HashMap<IPath, LinkDescription> links = description.getLinks();
 		if (links == null)
@@ -375,15 +504,32 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 
 	private void addToLocationsMap(IResource link, IFileStore location) {
 		if (location != null && !link.isVirtual())
-			if (locationsMap.add(location, link))
+			if (addLocation(link, location))
 				nonDefaultResourceCount++;
 	}
 
+	/**
+	 * Adds the given project or linked resource to the location map, and
+	 * remembers the projects whose aliases may have changed.
+	 */
+	private boolean addLocation(IResource resource, IFileStore location) {
+		Map<IResource, IFileStore> locations = projectLocations.get(resource.getProject());
+		IFileStore oldLocation = locations == null ? null : locations.get(resource);
+		if (oldLocation != null && !oldLocation.equals(location) && removeLocation(resource, oldLocation) && resource.getType() != IResource.PROJECT)
+			nonDefaultResourceCount--;
+		if (!locationsMap.add(location, resource))
+			return false;
+		projectLocations.computeIfAbsent(resource.getProject(), p -> new HashMap<>()).put(resource, location);
+		locationsMap.overlappingDo(location, overlapping -> affectedProjects.add(overlapping.getProject()));
+		return true;
+	}
+
 	/**
 	 * Builds the table of aliased projects from scratch.
 	 */
 	private void buildAliasedProjectsSet() {
 		aliasedProjects.clear();
+		affectedProjects.clear();
 		//if there are no resources in non-default locations then there can't be any aliased projects
 		if (nonDefaultResourceCount <= 0)
 			return;
@@ -398,6 +544,8 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 	 */
 	private void buildLocationsMap() {
 		locationsMap.clear();
+		projectLocations.clear();
+		nonDefaultProjects.clear();
 		nonDefaultResourceCount = 0;
 		//build table of IPath (file system location) -> IResource (project or linked resource)
 		IProject[] projects = workspace.getRoot().getProjects(IContainer.INCLUDE_HIDDEN);
@@ -543,7 +691,7 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 	 * Returns whether there are any structure changes that we have not yet processed.
 	 */
 	private boolean hasStructureChanges() {
-		return changedProjects || !changedLinks.isEmpty();
+		return !changedProjects.isEmpty() || !changedLinks.isEmpty();
 	}
 
 	/**
@@ -574,27 +722,57 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 
 	private void removeFromLocationsMap(IResource link, IFileStore location) {
 		if (location != null)
-			if (locationsMap.remove(location, link))
+			if (removeLocation(link, location))
 				nonDefaultResourceCount--;
 	}
 
+	/**
+	 * Removes the given project and its linked resources from the location map.
+	 */
+	private void removeFromLocationsMap(IProject project) {
+		Map<IResource, IFileStore> locations = projectLocations.get(project);
+		if (locations != null) {
+			for (Map.Entry<IResource, IFileStore> entry : new ArrayList<>(locations.entrySet())) {
+				if (removeLocation(entry.getKey(), entry.getValue()) && entry.getKey().getType() != IResource.PROJECT)
+					nonDefaultResourceCount--;
+			}
+		}
+		if (nonDefaultProjects.remove(project))
+			nonDefaultResourceCount--;
+		affectedProjects.add(project);
+	}
+
+	/**
+	 * Removes the given project or linked resource from the location map, and
+	 * remembers the projects whose aliases may have changed.
+	 */
+	private boolean removeLocation(IResource resource, IFileStore location) {
+		locationsMap.overlappingDo(location, overlapping -> affectedProjects.add(overlapping.getProject()));
+		if (!locationsMap.remove(location, resource))
+			return false;
+		Map<IResource, IFileStore> locations = projectLocations.get(resource.getProject());
+		if (locations != null) {
+			locations.remove(resource);
+			if (locations.isEmpty())
+				projectLocations.remove(resource.getProject());
+		}
+		return true;
+	}
+
 	@Override
 	public void resourceChanged(IResourceChangeEvent event) {
 		final IResourceDelta delta = event.getDelta();
 		if (delta == null)
 			return;
-		//invalidate location map if there are added or removed projects.
-		if (delta.getAffectedChildren(IResourceDelta.ADDED | IResourceDelta.REMOVED, IContainer.INCLUDE_HIDDEN).length > 0)
-			changedProjects = true;
+		//update the locations of added or removed projects
+		for (IResourceDelta element : delta.getAffectedChildren(IResourceDelta.ADDED | IResourceDelta.REMOVED, IContainer.INCLUDE_HIDDEN))
+			changedProjects.add((IProject) element.getResource());
 
-		// invalidate location map if any project has the description changed
-		// or was closed/opened
+		// and of projects that have the description changed or were closed/opened
 		IResourceDelta[] changed = delta.getAffectedChildren(IResourceDelta.CHANGED, IContainer.INCLUDE_HIDDEN);
 		for (IResourceDelta element : changed) {
-			if ((element.getFlags() & IResourceDelta.DESCRIPTION) == IResourceDelta.DESCRIPTION || (element.getFlags() & IResourceDelta.OPEN) == IResourceDelta.OPEN) {
-				changedProjects = true;
-				break;
-			}
+			if ((element.getFlags() & IResourceDelta.DESCRIPTION) == IResourceDelta.DESCRIPTION || (element.getFlags() & IResourceDelta.OPEN) == IResourceDelta.OPEN)
+				changedProjects.add((IProject) element.getResource());
 		}
 	}
 
@@ -602,6 +780,7 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 	public void shutdown(IProgressMonitor monitor) {
 		workspace.removeResourceChangeListener(this);
 		locationsMap.clear();
+		projectLocations.clear();
 	}
 
 	@Override
@@ -649,30 +828,59 @@ public class AliasManager implements IManager, ILifecycleListener, IResourceChan
 		}
 	}
 
+	/**
+	 * Checks again whether the projects affected by changes of the location map
+	 * have aliases.
+	 */
+	private void updateAliasedProjectsSet() {
+		//if there are no resources in non-default locations then there can't be any aliased projects
+		if (nonDefaultResourceCount <= 0) {
+			aliasedProjects.clear();
+			affectedProjects.clear();
+			return;
+		}
+		for (IProject project : affectedProjects) {
+			boolean aliased = false;
+			Map<IResource, IFileStore> locations = projectLocations.get(project);
+			if (locations != null) {
+				for (IFileStore location : locations.values()) {
+					if (locationsMap.overlaps(location)) {
+						aliased = true;
+						break;
+					}
+				}
+			}
+			if (aliased)
+				aliasedProjects.add(project);
+			else
+				aliasedProjects.remove(project);
+		}
+		affectedProjects.clear();
+	}
+
 	/**
 	 * Process any structural changes that have occurred since the last alias
-	 * request.
+	 * request. Only the locations of the changed projects and links are updated.
 	 */
 	private void updateStructureChanges() {
 		boolean hadChanges = false;
-		if (changedProjects) {
-			//if a project is added or removed, just recompute the whole world
-			changedProjects = false;
+		for (IProject project : changedProjects) {
 			hadChanges = true;
-			buildLocationsMap();
-		} else {
-			//incrementally update location map for changed links
-			for (IResource resource : changedLinks) {
-				hadChanges = true;
-				if (!resource.isAccessible())
-					continue;
-				if (resource.isLinked())
-					addToLocationsMap(resource, ((Resource) resource).getStore());
-			}
+			removeFromLocationsMap(project);
+			if (project.isAccessible())
+				addToLocationsMap(project);
+		}
+		changedProjects.clear();
+		//incrementally update location map for changed links
+		for (IResource resource : changedLinks) {
+			hadChanges = true;
+			if (!resource.isAccessible())
+				continue;
+			if (resource.isLinked())
+				addToLocationsMap(resource, ((Resource) resource).getStore());
 		}
 		changedLinks.clear();
 		if (hadChanges)
-			buildAliasedProjectsSet();
-		changedProjects = false;
+			updateAliasedProjectsSet();
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2015 IBM Corporation and others.
+ * Copyright (c) 2004, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,8 +15,7 @@
  *******************************************************************************/
 package org.eclipse.core.internal.resources;
 
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.*;
 import org.eclipse.core.internal.utils.*;
 import org.eclipse.core.internal.watson.*;
 import org.eclipse.core.resources.*;
@@ -56,6 +55,11 @@ public class CharsetDeltaJob extends Job implements IContentTypeManager.IContent
 
 	private final Bundle systemBundle = Platform.getBundle("org.eclipse.osgi"); //$NON-NLS-1$
 	private Queue<ICharsetListenerFilter> work = new LinkedList<>();
+	/**
+	 * The node ids of the projects that have a pending change of their
+	 * preferences, guarded by {@link #work}.
+	 */
+	private final Map<IProject, Long> pendingProjects = new HashMap<>();
 
 	Workspace workspace;
 
@@ -87,6 +91,11 @@ public class CharsetDeltaJob extends Job implements IContentTypeManager.IContent
 		if (projectInfo == null)
 			return;
 		final long projectId = projectInfo.getNodeId();
+		synchronized (work) {
+			// a pending change of the same project covers this one
+			if (Long.valueOf(projectId).equals(pendingProjects.put(project, projectId)))
+				return;
+		}
 		// ensure all resources under the affected project are
 		// reported as having encoding changes
 		ICharsetListenerFilter filter = new ICharsetListenerFilter() {
@@ -179,7 +188,10 @@ public class CharsetDeltaJob extends Job implements IContentTypeManager.IContent
 
 	private ICharsetListenerFilter removeFromQueue() {
 		synchronized (work) {
-			return work.poll();
+			ICharsetListenerFilter next = work.poll();
+			if (next != null && next.getProject() != null)
+				pendingProjects.remove(next.getProject());
+			return next;
 		}
 	}
 
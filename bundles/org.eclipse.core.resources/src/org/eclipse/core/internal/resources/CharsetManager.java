@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2015 IBM Corporation and others.
+ * Copyright (c) 2004, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -249,11 +249,13 @@ public class CharsetManager implements IManager {
 	private CharsetDeltaJob charsetListener;
 	CharsetManagerJob job;
 	private IResourceChangeListener resourceChangeListener;
+	private final ResolvedCharsetCache resolvedCharsets;
 	protected final Bundle systemBundle = Platform.getBundle("org.eclipse.osgi"); //$NON-NLS-1$
 	Workspace workspace;
 
 	public CharsetManager(Workspace workspace) {
 		this.workspace = workspace;
+		this.resolvedCharsets = new ResolvedCharsetCache(workspace, this);
 	}
 
 	void flushPreferences(Preferences projectPrefs, boolean shouldDisableCharsetDeltaJob) throws BackingStoreException {
@@ -281,17 +283,15 @@ public class CharsetManager implements IManager {
 	 */
 	public String getCharsetFor(IPath resourcePath, boolean recurse) {
 		Assert.isLegal(resourcePath.segmentCount() >= 1);
-		IProject project = workspace.getRoot().getProject(resourcePath.segment(0));
-
-		Preferences prefs = getPreferences(project, false, false);
-		Preferences derivedPrefs = getPreferences(project, false, true);
-
-		if (prefs == null && derivedPrefs == null)
-			// no preferences found - for performance reasons, short-circuit
-			// lookup by falling back to workspace's default setting
-			return recurse ? ResourcesPlugin.getEncoding() : null;
+		return resolvedCharsets.getCharsetFor(resourcePath, recurse);
+	}
 
-		return internalGetCharsetFor(prefs, derivedPrefs, resourcePath, recurse);
+	/**
+	 * Returns the number of preference lookups that were skipped because the
+	 * charset inherited from a folder was cached.
+	 */
+	public long getSkippedLookups() {
+		return resolvedCharsets.getSkippedLookups();
 	}
 
 	static String getKeyFor(IPath resourcePath) {
@@ -332,33 +332,6 @@ public class CharsetManager implements IManager {
 		return null;
 	}
 
-	private String internalGetCharsetFor(Preferences prefs, Preferences derivedPrefs, IPath resourcePath, boolean recurse) {
-		String charset = null;
-
-		// try to find the encoding in regular and then derived preferences
-		if (prefs != null)
-			charset = prefs.get(getKeyFor(resourcePath), null);
-		// derivedPrefs may be not null, only if #isDerivedEncodingStoredSeparately returns true
-		// so the explicit check against #isDerivedEncodingStoredSeparately is not required
-		if (charset == null && derivedPrefs != null)
-			charset = derivedPrefs.get(getKeyFor(resourcePath), null);
-
-		if (!recurse)
-			return charset;
-
-		while (charset == null && resourcePath.segmentCount() > 1) {
-			resourcePath = resourcePath.removeLastSegments(1);
-			// try to find the encoding in regular and then derived preferences
-			if (prefs != null)
-				charset = prefs.get(getKeyFor(resourcePath), null);
-			if (charset == null && derivedPrefs != null)
-				charset = derivedPrefs.get(getKeyFor(resourcePath), null);
-		}
-
-		// ensure we default to the workspace encoding if none is found
-		return charset == null ? ResourcesPlugin.getEncoding() : charset;
-	}
-
 	private boolean isDerivedEncodingStoredSeparately(IProject project) {
 		// be careful looking up for our node so not to create any nodes as side effect
 		Preferences node = Platform.getPreferencesService().getRootNode().node(ProjectScope.SCOPE);
@@ -414,6 +387,7 @@ public class CharsetManager implements IManager {
 	}
 
 	public void projectPreferencesChanged(IProject project) {
+		resolvedCharsets.invalidate(project);
 		charsetListener.charsetPreferencesChanged(project);
 	}
 
@@ -445,6 +419,7 @@ public class CharsetManager implements IManager {
 				else
 					encodingSettings.put(getKeyFor(resourcePath), newCharset);
 				flushPreferences(encodingSettings, true);
+				resolvedCharsets.invalidate(resource.getProject());
 				if (resource instanceof IProject) {
 					IProject project = (IProject) resource;
 					ValidateProjectEncoding.scheduleProjectValidation(project);
@@ -459,6 +434,9 @@ public class CharsetManager implements IManager {
 
 	@Override
 	public void shutdown(IProgressMonitor monitor) {
+		if (Policy.DEBUG_PREFERENCES)
+			Policy.debug("Charset lookups skipped by the cache: " + resolvedCharsets.getSkippedLookups()); //$NON-NLS-1$
+		resolvedCharsets.clear();
 		workspace.removeResourceChangeListener(resourceChangeListener);
 		if (charsetListener != null)
 			charsetListener.shutdown();
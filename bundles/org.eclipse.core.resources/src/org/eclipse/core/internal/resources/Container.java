@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -245,6 +245,8 @@ public abstract class Container extends Resource implements IContainer {
 		//if children are currently unknown, ask for immediate refresh
 		if (info.isSet(ICoreConstants.M_CHILDREN_UNKNOWN))
 			workspace.refreshManager.refresh(this);
+		else
+			getLocalManager().refreshOnAccess(this);
 		return getChildren(memberFlags);
 	}
 
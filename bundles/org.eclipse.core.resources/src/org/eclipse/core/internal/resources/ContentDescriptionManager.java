@@ -201,9 +201,9 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 
 	private static final String PT_CONTENTTYPES = "contentTypes"; //$NON-NLS-1$
 
-	private Cache cache;
+	private ConcurrentCache<IPath, IContentDescription> cache;
 
-	private byte cacheState;
+	private volatile byte cacheState;
 
 	private FlushJob flushJob;
 	private ProjectContentTypes projectContentTypes;
@@ -275,14 +275,23 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 			Policy.debug("Content type cache for " + root + " flushed in " + (System.currentTimeMillis() - flushStart) + " ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 	}
 
-	Cache getCache() {
+	ConcurrentCache<IPath, IContentDescription> getCache() {
 		return cache;
 	}
 
 	/** Public so tests can examine it. */
-	public synchronized byte getCacheState() {
-		if (cacheState != 0)
+	public byte getCacheState() {
+		byte state = cacheState;
+		if (state != 0)
 			// we have read/set it before, no nead to read property
+			return state;
+		synchronized (this) {
+			return readCacheState();
+		}
+	}
+
+	private byte readCacheState() {
+		if (cacheState != 0)
 			return cacheState;
 		String persisted;
 		try {
@@ -350,13 +359,11 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 			}
 		}
 		if (inSync) {
-			// tries to get a description from the cache
-			synchronized (this) {
-				Cache.Entry entry = cache.getEntry(file.getFullPath());
-				if (entry != null && entry.getTimestamp() == getTimestamp(info))
-					// there was a description in the cache, and it was up to date
-					return (IContentDescription) entry.getCached();
-			}
+			// tries to get a description from the cache, no need to lock
+			ConcurrentCache.Entry<IPath, IContentDescription> entry = cache.getEntry(file.getFullPath());
+			if (entry != null && entry.getTimestamp() == getTimestamp(info))
+				// there was a description in the cache, and it was up to date
+				return entry.getCached();
 		}
 
 		// either we didn't find a description in the cache, or it was not up-to-date - has to be read again
@@ -365,10 +372,10 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 
 		synchronized (this) {
 			// tries to get a description from the cache
-			Cache.Entry entry = cache.getEntry(file.getFullPath());
+			ConcurrentCache.Entry<IPath, IContentDescription> entry = cache.getEntry(file.getFullPath(), false);
 			if (entry != null && inSync && entry.getTimestamp() == getTimestamp(info))
 				// there was a description in the cache, and it was up to date
-				return (IContentDescription) entry.getCached();
+				return entry.getCached();
 
 			if (getCacheState() != ABOUT_TO_FLUSH) {
 				// we are going to add an entry to the cache or update the resource info - remember that
@@ -389,14 +396,8 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 				}
 			}
 			// we actually got a description filled by a describer (or a default description for a non-obvious type)
-			if (entry == null)
-				// there was no entry before - create one
-				entry = cache.addEntry(file.getFullPath(), newDescription, getTimestamp(info));
-			else {
-				// just update the existing entry
-				entry.setTimestamp(getTimestamp(info));
-				entry.setCached(newDescription);
-			}
+			// entries are immutable, so this either creates a new one or replaces the stale one
+			cache.addEntry(file.getFullPath(), newDescription, getTimestamp(info));
 			return newDescription;
 		}
 	}
@@ -523,7 +524,7 @@ public class ContentDescriptionManager implements IManager, IRegistryChangeListe
 	@Override
 	public void startup(IProgressMonitor monitor) throws CoreException {
 		workspace = (Workspace) ResourcesPlugin.getWorkspace();
-		cache = new Cache(100, 1000, 0.1);
+		cache = new ConcurrentCache<>(100, 1000, 0.1);
 		projectContentTypes = new ProjectContentTypes(workspace);
 		getCacheState();
 		if (cacheState == FLUSHING_CACHE || cacheState == ABOUT_TO_FLUSH)
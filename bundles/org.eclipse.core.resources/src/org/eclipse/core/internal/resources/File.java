@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,7 +17,10 @@
 package org.eclipse.core.internal.resources;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import org.eclipse.core.filesystem.*;
+import org.eclipse.core.internal.localstore.FileSystemResourceManager;
 import org.eclipse.core.internal.preferences.EclipsePreferences;
 import org.eclipse.core.internal.utils.*;
 import org.eclipse.core.resources.*;
@@ -98,6 +101,14 @@ public class File extends Resource implements IFile {
 
 	@Override
 	public void create(InputStream content, int updateFlags, IProgressMonitor monitor) throws CoreException {
+		create(content, null, updateFlags, monitor);
+	}
+
+	/**
+	 * Creates this file with the given contents, which are either a stream or
+	 * an array of bytes. The file is not local if both are <code>null</code>.
+	 */
+	private void create(InputStream content, byte[] bytes, int updateFlags, IProgressMonitor monitor) throws CoreException {
 		String message = NLS.bind(Messages.resources_creating, getFullPath());
 		SubMonitor subMonitor = SubMonitor.convert(monitor, message, 100);
 		try {
@@ -146,10 +157,13 @@ public class File extends Resource implements IFile {
 				subMonitor.worked(40);
 
 				info = workspace.createResource(this, updateFlags);
-				boolean local = content != null;
+				boolean local = content != null || bytes != null;
 				if (local) {
 					try {
-						internalSetContents(content, localInfo, updateFlags, false, subMonitor.newChild(59));
+						if (bytes != null)
+							internalSetContents(bytes, localInfo, updateFlags, subMonitor.newChild(59));
+						else
+							internalSetContents(content, localInfo, updateFlags, false, subMonitor.newChild(59));
 					} catch (CoreException | OperationCanceledException e) {
 						// CoreException when a problem happened creating the file on disk
 						// OperationCanceledException when the operation of setting contents has been
@@ -274,9 +288,28 @@ public class File extends Resource implements IFile {
 		int flags = getFlags(info);
 		checkAccessible(flags);
 		checkLocal(flags, DEPTH_ZERO);
+		getLocalManager().refreshOnAccess(this);
 		return getLocalManager().read(this, force, null);
 	}
 
+	@Override
+	public byte[] readAllBytes() throws CoreException {
+		ResourceInfo info = getResourceInfo(false, false);
+		int flags = getFlags(info);
+		checkAccessible(flags);
+		checkLocal(flags, DEPTH_ZERO);
+		return getLocalManager().readAllBytes(this, getLocalManager().isLightweightAutoRefreshEnabled(), null);
+	}
+
+	@Override
+	public ByteBuffer readBuffer() throws CoreException {
+		ResourceInfo info = getResourceInfo(false, false);
+		int flags = getFlags(info);
+		checkAccessible(flags);
+		checkLocal(flags, DEPTH_ZERO);
+		return getLocalManager().readBuffer(this, getLocalManager().isLightweightAutoRefreshEnabled(), null);
+	}
+
 	@Deprecated
 	@Override
 	public int getEncoding() throws CoreException {
@@ -305,6 +338,24 @@ public class File extends Resource implements IFile {
 		workspace.getAliasManager().updateAliases(this, getStore(), IResource.DEPTH_ZERO, monitor);
 	}
 
+	protected void internalSetContents(byte[] content, IFileInfo fileInfo, int updateFlags, IProgressMonitor monitor) throws CoreException {
+		getLocalManager().write(this, content, fileInfo, updateFlags, monitor);
+		updateMetadataFiles();
+		workspace.getAliasManager().updateAliases(this, getStore(), IResource.DEPTH_ZERO, monitor);
+	}
+
+	/**
+	 * Returns whether this file is in sync with the given file system
+	 * information, and its local contents are the given bytes.
+	 */
+	private boolean hasContents(byte[] content, ResourceInfo info, IFileInfo fileInfo) throws CoreException {
+		if (!fileInfo.exists() || fileInfo.isDirectory() || fileInfo.getLength() != content.length)
+			return false;
+		if (info == null || !FileSystemResourceManager.isInSync(info, fileInfo.getLastModified(), fileInfo.getFingerprint()))
+			return false;
+		return Arrays.equals(content, getLocalManager().readAllBytes(this, true, null));
+	}
+
 	/**
 	 * Optimized refreshLocal for files.  This implementation does not block the workspace
 	 * for the common case where the file exists both locally and on the file system, and
@@ -349,6 +400,43 @@ public class File extends Resource implements IFile {
 		}
 	}
 
+	@Override
+	public void write(byte[] content, int updateFlags, IProgressMonitor monitor) throws CoreException {
+		Assert.isNotNull(content);
+		if (!exists()) {
+			create(null, content, updateFlags, monitor);
+			return;
+		}
+		String message = NLS.bind(Messages.resources_settingContents, getFullPath());
+		SubMonitor subMonitor = SubMonitor.convert(monitor, message, 100);
+		boolean skipUnchanged = BitMask.isSet(updateFlags, IResource.SKIP_UNCHANGED);
+		try {
+			// do not ask the validator about a file that will not be written
+			if (workspace.shouldValidate && !(skipUnchanged && hasContents(content, getResourceInfo(false, false), getStore().fetchInfo())))
+				workspace.validateSave(this);
+			final ISchedulingRule rule = workspace.getRuleFactory().modifyRule(this);
+			SubMonitor newChild = subMonitor.newChild(1);
+			try {
+				workspace.prepareOperation(rule, newChild);
+				ResourceInfo info = getResourceInfo(false, false);
+				checkAccessible(getFlags(info));
+				IFileInfo fileInfo = getStore().fetchInfo();
+				// unchanged contents are neither written nor reported in a delta
+				if (skipUnchanged && hasContents(content, info, fileInfo))
+					return;
+				workspace.beginOperation(true);
+				internalSetContents(content, fileInfo, updateFlags, subMonitor.newChild(99));
+			} catch (OperationCanceledException e) {
+				workspace.getWorkManager().operationCanceled();
+				throw e;
+			} finally {
+				workspace.endOperation(rule, true);
+			}
+		} finally {
+			subMonitor.done();
+		}
+	}
+
 	@Override
 	public long setLocalTimeStamp(long value) throws CoreException {
 		//override to handle changing timestamp on project description file
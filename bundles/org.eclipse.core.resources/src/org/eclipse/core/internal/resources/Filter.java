@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2014 IBM Corporation and others.
+ * Copyright (c) 2008, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -50,7 +50,12 @@ public class Filter {
 
 	FilterDescription description;
 	IProject project;
-	AbstractFileInfoMatcher provider = null;
+	/**
+	 * The matcher, created and initialized on first use. Filters are cached in
+	 * the {@link FilterPlan} of their container and shared between threads, so
+	 * the matcher is only published once it is fully initialized.
+	 */
+	private volatile AbstractFileInfoMatcher provider = null;
 
 	public Filter(IProject project, FilterDescription description) {
 		this.description = description;
@@ -58,27 +63,42 @@ public class Filter {
 	}
 
 	public boolean match(IContainer parent, IFileInfo fileInfo) throws CoreException {
-		if (provider == null) {
+		AbstractFileInfoMatcher matcher = getProvider();
+		if (matcher != null)
+			return matcher.matches(parent, fileInfo);
+		return false;
+	}
+
+	/**
+	 * Returns the initialized matcher of this filter, or <code>null</code> if
+	 * it could not be initialized.
+	 */
+	private AbstractFileInfoMatcher getProvider() {
+		AbstractFileInfoMatcher matcher = provider;
+		if (matcher != null)
+			return matcher;
+		synchronized (this) {
+			if (provider != null)
+				return provider;
 			IFilterMatcherDescriptor filterDescriptor = project.getWorkspace().getFilterMatcherDescriptor(getId());
 			if (filterDescriptor != null)
-				provider = ((FilterDescriptor) filterDescriptor).createFilter();
-			if (provider == null) {
+				matcher = ((FilterDescriptor) filterDescriptor).createFilter();
+			if (matcher == null) {
 				String message = NLS.bind(Messages.filters_missingFilterType, getId());
 				Policy.log(new Status(IStatus.ERROR, ResourcesPlugin.PI_RESOURCES, Platform.PLUGIN_ERROR, message, new Error()));
 				// Avoid further initialization attempts by instantiating a placeholder filter
 				// provider that doesn't match any files or folders.
-				provider = new MatchNothingInfoMatcher();
+				matcher = new MatchNothingInfoMatcher();
 			}
 			try {
-				provider.initialize(project, description.getFileInfoMatcherDescription().getArguments());
+				matcher.initialize(project, description.getFileInfoMatcherDescription().getArguments());
 			} catch (CoreException e) {
 				Policy.log(e.getStatus());
-				provider = null;
+				return null;
 			}
+			provider = matcher;
+			return matcher;
 		}
-		if (provider != null)
-			return provider.matches(parent, fileInfo);
-		return false;
 	}
 
 	public boolean isFirst() {
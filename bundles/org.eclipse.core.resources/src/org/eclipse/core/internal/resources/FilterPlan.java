@@ -0,0 +1,279 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.resources;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import org.eclipse.core.filesystem.IFileInfo;
+import org.eclipse.core.resources.*;
+import org.eclipse.core.runtime.CoreException;
+
+/**
+ * The compiled form of all include and exclude filters that apply to the
+ * children of one container, including the inheritable filters of its
+ * ancestors.
+ * <p>
+ * Plans are cached by {@link ProjectDescription#getFilterPlan(IProject, org.eclipse.core.runtime.IPath)}
+ * until the filters of the project change, so the {@link Filter} instances and
+ * their matchers are created and initialized once instead of on every
+ * directory listing. Regular expression filters that match a plain name are
+ * turned into a hashed name set, and the other regular expression filters are
+ * merged into a single pattern. Filters contributed by other matchers are
+ * evaluated one at a time, as before.
+ * </p>
+ * <p>
+ * The order in which filters are asked only matters for the first match;
+ * a child is included if any applicable include filter matches it (or no
+ * include filter applies) and no applicable exclude filter matches it.
+ * </p>
+ */
+public class FilterPlan {
+	static final String REGEX_FILTER_ID = ResourcesPlugin.PI_RESOURCES + ".regexFilterMatcher"; //$NON-NLS-1$
+
+	/**
+	 * The plan used when no filter applies.
+	 */
+	public static final FilterPlan EMPTY = new FilterPlan(new LinkedList<>(), new LinkedList<>());
+
+	private static final LongAdder evaluatedChildren = new LongAdder();
+	private static final LongAdder evaluationNanos = new LongAdder();
+	private static final LongAdder evaluations = new LongAdder();
+
+	/**
+	 * The filters of a plan that apply to one kind of child, either files or folders.
+	 */
+	private static class MatcherGroup {
+		private final Filter[] filters;
+		private final Set<String> names;
+		private final Pattern pattern;
+
+		MatcherGroup(List<Filter> candidates, int kind) {
+			Set<String> literals = new HashSet<>();
+			List<String> regexes = new ArrayList<>();
+			List<Filter> regexFilters = new ArrayList<>();
+			List<Filter> others = new ArrayList<>();
+			for (Filter filter : candidates) {
+				if ((filter.getType() & kind) == 0)
+					continue;
+				String regex = getRegex(filter);
+				if (regex == null) {
+					others.add(filter);
+					continue;
+				}
+				String literal = toLiteral(regex);
+				if (literal != null) {
+					literals.add(literal);
+				} else if (isMergeable(regex)) {
+					regexes.add(regex);
+					regexFilters.add(filter);
+				} else {
+					others.add(filter);
+				}
+			}
+			Pattern merged = null;
+			if (!regexes.isEmpty()) {
+				try {
+					merged = Pattern.compile(regexes.size() == 1 ? regexes.get(0) : "(?:" + String.join(")|(?:", regexes) + ')'); //$NON-NLS-1$ //$NON-NLS-2$
+				} catch (PatternSyntaxException e) {
+					// let the filters report their own problems
+					others.addAll(regexFilters);
+				}
+			}
+			this.names = literals.isEmpty() ? Collections.emptySet() : literals;
+			this.pattern = merged;
+			this.filters = others.toArray(new Filter[others.size()]);
+		}
+
+		boolean isEmpty() {
+			return names.isEmpty() && pattern == null && filters.length == 0;
+		}
+
+		boolean matches(IContainer parent, IFileInfo info) throws CoreException {
+			String name = info.getName();
+			if (names.contains(name))
+				return true;
+			if (pattern != null && pattern.matcher(name).matches())
+				return true;
+			for (Filter filter : filters)
+				if (filter.match(parent, info))
+					return true;
+			return false;
+		}
+	}
+
+	private final MatcherGroup fileExcludes;
+	private final MatcherGroup fileIncludes;
+	private final MatcherGroup folderExcludes;
+	private final MatcherGroup folderIncludes;
+	final LinkedList<Filter> excludes;
+	final LinkedList<Filter> includes;
+
+	private FilterPlan(LinkedList<Filter> includes, LinkedList<Filter> excludes) {
+		this.includes = includes;
+		this.excludes = excludes;
+		fileIncludes = new MatcherGroup(includes, IResourceFilterDescription.FILES);
+		folderIncludes = new MatcherGroup(includes, IResourceFilterDescription.FOLDERS);
+		fileExcludes = new MatcherGroup(excludes, IResourceFilterDescription.FILES);
+		folderExcludes = new MatcherGroup(excludes, IResourceFilterDescription.FOLDERS);
+	}
+
+	/**
+	 * Returns a plan that applies the filters of this plan, followed by the given
+	 * filter descriptions.
+	 *
+	 * @param inheritableOnly whether only inheritable descriptions should be added
+	 */
+	FilterPlan extend(IProject project, List<FilterDescription> descriptions, boolean inheritableOnly) {
+		LinkedList<Filter> newIncludes = new LinkedList<>(includes);
+		LinkedList<Filter> newExcludes = new LinkedList<>(excludes);
+		for (FilterDescription desc : descriptions) {
+			if (inheritableOnly && !desc.isInheritable())
+				continue;
+			Filter filter = new Filter(project, desc);
+			LinkedList<Filter> target = filter.isIncludeOnly() ? newIncludes : newExcludes;
+			if (filter.isFirst())
+				target.addFirst(filter);
+			else
+				target.addLast(filter);
+		}
+		if (newIncludes.isEmpty() && newExcludes.isEmpty())
+			return EMPTY;
+		return new FilterPlan(newIncludes, newExcludes);
+	}
+
+	/**
+	 * Returns the children of the given container that pass the filters of this plan.
+	 */
+	public IFileInfo[] filter(IContainer parent, IFileInfo[] list) throws CoreException {
+		if (isEmpty())
+			return list;
+		long start = System.nanoTime();
+		try {
+			IFileInfo[] result = new IFileInfo[list.length];
+			int outputIndex = 0;
+			for (IFileInfo info : list) {
+				boolean isDirectory = info.isDirectory();
+				MatcherGroup group = isDirectory ? folderIncludes : fileIncludes;
+				if (!group.isEmpty() && !group.matches(parent, info))
+					continue;
+				group = isDirectory ? folderExcludes : fileExcludes;
+				if (!group.isEmpty() && group.matches(parent, info))
+					continue;
+				result[outputIndex++] = info;
+			}
+			if (outputIndex != result.length) {
+				IFileInfo[] tmp = new IFileInfo[outputIndex];
+				System.arraycopy(result, 0, tmp, 0, outputIndex);
+				result = tmp;
+			}
+			return result;
+		} finally {
+			evaluations.increment();
+			evaluatedChildren.add(list.length);
+			evaluationNanos.add(System.nanoTime() - start);
+		}
+	}
+
+	public boolean isEmpty() {
+		return includes.isEmpty() && excludes.isEmpty();
+	}
+
+	/**
+	 * Returns the number of children evaluated against non-empty filter plans.
+	 */
+	public static long getEvaluatedChildren() {
+		return evaluatedChildren.sum();
+	}
+
+	/**
+	 * Returns the number of directory listings evaluated against non-empty
+	 * filter plans.
+	 */
+	public static long getEvaluationCount() {
+		return evaluations.sum();
+	}
+
+	/**
+	 * Returns the total time spent evaluating filter plans, in nanoseconds.
+	 */
+	public static long getEvaluationTime() {
+		return evaluationNanos.sum();
+	}
+
+	/**
+	 * Returns the regular expression of the given filter, or <code>null</code>
+	 * if it is not a regular expression filter.
+	 */
+	static String getRegex(Filter filter) {
+		if (!REGEX_FILTER_ID.equals(filter.getId()))
+			return null;
+		Object arguments = filter.getArguments();
+		if (!(arguments instanceof String))
+			return null;
+		String regex = (String) arguments;
+		try {
+			Pattern.compile(regex);
+		} catch (PatternSyntaxException e) {
+			// let the filter report the problem
+			return null;
+		}
+		return regex;
+	}
+
+	/**
+	 * Returns whether the given regular expression keeps its meaning when it is
+	 * made one alternative of a larger pattern. Back references are numbered
+	 * across the whole pattern, quoting and comments may extend past the end
+	 * of the alternative, and named groups may clash.
+	 */
+	static boolean isMergeable(String regex) {
+		for (int i = 0; i < regex.length(); i++) {
+			char c = regex.charAt(i);
+			if (c == '#' || c == '\n')
+				return false;
+			if (c == '\\' && i + 1 < regex.length()) {
+				char next = regex.charAt(++i);
+				if (Character.isDigit(next) || next == 'k' || next == 'Q')
+					return false;
+			} else if (c == '(' && regex.startsWith("?<", i + 1) && regex.length() > i + 3 && Character.isLetter(regex.charAt(i + 3))) { //$NON-NLS-1$
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the only name matched by the given regular expression, or
+	 * <code>null</code> if it matches anything else than a plain name.
+	 */
+	static String toLiteral(String regex) {
+		StringBuilder literal = new StringBuilder(regex.length());
+		for (int i = 0; i < regex.length(); i++) {
+			char c = regex.charAt(i);
+			if (c == '\\') {
+				if (++i == regex.length())
+					return null;
+				c = regex.charAt(i);
+				if (Character.isLetterOrDigit(c))
+					return null;
+			} else if ("^$.|?*+()[]{}".indexOf(c) >= 0) { //$NON-NLS-1$
+				return null;
+			}
+			literal.append(c);
+		}
+		return literal.toString();
+	}
+}
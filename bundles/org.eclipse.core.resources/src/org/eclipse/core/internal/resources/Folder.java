@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,11 +14,18 @@
  *******************************************************************************/
 package org.eclipse.core.internal.resources;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
-import org.eclipse.core.filesystem.IFileInfo;
-import org.eclipse.core.filesystem.IFileStore;
-import org.eclipse.core.internal.utils.Messages;
-import org.eclipse.core.internal.utils.Policy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import org.eclipse.core.filesystem.*;
+import org.eclipse.core.internal.utils.*;
+import org.eclipse.core.internal.watson.ElementTree;
 import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.*;
 import org.eclipse.core.runtime.jobs.ISchedulingRule;
@@ -122,6 +129,250 @@ public class Folder extends Container implements IFolder {
 		create((force ? IResource.FORCE : IResource.NONE), local, monitor);
 	}
 
+	@Override
+	public void create(Map<IPath, Supplier<InputStream>> files, int updateFlags, IProgressMonitor monitor) throws CoreException {
+		Assert.isLegal(files != null);
+		String message = NLS.bind(Messages.resources_creating, getFullPath());
+		SubMonitor subMonitor = SubMonitor.convert(monitor, message, 100);
+		checkValidPath(path, FOLDER, true);
+		List<IPath> folders = getTreeFolders(files);
+		final ISchedulingRule rule = workspace.getRuleFactory().createRule(this);
+		try {
+			workspace.prepareOperation(rule, subMonitor.newChild(1));
+			IFileStore store = getStore();
+			IFileInfo localInfo = store.fetchInfo();
+			assertCreateRequirements(store, localInfo, updateFlags);
+			if ((updateFlags & IResource.FORCE) != 0 && !Workspace.caseSensitive && localInfo.exists())
+				checkNoCaseVariants(store, folders, files.keySet());
+			// the rule keeps others away from this folder, so write without holding the workspace lock
+			WorkManager workManager = workspace.getWorkManager();
+			Map<IPath, Long> lastModified;
+			int depth = workManager.beginUnprotected();
+			try {
+				lastModified = writeTree(store, !localInfo.exists(), folders, files, subMonitor.newChild(90));
+			} finally {
+				workManager.endUnprotected(depth);
+			}
+			workspace.beginOperation(true);
+			internalCreateTree(folders, files, lastModified, updateFlags);
+			workspace.getAliasManager().updateAliases(this, store, IResource.DEPTH_INFINITE, subMonitor.newChild(9));
+		} catch (OperationCanceledException e) {
+			workspace.getWorkManager().operationCanceled();
+			throw e;
+		} finally {
+			subMonitor.done();
+			workspace.endOperation(rule, true);
+		}
+	}
+
+	/**
+	 * Checks that none of the given folders and files, relative to this
+	 * existing folder, exists locally with a name that differs in case.
+	 */
+	private void checkNoCaseVariants(IFileStore store, List<IPath> folders, Set<IPath> files) throws CoreException {
+		List<IPath> elements = new ArrayList<>(folders.size() + files.size() + 1);
+		elements.add(Path.EMPTY);
+		elements.addAll(folders);
+		elements.addAll(files);
+		for (IPath element : elements) {
+			IFileStore child = element.isEmpty() ? store : store.getFileStore(element);
+			if (!child.fetchInfo().exists())
+				continue;
+			String name = getLocalManager().getLocalName(child);
+			if (name != null && !child.getName().equals(name)) {
+				String msg = NLS.bind(Messages.resources_existsLocalDifferentCase, new Path(child.toString()).removeLastSegments(1).append(name).toOSString());
+				throw new ResourceException(IResourceStatus.CASE_VARIANT_EXISTS, path.append(element), msg, null);
+			}
+		}
+	}
+
+	/**
+	 * Checks the given file paths and returns the paths of the folders that
+	 * contain them, relative to this folder and sorted parents first.
+	 */
+	private List<IPath> getTreeFolders(Map<IPath, Supplier<InputStream>> files) throws CoreException {
+		Set<IPath> folders = new HashSet<>();
+		for (IPath file : files.keySet()) {
+			if (file == null || file.isEmpty() || file.isAbsolute() || file.hasTrailingSeparator() || file.getDevice() != null) {
+				String message = NLS.bind(Messages.resources_invalidPath, file);
+				throw new ResourceException(IResourceStatus.INVALID_VALUE, getFullPath(), message, null);
+			}
+			checkValidPath(path.append(file), FILE, false);
+			IPath parent = file.removeLastSegments(1);
+			// once a parent is known, so are its own parents
+			while (!parent.isEmpty() && folders.add(parent))
+				parent = parent.removeLastSegments(1);
+		}
+		for (IPath folder : folders) {
+			if (files.containsKey(folder)) {
+				String message = NLS.bind(Messages.resources_folderOverFile, path.append(folder));
+				throw new ResourceException(IResourceStatus.RESOURCE_WRONG_TYPE, path.append(folder), message, null);
+			}
+		}
+		List<IPath> result = new ArrayList<>(folders);
+		result.sort(Comparator.comparingInt(IPath::segmentCount));
+		return result;
+	}
+
+	/**
+	 * Adds this folder and the given folders and files to the workspace tree.
+	 * Unless this folder replaces a phantom, the new resources are added as a
+	 * single subtree.
+	 */
+	private void internalCreateTree(List<IPath> folders, Map<IPath, Supplier<InputStream>> files, Map<IPath, Long> lastModified, int updateFlags) throws CoreException {
+		List<IPath> elements = new ArrayList<>(folders.size() + files.size() + 1);
+		elements.add(Path.EMPTY);
+		elements.addAll(folders);
+		elements.addAll(files.keySet());
+		boolean replacesPhantom = workspace.getResourceInfo(path, true, false) != null;
+		ElementTree subtree = replacesPhantom ? null : new ElementTree();
+		IPath subtreeRoot = Path.ROOT.append(getName());
+		for (IPath element : elements) {
+			int type = files.containsKey(element) ? FILE : FOLDER;
+			ResourceInfo info = workspace.newElement(type);
+			if ((updateFlags & IResource.DERIVED) != 0)
+				info.set(M_DERIVED);
+			if ((updateFlags & IResource.TEAM_PRIVATE) != 0)
+				info.set(M_TEAM_PRIVATE_MEMBER);
+			if ((updateFlags & IResource.HIDDEN) != 0)
+				info.set(M_HIDDEN);
+			getLocalManager().updateLocalSync(info, lastModified.get(element));
+			workspace.updateModificationStamp(info);
+			if (replacesPhantom)
+				workspace.createResource(workspace.newResource(path.append(element), type), info, false, false, false);
+			else
+				subtree.createElement(subtreeRoot.append(element), info);
+		}
+		if (!replacesPhantom)
+			workspace.getElementTree().createSubtree(path, subtree);
+		// like a file created on its own, any file may be a project metadata file
+		for (IPath file : files.keySet())
+			((File) getFile(file)).updateMetadataFiles();
+	}
+
+	/**
+	 * Writes this folder and the given folders and files to the local file
+	 * system, and returns their new last modified times, keyed by their path
+	 * relative to this folder. The files are written in parallel. Files that
+	 * exist already are written to a temporary file next to them, which
+	 * replaces them once all files were written. If writing fails or is
+	 * canceled, the files and folders created by this method are deleted
+	 * again, and files that existed before are left alone.
+	 */
+	private Map<IPath, Long> writeTree(IFileStore store, boolean create, List<IPath> folders, Map<IPath, Supplier<InputStream>> files, IProgressMonitor monitor) throws CoreException {
+		SubMonitor subMonitor = SubMonitor.convert(monitor, folders.size() + files.size() + 1);
+		Map<IPath, Long> lastModified = new ConcurrentHashMap<>();
+		List<IPath> createdFolders = new ArrayList<>();
+		Set<IPath> createdFiles = ConcurrentHashMap.newKeySet();
+		Map<IPath, IFileStore> replacements = new ConcurrentHashMap<>();
+		boolean success = false;
+		try {
+			store.mkdir(EFS.NONE, subMonitor.split(1));
+			lastModified.put(Path.EMPTY, store.fetchInfo().getLastModified());
+			for (IPath folder : folders) {
+				IFileStore child = store.getFileStore(folder);
+				if (!create && !child.fetchInfo().exists())
+					createdFolders.add(folder);
+				child.mkdir(EFS.SHALLOW, subMonitor.split(1));
+				lastModified.put(folder, child.fetchInfo().getLastModified());
+			}
+			// never use a shared ForkJoinPool.commonPool() as it may be busy with other tasks, which might deadlock:
+			ForkJoinPool forkJoinPool = new ForkJoinPool(ForkJoinPool.getCommonPoolParallelism());
+			IStatus[] problems;
+			try {
+				problems = forkJoinPool.submit(() -> files.entrySet().parallelStream().map(entry -> {
+					if (subMonitor.isCanceled())
+						return Status.CANCEL_STATUS;
+					IPath file = entry.getKey();
+					IFileStore child = store.getFileStore(file);
+					if (!create && child.fetchInfo().exists()) {
+						// never truncate an existing file before all contents were written
+						IFileStore replacement = child.getParent().getChild('.' + child.getName() + '.' + new UniversalUniqueIdentifier() + ".tmp"); //$NON-NLS-1$
+						replacements.put(file, replacement);
+						child = replacement;
+					} else if (!create) {
+						createdFiles.add(file);
+					}
+					try {
+						lastModified.put(file, writeFile(child, entry.getValue()));
+					} catch (CoreException e) {
+						return e.getStatus();
+					}
+					return null;
+				}).filter(Objects::nonNull).toArray(IStatus[]::new)).get();
+			} catch (InterruptedException | ExecutionException e) {
+				String message = NLS.bind(Messages.localstore_couldNotWrite, getFullPath());
+				throw new ResourceException(IResourceStatus.FAILED_WRITE_LOCAL, getFullPath(), message, e);
+			} finally {
+				forkJoinPool.shutdown();
+			}
+			for (IStatus problem : problems)
+				if (problem.getSeverity() == IStatus.CANCEL)
+					throw new OperationCanceledException();
+			if (problems.length > 0) {
+				String message = NLS.bind(Messages.localstore_couldNotWrite, getFullPath());
+				throw new ResourceException(new MultiStatus(ResourcesPlugin.PI_RESOURCES, IResourceStatus.FAILED_WRITE_LOCAL, problems, message, null));
+			}
+			for (Iterator<Map.Entry<IPath, IFileStore>> it = replacements.entrySet().iterator(); it.hasNext();) {
+				Map.Entry<IPath, IFileStore> replacement = it.next();
+				IFileStore child = store.getFileStore(replacement.getKey());
+				replacement.getValue().move(child, EFS.OVERWRITE, null);
+				it.remove();
+				lastModified.put(replacement.getKey(), child.fetchInfo().getLastModified());
+			}
+			subMonitor.split(files.size());
+			success = true;
+			return lastModified;
+		} finally {
+			if (!success) {
+				for (IFileStore replacement : replacements.values())
+					deleteQuietly(replacement);
+				deleteTree(store, create, createdFolders, createdFiles);
+			}
+		}
+	}
+
+	/**
+	 * Writes the contents of a single file of a tree and returns its new last
+	 * modified time. May be called from any thread.
+	 */
+	private static long writeFile(IFileStore store, Supplier<InputStream> contents) throws CoreException {
+		InputStream content = contents.get();
+		try {
+			if (content == null)
+				content = new ByteArrayInputStream(new byte[0]);
+			OutputStream out = store.openOutputStream(EFS.NONE, null);
+			FileUtil.transferStreams(content, out, store.toString(), null);
+			return store.fetchInfo().getLastModified();
+		} finally {
+			FileUtil.safeClose(content);
+		}
+	}
+
+	/**
+	 * Deletes what a failed {@link #writeTree} created. If this folder was
+	 * created, everything in it was created too, otherwise only the given
+	 * files and folders are deleted, the folders deepest first.
+	 */
+	private void deleteTree(IFileStore store, boolean created, List<IPath> createdFolders, Set<IPath> createdFiles) {
+		if (created) {
+			deleteQuietly(store);
+			return;
+		}
+		for (IPath file : createdFiles)
+			deleteQuietly(store.getFileStore(file));
+		for (int i = createdFolders.size() - 1; i >= 0; i--)
+			deleteQuietly(store.getFileStore(createdFolders.get(i)));
+	}
+
+	private static void deleteQuietly(IFileStore store) {
+		try {
+			store.delete(EFS.NONE, null);
+		} catch (CoreException e) {
+			// ignore, the original problem is more important
+		}
+	}
+
 	/**
 	 * Ensures that this folder exists in the workspace. This is similar in
 	 * concept to mkdirs but it does not work on projects.
@@ -81,7 +81,7 @@ public class MarkerInfo implements IMarkerSetElement, Cloneable, IStringPoolPart
 		attributes = map;
 		this.id = id;
 		this.creationTime = creationTime;
-		this.type = type;
+		this.type = PathInterner.intern(type);
 	}
 
 	/** clone constructor **/
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,6 +16,7 @@
 package org.eclipse.core.internal.resources;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import org.eclipse.core.internal.events.ILifecycleListener;
 import org.eclipse.core.internal.events.LifecycleEvent;
 import org.eclipse.core.internal.utils.Messages;
@@ -29,11 +30,31 @@ import org.eclipse.osgi.util.NLS;
  * nature-related algorithms provided by the workspace.
  */
 public class NatureManager implements ILifecycleListener, IManager {
+	/**
+	 * The natures of a project, for one array of nature ids of its
+	 * description. The description replaces the array whenever its natures
+	 * change, so the array tells whether the entry is still valid.
+	 */
+	private static final class NatureEnablement {
+		final Set<String> declared;
+		/** The enabled natures, or null if not computed yet */
+		volatile String[] enabled;
+		volatile Set<String> enabledSet;
+		final String[] natureIds;
+
+		NatureEnablement(String[] natureIds) {
+			this.natureIds = natureIds;
+			this.declared = natureIds.length == 0 ? Collections.emptySet() : new HashSet<>(Arrays.asList(natureIds));
+		}
+	}
+
+	private static final String[] NO_NATURES = new String[0];
+
 	//maps String (nature ID) -> descriptor objects
 	private Map<String, IProjectNatureDescriptor> descriptors;
 
-	//maps IProject -> String[] of enabled natures for that project
-	private final Map<Project, String[]> natureEnablements = new HashMap<>(20);
+	//maps IProject -> natures of that project
+	private final Map<IProject, NatureEnablement> natureEnablements = new ConcurrentHashMap<>(20);
 
 	//maps String (builder ID) -> String (nature ID)
 	private Map<String, String> buildersToNatures;
@@ -47,15 +68,11 @@ public class NatureManager implements ILifecycleListener, IManager {
 	}
 
 	/**
-	 * Computes the list of natures that are enabled for the given project.
-	 * Enablement computation is subtly different from nature set
+	 * Computes the list of natures that are enabled for a project with the
+	 * given natures. Enablement computation is subtly different from nature set
 	 * validation, because it must find and remove all inconsistencies.
 	 */
-	protected String[] computeNatureEnablements(Project project) {
-		final ProjectDescription description = project.internalGetDescription();
-		if (description == null)
-			return new String[0];//project deleted concurrently
-		String[] natureIds = description.getNatureIds();
+	protected String[] computeNatureEnablements(String[] natureIds) {
 		int count = natureIds.length;
 		if (count == 0)
 			return natureIds;
@@ -318,23 +335,49 @@ public class NatureManager implements ILifecycleListener, IManager {
 		return buildersToNatures.get(builderID);
 	}
 
-	private synchronized void flushEnablements(IProject project) {
+	private void flushEnablements(IProject project) {
 		natureEnablements.remove(project);
 	}
 
 	/**
 	 * Returns the cached array of enabled natures for this project,
-	 * or null if there is nothing in the cache.
+	 * computing it if there is nothing in the cache.
 	 */
-	protected synchronized String[] getEnabledNatures(Project project) {
-		String[] enabled = natureEnablements.get(project);
+	protected String[] getEnabledNatures(Project project) {
+		return getEnabledNatures(getNatureEnablement(project));
+	}
+
+	private String[] getEnabledNatures(NatureEnablement entry) {
+		String[] enabled = entry.enabled;
 		if (enabled != null)
 			return enabled;
-		enabled = computeNatureEnablements(project);
-		natureEnablements.put(project, enabled);
+		synchronized (this) {
+			enabled = entry.enabled;
+			if (enabled == null) {
+				enabled = computeNatureEnablements(entry.natureIds);
+				entry.enabledSet = new HashSet<>(Arrays.asList(enabled));
+				entry.enabled = enabled;
+			}
+		}
 		return enabled;
 	}
 
+	/**
+	 * Returns the natures of the given project for the current nature ids of
+	 * its description.
+	 */
+	private NatureEnablement getNatureEnablement(Project project) {
+		final ProjectDescription description = project.internalGetDescription();
+		//project deleted concurrently
+		String[] natureIds = description == null ? NO_NATURES : description.getNatureIds(false);
+		NatureEnablement entry = natureEnablements.get(project);
+		if (entry != null && entry.natureIds == natureIds)
+			return entry;
+		entry = new NatureEnablement(natureIds);
+		natureEnablements.put(project, entry);
+		return entry;
+	}
+
 	/**
 	 * Returns true if there are cycles in the graph of nature
 	 * dependencies starting at root i.  Returns false otherwise.
@@ -431,12 +474,20 @@ public class NatureManager implements ILifecycleListener, IManager {
 	 * @see IProject#isNatureEnabled(String)
 	 */
 	public boolean isNatureEnabled(Project project, String id) {
-		String[] enabled = getEnabledNatures(project);
-		for (String element : enabled) {
-			if (element.equals(id))
-				return true;
-		}
-		return false;
+		NatureEnablement entry = getNatureEnablement(project);
+		if (!entry.declared.contains(id))
+			return false;
+		getEnabledNatures(entry);
+		return entry.enabledSet.contains(id);
+	}
+
+	/* (non-Javadoc)
+	 * Returns true if the description of the given project has the given nature.
+	 *
+	 * @see IProject#hasNature(String)
+	 */
+	public boolean hasNature(Project project, String id) {
+		return getNatureEnablement(project).declared.contains(id);
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2014 IBM Corporation and others.
+ * Copyright (c) 2004, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -30,6 +30,7 @@ public class PreferenceInitializer extends AbstractPreferenceInitializer {
 	// DEFAULTS
 	public static final boolean PREF_AUTO_REFRESH_DEFAULT = false;
 	public static final boolean PREF_LIGHTWEIGHT_AUTO_REFRESH_DEFAULT = true;
+	public static final boolean PREF_LIGHTWEIGHT_AUTO_REFRESH_ON_ACCESS_DEFAULT = false;
 	public static final boolean PREF_DISABLE_LINKING_DEFAULT = false;
 	public static final String PREF_ENCODING_DEFAULT = ""; //$NON-NLS-1$
 	public static final boolean PREF_AUTO_BUILDING_DEFAULT = true;
@@ -66,6 +67,7 @@ public class PreferenceInitializer extends AbstractPreferenceInitializer {
 		// auto-refresh default
 		node.putBoolean(ResourcesPlugin.PREF_AUTO_REFRESH, PREF_AUTO_REFRESH_DEFAULT);
 		node.putBoolean(ResourcesPlugin.PREF_LIGHTWEIGHT_AUTO_REFRESH, PREF_LIGHTWEIGHT_AUTO_REFRESH_DEFAULT);
+		node.putBoolean(ResourcesPlugin.PREF_LIGHTWEIGHT_AUTO_REFRESH_ON_ACCESS, PREF_LIGHTWEIGHT_AUTO_REFRESH_ON_ACCESS_DEFAULT);
 
 		// linked resources default
 		node.putBoolean(ResourcesPlugin.PREF_DISABLE_LINKING, PREF_DISABLE_LINKING_DEFAULT);
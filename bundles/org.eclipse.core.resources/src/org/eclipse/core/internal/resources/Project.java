@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -73,6 +73,14 @@ public class Project extends Container implements IProject {
 		}
 	}
 
+	private static String[] getBuilderNames(ProjectDescription description) {
+		ICommand[] buildSpec = description.getBuildSpec(false);
+		String[] names = new String[buildSpec.length];
+		for (int i = 0; i < buildSpec.length; i++)
+			names[i] = buildSpec[i].getBuilderName();
+		return names;
+	}
+
 	/*
 	 * If the creation boolean is true then this method is being called on project creation.
 	 * Otherwise it is being called via #setDescription. The difference is that we don't allow
@@ -86,10 +94,11 @@ public class Project extends Container implements IProject {
 		current.setSnapshotLocationURI(description.getSnapshotLocationURI());
 
 		// set the build order before setting the references or the natures
+		// dynamic references are provided for the builders of the project
+		boolean flushOrder = !Arrays.equals(getBuilderNames(current), getBuilderNames(description));
 		current.setBuildSpec(description.getBuildSpec(true));
 
 		// set the references before the natures
-		boolean flushOrder = false;
 		IProject[] oldReferences = current.getReferencedProjects();
 		IProject[] newReferences = description.getReferencedProjects();
 		if (!Arrays.equals(oldReferences, newReferences)) {
@@ -478,6 +487,7 @@ public class Project extends Container implements IProject {
 			return;
 		}
 		description.clearCachedDynamicReferences(null);
+		workspace.flushBuildOrder();
 	}
 
 	@Override
@@ -530,7 +540,7 @@ public class Project extends Container implements IProject {
 		IProjectDescription desc = internalGetDescription();
 		if (desc == null)
 			checkAccessible(NULL_FLAG);
-		return desc.hasNature(natureID);
+		return workspace.getNatureManager().hasNature(this, natureID);
 	}
 
 	/**
@@ -92,6 +92,14 @@ public class ProjectDescription extends ModelObject implements IProjectDescripti
 	 */
 	protected HashMap<IPath, LinkedList<FilterDescription>> filterDescriptions = null;
 
+	/**
+	 * Map of (IPath -&gt; FilterPlan[]) pairs for each filtered resource, holding the
+	 * plan for the resource's own children and the plan inherited by its
+	 * descendants. Discarded whenever the filters change.
+	 */
+	private HashMap<IPath, FilterPlan[]> filterPlans = null;
+	private IProject filterPlansProject = null;
+
 	/**
 	 * Map of (String -&gt; VariableDescription) pairs for each variable in this
 	 * project, where String is the name of the variable.
@@ -114,6 +122,8 @@ public class ProjectDescription extends ModelObject implements IProjectDescripti
 		//don't want the clone to have access to our internal link locations table or builders
 		clone.linkDescriptions = null;
 		clone.filterDescriptions = null;
+		clone.filterPlans = null;
+		clone.filterPlansProject = null;
 		if (variableDescriptions != null)
 			clone.variableDescriptions = (HashMap<String, VariableDescription>) variableDescriptions.clone();
 		clone.buildSpec = getBuildSpec(true);
@@ -379,6 +389,47 @@ public class ProjectDescription extends ModelObject implements IProjectDescripti
 		return filterDescriptions.get(aPath);
 	}
 
+	/**
+	 * Returns the compiled plan of the filters that apply to the children of the
+	 * resource with the given project relative path, including the inheritable
+	 * filters of its ancestors.
+	 */
+	synchronized public FilterPlan getFilterPlan(IProject project, IPath aPath) {
+		if (filterDescriptions == null)
+			return FilterPlan.EMPTY;
+		if (filterPlans == null || !project.equals(filterPlansProject)) {
+			filterPlans = new HashMap<>();
+			filterPlansProject = project;
+		}
+		if (filterDescriptions.containsKey(aPath))
+			return getFilterPlans(project, aPath)[0];
+		return getInheritedFilterPlan(project, aPath);
+	}
+
+	/**
+	 * Returns the plan inherited from the nearest filtered ancestor of the given path.
+	 */
+	private FilterPlan getInheritedFilterPlan(IProject project, IPath aPath) {
+		IPath path = aPath;
+		do {
+			if (path.segmentCount() == 0)
+				return FilterPlan.EMPTY;
+			path = path.removeLastSegments(1);
+		} while (!filterDescriptions.containsKey(path));
+		return getFilterPlans(project, path)[1];
+	}
+
+	private FilterPlan[] getFilterPlans(IProject project, IPath aPath) {
+		FilterPlan[] plans = filterPlans.get(aPath);
+		if (plans == null) {
+			FilterPlan inherited = getInheritedFilterPlan(project, aPath);
+			LinkedList<FilterDescription> descriptions = filterDescriptions.get(aPath);
+			plans = new FilterPlan[] {inherited.extend(project, descriptions, false), inherited.extend(project, descriptions, true)};
+			filterPlans.put(aPath, plans);
+		}
+		return plans;
+	}
+
 	/**
 	 * Returns the map of link descriptions (IPath (project relative path) -&gt; LinkDescription).
 	 * Since this method is only used internally, it never creates a copy.
@@ -677,8 +728,9 @@ public class ProjectDescription extends ModelObject implements IProjectDescripti
 	 * Since this method is only used internally, it never creates a copy. May
 	 * pass null if this project does not have any filtered resources
 	 */
-	public void setFilterDescriptions(HashMap<IPath, LinkedList<FilterDescription>> filterDescriptions) {
+	synchronized public void setFilterDescriptions(HashMap<IPath, LinkedList<FilterDescription>> filterDescriptions) {
 		this.filterDescriptions = filterDescriptions;
+		filterPlans = null;
 	}
 
 	/**
@@ -743,6 +795,7 @@ public class ProjectDescription extends ModelObject implements IProjectDescripti
 			filterDescriptions.put(path, descList);
 		}
 		descList.add(description);
+		filterPlans = null;
 	}
 
 	/**
@@ -750,6 +803,7 @@ public class ProjectDescription extends ModelObject implements IProjectDescripti
 	 * remove the filter from the project description.
 	 */
 	synchronized public void removeFilter(IPath path, FilterDescription description) {
+		filterPlans = null;
 		if (filterDescriptions != null) {
 			LinkedList<FilterDescription> descList = filterDescriptions.get(path);
 			if (descList != null) {
@@ -809,6 +863,7 @@ public class ProjectDescription extends ModelObject implements IProjectDescripti
 	 *     <code>false</code> otherwise.
 	 */
 	synchronized public boolean setFilters(IPath path, LinkedList<FilterDescription> descriptions) {
+		filterPlans = null;
 		if (descriptions != null) {
 			// addition
 			if (filterDescriptions == null)
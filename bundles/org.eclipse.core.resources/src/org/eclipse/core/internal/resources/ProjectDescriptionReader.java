@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -89,9 +89,11 @@ public class ProjectDescriptionReader extends DefaultHandler implements IModelOb
 	private static SAXParserFactory singletonParserFactory;
 
 	/**
-	 * Singleton sax parser
+	 * The sax parser of each thread. A parser can't be used concurrently, but
+	 * can be reused, so descriptions can be read in parallel without creating
+	 * a parser for each of them.
 	 */
-	private static SAXParser singletonParser;
+	private static final ThreadLocal<SAXParser> parsers = new ThreadLocal<>();
 
 	protected final StringBuilder charBuffer = new StringBuilder();
 
@@ -112,14 +114,13 @@ public class ProjectDescriptionReader extends DefaultHandler implements IModelOb
 	 * @throws ParserConfigurationException
 	 * @throws SAXException
 	 */
-	private static synchronized SAXParser createParser() throws ParserConfigurationException, SAXException {
-		//the parser can't be used concurrently, so only use singleton when workspace is locked
-		if (!isWorkspaceLocked())
-			return createParserFactory().newSAXParser();
-		if (singletonParser == null) {
-			singletonParser = createParserFactory().newSAXParser();
+	private static SAXParser createParser() throws ParserConfigurationException, SAXException {
+		SAXParser parser = parsers.get();
+		if (parser == null) {
+			parser = createParserFactory().newSAXParser();
+			parsers.set(parser);
 		}
-		return singletonParser;
+		return parser;
 	}
 
 	/**
@@ -139,14 +140,6 @@ public class ProjectDescriptionReader extends DefaultHandler implements IModelOb
 		return singletonParserFactory;
 	}
 
-	private static boolean isWorkspaceLocked() {
-		try {
-			return ((Workspace) ResourcesPlugin.getWorkspace()).getWorkManager().isLockAlreadyAcquired();
-		} catch (CoreException e) {
-			return false;
-		}
-	}
-
 	public ProjectDescriptionReader() {
 		this.project = null;
 	}
@@ -927,7 +920,13 @@ public class ProjectDescriptionReader extends DefaultHandler implements IModelOb
 		objectStack = new ArrayDeque<>();
 		state = S_INITIAL;
 		try {
-			createParser().parse(input, this);
+			SAXParser parser = createParser();
+			try {
+				parser.parse(input, this);
+			} finally {
+				//don't hold on to this reader until the next parse
+				parser.reset();
+			}
 		} catch (ParserConfigurationException | IOException | SAXException e) {
 			log(e);
 		}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2015 IBM Corporation and others.
+ * Copyright (c) 2004, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,6 +17,8 @@
 package org.eclipse.core.internal.resources;
 
 import java.io.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.MessageFormat;
 import java.util.*;
 import java.util.Map.Entry;
@@ -47,6 +49,12 @@ public class ProjectPreferences extends EclipsePreferences {
 	 * Cache which nodes have been loaded from disk
 	 */
 	protected static Set<String> loadedNodes = Collections.synchronizedSet(new HashSet<String>());
+	/**
+	 * Digest of the contents of the preference file that this node was last
+	 * loaded from or saved to, or <code>null</code> if unknown. Used to skip
+	 * reloading the file if it changes on disk without changing its contents.
+	 */
+	private byte[] contentsDigest;
 	private IFile file;
 	private boolean initialized = false;
 	/**
@@ -164,29 +172,56 @@ public class ProjectPreferences extends EclipsePreferences {
 		return project.getFile(new Path(DEFAULT_PREFERENCES_DIRNAME).append(qualifier).addFileExtension(PREFS_FILE_EXTENSION));
 	}
 
-	private static Properties loadProperties(IFile file) throws BackingStoreException {
+	/*
+	 * Return a digest of the given contents of a preference file, or null if
+	 * it can't be computed.
+	 */
+	private static byte[] digest(byte[] contents) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(contents); //$NON-NLS-1$
+		} catch (NoSuchAlgorithmException e) {
+			// every Java platform supports SHA-256
+			return null;
+		}
+	}
+
+	private static Properties loadProperties(IFile file, byte[] contents) throws BackingStoreException {
 		if (Policy.DEBUG_PREFERENCES)
 			Policy.debug("Loading preferences from file: " + file.getFullPath()); //$NON-NLS-1$
 		Properties result = new Properties();
+		try {
+			result.load(new ByteArrayInputStream(contents));
+		} catch (IOException e) {
+			String message = NLS.bind(Messages.preferences_loadException, file.getFullPath());
+			log(new Status(IStatus.ERROR, ResourcesPlugin.PI_RESOURCES, IStatus.ERROR, message, e));
+			throw new BackingStoreException(message);
+		}
+		return result;
+	}
+
+	/*
+	 * Return the contents of the given preference file, which are empty if it
+	 * does not exist.
+	 */
+	private static byte[] readContents(IFile file) throws BackingStoreException {
 		try (
-			InputStream input = new BufferedInputStream(file.getContents(true));
+			InputStream input = file.getContents(true);
 		) {
-			result.load(input);
+			return input.readAllBytes();
 		} catch (CoreException e) {
 			if (e.getStatus().getCode() == IResourceStatus.RESOURCE_NOT_FOUND) {
 				if (Policy.DEBUG_PREFERENCES)
 					Policy.debug(MessageFormat.format("Preference file {0} does not exist.", file.getFullPath())); //$NON-NLS-1$
-			} else {
-				String message = NLS.bind(Messages.preferences_loadException, file.getFullPath());
-				log(new Status(IStatus.ERROR, ResourcesPlugin.PI_RESOURCES, IStatus.ERROR, message, e));
-				throw new BackingStoreException(message);
+				return new byte[0];
 			}
+			String message = NLS.bind(Messages.preferences_loadException, file.getFullPath());
+			log(new Status(IStatus.ERROR, ResourcesPlugin.PI_RESOURCES, IStatus.ERROR, message, e));
+			throw new BackingStoreException(message);
 		} catch (IOException e) {
 			String message = NLS.bind(Messages.preferences_loadException, file.getFullPath());
 			log(new Status(IStatus.ERROR, ResourcesPlugin.PI_RESOURCES, IStatus.ERROR, message, e));
 			throw new BackingStoreException(message);
 		}
-		return result;
 	}
 
 	private static void preferencesChanged(IProject project) {
@@ -195,15 +230,15 @@ public class ProjectPreferences extends EclipsePreferences {
 		workspace.getContentDescriptionManager().projectPreferencesChanged(project);
 	}
 
-	private static void read(ProjectPreferences node, IFile file) throws BackingStoreException, CoreException {
-		if (file == null || !file.exists()) {
+	private static void read(ProjectPreferences node, IFile file, byte[] contents) throws BackingStoreException, CoreException {
+		if (contents == null) {
 			if (Policy.DEBUG_PREFERENCES)
 				Policy.debug("Unable to determine preference file or file does not exist for node: " + node.absolutePath()); //$NON-NLS-1$
 			return;
 		}
 
 		// Create special "overriding" preferences to be applied
-		ExportedPreferences myNode = overridingPreferences(node, file);
+		ExportedPreferences myNode = overridingPreferences(node, file, contents);
 
 		// flag that we are currently reading, to avoid unnecessary writing
 		boolean oldIsReading = node.isReading;
@@ -221,13 +256,14 @@ public class ProjectPreferences extends EclipsePreferences {
 	 *
 	 * @param current in-memory state
 	 * @param file    new state on the disk to be loaded
+	 * @param contents contents of the file
 	 * @return new node that contains everything required to apply new state
 	 * @throws BackingStoreException
 	 * @see PreferencesService#applyPreferences(IExportedPreferences)
 	 */
-	private static ExportedPreferences overridingPreferences(ProjectPreferences current, IFile file)
+	private static ExportedPreferences overridingPreferences(ProjectPreferences current, IFile file, byte[] contents)
 			throws BackingStoreException {
-		Properties fromDisk = loadProperties(file);
+		Properties fromDisk = loadProperties(file, contents);
 
 		Properties fromMemory = new Properties();
 		current.convertToProperties(fromMemory, ""); //$NON-NLS-1$
@@ -291,6 +327,8 @@ public class ProjectPreferences extends EclipsePreferences {
 		// it from the list of loaded nodes, keep the node as it might still be referenced
 		try {
 			clearAll(node);
+			if (node instanceof ProjectPreferences)
+				((ProjectPreferences) node).contentsDigest = null;
 		} catch (BackingStoreException e) {
 			String message = NLS.bind(Messages.preferences_clearNodeException, node.absolutePath());
 			IStatus status = new Status(IStatus.ERROR, ResourcesPlugin.PI_RESOURCES, IStatus.ERROR, message, e);
@@ -337,7 +375,17 @@ public class ProjectPreferences extends EclipsePreferences {
 			ProjectPreferences projectPrefs = (ProjectPreferences) node;
 			if (projectPrefs.isWriting)
 				return;
-			read(projectPrefs, file);
+			byte[] contents = file.exists() ? readContents(file) : null;
+			byte[] digest = contents == null ? null : digest(contents);
+			// nothing to do if the file still has the contents the node was loaded from or saved to,
+			// which is common when many files are touched at once, e.g. when switching branches
+			if (digest != null && !projectPrefs.dirty && Arrays.equals(digest, projectPrefs.contentsDigest)) {
+				if (Policy.DEBUG_PREFERENCES)
+					Policy.debug("Preference file contents unchanged: " + file.getFullPath()); //$NON-NLS-1$
+				return;
+			}
+			read(projectPrefs, file, contents);
+			projectPrefs.contentsDigest = digest;
 			// Bug 108066: In case the node had existed before it was updated from
 			// file, the read() operation marks it dirty. Override the dirty flag
 			// since we know that the node is expected to be in sync with the file.
@@ -571,11 +619,13 @@ public class ProjectPreferences extends EclipsePreferences {
 			Policy.debug("Loading preferences from file: " + localFile.getFullPath()); //$NON-NLS-1$
 		Properties fromDisk = new Properties();
 		try (
-			InputStream input = new BufferedInputStream(localFile.getContents(true));
+			InputStream input = localFile.getContents(true);
 		) {
-			fromDisk.load(input);
+			byte[] contents = input.readAllBytes();
+			fromDisk.load(new ByteArrayInputStream(contents));
 			convertFromProperties(this, fromDisk, true);
 			loadedNodes.add(absolutePath());
+			contentsDigest = digest(contents);
 		} catch (CoreException e) {
 			if (e.getStatus().getCode() == IResourceStatus.RESOURCE_NOT_FOUND) {
 				if (Policy.DEBUG_PREFERENCES)
@@ -667,6 +717,7 @@ public class ProjectPreferences extends EclipsePreferences {
 							}
 							try {
 								fileInWorkspace.delete(true, null);
+								contentsDigest = null;
 							} catch (CoreException e1) {
 								String message1 = NLS.bind(Messages.preferences_deleteException, fileInWorkspace.getFullPath());
 								log(new Status(IStatus.WARNING, ResourcesPlugin.PI_RESOURCES, IStatus.WARNING, message1, null));
@@ -681,7 +732,8 @@ public class ProjectPreferences extends EclipsePreferences {
 					String fileLineSeparator = FileUtil.getLineSeparator(fileInWorkspace);
 					if (!systemLineSeparator.equals(fileLineSeparator))
 						s = s.replaceAll(systemLineSeparator, fileLineSeparator);
-					InputStream input = new BufferedInputStream(new ByteArrayInputStream(s.getBytes("UTF-8"))); //$NON-NLS-1$
+					byte[] contents = s.getBytes("UTF-8"); //$NON-NLS-1$
+					InputStream input = new BufferedInputStream(new ByteArrayInputStream(contents));
 					// make sure that preference folder and file are in sync
 					fileInWorkspace.getParent().refreshLocal(IResource.DEPTH_ZERO, null);
 					fileInWorkspace.refreshLocal(IResource.DEPTH_ZERO, null);
@@ -709,6 +761,7 @@ public class ProjectPreferences extends EclipsePreferences {
 							Policy.debug("Creating preference file: " + fileInWorkspace.getLocation()); //$NON-NLS-1$
 						fileInWorkspace.create(input, IResource.NONE, null);
 					}
+					contentsDigest = digest(contents);
 					if (PREFS_DERIVED_QUALIFIER.equals(finalQualifier))
 						fileInWorkspace.setDerived(true, null);
 				} catch (BackingStoreException e2) {
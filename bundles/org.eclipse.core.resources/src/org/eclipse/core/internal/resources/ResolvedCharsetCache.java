@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.resources;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.core.resources.*;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences.*;
+import org.osgi.service.prefs.BackingStoreException;
+import org.osgi.service.prefs.Preferences;
+
+/**
+ * Caches the charsets that {@link CharsetManager#getCharsetFor(IPath, boolean)}
+ * inherits from the folders of each project, so asking for the charset of a
+ * file usually only looks up the setting of the file itself.
+ * <p>
+ * The cache of a project is discarded when any of the encoding preferences
+ * of the project change, or their preference nodes are added or removed.
+ * Listeners are added to the nodes when the cache of a project is built, so
+ * changes made through the preferences API are noticed as well.
+ * </p>
+ */
+class ResolvedCharsetCache {
+	/**
+	 * Marks folders that inherit no charset from the project. Compared by
+	 * identity, since any string can be set as charset.
+	 */
+	private static final String NONE = new String();
+
+	/**
+	 * Invalidates the cache of a project when a child with one of the given
+	 * names is added or removed.
+	 */
+	private final class ChildListener implements INodeChangeListener {
+		private final String[] names;
+		private final IProject project;
+
+		ChildListener(IProject project, String... names) {
+			this.project = project;
+			this.names = names;
+		}
+
+		private void changed(NodeChangeEvent event) {
+			String name = event.getChild().name();
+			for (String n : names) {
+				if (n.equals(name)) {
+					invalidate(project);
+					return;
+				}
+			}
+		}
+
+		@Override
+		public void added(NodeChangeEvent event) {
+			changed(event);
+		}
+
+		@Override
+		public void removed(NodeChangeEvent event) {
+			changed(event);
+		}
+	}
+
+	private final class Entry {
+		Preferences derivedPrefs;
+		/** The charsets inherited by folders, or NONE */
+		final Map<IPath, String> folders = new ConcurrentHashMap<>();
+		final List<Runnable> listenerRemovals = new ArrayList<>();
+		Preferences prefs;
+
+		void addListener(IEclipsePreferences node, INodeChangeListener listener) {
+			node.addNodeChangeListener(listener);
+			listenerRemovals.add(() -> node.removeNodeChangeListener(listener));
+		}
+
+		void addListener(IEclipsePreferences node, IPreferenceChangeListener listener) {
+			node.addPreferenceChangeListener(listener);
+			listenerRemovals.add(() -> node.removePreferenceChangeListener(listener));
+		}
+
+		void dispose() {
+			for (Runnable removal : listenerRemovals) {
+				try {
+					removal.run();
+				} catch (IllegalStateException e) {
+					// the node has been removed
+				}
+			}
+		}
+
+		String getExplicitCharset(IPath resourcePath) {
+			String key = CharsetManager.getKeyFor(resourcePath);
+			String charset = prefs == null ? null : prefs.get(key, null);
+			// derivedPrefs may be not null, only if derived encodings are stored separately
+			if (charset == null && derivedPrefs != null)
+				charset = derivedPrefs.get(key, null);
+			return charset;
+		}
+
+		String resolve(IPath folderPath) {
+			String charset = folders.get(folderPath);
+			if (charset != null) {
+				skippedLookups.addAndGet(folderPath.segmentCount());
+				return charset;
+			}
+			charset = getExplicitCharset(folderPath);
+			if (charset == null)
+				charset = folderPath.segmentCount() > 1 ? resolve(folderPath.removeLastSegments(1)) : NONE;
+			folders.put(folderPath, charset);
+			return charset;
+		}
+	}
+
+	private final Map<IProject, Entry> entries = new ConcurrentHashMap<>();
+	private final CharsetManager manager;
+	/** Incremented on every invalidation, to drop entries built concurrently */
+	private final AtomicLong modificationCount = new AtomicLong();
+	private final AtomicLong skippedLookups = new AtomicLong();
+	private final Workspace workspace;
+
+	ResolvedCharsetCache(Workspace workspace, CharsetManager manager) {
+		this.workspace = workspace;
+		this.manager = manager;
+	}
+
+	/**
+	 * Discards the cache of all projects.
+	 */
+	void clear() {
+		modificationCount.incrementAndGet();
+		for (IProject project : new ArrayList<>(entries.keySet()))
+			invalidate(project);
+	}
+
+	/**
+	 * Returns the charset for the given resource like
+	 * {@link CharsetManager#getCharsetFor(IPath, boolean)}.
+	 */
+	String getCharsetFor(IPath resourcePath, boolean recurse) {
+		IProject project = workspace.getRoot().getProject(resourcePath.segment(0));
+		Entry entry = getEntry(project);
+		if (entry.prefs == null && entry.derivedPrefs == null)
+			// no preferences found - for performance reasons, short-circuit
+			// lookup by falling back to workspace's default setting
+			return recurse ? ResourcesPlugin.getEncoding() : null;
+		String charset = entry.getExplicitCharset(resourcePath);
+		if (charset != null || !recurse)
+			return charset;
+		charset = resourcePath.segmentCount() > 1 ? entry.resolve(resourcePath.removeLastSegments(1)) : NONE;
+		// ensure we default to the workspace encoding if none is found
+		return charset == NONE ? ResourcesPlugin.getEncoding() : charset;
+	}
+
+	private Entry getEntry(IProject project) {
+		Entry entry = entries.get(project);
+		if (entry != null) {
+			skippedLookups.addAndGet(2);
+			return entry;
+		}
+		long count = modificationCount.get();
+		entry = new Entry();
+		// listen before reading the preferences, so no change is missed
+		addListeners(entry, project);
+		entry.prefs = manager.getPreferences(project, false, false);
+		entry.derivedPrefs = manager.getPreferences(project, false, true);
+		Entry existing = entries.putIfAbsent(project, entry);
+		if (existing != null) {
+			entry.dispose();
+			return existing;
+		}
+		if (modificationCount.get() != count && entries.remove(project, entry))
+			entry.dispose();
+		return entry;
+	}
+
+	/**
+	 * Returns the number of preference lookups that were skipped because their
+	 * result was cached.
+	 */
+	long getSkippedLookups() {
+		return skippedLookups.get();
+	}
+
+	private void addListeners(Entry entry, IProject project) {
+		String projectName = project.getName();
+		IEclipsePreferences node = (IEclipsePreferences) Platform.getPreferencesService().getRootNode().node(ProjectScope.SCOPE);
+		entry.addListener(node, new ChildListener(project, projectName));
+		try {
+			if (!node.nodeExists(projectName))
+				return;
+			IEclipsePreferences projectNode = (IEclipsePreferences) node.node(projectName);
+			entry.addListener(projectNode, new ChildListener(project, ProjectPreferences.PREFS_REGULAR_QUALIFIER, ProjectPreferences.PREFS_DERIVED_QUALIFIER));
+			for (String qualifier : new String[] {ProjectPreferences.PREFS_REGULAR_QUALIFIER, ProjectPreferences.PREFS_DERIVED_QUALIFIER}) {
+				if (!projectNode.nodeExists(qualifier))
+					continue;
+				IEclipsePreferences qualifierNode = (IEclipsePreferences) projectNode.node(qualifier);
+				entry.addListener(qualifierNode, new ChildListener(project, ResourcesPlugin.PREF_ENCODING));
+				entry.addListener(qualifierNode, (IPreferenceChangeListener) event -> {
+					if (ResourcesPlugin.PREF_SEPARATE_DERIVED_ENCODINGS.equals(event.getKey()))
+						invalidate(project);
+				});
+				if (qualifierNode.nodeExists(ResourcesPlugin.PREF_ENCODING))
+					entry.addListener((IEclipsePreferences) qualifierNode.node(ResourcesPlugin.PREF_ENCODING), (IPreferenceChangeListener) event -> invalidate(project));
+			}
+		} catch (BackingStoreException e) {
+			// getPreferences logs the failure, and the project is not cached
+			modificationCount.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Discards the cache of the given project.
+	 */
+	void invalidate(IProject project) {
+		modificationCount.incrementAndGet();
+		Entry entry = entries.remove(project);
+		if (entry != null)
+			entry.dispose();
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -482,6 +482,8 @@ public abstract class Resource extends PlatformObject implements IResource, ICor
 		// Must allow notifications to nest in all resource rules.
 		if (rule.getClass().equals(WorkManager.NotifyRule.class))
 			return true;
+		if (rule instanceof ResourceRuleSet)
+			return ((ResourceRuleSet) rule).isContainedBy(this);
 		if (rule instanceof MultiRule) {
 			MultiRule multi = (MultiRule) rule;
 			ISchedulingRule[] children = multi.getChildren();
@@ -950,6 +952,8 @@ public abstract class Resource extends PlatformObject implements IResource, ICor
 
 	@Override
 	public boolean exists() {
+		if (getType() != ROOT)
+			getLocalManager().refreshOnAccess(this);
 		ResourceInfo info = getResourceInfo(false, false);
 		return exists(getFlags(info), true);
 	}
@@ -1048,6 +1052,7 @@ public abstract class Resource extends PlatformObject implements IResource, ICor
 		info.clearSessionProperties();
 		info.clear(M_LOCAL_EXISTS);
 		info.setLocalSyncInfo(I_NULL_SYNC_INFO);
+		info.setLocalSyncFingerprint(EFS.NONE);
 		info.set(M_PHANTOM);
 		info.clearModificationStamp();
 		info.setMarkers(null);
@@ -1268,6 +1273,8 @@ public abstract class Resource extends PlatformObject implements IResource, ICor
 		// Must not schedule at same time as notification.
 		if (rule.getClass().equals(WorkManager.NotifyRule.class))
 			return true;
+		if (rule instanceof ResourceRuleSet)
+			return rule.isConflicting(this);
 		if (rule instanceof MultiRule) {
 			MultiRule multi = (MultiRule) rule;
 			ISchedulingRule[] children = multi.getChildren();
@@ -1963,40 +1970,10 @@ public abstract class Resource extends PlatformObject implements IResource, ICor
 	}
 
 	private IFileInfo[] filterChildren(Project project, ProjectDescription description, IFileInfo[] list, boolean throwException) throws CoreException {
-		IPath relativePath = getProjectRelativePath();
-		LinkedList<Filter> currentIncludeFilters = new LinkedList<>();
-		LinkedList<Filter> currentExcludeFilters = new LinkedList<>();
-		LinkedList<FilterDescription> filters = null;
-
-		boolean firstSegment = true;
-		do {
-			if (!firstSegment)
-				relativePath = relativePath.removeLastSegments(1);
-			filters = description.getFilter(relativePath);
-			if (filters != null) {
-				for (FilterDescription desc : filters) {
-					if (firstSegment || desc.isInheritable()) {
-						Filter filter = new Filter(project, desc);
-						if (filter.isIncludeOnly()) {
-							if (filter.isFirst())
-								currentIncludeFilters.addFirst(filter);
-							else
-								currentIncludeFilters.addLast(filter);
-						} else {
-							if (filter.isFirst())
-								currentExcludeFilters.addFirst(filter);
-							else
-								currentExcludeFilters.addLast(filter);
-						}
-					}
-				}
-			}
-			firstSegment = false;
-		} while (relativePath.segmentCount() > 0);
-
-		if ((currentIncludeFilters.size() > 0) || (currentExcludeFilters.size() > 0)) {
+		FilterPlan plan = description.getFilterPlan(project, getProjectRelativePath());
+		if (!plan.isEmpty()) {
 			try {
-				list = Filter.filter(project, currentIncludeFilters, currentExcludeFilters, (IContainer) this, list);
+				list = plan.filter((IContainer) this, list);
 			} catch (CoreException e) {
 				if (throwException)
 					throw e;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -18,6 +18,7 @@ package org.eclipse.core.internal.resources;
 
 import java.io.*;
 import java.util.Map;
+import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.internal.localstore.FileStoreRoot;
 import org.eclipse.core.internal.utils.*;
 import org.eclipse.core.internal.watson.IElementTreeData;
@@ -45,6 +46,10 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 	/** Set of flags which reflect various states of the info (used, derived, ...). */
 	protected int flags;
 
+	/** Local sync fingerprint, complementing the local sync info */
+	// thread safety: (Concurrency004)
+	protected volatile long localFingerprint = EFS.NONE;
+
 	/** Local sync info */
 	// thread safety: (Concurrency004)
 	protected volatile long localInfo = I_NULL_SYNC_INFO;
@@ -159,6 +164,14 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 		return flags;
 	}
 
+	/**
+	 * Gets the local sync fingerprint, or {@link EFS#NONE} if it is unknown.
+	 * @see org.eclipse.core.filesystem.IFileInfo#getFingerprint()
+	 */
+	public long getLocalSyncFingerprint() {
+		return localFingerprint;
+	}
+
 	/**
 	 * Gets the local-relative sync information.
 	 */
@@ -322,6 +335,15 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 	}
 
 	public void readFrom(int newFlags, DataInput input) throws IOException {
+		readFrom(newFlags, input, true);
+	}
+
+	/**
+	 * Reads this info as written by {@link #writeTo(DataOutput)}. Infos in
+	 * trees saved before {@link ICoreConstants#WORKSPACE_TREE_VERSION_3} have
+	 * no local sync fingerprint.
+	 */
+	public void readFrom(int newFlags, DataInput input, boolean withFingerprint) throws IOException {
 		// The flags for this info are read by the visitor (flattener).
 		// See Workspace.readElement().  This allows the reader to look ahead
 		// and see what type of info is being loaded.
@@ -330,6 +352,8 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 		nodeId = input.readLong();
 		charsetAndContentId = input.readInt() & LOWER;
 		modStamp = input.readLong();
+		if (withFingerprint)
+			localFingerprint = input.readLong();
 	}
 
 	/**
@@ -363,6 +387,13 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 		flags = value;
 	}
 
+	/**
+	 * Sets the local sync fingerprint, or {@link EFS#NONE} if it is unknown.
+	 */
+	public void setLocalSyncFingerprint(long fingerprint) {
+		localFingerprint = fingerprint;
+	}
+
 	/**
 	 * Sets the local-relative sync information.
 	 */
@@ -450,7 +481,8 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 		} else {
 			//add sync info
 			if (syncInfo == null)
-				syncInfo = new ObjectMap<>(5);
+				// most resources only have sync info of one partner
+				syncInfo = new ObjectMap<>(1);
 			syncInfo.put(id, value.clone());
 		}
 	}
@@ -469,8 +501,11 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 	@Override
 	public void shareStrings(StringPool set) {
 		ObjectMap<QualifiedName, Object> map = syncInfo;
-		if (map != null)
+		if (map != null) {
 			map.shareStrings(set);
+			// sync info is copied on the way in and out, so equal values can be shared
+			map.shareByteArrays(set);
+		}
 		map = sessionProperties;
 		if (map != null)
 			map.shareStrings(set);
@@ -480,6 +515,14 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 	}
 
 	public void writeTo(DataOutput output) throws IOException {
+		writeTo(output, true);
+	}
+
+	/**
+	 * Writes this info, with or without the local sync fingerprint, in the
+	 * format read by {@link #readFrom(int, DataInput, boolean)}.
+	 */
+	public void writeTo(DataOutput output, boolean withFingerprint) throws IOException {
 		// The flags for this info are written by the visitor (flattener).
 		// See SaveManager.writeElement().  This allows the reader to look ahead
 		// and see what type of info is being loaded.
@@ -487,6 +530,8 @@ public class ResourceInfo implements IElementTreeData, ICoreConstants, IStringPo
 		output.writeLong(nodeId);
 		output.writeInt(getContentId());
 		output.writeLong(modStamp);
+		if (withFingerprint)
+			output.writeLong(localFingerprint);
 	}
 
 	/** for debugging only **/
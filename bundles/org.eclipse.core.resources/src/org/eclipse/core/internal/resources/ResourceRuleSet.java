@@ -0,0 +1,236 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.resources;
+
+import java.util.*;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.MultiRule;
+
+/**
+ * A multi-rule made of resources of a single workspace. The resources are
+ * kept in a trie of path segments, so checking whether a resource conflicts
+ * with or is contained by this rule takes time proportional to the depth of
+ * the resource instead of the number of resources in this rule.
+ * <p>
+ * Since this is a {@link MultiRule}, scheduling rules that only know about
+ * multi-rules still see its children. Resources that are contained by other
+ * resources of the rule are dropped when the rule is created.
+ * </p>
+ */
+public class ResourceRuleSet extends MultiRule {
+	/**
+	 * A node of the trie. Nodes only exist on the way to a resource of the rule.
+	 */
+	private static class Node {
+		HashMap<String, Node> children;
+		/** The resource ending at this node, or <code>null</code> */
+		IResource resource;
+
+		Node child(String segment, boolean create) {
+			if (children == null) {
+				if (!create)
+					return null;
+				children = new HashMap<>(4);
+			}
+			Node child = children.get(segment);
+			if (child == null && create)
+				children.put(segment, child = new Node());
+			return child;
+		}
+
+		void collect(List<IResource> result) {
+			if (resource != null) {
+				result.add(resource);
+				return;
+			}
+			if (children != null)
+				for (Node child : children.values())
+					child.collect(result);
+		}
+	}
+
+	private final Node root;
+	private final int size;
+	private final IWorkspace workspace;
+
+	/**
+	 * Returns a scheduling rule that combines the given rules. If all of the
+	 * given rules are resources of the same workspace, a {@link ResourceRuleSet}
+	 * is returned, otherwise this is the same as
+	 * {@link MultiRule#combine(ISchedulingRule[])}. Returns <code>null</code>
+	 * if there is no rule to combine, and the rule itself if there is only one.
+	 */
+	public static ISchedulingRule combine(ISchedulingRule[] rules) {
+		Node root = new Node();
+		IWorkspace workspace = null;
+		for (ISchedulingRule rule : rules) {
+			if (rule == null)
+				continue;
+			if (rule instanceof ResourceRuleSet) {
+				ResourceRuleSet set = (ResourceRuleSet) rule;
+				if (workspace != null && !workspace.equals(set.workspace))
+					return MultiRule.combine(rules);
+				workspace = set.workspace;
+				for (ISchedulingRule child : set.getChildren())
+					add(root, (IResource) child);
+			} else if (rule instanceof Resource) {
+				IResource resource = (IResource) rule;
+				if (workspace != null && !workspace.equals(resource.getWorkspace()))
+					return MultiRule.combine(rules);
+				workspace = resource.getWorkspace();
+				add(root, resource);
+			} else {
+				return MultiRule.combine(rules);
+			}
+		}
+		List<IResource> resources = new ArrayList<>();
+		root.collect(resources);
+		if (resources.isEmpty())
+			return null;
+		if (resources.size() == 1)
+			return resources.get(0);
+		return new ResourceRuleSet(workspace, root, resources.toArray(new IResource[resources.size()]));
+	}
+
+	private static void add(Node root, IResource resource) {
+		IPath path = resource.getFullPath();
+		Node node = root;
+		for (int i = 0, count = path.segmentCount(); i < count; i++) {
+			if (node.resource != null)
+				// already contained
+				return;
+			node = node.child(path.segment(i), true);
+		}
+		if (node.resource != null)
+			return;
+		node.resource = resource;
+		// the new resource contains everything below it
+		node.children = null;
+	}
+
+	private ResourceRuleSet(IWorkspace workspace, Node root, IResource[] resources) {
+		super(resources);
+		this.workspace = workspace;
+		this.root = root;
+		this.size = resources.length;
+	}
+
+	@Override
+	public boolean contains(ISchedulingRule rule) {
+		if (this == rule)
+			return true;
+		// Must allow notifications to nest in all resource rules.
+		if (rule.getClass().equals(WorkManager.NotifyRule.class))
+			return true;
+		if (rule instanceof MultiRule) {
+			for (ISchedulingRule child : ((MultiRule) rule).getChildren())
+				if (!contains(child))
+					return false;
+			return true;
+		}
+		if (!(rule instanceof IResource))
+			return false;
+		IResource resource = (IResource) rule;
+		if (!workspace.equals(resource.getWorkspace()))
+			return false;
+		return contains(resource.getFullPath());
+	}
+
+	/**
+	 * Returns whether one of the resources of this rule is a prefix of the given path.
+	 */
+	private boolean contains(IPath path) {
+		Node node = root;
+		for (int i = 0, count = path.segmentCount(); i < count; i++) {
+			if (node.resource != null)
+				return true;
+			node = node.child(path.segment(i), false);
+			if (node == null)
+				return false;
+		}
+		return node.resource != null;
+	}
+
+	/**
+	 * Returns whether all resources of this rule are contained by the given resource.
+	 */
+	boolean isContainedBy(IResource resource) {
+		if (!workspace.equals(resource.getWorkspace()))
+			return false;
+		IPath path = resource.getFullPath();
+		Node node = root;
+		for (int i = 0, count = path.segmentCount(); i < count; i++) {
+			// a resource above the path, or a branch beside it
+			if (node.resource != null || node.children == null || node.children.size() != 1)
+				return false;
+			node = node.child(path.segment(i), false);
+			if (node == null)
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public boolean isConflicting(ISchedulingRule rule) {
+		if (this == rule)
+			return true;
+		// Must not schedule at same time as notification.
+		if (rule.getClass().equals(WorkManager.NotifyRule.class))
+			return true;
+		if (rule instanceof ResourceRuleSet) {
+			ResourceRuleSet other = (ResourceRuleSet) rule;
+			// walk the smaller rule through the trie of the larger one
+			if (other.size > size)
+				return other.isConflicting(this);
+			if (!workspace.equals(other.workspace))
+				return false;
+			for (ISchedulingRule child : other.getChildren())
+				if (isConflicting(((IResource) child).getFullPath()))
+					return true;
+			return false;
+		}
+		if (rule instanceof MultiRule) {
+			for (ISchedulingRule child : ((MultiRule) rule).getChildren())
+				if (isConflicting(child))
+					return true;
+			return false;
+		}
+		if (!(rule instanceof IResource))
+			return false;
+		IResource resource = (IResource) rule;
+		if (!workspace.equals(resource.getWorkspace()))
+			return false;
+		return isConflicting(resource.getFullPath());
+	}
+
+	/**
+	 * Returns whether one of the resources of this rule is a prefix of the
+	 * given path, or the given path is a prefix of one of them.
+	 */
+	private boolean isConflicting(IPath path) {
+		Node node = root;
+		for (int i = 0, count = path.segmentCount(); i < count; i++) {
+			if (node.resource != null)
+				return true;
+			node = node.child(path.segment(i), false);
+			if (node == null)
+				return false;
+		}
+		// nodes only exist on the way to a resource
+		return true;
+	}
+}
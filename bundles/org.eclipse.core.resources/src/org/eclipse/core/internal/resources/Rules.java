@@ -218,6 +218,6 @@ class Rules implements IResourceRuleFactory, ILifecycleListener {
 		if (rules.size() == 1)
 			return rules.iterator().next();
 		ISchedulingRule[] ruleArray = rules.toArray(new ISchedulingRule[rules.size()]);
-		return new MultiRule(ruleArray);
+		return ResourceRuleSet.combine(ruleArray);
 	}
 }
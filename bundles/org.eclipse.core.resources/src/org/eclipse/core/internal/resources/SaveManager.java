@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -383,11 +383,13 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 				participant.prepareToSave(context);
 				break;
 			case SAVING :
+				long participantStart = System.nanoTime();
 				try {
 					if (ResourceStats.TRACE_SAVE_PARTICIPANTS)
 						ResourceStats.startSave(participant);
 					participant.saving(context);
 				} finally {
+					ResourceMetrics.recordSince(ResourceMetrics.SAVE_PARTICIPANTS, participant.getClass().getName(), participantStart);
 					if (ResourceStats.TRACE_SAVE_PARTICIPANTS)
 						ResourceStats.endSave();
 				}
@@ -446,6 +448,19 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 	private void hookEndSave(int kind, IProject project, long start) {
 		if (ResourceStats.TRACE_SNAPSHOT && kind == ISaveContext.SNAPSHOT)
 			ResourceStats.endSnapshot();
+		switch (kind) {
+			case ISaveContext.FULL_SAVE :
+				ResourceMetrics.recordSince(ResourceMetrics.SAVE, "full save", start); //$NON-NLS-1$
+				break;
+			case ISaveContext.SNAPSHOT :
+				ResourceMetrics.recordSince(ResourceMetrics.SAVE, "snapshot", start); //$NON-NLS-1$
+				break;
+			case ISaveContext.PROJECT_SAVE :
+				ResourceMetrics.recordSince(ResourceMetrics.SAVE, "project save", start); //$NON-NLS-1$
+				break;
+		}
+		if (Policy.DEBUG_METRICS)
+			Policy.debug("Metrics after save: " + ResourceMetrics.toJSON()); //$NON-NLS-1$
 		if (Policy.DEBUG_SAVE) {
 			String endMessage = null;
 			switch (kind) {
@@ -460,7 +475,7 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 					break;
 			}
 			if (endMessage != null)
-				Policy.debug(endMessage + (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$
+				Policy.debug(endMessage + (System.nanoTime() - start) / 1000000 + "ms"); //$NON-NLS-1$
 		}
 	}
 
@@ -539,16 +554,42 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 	 */
 	@Override
 	public Object readElement(IPath path, DataInput input) throws IOException {
+		return readElement(path, input, true);
+	}
+
+	private Object readElement(IPath path, DataInput input, boolean withFingerprint) throws IOException {
 		Assert.isNotNull(path);
 		Assert.isNotNull(input);
 		// read the flags and pull out the type.
 		int flags = input.readInt();
 		int type = (flags & ICoreConstants.M_TYPE) >> ICoreConstants.M_TYPE_START;
 		ResourceInfo info = workspace.newElement(type);
-		info.readFrom(flags, input);
+		info.readFrom(flags, input, withFingerprint);
 		return info;
 	}
 
+	/**
+	 * Returns the flattener for resource infos with or without local sync
+	 * fingerprints. The workspace saves trees with fingerprints, see
+	 * {@link ICoreConstants#WORKSPACE_TREE_VERSION_3}; the flattener without
+	 * them reads and writes the format of older trees.
+	 */
+	IElementInfoFlattener getElementFlattener(boolean withFingerprints) {
+		if (withFingerprints)
+			return this;
+		return new IElementInfoFlattener() {
+			@Override
+			public Object readElement(IPath path, DataInput input) throws IOException {
+				return SaveManager.this.readElement(path, input, false);
+			}
+
+			@Override
+			public void writeElement(IPath path, Object element, DataOutput output) throws IOException {
+				SaveManager.this.writeElement(path, element, output, false);
+			}
+		};
+	}
+
 	private void rememberSnapshotRequestor() {
 		if (Policy.DEBUG_SAVE)
 			Policy.debug(new RuntimeException("Scheduling workspace snapshot")); //$NON-NLS-1$
@@ -864,14 +905,20 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 			Policy.debug("Restore workspace metainfo: starting..."); //$NON-NLS-1$
 		long start = System.currentTimeMillis();
 		IProject[] roots = workspace.getRoot().getProjects(IContainer.INCLUDE_HIDDEN);
-		for (IProject root : roots) {
-			//fatal to throw exceptions during startup
-			try {
-				restoreMetaInfo((Project) root, monitor);
-			} catch (CoreException e) {
-				String message = NLS.bind(Messages.resources_readMeta, root.getName());
-				problems.merge(new ResourceStatus(IResourceStatus.FAILED_READ_METADATA, root.getFullPath(), message, e));
+		//parse the project descriptions in parallel, they are set one after another below
+		workspace.getFileSystemManager().prefetchDescriptions(roots);
+		try {
+			for (IProject root : roots) {
+				//fatal to throw exceptions during startup
+				try {
+					restoreMetaInfo((Project) root, monitor);
+				} catch (CoreException e) {
+					String message = NLS.bind(Messages.resources_readMeta, root.getName());
+					problems.merge(new ResourceStatus(IResourceStatus.FAILED_READ_METADATA, root.getFullPath(), message, e));
+				}
 			}
+		} finally {
+			workspace.getFileSystemManager().clearPrefetchedDescriptions();
 		}
 		if (Policy.DEBUG_RESTORE_METAINFO)
 			Policy.debug("Restore workspace metainfo: " + (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
@@ -1159,15 +1206,19 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 				workspace.prepareOperation(rule, monitor);
 				workspace.beginOperation(false);
 				hookStartSave(kind, project);
-				long start = System.currentTimeMillis();
+				long start = System.nanoTime();
 				Map<String, SaveContext> contexts = computeSaveContexts(getSaveParticipantPluginIds(), kind, project);
 				broadcastLifecycle(PREPARE_TO_SAVE, contexts, warnings, Policy.subMonitorFor(monitor, 1));
 				try {
+					long phaseStart = System.nanoTime();
 					broadcastLifecycle(SAVING, contexts, warnings, Policy.subMonitorFor(monitor, 1));
+					ResourceMetrics.recordSince(ResourceMetrics.SAVE, "participants", phaseStart); //$NON-NLS-1$
+					phaseStart = System.nanoTime();
 					switch (kind) {
 						case ISaveContext.FULL_SAVE :
 							// save the complete tree and remember all of the required saved states
 							saveTree(contexts, Policy.subMonitorFor(monitor, 1));
+							ResourceMetrics.recordSince(ResourceMetrics.SAVE, "tree", phaseStart); //$NON-NLS-1$
 							// reset the snapshot state.
 							initSnap(null);
 							snapshotRequestor = null;
@@ -1176,7 +1227,9 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 							// save all of the markers and all sync info in the workspace
 							persistMarkers = 0l;
 							persistSyncInfo = 0l;
+							phaseStart = System.nanoTime();
 							visitAndSave(workspace.getRoot());
+							ResourceMetrics.recordSince(ResourceMetrics.SAVE, "markers and sync info", phaseStart); //$NON-NLS-1$
 							monitor.worked(1);
 							if (Policy.DEBUG_SAVE) {
 								Policy.debug("Total Save Markers: " + persistMarkers + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
@@ -1194,14 +1247,19 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 							monitor.ignoreCancelState(keepConsistencyWhenCanceled);
 
 							// write out all metainfo (e.g., workspace/project descriptions)
+							phaseStart = System.nanoTime();
 							saveMetaInfo(warnings, Policy.subMonitorFor(monitor, 1));
+							ResourceMetrics.recordSince(ResourceMetrics.SAVE, "metainfo", phaseStart); //$NON-NLS-1$
 							break;
 						case ISaveContext.SNAPSHOT :
 							snapTree(workspace.getElementTree(), Policy.subMonitorFor(monitor, 1));
+							ResourceMetrics.recordSince(ResourceMetrics.SAVE, "tree", phaseStart); //$NON-NLS-1$
 							// snapshot the markers and sync info for the workspace
 							persistMarkers = 0l;
 							persistSyncInfo = 0l;
+							phaseStart = System.nanoTime();
 							visitAndSnap(workspace.getRoot());
+							ResourceMetrics.recordSince(ResourceMetrics.SAVE, "markers and sync info", phaseStart); //$NON-NLS-1$
 							monitor.worked(1);
 							if (Policy.DEBUG_SAVE) {
 								Policy.debug("Total Snap Markers: " + persistMarkers + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
@@ -1210,17 +1268,24 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 							collapseTrees(contexts);
 							clearSavedDelta();
 							// write out all metainfo (e.g., workspace/project descriptions)
+							phaseStart = System.nanoTime();
 							saveMetaInfo(warnings, Policy.subMonitorFor(monitor, 1));
+							ResourceMetrics.recordSince(ResourceMetrics.SAVE, "metainfo", phaseStart); //$NON-NLS-1$
 							break;
 						case ISaveContext.PROJECT_SAVE :
 							writeTree(project, IResource.DEPTH_INFINITE);
+							ResourceMetrics.recordSince(ResourceMetrics.SAVE, "tree", phaseStart); //$NON-NLS-1$
 							monitor.worked(1);
 							// save markers and sync info
+							phaseStart = System.nanoTime();
 							visitAndSave(project);
+							ResourceMetrics.recordSince(ResourceMetrics.SAVE, "markers and sync info", phaseStart); //$NON-NLS-1$
 							monitor.worked(1);
 							// reset the snapshot file
 							resetSnapshots(project);
+							phaseStart = System.nanoTime();
 							IStatus result = saveMetaInfo(project, null);
+							ResourceMetrics.recordSince(ResourceMetrics.SAVE, "metainfo", phaseStart); //$NON-NLS-1$
 							if (!result.isOK())
 								warnings.merge(result);
 							monitor.worked(1);
@@ -1340,7 +1405,7 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 			try (
 				DataOutputStream output = new DataOutputStream(fis);
 			) {
-				output.writeInt(ICoreConstants.WORKSPACE_TREE_VERSION_2);
+				output.writeInt(ICoreConstants.WORKSPACE_TREE_VERSION_3);
 				writeTree(project, output, monitor);
 			}
 			OutputStream snapOut = store.openOutputStream(EFS.NONE, monitor);
@@ -1382,7 +1447,7 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 			try (
 				DataOutputStream output = new DataOutputStream(new SafeFileOutputStream(treeLocation.toOSString(), tempLocation.toOSString()));
 			) {
-				output.writeInt(ICoreConstants.WORKSPACE_TREE_VERSION_2);
+				output.writeInt(ICoreConstants.WORKSPACE_TREE_VERSION_3);
 				writeTree(computeStatesToSave(contexts, workspace.getElementTree()), output, monitor);
 			}
 		} catch (Exception e) {
@@ -1475,7 +1540,7 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 			try {
 				SafeChunkyOutputStream safeStream = new SafeChunkyOutputStream(localFile);
 				try (DataOutputStream out = new DataOutputStream(safeStream);) {
-					out.writeInt(ICoreConstants.WORKSPACE_TREE_VERSION_2);
+					out.writeInt(ICoreConstants.WORKSPACE_TREE_VERSION_3);
 					writeWorkspaceFields(out, subMonitor);
 					writer.writeDelta(tree, lastSnap, Path.ROOT, ElementTreeWriter.D_INFINITE, out,
 							ResourceComparator.getSaveComparator());
@@ -1894,14 +1959,39 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 		}
 	}
 
+	/**
+	 * Writes out the fingerprints of the inputs of the given builders. File
+	 * format is:
+	 * for each builder:
+	 *    long - fingerprint of the builder inputs, or 0 if unknown
+	 */
+	private void writeBuilderInputFingerprints(DataOutputStream output, List<BuilderPersistentInfo> builders) throws IOException {
+		for (BuilderPersistentInfo info : builders)
+			output.writeLong(info.getInputFingerprint());
+	}
+
+	/**
+	 * Writes out the known hashes of the contents of the inputs of the given
+	 * builders.
+	 */
+	private void writeBuilderInputContentHashes(DataOutputStream output, List<BuilderPersistentInfo> builderInfos, List<BuilderPersistentInfo> additionalBuilderInfos) throws IOException {
+		List<BuilderPersistentInfo> builders = new ArrayList<>(builderInfos);
+		builders.addAll(additionalBuilderInfos);
+		workspace.getBuildManager().writeInputContentHashes(output, builders);
+	}
+
 	@Override
 	public void writeElement(IPath path, Object element, DataOutput output) throws IOException {
+		writeElement(path, element, output, true);
+	}
+
+	private void writeElement(IPath path, Object element, DataOutput output, boolean withFingerprint) throws IOException {
 		Assert.isNotNull(path);
 		Assert.isNotNull(element);
 		Assert.isNotNull(output);
 		ResourceInfo info = (ResourceInfo) element;
 		output.writeInt(info.getFlags());
-		info.writeTo(output);
+		info.writeTo(output, withFingerprint);
 	}
 
 	/**
@@ -2030,6 +2120,13 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 				output.writeUTF(string);
 			for (String string : additionalConfigNames)
 				output.writeUTF(string);
+
+			// Since 3.17: Save the fingerprints of the builders inputs in the same order
+			writeBuilderInputFingerprints(output, builderInfos);
+			writeBuilderInputFingerprints(output, additionalBuilderInfos);
+
+			// Since 3.17: Save the hashes of the contents of the builders inputs
+			writeBuilderInputContentHashes(output, builderInfos, additionalBuilderInfos);
 		} finally {
 			subMonitor.done();
 			if (!wasImmutable)
@@ -2048,6 +2145,9 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 	 * <li> Since 3.7: </li>
 	 * <li> Builder info for all the builders of all the other project's buildConfigs </li>
 	 * <li> Name of the project's buildConfigs </li>
+	 * <li> Since 3.17: </li>
+	 * <li> Fingerprint of the inputs of each builder, in the order of the builder infos </li>
+	 * <li> Hashes of the contents of the inputs of the builders </li>
 	 * </ul>
 	 * This format is designed to work with WorkspaceTreeReader versions 2.
 	 *
@@ -2103,6 +2203,13 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 				output.writeUTF(string);
 			for (String string : additionalConfigNames)
 				output.writeUTF(string);
+
+			// Since 3.17: Save the fingerprints of the builders inputs in the same order
+			writeBuilderInputFingerprints(output, builderInfos);
+			writeBuilderInputFingerprints(output, additionalBuilderInfos);
+
+			// Since 3.17: Save the hashes of the contents of the builders inputs
+			writeBuilderInputContentHashes(output, builderInfos, additionalBuilderInfos);
 		} finally {
 			subMonitor.done();
 			if (!wasImmutable)
@@ -2119,7 +2226,7 @@ public class SaveManager implements IElementInfoFlattener, IManager, IStringPool
 			try (
 				DataOutputStream output = new DataOutputStream(safe);
 			) {
-				output.writeInt(ICoreConstants.WORKSPACE_TREE_VERSION_2);
+				output.writeInt(ICoreConstants.WORKSPACE_TREE_VERSION_3);
 				writeTree(project, output, null);
 			}
 		} catch (IOException e) {
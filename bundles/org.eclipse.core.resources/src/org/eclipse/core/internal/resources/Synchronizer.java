@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -19,9 +19,8 @@ import java.io.*;
 import java.util.*;
 import org.eclipse.core.internal.localstore.SafeChunkyInputStream;
 import org.eclipse.core.internal.localstore.SafeFileInputStream;
-import org.eclipse.core.internal.utils.Messages;
-import org.eclipse.core.internal.utils.Policy;
-import org.eclipse.core.internal.watson.IPathRequestor;
+import org.eclipse.core.internal.utils.*;
+import org.eclipse.core.internal.watson.*;
 import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.*;
 import org.eclipse.osgi.util.NLS;
@@ -50,8 +49,29 @@ public class Synchronizer implements ISynchronizer {
 		Assert.isLegal(resource != null);
 		Assert.isLegal(visitor != null);
 
+		if (!isRegistered(partner)) {
+			String message = NLS.bind(Messages.synchronizer_partnerNotRegistered, partner);
+			throw new ResourceException(new ResourceStatus(IResourceStatus.PARTNER_NOT_REGISTERED, message));
+		}
+		ResourceInfo info = workspace.getResourceInfo(resource.getFullPath(), true, false);
+		if (info == null) {
+			// members() reports that the container does not exist
+			if (depth != IResource.DEPTH_ZERO && resource.getType() != IResource.FILE)
+				((IContainer) resource).members();
+			return;
+		}
+		accept(partner, resource, info, visitor, depth);
+	}
+
+	/**
+	 * Visits the given resource if it has sync info for the given partner, then
+	 * its members. The members are read from the live tree after the resource
+	 * was visited, and each member is looked up again before it is visited, so
+	 * resources that the visitor removed are not visited.
+	 */
+	private void accept(QualifiedName partner, IResource resource, ResourceInfo info, IResourceVisitor visitor, int depth) throws CoreException {
 		// if we don't have sync info for the given identifier, then skip it
-		if (getSyncInfo(partner, resource) != null) {
+		if (info.getSyncInfo(partner, false) != null) {
 			// visit the resource and if the visitor says to stop the recursion then return
 			if (!visitor.visit(resource))
 				return;
@@ -63,10 +83,13 @@ public class Synchronizer implements ISynchronizer {
 		if (depth == IResource.DEPTH_ONE)
 			depth = IResource.DEPTH_ZERO;
 
-		// otherwise recurse over the children
+		// otherwise recurse over the children that still exist
 		IResource[] children = ((IContainer) resource).members();
-		for (IResource element : children)
-			accept(partner, element, visitor, depth);
+		for (IResource element : children) {
+			ResourceInfo childInfo = workspace.getResourceInfo(element.getFullPath(), false, false);
+			if (childInfo != null)
+				accept(partner, element, childInfo, visitor, depth);
+		}
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,7 @@
  *******************************************************************************/
 package org.eclipse.core.internal.resources;
 
+import org.eclipse.core.internal.events.ResourceMetrics;
 import org.eclipse.core.internal.utils.Messages;
 import org.eclipse.core.internal.utils.Policy;
 import org.eclipse.core.resources.IResource;
@@ -121,8 +122,10 @@ public class WorkManager implements IManager {
 				String msg = Messages.resources_cannotModify;
 				throw new ResourceException(IResourceStatus.WORKSPACE_LOCKED, null, msg, null);
 			}
+			long waitStart = System.nanoTime();
 			jobManager.beginRule(rule, monitor);
 			lock.acquire();
+			ResourceMetrics.recordSince(ResourceMetrics.LOCKS, "checkIn", waitStart); //$NON-NLS-1$
 			incrementPreparedOperations();
 			success = true;
 		} finally {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -24,6 +24,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
@@ -96,7 +97,14 @@ public class Workspace extends PlatformObject implements IWorkspace, ICoreConsta
 	protected AliasManager aliasManager;
 	protected BuildManager buildManager;
 	protected volatile IBuildConfiguration[] buildOrder = null;
-	protected volatile Digraph<IBuildConfiguration> buildOrderGraph;
+	/**
+	 * Incremented whenever the build order is flushed, to discard the reference
+	 * graphs and orders computed before.
+	 */
+	private final AtomicInteger buildOrderVersion = new AtomicInteger();
+	private volatile CachedGraph<IBuildConfiguration> activeBuildConfigGraph;
+	private volatile CachedGraph<IBuildConfiguration> fullBuildConfigGraph;
+	private volatile CachedGraph<IProject> fullProjectGraph;
 	protected JobGroup buildJobGroup;
 	protected CharsetManager charsetManager;
 	protected ContentDescriptionManager contentDescriptionManager;
@@ -255,6 +263,36 @@ public class Workspace extends PlatformObject implements IWorkspace, ICoreConsta
 		}
 	}
 
+	/**
+	 * A reference graph and its order, computed for one version of the build
+	 * order and one set of accessible projects. The graph is frozen, and the
+	 * order is computed once on demand.
+	 */
+	private static final class CachedGraph<T> {
+		private final Class<T> clazz;
+		final Digraph<T> graph;
+		private VertexOrder<T> order;
+		final List<IProject> projects;
+		final int version;
+
+		CachedGraph(Digraph<T> graph, Class<T> clazz, int version, List<IProject> projects) {
+			this.graph = graph;
+			this.clazz = clazz;
+			this.version = version;
+			this.projects = projects;
+		}
+
+		boolean isValid(int currentVersion, List<IProject> currentProjects) {
+			return version == currentVersion && projects.equals(currentProjects);
+		}
+
+		synchronized VertexOrder<T> getOrder() {
+			if (order == null)
+				order = ComputeProjectOrder.computeVertexOrder(graph, clazz);
+			return order;
+		}
+	}
+
 	/**
 	 * Deletes all the files and directories from the given root down (inclusive).
 	 * Returns false if we could not delete some file or an exception occurred
@@ -459,12 +497,14 @@ public class Workspace extends PlatformObject implements IWorkspace, ICoreConsta
 				// If configs == EMPTY_BUILD_CONFIG_ARRAY => This is a full workspace build.
 				IBuildConfiguration[] allConfigs = requestedConfigs;
 				Digraph<IBuildConfiguration> buildGraph = null;
+				CachedGraph<IBuildConfiguration> cachedGraph = null;
 				if (allConfigs == EMPTY_BUILD_CONFIG_ARRAY) {
 					if (trigger != IncrementalProjectBuilder.CLEAN_BUILD) {
 						if (getDescription().getBuildOrder() != null) {
 							allConfigs = getBuildOrder();
 						} else {
-							buildGraph = getBuildGraph();
+							cachedGraph = getActiveBuildConfigGraph();
+							buildGraph = cachedGraph.graph;
 						}
 					} else {
 						// clean all accessible configurations
@@ -500,7 +540,11 @@ public class Workspace extends PlatformObject implements IWorkspace, ICoreConsta
 							Policy.debug("Cycle: " + Arrays.toString(iBuildConfigurations)); //$NON-NLS-1$
 						}
 					}
-					allConfigs = ComputeProjectOrder.computeVertexOrder(buildGraph, IBuildConfiguration.class).vertexes;
+					// the order of the whole workspace does not change between builds
+					if (cachedGraph != null)
+						allConfigs = cachedGraph.getOrder().vertexes.clone();
+					else
+						allConfigs = ComputeProjectOrder.computeVertexOrder(buildGraph, IBuildConfiguration.class).vertexes;
 				}
 
 				buildParallel &= (buildGraph != null && buildGraph.vertexList.size() > 1);
@@ -674,6 +718,11 @@ public class Workspace extends PlatformObject implements IWorkspace, ICoreConsta
 	 * @since 2.1
 	 */
 	private VertexOrder<IProject> computeFullProjectOrder() {
+		int version = buildOrderVersion.get();
+		List<IProject> projects = getAccessibleProjects();
+		CachedGraph<IProject> cached = fullProjectGraph;
+		if (cached != null && cached.isValid(version, projects))
+			return cached.getOrder();
 		// determine the full set of accessible projects in the workspace
 		// order the set in descending alphabetical order of project name
 		SortedSet<IProject> allAccessibleProjects = new TreeSet<>(Comparator.comparing(IProject::getName).reversed());
@@ -697,7 +746,9 @@ public class Workspace extends PlatformObject implements IWorkspace, ICoreConsta
 					edges.add(new IProject[] {project, ref});
 			}
 		}
-		return ComputeProjectOrder.computeVertexOrder(allAccessibleProjects, edges, IProject.class);
+		cached = new CachedGraph<>(ComputeProjectOrder.computeGraph(allAccessibleProjects, edges, IProject.class), IProject.class, version, projects);
+		fullProjectGraph = cached;
+		return cached.getOrder();
 	}
 
 	/**
@@ -726,8 +777,24 @@ public class Workspace extends PlatformObject implements IWorkspace, ICoreConsta
 	 * @return result describing the global active build configuration order
 	 */
 	private VertexOrder<IBuildConfiguration> computeActiveBuildConfigOrder() {
-		Digraph<IBuildConfiguration> activeBuildConfigurationGraph = computeActiveBuildConfigGraph();
-		return ComputeProjectOrder.computeVertexOrder(activeBuildConfigurationGraph, IBuildConfiguration.class);
+		return getActiveBuildConfigGraph().getOrder();
+	}
+
+	/**
+	 * Returns the graph of the active build configurations and the ones they
+	 * reference, computed by {@link #computeActiveBuildConfigGraph()} unless
+	 * the build order and the accessible projects did not change since the
+	 * last call.
+	 */
+	private CachedGraph<IBuildConfiguration> getActiveBuildConfigGraph() {
+		int version = buildOrderVersion.get();
+		List<IProject> projects = getAccessibleProjects();
+		CachedGraph<IBuildConfiguration> cached = activeBuildConfigGraph;
+		if (cached != null && cached.isValid(version, projects))
+			return cached;
+		cached = new CachedGraph<>(computeActiveBuildConfigGraph(), IBuildConfiguration.class, version, projects);
+		activeBuildConfigGraph = cached;
+		return cached;
 	}
 
 	private Digraph<IBuildConfiguration> computeActiveBuildConfigGraph() {
@@ -816,8 +883,23 @@ public class Workspace extends PlatformObject implements IWorkspace, ICoreConsta
 	 */
 	@Deprecated
 	private VertexOrder<IBuildConfiguration> computeFullBuildConfigOrder() {
-		Digraph<IBuildConfiguration> graph = computeFullBuildConfigGraph();
-		return ComputeProjectOrder.computeVertexOrder(graph, IBuildConfiguration.class);
+		return getFullBuildConfigGraph().getOrder();
+	}
+
+	/**
+	 * Returns the graph of all build configurations, computed by
+	 * {@link #computeFullBuildConfigGraph()} unless the build order and the
+	 * accessible projects did not change since the last call.
+	 */
+	private CachedGraph<IBuildConfiguration> getFullBuildConfigGraph() {
+		int version = buildOrderVersion.get();
+		List<IProject> projects = getAccessibleProjects();
+		CachedGraph<IBuildConfiguration> cached = fullBuildConfigGraph;
+		if (cached != null && cached.isValid(version, projects))
+			return cached;
+		cached = new CachedGraph<>(computeFullBuildConfigGraph(), IBuildConfiguration.class, version, projects);
+		fullBuildConfigGraph = cached;
+		return cached;
 	}
 
 	private Digraph<IBuildConfiguration> computeFullBuildConfigGraph() {
@@ -851,6 +933,19 @@ public class Workspace extends PlatformObject implements IWorkspace, ICoreConsta
 		return ComputeProjectOrder.computeGraph(allAccessibleBuildConfigurations, edges, IBuildConfiguration.class);
 	}
 
+	/**
+	 * Returns the accessible projects, which are compared in addition to the
+	 * version of the build order before a cached graph is used, since projects
+	 * can be deleted or moved after the build order was flushed.
+	 */
+	private List<IProject> getAccessibleProjects() {
+		List<IProject> result = new ArrayList<>();
+		for (IProject project : getRoot().getProjects(IContainer.INCLUDE_HIDDEN))
+			if (project.isAccessible())
+				result.add(project);
+		return result;
+	}
+
 	private static ProjectOrder vertexOrderToProjectOrder(VertexOrder<IProject> order) {
 		IProject[] projects = new IProject[order.vertexes.length];
 		System.arraycopy(order.vertexes, 0, projects, 0, order.vertexes.length);
@@ -984,7 +1079,7 @@ public class Workspace extends PlatformObject implements IWorkspace, ICoreConsta
 	}
 
 	private Digraph<IBuildConfiguration> computeProjectBuildConfigOrderGraph(Collection<IBuildConfiguration> buildConfigs) {
-		Digraph<IBuildConfiguration> fullBuildConfigOrder = computeFullBuildConfigGraph();
+		Digraph<IBuildConfiguration> fullBuildConfigOrder = getFullBuildConfigGraph().graph;
 
 		// Create a filter to remove all project buildConfigs that are not in the list asked for
 		final Set<IBuildConfiguration> projectConfigSet = new HashSet<>(buildConfigs);
@@ -1526,8 +1621,8 @@ public class Workspace extends PlatformObject implements IWorkspace, ICoreConsta
 	 * the workspace description.
 	 */
 	protected void flushBuildOrder() {
+		buildOrderVersion.incrementAndGet();
 		buildOrder = null;
-		buildOrderGraph = null;
 	}
 
 	@Override
@@ -1601,29 +1696,12 @@ public class Workspace extends PlatformObject implements IWorkspace, ICoreConsta
 		} else {
 			// use default project build order
 			// computed for all accessible projects in workspace
-			Digraph<IBuildConfiguration> buildGraph = getBuildGraph();
-			buildOrder = vertexOrderToProjectBuildConfigOrder(ComputeProjectOrder.computeVertexOrder(buildGraph, IBuildConfiguration.class)).buildConfigurations;
+			buildOrder = vertexOrderToProjectBuildConfigOrder(computeActiveBuildConfigOrder()).buildConfigurations;
 		}
 
 		return buildOrder;
 	}
 
-	/**
-	 *
-	 * @return the build graph, or null if a build order has been specified (in which case, use {@link #getBuildOrder()} directly
-	 */
-	private Digraph<IBuildConfiguration> getBuildGraph() {
-		if (buildOrderGraph != null) {
-			return buildOrderGraph;
-		}
-		String[] order = description.getBuildOrder(false);
-		if (order != null) {
-			return null;
-		}
-		buildOrderGraph = computeActiveBuildConfigGraph();
-		return buildOrderGraph;
-	}
-
 	public CharsetManager getCharsetManager() {
 		return charsetManager;
 	}
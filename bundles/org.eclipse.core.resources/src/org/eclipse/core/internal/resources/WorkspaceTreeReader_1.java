@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -21,8 +21,7 @@ import java.util.*;
 import org.eclipse.core.internal.events.BuilderPersistentInfo;
 import org.eclipse.core.internal.utils.Messages;
 import org.eclipse.core.internal.utils.Policy;
-import org.eclipse.core.internal.watson.ElementTree;
-import org.eclipse.core.internal.watson.ElementTreeReader;
+import org.eclipse.core.internal.watson.*;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResourceStatus;
 import org.eclipse.core.runtime.*;
@@ -37,6 +36,14 @@ public class WorkspaceTreeReader_1 extends WorkspaceTreeReader {
 		this.workspace = workspace;
 	}
 
+	/**
+	 * Returns the flattener for the resource infos in the trees of this
+	 * version, which have no local sync fingerprints.
+	 */
+	protected IElementInfoFlattener getElementFlattener() {
+		return workspace.getSaveManager().getElementFlattener(false);
+	}
+
 	protected int getVersion() {
 		return ICoreConstants.WORKSPACE_TREE_VERSION_1;
 	}
@@ -130,7 +137,7 @@ public class WorkspaceTreeReader_1 extends WorkspaceTreeReader {
 		try {
 			message = Messages.resources_readingSnap;
 			monitor.beginTask(message, Policy.totalWork);
-			ElementTreeReader reader = new ElementTreeReader(workspace.getSaveManager());
+			ElementTreeReader reader = new ElementTreeReader(getElementFlattener());
 			while (input.available() > 0) {
 				readWorkspaceFields(input, Policy.subMonitorFor(monitor, Policy.totalWork / 2));
 				complete = reader.readDelta(complete, input);
@@ -230,7 +237,7 @@ public class WorkspaceTreeReader_1 extends WorkspaceTreeReader {
 		try {
 			String message = Messages.resources_reading;
 			monitor.beginTask(message, 4);
-			ElementTreeReader treeReader = new ElementTreeReader(workspace.getSaveManager());
+			ElementTreeReader treeReader = new ElementTreeReader(getElementFlattener());
 			String newProjectName = ""; //$NON-NLS-1$
 			if (renameProjectNode) {
 				//have the existing project name (path to import into) take precedence over what we read
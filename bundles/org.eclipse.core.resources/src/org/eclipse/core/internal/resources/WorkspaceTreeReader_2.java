@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,6 +17,7 @@
 package org.eclipse.core.internal.resources;
 
 import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.util.*;
 import org.eclipse.core.internal.events.BuilderPersistentInfo;
@@ -39,6 +40,9 @@ import org.eclipse.core.runtime.*;
  * multi-configuration builders.
  * </p>
  * <p>
+ * Since 3.17 the fingerprints of the inputs of the builders are persisted.
+ * </p>
+ * <p>
  * To achieve backwards compatibility, the new additional information is
  * appended to the existing workspace tree file.  This allows the workspace
  * to be opened, and function, with older eclipse products.
@@ -80,6 +84,39 @@ public class WorkspaceTreeReader_2 extends WorkspaceTreeReader_1 {
 		}
 	}
 
+	/**
+	 * Reads the hashes of the contents of the inputs of the builders, if the
+	 * file contains them.
+	 */
+	private void readBuilderInputContentHashes(DataInputStream input) throws IOException {
+		if (input.available() <= 0)
+			return;
+		try {
+			workspace.getBuildManager().readInputContentHashes(input);
+		} catch (EOFException e) {
+			// available() may be an estimate, as for snapshots in zip files
+		}
+	}
+
+	/**
+	 * Reads the fingerprints of the inputs of all builders read so far, if the
+	 * file contains them.
+	 */
+	private void readBuilderInputFingerprints(DataInputStream input) throws IOException {
+		if (input.available() <= 0)
+			return;
+		long[] fingerprints = new long[builderInfos.size()];
+		try {
+			for (int i = 0; i < fingerprints.length; i++)
+				fingerprints[i] = input.readLong();
+		} catch (EOFException e) {
+			// available() may be an estimate, as for snapshots in zip files
+			return;
+		}
+		for (int i = 0; i < fingerprints.length; i++)
+			builderInfos.get(i).setInputFingerprint(fingerprints[i]);
+	}
+
 	/**
 	 * Read a workspace tree storing information about multiple projects.
 	 * Overrides {@link WorkspaceTreeReader_1#readTree(DataInputStream, IProgressMonitor)}
@@ -124,6 +161,10 @@ public class WorkspaceTreeReader_2 extends WorkspaceTreeReader_1 {
 					builderPersistentInfo.setConfigName(input.readUTF());
 			}
 
+			// Since 3.17: Read the fingerprints and content hashes of the builders inputs if available
+			readBuilderInputFingerprints(input);
+			readBuilderInputContentHashes(input);
+
 			// Set the builder infos on the projects
 			setBuilderInfos(builderInfos);
 
@@ -172,6 +213,10 @@ public class WorkspaceTreeReader_2 extends WorkspaceTreeReader_1 {
 					builderPersistentInfo.setConfigName(input.readUTF());
 			}
 
+			// Since 3.17: Read the fingerprints and content hashes of the builders inputs if available
+			readBuilderInputFingerprints(input);
+			readBuilderInputContentHashes(input);
+
 			// Set the builder info on the projects
 			setBuilderInfos(builderInfos);
 
@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.resources;
+
+import org.eclipse.core.internal.watson.IElementInfoFlattener;
+
+/**
+ * Reads version 3 of the workspace tree file format.
+ *
+ * This version differs from version 2 only in the information that is
+ * persisted for each resource: its info is followed by its local sync
+ * fingerprint. Since older readers would misread every info after the first
+ * fingerprint, the version number is changed, so that they reject the file
+ * instead.
+ */
+public class WorkspaceTreeReader_3 extends WorkspaceTreeReader_2 {
+
+	public WorkspaceTreeReader_3(Workspace workspace) {
+		super(workspace);
+	}
+
+	@Override
+	protected IElementInfoFlattener getElementFlattener() {
+		return workspace.getSaveManager().getElementFlattener(true);
+	}
+
+	@Override
+	protected int getVersion() {
+		return ICoreConstants.WORKSPACE_TREE_VERSION_3;
+	}
+}
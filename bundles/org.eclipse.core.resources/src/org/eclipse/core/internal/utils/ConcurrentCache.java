@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.utils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import org.eclipse.core.runtime.Assert;
+
+/**
+ * A thread safe variant of {@link Cache} that does not require callers to
+ * synchronize externally.
+ * <p>
+ * Like {@link Cache}, this cache keeps at most maximumCapacity+threshold
+ * entries. When that limit is exceeded, the least recently used entries are
+ * trimmed so the current size is the same as the maximum capacity. Recency is
+ * tracked with a logical access clock stamped on each entry instead of a
+ * linked list, so lookups never need a lock. Trimming is done by a single
+ * thread at a time; other threads adding entries concurrently do not wait
+ * for it.
+ * </p>
+ * <p>
+ * Entries are immutable: updating a cached value or its timestamp replaces
+ * the entry.
+ * </p>
+ */
+public class ConcurrentCache<K, V> {
+	public static final class Entry<K, V> {
+		final K key;
+		final V cached;
+		final long timestamp;
+		volatile long lastAccess;
+
+		Entry(K key, V cached, long timestamp, long lastAccess) {
+			this.key = key;
+			this.cached = cached;
+			this.timestamp = timestamp;
+			this.lastAccess = lastAccess;
+		}
+
+		public V getCached() {
+			return cached;
+		}
+
+		public K getKey() {
+			return key;
+		}
+
+		public long getTimestamp() {
+			return timestamp;
+		}
+
+		@Override
+		public String toString() {
+			return key + " -> " + cached + " [" + timestamp + ']'; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	private final AtomicLong clock = new AtomicLong();
+	private final ConcurrentHashMap<K, Entry<K, V>> entries;
+	private final LongAdder hits = new LongAdder();
+	private final int maximumCapacity;
+	private final LongAdder misses = new LongAdder();
+	private final int trimLimit;
+	private final ReentrantLock trimLock = new ReentrantLock();
+
+	public ConcurrentCache(int maximumCapacity) {
+		this(Math.min(KeyedHashSet.MINIMUM_SIZE, maximumCapacity), maximumCapacity, 0.25);
+	}
+
+	public ConcurrentCache(int initialCapacity, int maximumCapacity, double threshold) {
+		Assert.isTrue(maximumCapacity >= initialCapacity, "maximum capacity < initial capacity"); //$NON-NLS-1$
+		Assert.isTrue(threshold >= 0 && threshold <= 1, "threshold should be between 0 and 1"); //$NON-NLS-1$
+		Assert.isTrue(initialCapacity > 0, "initial capacity must be greater than zero"); //$NON-NLS-1$
+		entries = new ConcurrentHashMap<>(initialCapacity);
+		this.maximumCapacity = maximumCapacity;
+		this.trimLimit = maximumCapacity + (int) (maximumCapacity * threshold);
+	}
+
+	/**
+	 * Adds or replaces the entry for the given key. Returns the new entry.
+	 */
+	public Entry<K, V> addEntry(K key, V toCache, long timestamp) {
+		Entry<K, V> newEntry = new Entry<>(key, toCache, timestamp, clock.incrementAndGet());
+		entries.put(key, newEntry);
+		if (entries.size() > trimLimit)
+			// we have reached our limit - ensure we are under the maximum capacity
+			// by discarding older entries
+			trim();
+		return newEntry;
+	}
+
+	/**
+	 * Removes the given entry, unless it has been replaced in the meantime.
+	 */
+	public void discard(Entry<K, V> entry) {
+		entries.remove(entry.key, entry);
+	}
+
+	public void discardAll() {
+		entries.clear();
+	}
+
+	public void dispose() {
+		discardAll();
+	}
+
+	public Entry<K, V> getEntry(K key) {
+		return getEntry(key, true);
+	}
+
+	/**
+	 * Returns the entry for the given key, or <code>null</code>. If
+	 * <code>update</code> is true, the entry is marked as most recently used
+	 * and the lookup is counted in the hit ratio statistics.
+	 */
+	public Entry<K, V> getEntry(K key, boolean update) {
+		Entry<K, V> existing = entries.get(key);
+		if (!update)
+			return existing;
+		if (existing == null) {
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		existing.lastAccess = clock.incrementAndGet();
+		return existing;
+	}
+
+	/**
+	 * Returns the ratio of updating lookups that found an entry, or
+	 * <code>0</code> if no lookup was made yet.
+	 */
+	public double getHitRatio() {
+		long hitCount = hits.sum();
+		long total = hitCount + misses.sum();
+		return total == 0 ? 0 : (double) hitCount / total;
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	public void resetStatistics() {
+		hits.reset();
+		misses.reset();
+	}
+
+	public long size() {
+		return entries.size();
+	}
+
+	private void trim() {
+		// only one thread needs to trim, the others can go on
+		if (!trimLock.tryLock())
+			return;
+		try {
+			int extraEntries = entries.size() - maximumCapacity;
+			if (extraEntries <= 0)
+				return;
+			// access stamps keep changing while we sort, so sort a snapshot of them
+			List<Map.Entry<Long, Entry<K, V>>> candidates = new ArrayList<>(entries.size());
+			for (Entry<K, V> entry : entries.values())
+				candidates.add(new AbstractMap.SimpleImmutableEntry<>(entry.lastAccess, entry));
+			candidates.sort(Map.Entry.comparingByKey());
+			for (int i = 0; i < extraEntries && i < candidates.size(); i++)
+				discard(candidates.get(i).getValue());
+		} finally {
+			trimLock.unlock();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ConcurrentCache [size=" + entries.size() + ", maximumCapacity=" + maximumCapacity + ", hitRatio=" + getHitRatio() + ']'; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+}
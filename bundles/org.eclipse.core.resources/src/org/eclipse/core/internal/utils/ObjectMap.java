@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -301,6 +301,22 @@ public class ObjectMap<K, V> implements Map<K, V>, IStringPoolParticipant {
 		}
 	}
 
+	/**
+	 * Shares equal byte array values of this map through the given pool.
+	 * Must only be used for maps whose values are never modified.
+	 */
+	public void shareByteArrays(StringPool set) {
+		//copy elements for thread safety
+		Object[] array = elements;
+		if (array == null)
+			return;
+		for (int i = 1; i < array.length; i = i + 2) {
+			Object o = array[i];
+			if (o instanceof byte[])
+				array[i] = set.add((byte[]) o);
+		}
+	}
+
 	/**
 	 * Creates a new hash map with the same contents as this map.
 	 */
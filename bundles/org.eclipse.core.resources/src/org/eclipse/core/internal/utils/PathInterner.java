@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.utils;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+
+/**
+ * Keeps canonical instances of path segments and paths, so equal segments
+ * and paths held by the element trees, deltas and bucket entries share one
+ * instance as soon as they are created.
+ * <p>
+ * Unlike {@link StringPool}, which is filled and discarded by the periodic
+ * {@link StringPoolJob}, this interner is always on. Its entries are only
+ * weakly referenced, so a canonical instance is dropped once nothing else
+ * refers to it.
+ * </p>
+ * <p>
+ * Paths are pooled by {@link IPath#equals(Object)}, which ignores the trailing
+ * separator, so paths with a trailing separator have a pool of their own. UNC
+ * paths are not pooled, since they equal the same path without the UNC
+ * prefix, but their segments are still shared.
+ * </p>
+ *
+ * @see StringPool
+ */
+public final class PathInterner {
+	/**
+	 * A map of weakly referenced keys to weakly referenced canonical instances,
+	 * split into stripes that are locked independently.
+	 */
+	private static final class WeakPool<K, V> {
+		private final WeakHashMap<K, WeakReference<V>>[] stripes;
+
+		@SuppressWarnings("unchecked")
+		WeakPool(int stripeCount) {
+			stripes = new WeakHashMap[stripeCount];
+			for (int i = 0; i < stripeCount; i++)
+				stripes[i] = new WeakHashMap<>();
+		}
+
+		V get(K key) {
+			WeakHashMap<K, WeakReference<V>> stripe = stripeFor(key);
+			synchronized (stripe) {
+				WeakReference<V> ref = stripe.get(key);
+				return ref == null ? null : ref.get();
+			}
+		}
+
+		/**
+		 * Returns the canonical instance for the given key, making the given
+		 * value canonical if there is none yet.
+		 */
+		V putIfAbsent(K key, V value) {
+			WeakHashMap<K, WeakReference<V>> stripe = stripeFor(key);
+			synchronized (stripe) {
+				WeakReference<V> ref = stripe.get(key);
+				V existing = ref == null ? null : ref.get();
+				if (existing != null)
+					return existing;
+				stripe.put(key, new WeakReference<>(value));
+				return value;
+			}
+		}
+
+		int size() {
+			int size = 0;
+			for (WeakHashMap<K, WeakReference<V>> stripe : stripes)
+				synchronized (stripe) {
+					size += stripe.size();
+				}
+			return size;
+		}
+
+		private WeakHashMap<K, WeakReference<V>> stripeFor(K key) {
+			int hash = key.hashCode();
+			hash ^= (hash >>> 16);
+			return stripes[(hash & 0x7fffffff) % stripes.length];
+		}
+	}
+
+	private static final int STRIPES = 16;
+
+	private static volatile boolean enabled = true;
+	private static final WeakPool<IPath, IPath> paths = new WeakPool<>(STRIPES);
+	private static final WeakPool<IPath, IPath> pathsWithTrailingSeparator = new WeakPool<>(STRIPES);
+	private static final WeakPool<String, IPath> pathStrings = new WeakPool<>(STRIPES);
+	private static final LongAdder savedBytes = new LongAdder();
+	private static final WeakPool<String, String> segments = new WeakPool<>(STRIPES);
+	private static final LongAdder sharedInstances = new LongAdder();
+
+	private PathInterner() {
+		// not allowed
+	}
+
+	/**
+	 * Returns a relative path of the given segments, appending halves so
+	 * that each segment is copied a logarithmic number of times, since paths
+	 * cannot be created from an array of segments.
+	 */
+	private static IPath append(String[] segmentArray, int from, int to) {
+		if (to - from == 1)
+			return Path.EMPTY.append(segmentArray[from]);
+		int middle = (from + to) >>> 1;
+		return append(segmentArray, from, middle).append(append(segmentArray, middle, to));
+	}
+
+	/**
+	 * Sets whether segments and paths are interned. When disabled, the given
+	 * instances are returned unchanged. Used to measure the effect of the
+	 * interner.
+	 */
+	public static void setEnabled(boolean value) {
+		enabled = value;
+	}
+
+	/**
+	 * Returns the canonical instance of the given path segment, or
+	 * <code>null</code> if the segment is <code>null</code>.
+	 */
+	public static String intern(String segment) {
+		if (segment == null || !enabled)
+			return segment;
+		String result = segments.putIfAbsent(segment, segment);
+		if (result != segment)
+			recordShared(40 + segment.length());
+		return result;
+	}
+
+	/**
+	 * Returns the canonical instance of the given path. The segments of the
+	 * canonical path are canonical as well. Returns <code>null</code> if the
+	 * path is <code>null</code>.
+	 */
+	public static IPath intern(IPath path) {
+		if (path == null || !enabled)
+			return path;
+		WeakPool<IPath, IPath> pool = path.isUNC() ? null : path.hasTrailingSeparator() ? pathsWithTrailingSeparator : paths;
+		IPath existing = pool == null ? null : pool.get(path);
+		if (existing != null) {
+			if (existing != path)
+				recordShared(24 + 16 + 8 * path.segmentCount());
+			return existing;
+		}
+		int segmentCount = path.segmentCount();
+		String[] segmentArray = new String[segmentCount];
+		boolean canonicalSegments = true;
+		for (int i = 0; i < segmentCount; i++) {
+			segmentArray[i] = intern(path.segment(i));
+			canonicalSegments &= segmentArray[i] == path.segment(i);
+		}
+		IPath canonical = path;
+		if (!canonicalSegments) {
+			canonical = path.uptoSegment(0).append(append(segmentArray, 0, segmentCount));
+			if (path.hasTrailingSeparator())
+				canonical = canonical.addTrailingSeparator();
+		}
+		return pool == null ? canonical : pool.putIfAbsent(canonical, canonical);
+	}
+
+	/**
+	 * Returns the canonical path for the given path string, as parsed by
+	 * {@link Path#Path(String)}, without parsing the string again if a path was
+	 * created for an equal string before.
+	 */
+	public static IPath internPath(String pathString) {
+		if (!enabled)
+			return new Path(pathString);
+		IPath existing = pathStrings.get(pathString);
+		if (existing != null) {
+			recordShared(24 + 16 + 8 * existing.segmentCount());
+			return existing;
+		}
+		return pathStrings.putIfAbsent(pathString, intern(new Path(pathString)));
+	}
+
+	private static void recordShared(int bytes) {
+		sharedInstances.increment();
+		savedBytes.add(bytes);
+	}
+
+	/**
+	 * Returns an estimate of the size in bytes of the duplicate segments and
+	 * paths that were replaced by their canonical instance so far. Like
+	 * {@link StringPool#getSavedStringCount()}, an instance that is replaced
+	 * several times is counted every time.
+	 */
+	public static long getSavedBytes() {
+		return savedBytes.sum();
+	}
+
+	/**
+	 * Returns the number of times a duplicate was replaced by its canonical instance.
+	 */
+	public static long getSharedCount() {
+		return sharedInstances.sum();
+	}
+
+	/**
+	 * Returns the number of canonical segments that are currently alive.
+	 */
+	public static int getSegmentCount() {
+		return segments.size();
+	}
+
+	/**
+	 * Returns the number of canonical paths that are currently alive.
+	 */
+	public static int getPathCount() {
+		return paths.size() + pathsWithTrailingSeparator.size();
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -44,6 +44,7 @@ public class Policy {
 			DEBUG_CONTENT_TYPE = DEBUG && options.getBooleanOption(ResourcesPlugin.PI_RESOURCES + "/contenttype", false); //$NON-NLS-1$
 			DEBUG_CONTENT_TYPE_CACHE = DEBUG && options.getBooleanOption(ResourcesPlugin.PI_RESOURCES + "/contenttype/cache", false); //$NON-NLS-1$
 			DEBUG_HISTORY = DEBUG && options.getBooleanOption(ResourcesPlugin.PI_RESOURCES + "/history", false); //$NON-NLS-1$
+			DEBUG_METRICS = DEBUG && options.getBooleanOption(ResourcesPlugin.PI_RESOURCES + "/metrics", false); //$NON-NLS-1$
 			DEBUG_NATURES = DEBUG && options.getBooleanOption(ResourcesPlugin.PI_RESOURCES + "/natures", false); //$NON-NLS-1$
 			DEBUG_NOTIFICATIONS = DEBUG && options.getBooleanOption(ResourcesPlugin.PI_RESOURCES + "/notifications", false); //$NON-NLS-1$
 			DEBUG_PREFERENCES = DEBUG && options.getBooleanOption(ResourcesPlugin.PI_RESOURCES + "/preferences", false); //$NON-NLS-1$
@@ -86,6 +87,7 @@ public class Policy {
 	public static boolean DEBUG_CONTENT_TYPE = false;
 	public static boolean DEBUG_CONTENT_TYPE_CACHE = false;
 	public static boolean DEBUG_HISTORY = false;
+	public static boolean DEBUG_METRICS = false;
 	public static boolean DEBUG_NATURES = false;
 	public static boolean DEBUG_NOTIFICATIONS = false;
 	public static boolean DEBUG_PREFERENCES = false;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2015 IBM Corporation and others.
+ * Copyright (c) 2004, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,7 @@
  *******************************************************************************/
 package org.eclipse.core.internal.utils;
 
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 
 /**
@@ -32,6 +33,7 @@ import java.util.HashMap;
 public final class StringPool {
 	private int savings;
 	private final HashMap<String, String> map = new HashMap<>();
+	private HashMap<ByteBuffer, byte[]> bytes;
 
 	/**
 	 * Creates a new string pool.
@@ -61,6 +63,27 @@ public final class StringPool {
 		return string;
 	}
 
+	/**
+	 * Adds a byte array to the pool.  Returns an array that is equal to the
+	 * argument but that is unique within this pool. Only arrays that are never
+	 * modified may be shared.
+	 * @param array The array to add to the pool
+	 * @return An array that is equal to the argument.
+	 */
+	public byte[] add(byte[] array) {
+		if (array == null)
+			return array;
+		if (bytes == null)
+			bytes = new HashMap<>();
+		byte[] result = bytes.putIfAbsent(ByteBuffer.wrap(array), array);
+		if (result != null) {
+			if (result != array)
+				savings += 16 + array.length;
+			return result;
+		}
+		return array;
+	}
+
 	/**
 	 * Returns an estimate of the size in bytes that was saved by sharing strings in
 	 * the pool.  In particular, this returns the size of all strings that were added to the
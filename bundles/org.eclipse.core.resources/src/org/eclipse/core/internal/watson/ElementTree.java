@@ -17,8 +17,7 @@ package org.eclipse.core.internal.watson;
 
 import java.util.HashMap;
 import org.eclipse.core.internal.dtree.*;
-import org.eclipse.core.internal.utils.Messages;
-import org.eclipse.core.internal.utils.StringPool;
+import org.eclipse.core.internal.utils.*;
 import org.eclipse.core.runtime.*;
 import org.eclipse.osgi.util.NLS;
 
@@ -183,7 +182,7 @@ public class ElementTree {
 
 		IPath parent = key.removeLastSegments(1);
 		try {
-			tree.createChild(parent, key.lastSegment(), data);
+			tree.createChild(parent, PathInterner.intern(key.lastSegment()), data);
 		} catch (ObjectNotFoundException e) {
 			elementNotFound(parent);
 		}
@@ -15,9 +15,12 @@
  *******************************************************************************/
 package org.eclipse.core.resources;
 
-import java.io.InputStream;
-import java.io.Reader;
+import java.io.*;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
 import org.eclipse.core.runtime.*;
 import org.eclipse.core.runtime.content.IContentDescription;
 import org.eclipse.core.runtime.content.IContentTypeManager;
@@ -759,6 +762,75 @@ public interface IFile extends IResource, IEncodedStorage, IAdaptable {
 	 */
 	InputStream getContents(boolean force) throws CoreException;
 
+	/**
+	 * Returns the contents of this file as a byte array. This is equivalent to
+	 * reading all bytes from {@link #getContents()}, but files in the local file
+	 * system are read without going through an input stream.
+	 *
+	 * @return the contents of this file
+	 * @exception CoreException if this method fails. The reasons are the same
+	 *     as for {@link #getContents()}, and include {@link IResourceStatus#FAILED_READ_LOCAL}
+	 *     if the contents could not be read.
+	 * @see #getContents()
+	 * @since 3.17
+	 */
+	default byte[] readAllBytes() throws CoreException {
+		try (InputStream in = getContents()) {
+			return in.readAllBytes();
+		} catch (IOException e) {
+			throw new CoreException(new Status(IStatus.ERROR, ResourcesPlugin.PI_RESOURCES, IResourceStatus.FAILED_READ_LOCAL, e.getMessage(), e));
+		}
+	}
+
+	/**
+	 * Returns the contents of this file as characters, decoded with the
+	 * charset returned by {@link #getCharset()}.
+	 *
+	 * @return the contents of this file
+	 * @exception CoreException if this method fails. The reasons are the same
+	 *     as for {@link #readAllBytes()}.
+	 * @see #readAllBytes()
+	 * @see #getCharset()
+	 * @since 3.17
+	 */
+	default char[] readAllChars() throws CoreException {
+		byte[] bytes = readAllBytes();
+		Charset charset;
+		try {
+			charset = Charset.forName(getCharset());
+		} catch (IllegalArgumentException e) {
+			throw new CoreException(new Status(IStatus.ERROR, ResourcesPlugin.PI_RESOURCES, IResourceStatus.FAILED_DESCRIBING_CONTENTS, e.getMessage(), e));
+		}
+		CharBuffer chars = charset.decode(ByteBuffer.wrap(bytes));
+		char[] result = new char[chars.remaining()];
+		chars.get(result);
+		return result;
+	}
+
+	/**
+	 * Returns a read-only buffer with the contents of this file. Files in the
+	 * local file system are memory-mapped, so large files can be searched or
+	 * compared without copying them to the heap. Other files are read into a
+	 * heap buffer.
+	 * <p>
+	 * The file is checked the same way as by {@link #getContents()}. On some
+	 * platforms, a memory-mapped file cannot be changed or deleted until the
+	 * returned buffer has been garbage collected, so the buffer should not be
+	 * kept longer than needed.
+	 * </p>
+	 *
+	 * @return a read-only buffer with the contents of this file
+	 * @exception CoreException if this method fails. The reasons are the same
+	 *     as for {@link #getContents()}, and include {@link IResourceStatus#FAILED_READ_LOCAL}
+	 *     if the contents could not be read.
+	 * @see #getContents()
+	 * @see #readAllBytes()
+	 * @since 3.17
+	 */
+	default ByteBuffer readBuffer() throws CoreException {
+		return ByteBuffer.wrap(readAllBytes()).asReadOnlyBuffer();
+	}
+
 	/**
 	 * Returns a constant identifying the character encoding of this file, or
 	 * ENCODING_UNKNOWN if it could not be determined.  The returned constant
@@ -1162,4 +1234,62 @@ public interface IFile extends IResource, IEncodedStorage, IAdaptable {
 	 * @since 2.0
 	 */
 	void setContents(IFileState source, int updateFlags, IProgressMonitor monitor) throws CoreException;
+
+	/**
+	 * Writes the given bytes to this file, creating the file if it does not
+	 * exist yet. This is equivalent to {@link #create(InputStream, int, IProgressMonitor)}
+	 * or {@link #setContents(InputStream, int, IProgressMonitor)} with the bytes
+	 * in a stream, but files in the local file system are written with a single
+	 * call instead of through a stream.
+	 * <p>
+	 * The <code>FORCE</code> and <code>KEEP_HISTORY</code> update flags have the
+	 * same meaning as for {@link #setContents(InputStream, int, IProgressMonitor)}.
+	 * The <code>DERIVED</code>, <code>TEAM_PRIVATE</code> and <code>HIDDEN</code>
+	 * update flags have the same meaning as for {@link #create(InputStream, int, IProgressMonitor)},
+	 * and are ignored if the file already exists.
+	 * </p>
+	 * <p>
+	 * If the <code>SKIP_UNCHANGED</code> update flag is specified, and the file
+	 * exists, is in sync with the local file system and already has the given
+	 * contents, the file is not written at all and no resource change is reported.
+	 * </p>
+	 * <p>
+	 * Update flags other than those listed above are ignored.
+	 * </p>
+	 * <p>
+	 * This method changes resources; these changes will be reported
+	 * in a subsequent resource change event, including an indication
+	 * that this file has been added or that its contents have been changed.
+	 * </p>
+	 * <p>
+	 * This method is long-running; progress and cancellation are provided
+	 * by the given progress monitor.
+	 * </p>
+	 *
+	 * @param content the new contents of the file
+	 * @param updateFlags bit-wise or of update flag constants
+	 *   (<code>FORCE</code>, <code>KEEP_HISTORY</code>, <code>DERIVED</code>,
+	 *   <code>TEAM_PRIVATE</code>, <code>HIDDEN</code> and <code>SKIP_UNCHANGED</code>)
+	 * @param monitor a progress monitor, or <code>null</code> if progress
+	 *    reporting is not desired
+	 * @exception CoreException if this method fails. The reasons are the same as
+	 *    for {@link #create(InputStream, int, IProgressMonitor)} if the file does
+	 *    not exist, and for {@link #setContents(InputStream, int, IProgressMonitor)}
+	 *    otherwise.
+	 * @exception OperationCanceledException if the operation is canceled.
+	 * Cancelation can occur even if no progress monitor is provided.
+	 * @see IResource#SKIP_UNCHANGED
+	 * @see IResourceRuleFactory#modifyRule(IResource)
+	 * @see IResourceRuleFactory#createRule(IResource)
+	 * @since 3.17
+	 */
+	default void write(byte[] content, int updateFlags, IProgressMonitor monitor) throws CoreException {
+		if (exists()) {
+			if ((updateFlags & SKIP_UNCHANGED) != 0 && isSynchronized(DEPTH_ZERO) && Arrays.equals(content, readAllBytes()))
+				return;
+			setContents(new ByteArrayInputStream(content), updateFlags, monitor);
+		} else {
+			create(new ByteArrayInputStream(content), updateFlags, monitor);
+		}
+	}
 }
@@ -14,7 +14,10 @@
  *******************************************************************************/
 package org.eclipse.core.resources;
 
+import java.io.InputStream;
 import java.net.URI;
+import java.util.Map;
+import java.util.function.Supplier;
 import org.eclipse.core.runtime.*;
 
 /**
@@ -163,6 +166,58 @@ public interface IFolder extends IContainer, IAdaptable {
 	 */
 	void create(int updateFlags, boolean local, IProgressMonitor monitor) throws CoreException;
 
+	/**
+	 * Creates a new folder resource as a member of this handle's parent resource,
+	 * together with the given files and all folders needed to contain them.
+	 * <p>
+	 * This is equivalent to creating this folder, each of its new folders and each
+	 * of the given files one at a time inside a single workspace operation, but
+	 * the contents of the files are written to the local file system in parallel
+	 * while the workspace is not locked, and the new resources are added to the
+	 * workspace at once. The given content suppliers may therefore be called from
+	 * several threads at the same time; a supplier may return <code>null</code>
+	 * to create an empty file. The content streams are closed by this method.
+	 * </p>
+	 * <p>
+	 * The update flags are applied to this folder and to all created folders and
+	 * files, as for {@link #create(int, boolean, IProgressMonitor)} and
+	 * {@link IFile#create(InputStream, int, IProgressMonitor)}. The
+	 * {@link IResource#VIRTUAL} flag is not supported.
+	 * </p>
+	 * <p>
+	 * This method changes resources; these changes will be reported
+	 * in a single subsequent resource change event, including an indication
+	 * that the folder has been added to its parent.
+	 * </p>
+	 * <p>
+	 * This method is long-running; progress and cancellation are provided
+	 * by the given progress monitor.
+	 * </p>
+	 *
+	 * @param files the files to create, mapping their paths relative to this
+	 *    folder to the suppliers of their initial contents
+	 * @param updateFlags bit-wise or of update flag constants
+	 *   ({@link IResource#FORCE}, {@link IResource#DERIVED}, {@link IResource#TEAM_PRIVATE}
+	 *   and {@link IResource#HIDDEN})
+	 * @param monitor a progress monitor, or <code>null</code> if progress
+	 *    reporting is not desired
+	 * @exception CoreException if this method fails. Reasons include:
+	 * <ul>
+	 * <li> One of the reasons listed for {@link #create(int, boolean, IProgressMonitor)}.</li>
+	 * <li> One of the given paths is absolute, empty, or has a segment that
+	 *    is not a valid resource name.</li>
+	 * <li> One of the given paths is a prefix of another given path.</li>
+	 * <li> A file could not be written, or its location in the local file
+	 *    system is occupied and <code>FORCE</code> is not specified. In this
+	 *    case no resource is created.</li>
+	 * </ul>
+	 * @exception OperationCanceledException if the operation is canceled.
+	 * Cancelation can occur even if no progress monitor is provided.
+	 * @see IResourceRuleFactory#createRule(IResource)
+	 * @since 3.17
+	 */
+	void create(Map<IPath, Supplier<InputStream>> files, int updateFlags, IProgressMonitor monitor) throws CoreException;
+
 	/**
 	 * Creates a new folder resource as a member of this handle's parent resource.
 	 * The folder's contents will be located in the directory specified by the given
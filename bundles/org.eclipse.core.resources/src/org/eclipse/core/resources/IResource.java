@@ -293,6 +293,16 @@ public interface IResource extends IAdaptable, ISchedulingRule {
 	 */
 	int VIRTUAL = 0x2000;
 
+	/**
+	 * Update flag constant (bit mask value 0x4000) indicating that the
+	 * contents of a file should not be written if they are identical to its
+	 * current contents.
+	 *
+	 * @see IFile#write(byte[], int, IProgressMonitor)
+	 * @since 3.17
+	 */
+	int SKIP_UNCHANGED = 0x4000;
+
 	/*====================================================================
 	 * Other constants:
 	 *====================================================================*/
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2000, 2019 IBM Corporation and others.
+ *  Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -324,6 +324,24 @@ public final class ResourcesPlugin extends Plugin {
 	 */
 	public static final String PREF_LIGHTWEIGHT_AUTO_REFRESH = "refresh.lightweight.enabled"; //$NON-NLS-1$
 
+	/**
+	 * Name of a preference for configuring whether containers are checked for
+	 * changes in the file system when they are accessed.
+	 * <p>
+	 * When this preference is true, {@link IContainer#members()},
+	 * {@link IResource#exists()} and {@link IFile#getContents()} compare the
+	 * modification time of the directory of the container, or of the parent of
+	 * the file, with the time seen at the previous access. If it differs, the
+	 * container and its direct members are refreshed asynchronously. The check is
+	 * done at most once per second for each container, and only for resources in
+	 * the local file system. Unlike {@link #PREF_AUTO_REFRESH}, this keeps
+	 * resources in sync without file system hooks or polling, but only once
+	 * they are accessed.
+	 * </p>
+	 * @since 3.17
+	 */
+	public static final String PREF_LIGHTWEIGHT_AUTO_REFRESH_ON_ACCESS = "refresh.lightweight.onAccess"; //$NON-NLS-1$
+
 	/**
 	 * Name of a preference for configuring whether encodings for derived
 	 * resources within the project should be stored in a separate derived
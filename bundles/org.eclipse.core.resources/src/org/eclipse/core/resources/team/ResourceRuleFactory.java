@@ -16,6 +16,7 @@
 package org.eclipse.core.resources.team;
 
 import java.util.HashSet;
+import org.eclipse.core.internal.resources.ResourceRuleSet;
 import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.jobs.ISchedulingRule;
@@ -258,6 +259,6 @@ public class ResourceRuleFactory implements IResourceRuleFactory {
 		if (rules.size() == 1)
 			return rules.iterator().next();
 		ISchedulingRule[] ruleArray = rules.toArray(new ISchedulingRule[rules.size()]);
-		return new MultiRule(ruleArray);
+		return ResourceRuleSet.combine(ruleArray);
 	}
 }
@@ -21,7 +21,7 @@ import org.junit.runners.Suite;
  * Class for collecting all test classes that deal with the file system API.
  */
 @RunWith(Suite.class)
-@Suite.SuiteClasses({ CreateDirectoryTest.class, DeleteTest.class, EFSTest.class, FileCacheTest.class,
+@Suite.SuiteClasses({ CachingFileSystemTest.class, CreateDirectoryTest.class, DeleteTest.class, EFSTest.class, FileCacheTest.class,
 		FileStoreTest.class, OpenOutputStreamTest.class, PutInfoTest.class, SymlinkTest.class, URIUtilTest.class })
 public class AllTests {
 }
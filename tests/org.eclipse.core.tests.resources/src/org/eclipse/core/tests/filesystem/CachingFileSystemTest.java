@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.filesystem;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import org.eclipse.core.filesystem.*;
+import org.eclipse.core.runtime.CoreException;
+
+/**
+ * Tests the caching file system returned by {@link EFS#getCachingFileSystem(IFileSystem, long)},
+ * using the in-memory file system as a stand-in for a remote one.
+ */
+public class CachingFileSystemTest extends FileSystemTest {
+	private static final long TIME_TO_LIVE = 60 * 60 * 1000;
+
+	private IFileStore cachedBase;
+
+	private IFileStore getCachedStore(long timeToLive) throws CoreException {
+		IFileSystem fileSystem = EFS.getCachingFileSystem(baseStore.getFileSystem(), timeToLive);
+		return fileSystem.getStore(baseStore.toURI());
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		cachedBase = getCachedStore(TIME_TO_LIVE);
+	}
+
+	private void write(IFileStore store, int length) throws CoreException, IOException {
+		try (OutputStream out = store.openOutputStream(EFS.NONE, getMonitor())) {
+			out.write(new byte[length]);
+		}
+	}
+
+	public void testChangesThroughCacheAreSeen() throws CoreException, IOException {
+		IFileStore cachedFile = cachedBase.getChild("file");
+		assertFalse("1.0", cachedFile.fetchInfo().exists());
+		assertEquals("1.1", 0, cachedBase.childInfos(EFS.NONE, getMonitor()).length);
+
+		write(cachedFile, 5);
+		assertEquals("2.0", 5, cachedFile.fetchInfo().getLength());
+		assertEquals("2.1", 1, cachedBase.childInfos(EFS.NONE, getMonitor()).length);
+
+		write(cachedFile, 10);
+		assertEquals("3.0", 10, cachedFile.fetchInfo().getLength());
+
+		IFileStore cachedFolder = cachedBase.getChild("folder").getChild("subfolder");
+		cachedFolder.mkdir(EFS.NONE, getMonitor());
+		assertTrue("4.0", cachedFolder.fetchInfo().isDirectory());
+		assertTrue("4.1", cachedFolder.getParent().fetchInfo().isDirectory());
+		assertEquals("4.2", 2, cachedBase.childNames(EFS.NONE, getMonitor()).length);
+
+		cachedFolder.getParent().delete(EFS.NONE, getMonitor());
+		assertFalse("5.0", cachedFolder.fetchInfo().exists());
+		assertEquals("5.1", 1, cachedBase.childInfos(EFS.NONE, getMonitor()).length);
+	}
+
+	public void testExternalChangesAreCached() throws CoreException, IOException {
+		IFileStore file = baseStore.getChild("file");
+		IFileStore cachedFile = cachedBase.getChild("file");
+		write(file, 5);
+		assertEquals("1.0", 5, cachedFile.fetchInfo().getLength());
+		assertEquals("1.1", 1, cachedBase.childInfos(EFS.NONE, getMonitor()).length);
+
+		// changes made behind the back of the cache are not seen
+		write(file, 10);
+		write(baseStore.getChild("other"), 1);
+		assertEquals("2.0", 5, cachedFile.fetchInfo().getLength());
+		assertEquals("2.1", 1, cachedBase.childInfos(EFS.NONE, getMonitor()).length);
+
+		// until they are reported
+		EFS.invalidateCache(baseStore.toURI());
+		assertEquals("3.0", 10, cachedFile.fetchInfo().getLength());
+		assertEquals("3.1", 2, cachedBase.childInfos(EFS.NONE, getMonitor()).length);
+	}
+
+	public void testInformationIsCopied() throws CoreException, IOException {
+		IFileStore cachedFile = cachedBase.getChild("file");
+		write(cachedFile, 5);
+		cachedFile.fetchInfo().setAttribute(EFS.ATTRIBUTE_READ_ONLY, true);
+		assertFalse("1.0", cachedFile.fetchInfo().getAttribute(EFS.ATTRIBUTE_READ_ONLY));
+		cachedBase.childInfos(EFS.NONE, getMonitor())[0].setAttribute(EFS.ATTRIBUTE_READ_ONLY, true);
+		assertFalse("1.1", cachedBase.childInfos(EFS.NONE, getMonitor())[0].getAttribute(EFS.ATTRIBUTE_READ_ONLY));
+		assertFalse("1.2", cachedFile.fetchInfo().getAttribute(EFS.ATTRIBUTE_READ_ONLY));
+	}
+
+	public void testStores() throws CoreException {
+		IFileStore cachedFile = cachedBase.getChild("file");
+		assertEquals("1.0", baseStore.getChild("file").toURI(), cachedFile.toURI());
+		assertEquals("1.1", cachedBase.getFileSystem(), cachedFile.getFileSystem());
+		assertEquals("1.2", cachedBase.getFileSystem(), cachedFile.getParent().getFileSystem());
+		assertEquals("1.3", baseStore.getFileSystem().getScheme(), cachedFile.getFileSystem().getScheme());
+		assertTrue("1.4", cachedBase.isParentOf(cachedFile));
+		assertEquals("1.5", cachedBase, cachedFile.getParent());
+	}
+
+	public void testTimeToLive() throws Exception {
+		IFileStore cachedBase = getCachedStore(1);
+		IFileStore cachedFile = cachedBase.getChild("file");
+		assertFalse("1.0", cachedFile.fetchInfo().exists());
+		assertEquals("1.1", 0, cachedBase.childInfos(EFS.NONE, getMonitor()).length);
+		write(baseStore.getChild("file"), 5);
+		Thread.sleep(10);
+		assertTrue("2.0", cachedFile.fetchInfo().exists());
+		assertEquals("2.1", 1, cachedBase.childInfos(EFS.NONE, getMonitor()).length);
+	}
+}
@@ -49,6 +49,26 @@ public class DeleteTest extends FileSystemTest {
 		assertTrue("1.1", !dir.fetchInfo().exists());
 	}
 
+	public void testDeleteDirectoryParallel() {
+		IFileStore dir = localFileBaseStore.getChild("child");
+		for (int i = 0; i < 10; i++) {
+			IFileStore folder = dir.getChild("folder" + i);
+			ensureExists(folder, true);
+			for (int j = 0; j < 10; j++) {
+				ensureExists(folder.getChild("file" + j), false);
+				ensureExists(folder.getChild("folder" + j), true);
+			}
+		}
+
+		assertTrue("1.0", dir.fetchInfo().exists());
+		try {
+			dir.delete(EFS.PARALLEL, getMonitor());
+		} catch (CoreException e) {
+			fail("1.99", e);
+		}
+		assertTrue("1.1", !dir.fetchInfo().exists());
+	}
+
 	public void testDeleteReadOnlyFile() throws Exception {
 		ensureExists(localFileBaseStore, true);
 		IFileStore file = localFileBaseStore.getChild("child");
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2005, 2015 IBM Corporation and others.
+ *  Copyright (c) 2005, 2022 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -15,10 +15,12 @@ package org.eclipse.core.tests.filesystem;
 
 import java.io.*;
 import java.util.Arrays;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
-import org.eclipse.core.runtime.CoreException;
-import org.eclipse.core.runtime.Path;
+import org.eclipse.core.internal.filesystem.FileCache;
+import org.eclipse.core.runtime.*;
 import org.eclipse.core.tests.internal.filesystem.ram.MemoryFileStore;
 import org.eclipse.core.tests.internal.filesystem.ram.MemoryTree;
 
@@ -76,6 +78,12 @@ public class FileCacheTest extends FileSystemTest {
 		return new byte[0];
 	}
 
+	private void createFile(IFileStore store, String contents) throws CoreException, IOException {
+		try (OutputStream out = store.openOutputStream(EFS.NONE, getMonitor())) {
+			out.write(contents.getBytes());
+		}
+	}
+
 	@Override
 	protected void setUp() throws Exception {
 		super.setUp();
@@ -120,6 +128,107 @@ public class FileCacheTest extends FileSystemTest {
 		}
 	}
 
+	public void testCacheFileReused() throws Exception {
+		IFileStore store = new MemoryFileStore(new Path("testCacheFileReused"));
+		createFile(store, "test");
+		File cachedFile = store.toLocalFile(EFS.CACHE, getMonitor());
+		assertEquals("1.0", cachedFile, store.toLocalFile(EFS.CACHE, getMonitor()));
+
+		//a deleted copy is not reused
+		assertTrue("2.0", cachedFile.delete());
+		cachedFile = store.toLocalFile(EFS.CACHE, getMonitor());
+		assertTrue("2.1", cachedFile.exists());
+		assertEquals("2.2", "test".getBytes(), getBytes(cachedFile));
+
+		//a changed file is copied again, and the stale copy is kept for its callers
+		createFile(store, "newContents");
+		File newCachedFile = store.toLocalFile(EFS.CACHE, getMonitor());
+		assertFalse("3.0", cachedFile.equals(newCachedFile));
+		assertTrue("3.1", cachedFile.exists());
+		assertEquals("3.2", "test".getBytes(), getBytes(cachedFile));
+		assertEquals("3.3", "newContents".getBytes(), getBytes(newCachedFile));
+
+		//a copy changed by a caller is not reused
+		try (OutputStream out = new FileOutputStream(newCachedFile)) {
+			out.write("changed".getBytes());
+		}
+		cachedFile = store.toLocalFile(EFS.CACHE, getMonitor());
+		assertFalse("4.0", cachedFile.equals(newCachedFile));
+		assertEquals("4.1", "newContents".getBytes(), getBytes(cachedFile));
+	}
+
+	public void testCacheEviction() throws Exception {
+		FileCache cache = FileCache.getCache();
+		long maxReusedSize = cache.getMaxReusedSize();
+		try {
+			IFileStore store1 = new MemoryFileStore(new Path("testCacheEviction1"));
+			IFileStore store2 = new MemoryFileStore(new Path("testCacheEviction2"));
+			createFile(store1, "contents1");
+			createFile(store2, "contents2");
+			File cachedFile1 = store1.toLocalFile(EFS.CACHE, getMonitor());
+			cache.setMaxReusedSize(cache.getReusedSize() + 10);
+			File cachedFile2 = store2.toLocalFile(EFS.CACHE, getMonitor());
+			assertTrue("1.0", cachedFile2.exists());
+			assertTrue("1.1", cachedFile1.exists());
+			assertTrue("1.2", cache.getReusedSize() <= cache.getMaxReusedSize());
+
+			//the least recently used copy is evicted, but not deleted
+			cache.setMaxReusedSize(9);
+			assertTrue("2.0", cachedFile1.exists());
+			assertTrue("2.1", cachedFile2.exists());
+			assertEquals("2.2", 9, cache.getReusedSize());
+			assertEquals("2.3", cachedFile2, store2.toLocalFile(EFS.CACHE, getMonitor()));
+
+			//an evicted copy is not reused
+			File newCachedFile1 = store1.toLocalFile(EFS.CACHE, getMonitor());
+			assertFalse("3.0", cachedFile1.equals(newCachedFile1));
+			assertTrue("3.1", cachedFile2.exists());
+			assertEquals("3.2", 9, cache.getReusedSize());
+
+			//the most recently used copy is kept even if it exceeds the maximum
+			cache.setMaxReusedSize(0);
+			assertEquals("4.0", newCachedFile1, store1.toLocalFile(EFS.CACHE, getMonitor()));
+		} finally {
+			cache.setMaxReusedSize(maxReusedSize);
+		}
+	}
+
+	public void testCacheFileConcurrently() throws Exception {
+		AtomicInteger copies = new AtomicInteger();
+		IFileStore store = new MemoryFileStore(new Path("testCacheFileConcurrently")) {
+			@Override
+			public void copy(IFileStore destination, int options, IProgressMonitor monitor) throws CoreException {
+				copies.incrementAndGet();
+				try {
+					Thread.sleep(200);
+				} catch (InterruptedException e) {
+					throw new OperationCanceledException();
+				}
+				super.copy(destination, options, monitor);
+			}
+		};
+		createFile(store, "test");
+		int threadCount = 4;
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			Future<?>[] results = new Future<?>[threadCount];
+			for (int i = 0; i < threadCount; i++) {
+				results[i] = executor.submit(() -> {
+					start.await();
+					return store.toLocalFile(EFS.CACHE, null);
+				});
+			}
+			start.countDown();
+			Object cachedFile = results[0].get();
+			for (int i = 1; i < threadCount; i++)
+				assertEquals("1." + i, cachedFile, results[i].get());
+			assertEquals("2.0", 1, copies.get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
 	public void testCacheFolder() {
 		try {
 			IFileStore store = new MemoryFileStore(new Path("testCacheFolder"));
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2000, 2018 IBM Corporation and others.
+ *  Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -17,6 +17,8 @@ import java.io.File;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -28,6 +30,8 @@ import org.eclipse.core.internal.filesystem.local.LocalFile;
 import org.eclipse.core.internal.filesystem.local.LocalFileSystem;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.*;
+import org.eclipse.core.tests.internal.filesystem.ram.MemoryFileStore;
+import org.eclipse.core.tests.internal.filesystem.ram.MemoryTree;
 import org.eclipse.core.tests.internal.localstore.LocalStoreTest;
 import org.eclipse.osgi.util.NLS;
 
@@ -185,6 +189,122 @@ public class FileStoreTest extends LocalStoreTest {
 		copyOfTarget.delete(EFS.NONE, null);
 	}
 
+	public void testCopyDirectoryParallel() throws Throwable {
+		IFileStore temp = EFS.getFileSystem(EFS.SCHEME_FILE).getStore(getWorkspace().getRoot().getLocation().append("temp"));
+		temp.mkdir(EFS.NONE, null);
+		IFileStore target = temp.getChild("target");
+		target.delete(EFS.NONE, null);
+		createTree(getTree(target));
+
+		IFileStore copyOfTarget = temp.getChild("copy of target");
+		target.copy(copyOfTarget, EFS.PARALLEL, getMonitor());
+		assertTrue("1.0", verifyTree(getTree(copyOfTarget)));
+
+		// existing files are not overwritten
+		try {
+			target.copy(copyOfTarget, EFS.PARALLEL, getMonitor());
+			fail("2.0");
+		} catch (CoreException e) {
+			assertEquals("2.1", EFS.ERROR_EXISTS, e.getStatus().getCode());
+		}
+		target.copy(copyOfTarget, EFS.PARALLEL | EFS.OVERWRITE, getMonitor());
+		assertTrue("2.2", verifyTree(getTree(copyOfTarget)));
+
+		target.delete(EFS.PARALLEL, null);
+		copyOfTarget.delete(EFS.PARALLEL, null);
+		assertTrue("3.0", !target.fetchInfo().exists());
+		assertTrue("3.1", !copyOfTarget.fetchInfo().exists());
+	}
+
+	/**
+	 * Returns the paths of the files in the given directory, relative to it.
+	 */
+	private List<String> listTree(IFileStore root) throws Exception {
+		java.nio.file.Path rootPath = root.toLocalFile(EFS.NONE, null).toPath();
+		try (Stream<java.nio.file.Path> paths = Files.walk(rootPath)) {
+			return paths.map(path -> rootPath.relativize(path).toString()).sorted().collect(Collectors.toList());
+		}
+	}
+
+	private void assertSameProblem(String message, CoreException expected, CoreException actual) {
+		assertEquals(message + ".code", expected.getStatus().getCode(), actual.getStatus().getCode());
+		IStatus[] expectedChildren = expected.getStatus().getChildren();
+		IStatus[] actualChildren = actual.getStatus().getChildren();
+		assertEquals(message + ".children", expectedChildren.length, actualChildren.length);
+		for (int i = 0; i < expectedChildren.length; i++)
+			assertEquals(message + ".child" + i, expectedChildren[i].getCode(), actualChildren[i].getCode());
+	}
+
+	public void testCopyDirectoryParallelWithFailure() throws Throwable {
+		IFileStore source = getTempStore();
+		for (String name : new String[] {"a.txt", "b/b1.txt", "b/b2.txt", "c.txt", "d/d1.txt", "e.txt"})
+			createFileInFileSystem(source.getChild(new Path(name)));
+		File unreadable = source.getChild("c.txt").toLocalFile(EFS.NONE, null);
+		unreadable.setReadable(false);
+		try {
+			if (unreadable.canRead()) {
+				System.out.println("Skipping testCopyDirectoryParallelWithFailure: file permissions are not enforced");
+				return;
+			}
+			IFileStore sequential = getTempStore();
+			IFileStore parallel = getTempStore();
+			CoreException sequentialProblem = null;
+			try {
+				source.copy(sequential, EFS.NONE, getMonitor());
+				fail("1.0");
+			} catch (CoreException e) {
+				sequentialProblem = e;
+			}
+			try {
+				source.copy(parallel, EFS.PARALLEL, getMonitor());
+				fail("1.1");
+			} catch (CoreException e) {
+				// the same problem and the same partial copy as the sequential copy
+				assertSameProblem("2.0", sequentialProblem, e);
+			}
+			assertEquals("2.1", listTree(sequential), listTree(parallel));
+		} finally {
+			unreadable.setReadable(true);
+		}
+	}
+
+	public void testDeleteDirectoryParallelWithFailure() throws Throwable {
+		IFileStore[] roots = {getTempStore(), getTempStore()};
+		File[] locked = new File[roots.length];
+		for (int i = 0; i < roots.length; i++) {
+			for (String name : new String[] {"a.txt", "locked/x.txt", "locked/y.txt", "z/w.txt"})
+				createFileInFileSystem(roots[i].getChild(new Path(name)));
+			locked[i] = roots[i].getChild("locked").toLocalFile(EFS.NONE, null);
+			locked[i].setWritable(false);
+		}
+		try {
+			File probe = new File(locked[0], "probe.txt");
+			if (probe.createNewFile()) {
+				probe.delete();
+				System.out.println("Skipping testDeleteDirectoryParallelWithFailure: file permissions are not enforced");
+				return;
+			}
+			CoreException sequentialProblem = null;
+			try {
+				roots[0].delete(EFS.NONE, getMonitor());
+				fail("1.0");
+			} catch (CoreException e) {
+				sequentialProblem = e;
+			}
+			try {
+				roots[1].delete(EFS.PARALLEL, getMonitor());
+				fail("1.1");
+			} catch (CoreException e) {
+				// the same problems and the same remaining files as the sequential delete
+				assertSameProblem("2.0", sequentialProblem, e);
+			}
+			assertEquals("2.1", listTree(roots[0]), listTree(roots[1]));
+		} finally {
+			for (File element : locked)
+				element.setWritable(true);
+		}
+	}
+
 	public void testCopyDirectoryParentMissing() throws Throwable {
 		IFileStore parent = getTempStore();
 		IFileStore child = parent.getChild("child");
@@ -295,6 +415,39 @@ public class FileStoreTest extends LocalStoreTest {
 		temp.delete(EFS.NONE, null);
 	}
 
+	public void testCopyFileLargerThanTransferChunk() throws Throwable {
+		IFileStore temp = createDir(getWorkspace().getRoot().getLocation().append("temp").toString(), true);
+		// local copies are transferred in chunks of 8MB
+		byte[] content = new byte[9 * 1024 * 1024 + 17];
+		new Random(42).nextBytes(content);
+		IFileStore source = temp.getChild("source");
+		try (OutputStream out = source.openOutputStream(EFS.NONE, null)) {
+			out.write(content);
+		}
+		IFileInfo sourceInfo = source.fetchInfo();
+		sourceInfo.setLastModified(sourceInfo.getLastModified() - 60_000);
+		source.putInfo(sourceInfo, EFS.SET_LAST_MODIFIED, null);
+
+		IFileStore destination = temp.getChild("destination");
+		source.copy(destination, EFS.NONE, getMonitor());
+		IFileInfo destinationInfo = destination.fetchInfo();
+		assertEquals("1.0", content.length, destinationInfo.getLength());
+		assertEquals("1.1", source.fetchInfo().getLastModified(), destinationInfo.getLastModified());
+		assertTrue("1.2", Arrays.equals(content, Files.readAllBytes(destination.toLocalFile(EFS.NONE, null).toPath())));
+
+		// the destination exists now
+		try {
+			source.copy(destination, EFS.NONE, getMonitor());
+			fail("2.0");
+		} catch (CoreException e) {
+			assertEquals("2.1", EFS.ERROR_EXISTS, e.getStatus().getCode());
+		}
+		source.copy(destination, EFS.OVERWRITE, getMonitor());
+		assertEquals("2.2", content.length, destination.fetchInfo().getLength());
+
+		temp.delete(EFS.NONE, null);
+	}
+
 	/**
 	 * Basically this is a test for the Windows Platform.
 	 */
@@ -562,6 +715,49 @@ public class FileStoreTest extends LocalStoreTest {
 		}
 	}
 
+	public void testReadBuffer() throws Throwable {
+		IFileStore temp = createDir(getWorkspace().getRoot().getLocation().append("temp").toString(), true);
+		// small files are read into the heap, larger ones are mapped
+		for (int length : new int[] {0, 17, 1024 * 1024 + 17}) {
+			byte[] content = new byte[length];
+			new Random(42).nextBytes(content);
+			IFileStore file = temp.getChild("file" + length);
+			try (OutputStream out = file.openOutputStream(EFS.NONE, null)) {
+				out.write(content);
+			}
+			ByteBuffer buffer = file.readBuffer(EFS.NONE, getMonitor());
+			assertTrue("1.0." + length, buffer.isReadOnly());
+			assertEquals("1.1." + length, ByteBuffer.wrap(content), buffer);
+		}
+
+		try {
+			temp.getChild("missing").readBuffer(EFS.NONE, getMonitor());
+			fail("2.0");
+		} catch (CoreException e) {
+			assertEquals("2.1", EFS.ERROR_NOT_EXISTS, e.getStatus().getCode());
+		}
+		try {
+			temp.readBuffer(EFS.NONE, getMonitor());
+			fail("2.2");
+		} catch (CoreException e) {
+			assertEquals("2.3", EFS.ERROR_WRONG_TYPE, e.getStatus().getCode());
+		}
+		temp.delete(EFS.NONE, null);
+
+		// other file systems read into the heap
+		IFileStore memoryFile = new MemoryFileStore(new Path("testReadBuffer"));
+		try {
+			try (OutputStream out = memoryFile.openOutputStream(EFS.NONE, null)) {
+				out.write("contents".getBytes());
+			}
+			ByteBuffer buffer = memoryFile.readBuffer(EFS.NONE, getMonitor());
+			assertTrue("3.0", buffer.isReadOnly());
+			assertEquals("3.1", ByteBuffer.wrap("contents".getBytes()), buffer);
+		} finally {
+			MemoryTree.TREE.deleteAll();
+		}
+	}
+
 	public void testReadOnly() throws CoreException {
 		testAttribute(EFS.ATTRIBUTE_READ_ONLY);
 	}
@@ -328,6 +328,31 @@ public class SymlinkTest extends FileSystemTest {
 		ensureDoesNotExist(childDir);
 	}
 
+	// Listing a directory fetches the same information as fetching it for each child.
+	public void testSymlinkChildInfos() throws Exception {
+		// Only activate this test if testing of symbolic links is possible.
+		if (!canCreateSymLinks()) {
+			return;
+		}
+		makeLinkStructure();
+		mkLink(baseStore, "broken", "missing", false);
+		IFileInfo[] infos = baseStore.childInfos(EFS.NONE, getMonitor());
+		assertEquals(7, infos.length);
+		for (IFileInfo info : infos) {
+			IFileInfo expected = baseStore.getChild(info.getName()).fetchInfo();
+			String name = info.getName();
+			assertEquals(name, expected.getName(), info.getName());
+			assertEquals(name, expected.exists(), info.exists());
+			assertEquals(name, expected.isDirectory(), info.isDirectory());
+			assertEquals(name, expected.getLength(), info.getLength());
+			assertEquals(name, expected.getLastModified(), info.getLastModified());
+			assertEquals(name, expected.getError(), info.getError());
+			assertEquals(name, expected.getAttribute(EFS.ATTRIBUTE_SYMLINK), info.getAttribute(EFS.ATTRIBUTE_SYMLINK));
+			assertEquals(name, expected.getAttribute(EFS.ATTRIBUTE_READ_ONLY), info.getAttribute(EFS.ATTRIBUTE_READ_ONLY));
+			assertEquals(name, expected.getStringAttribute(EFS.ATTRIBUTE_LINK_TARGET), info.getStringAttribute(EFS.ATTRIBUTE_LINK_TARGET));
+		}
+	}
+
 	// Writing to symlinked dir.
 	public void testSymlinkDirWrite() throws Exception {
 		// Only activate this test if testing of symbolic links is possible.
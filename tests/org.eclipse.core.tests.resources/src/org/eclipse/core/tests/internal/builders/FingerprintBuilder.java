@@ -0,0 +1,38 @@
+/*******************************************************************************
+ *  Copyright (c) 2022 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *
+ *  Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.internal.builders;
+
+/**
+ * A builder that has the fingerprintInputs attribute set to true in the
+ * builder extension.
+ */
+public class FingerprintBuilder extends TestBuilder {
+	public static final String BUILDER_NAME = "org.eclipse.core.tests.resources.fingerprintbuilder";
+
+	/**
+	 * The most recently created instance
+	 */
+	protected static FingerprintBuilder singleton;
+
+	/**
+	 * Returns the most recently created instance.
+	 */
+	public static FingerprintBuilder getInstance() {
+		return singleton;
+	}
+
+	public FingerprintBuilder() {
+		singleton = this;
+	}
+}
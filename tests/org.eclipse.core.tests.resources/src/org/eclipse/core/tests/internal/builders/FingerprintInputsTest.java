@@ -0,0 +1,110 @@
+/*******************************************************************************
+ *  Copyright (c) 2022 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *
+ *  Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.internal.builders;
+
+import java.io.ByteArrayInputStream;
+import org.eclipse.core.internal.events.BuildManager;
+import org.eclipse.core.internal.events.ResourceMetrics;
+import org.eclipse.core.internal.events.ResourceMetrics.Metric;
+import org.eclipse.core.internal.resources.Workspace;
+import org.eclipse.core.resources.*;
+
+/**
+ * Tests the fingerprintInputs attribute of the builder extension
+ */
+public class FingerprintInputsTest extends AbstractBuilderTest {
+
+	public FingerprintInputsTest(String name) {
+		super(name);
+	}
+
+	private void setContents(IFile file, String contents) throws Exception {
+		file.setContents(new ByteArrayInputStream(contents.getBytes()), true, true, getMonitor());
+	}
+
+	public void testUnchangedInputsAreNotBuilt() throws Exception {
+		BuildManager buildManager = ((Workspace) getWorkspace()).getBuildManager();
+		IProject project = getWorkspace().getRoot().getProject("TestFingerprint");
+		IFile file = project.getFile("file.txt");
+		setAutoBuilding(false);
+		ensureExistsInWorkspace(project, true);
+		ensureExistsInWorkspace(file, "contents");
+		IProjectDescription desc = project.getDescription();
+		ICommand command = desc.newCommand();
+		command.setBuilderName(FingerprintBuilder.BUILDER_NAME);
+		desc.setBuildSpec(new ICommand[] {command});
+		project.setDescription(desc, getMonitor());
+
+		//do an initial incremental build
+		new FingerprintBuilder().reset();
+		getWorkspace().build(IncrementalProjectBuilder.INCREMENTAL_BUILD, getMonitor());
+		FingerprintBuilder verifier = FingerprintBuilder.getInstance();
+		verifier.addExpectedLifecycleEvent(TestBuilder.SET_INITIALIZATION_DATA);
+		verifier.addExpectedLifecycleEvent(TestBuilder.STARTUP_ON_INITIALIZE);
+		verifier.addExpectedLifecycleEvent(TestBuilder.DEFAULT_BUILD_ID);
+		verifier.assertLifecycleEvents("1.0");
+		// the fingerprint of the first build is computed in the background
+		buildManager.joinInputFingerprints(getMonitor());
+
+		// writing the same contents again is not built
+		long skipped = buildManager.getSkippedBuildCount();
+		Metric metric = ResourceMetrics.getMetric(ResourceMetrics.SKIPPED_BUILDS, FingerprintBuilder.BUILDER_NAME);
+		long skippedMetric = metric == null ? 0 : metric.getCount();
+		setContents(file, "contents");
+		getWorkspace().build(IncrementalProjectBuilder.INCREMENTAL_BUILD, getMonitor());
+		verifier.assertLifecycleEvents("2.0");
+		assertEquals("2.1", skipped + 1, buildManager.getSkippedBuildCount());
+		assertEquals("2.2", skippedMetric + 1, ResourceMetrics.getMetric(ResourceMetrics.SKIPPED_BUILDS, FingerprintBuilder.BUILDER_NAME).getCount());
+
+		// changed contents are built
+		setContents(file, "other contents");
+		getWorkspace().build(IncrementalProjectBuilder.INCREMENTAL_BUILD, getMonitor());
+		verifier.addExpectedLifecycleEvent(TestBuilder.DEFAULT_BUILD_ID);
+		verifier.assertLifecycleEvents("3.0");
+		assertEquals("3.1", skipped + 1, buildManager.getSkippedBuildCount());
+
+		// even if they have the same length and time stamp
+		long timeStamp = file.getLocalTimeStamp();
+		setContents(file, "OTHER CONTENTS");
+		file.setLocalTimeStamp(timeStamp);
+		getWorkspace().build(IncrementalProjectBuilder.INCREMENTAL_BUILD, getMonitor());
+		verifier.addExpectedLifecycleEvent(TestBuilder.DEFAULT_BUILD_ID);
+		verifier.assertLifecycleEvents("3.2");
+		assertEquals("3.3", skipped + 1, buildManager.getSkippedBuildCount());
+
+		// so are added resources
+		ensureExistsInWorkspace(project.getFolder("folder"), true);
+		getWorkspace().build(IncrementalProjectBuilder.INCREMENTAL_BUILD, getMonitor());
+		verifier.addExpectedLifecycleEvent(TestBuilder.DEFAULT_BUILD_ID);
+		verifier.assertLifecycleEvents("4.0");
+
+		// the fingerprint after the build includes them
+		setContents(file, "OTHER CONTENTS");
+		getWorkspace().build(IncrementalProjectBuilder.INCREMENTAL_BUILD, getMonitor());
+		verifier.assertLifecycleEvents("4.1");
+		assertEquals("4.2", skipped + 2, buildManager.getSkippedBuildCount());
+
+		// full builds are never skipped
+		getWorkspace().build(IncrementalProjectBuilder.FULL_BUILD, getMonitor());
+		verifier.addExpectedLifecycleEvent(TestBuilder.DEFAULT_BUILD_ID);
+		verifier.assertLifecycleEvents("5.0");
+
+		// and the fingerprint is computed again after them
+		buildManager.joinInputFingerprints(getMonitor());
+		setContents(file, "OTHER CONTENTS");
+		getWorkspace().build(IncrementalProjectBuilder.INCREMENTAL_BUILD, getMonitor());
+		verifier.assertLifecycleEvents("5.1");
+		assertEquals("5.2", skipped + 3, buildManager.getSkippedBuildCount());
+	}
+}
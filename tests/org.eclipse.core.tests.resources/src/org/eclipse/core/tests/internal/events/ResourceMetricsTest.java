@@ -0,0 +1,134 @@
+/*******************************************************************************
+ *  Copyright (c) 2022 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *
+ *  Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.internal.events;
+
+import org.eclipse.core.internal.events.ResourceMetrics;
+import org.eclipse.core.internal.events.ResourceMetrics.Metric;
+import org.eclipse.core.resources.*;
+import org.eclipse.core.tests.internal.builders.AbstractBuilderTest;
+import org.eclipse.core.tests.internal.builders.SortBuilder;
+
+/**
+ * Tests {@link ResourceMetrics}.
+ */
+public class ResourceMetricsTest extends AbstractBuilderTest {
+
+	public ResourceMetricsTest(String name) {
+		super(name);
+	}
+
+	private long getCount(String category, String name) {
+		Metric metric = ResourceMetrics.getMetric(category, name);
+		return metric == null ? 0 : metric.getCount();
+	}
+
+	public void testRecord() {
+		ResourceMetrics.reset();
+		assertNull("1.0", ResourceMetrics.getMetric("test", "name"));
+		ResourceMetrics.record("test", "name", 3);
+		ResourceMetrics.record("test", "name", 5);
+		Metric metric = ResourceMetrics.getMetric("test", "name");
+		assertEquals("1.1", 2, metric.getCount());
+		assertEquals("1.2", 8, metric.getTotal());
+		assertEquals("1.3", 5, metric.getMax());
+		ResourceMetrics.record("test", "\"quoted\"", 1);
+		assertEquals("2.0", "{\"test\":{\"\\\"quoted\\\"\":{\"count\":1,\"total\":1,\"max\":1},\"name\":{\"count\":2,\"total\":8,\"max\":5}}}", ResourceMetrics.toJSON());
+		ResourceMetrics.reset();
+		assertEquals("3.0", "{}", ResourceMetrics.toJSON());
+	}
+
+	public void testMaxNames() {
+		ResourceMetrics.reset();
+		for (int i = 0; i < ResourceMetrics.MAX_NAMES; i++)
+			ResourceMetrics.record("test", "name" + i, 1);
+		assertNull("1.0", ResourceMetrics.getMetric("test", ResourceMetrics.OTHER));
+		ResourceMetrics.record("test", "name0", 1);
+		assertEquals("1.1", 2, getCount("test", "name0"));
+		ResourceMetrics.record("test", "new name", 1);
+		ResourceMetrics.record("test", "other new name", 1);
+		assertNull("2.0", ResourceMetrics.getMetric("test", "new name"));
+		assertEquals("2.1", 2, getCount("test", ResourceMetrics.OTHER));
+		ResourceMetrics.discard("test", "name0");
+		assertNull("3.0", ResourceMetrics.getMetric("test", "name0"));
+		ResourceMetrics.reset();
+	}
+
+	public void testProjectDeleted() throws Exception {
+		setAutoBuilding(false);
+		IProject project = getWorkspace().getRoot().getProject("Project");
+		ensureExistsInWorkspace(project, true);
+		IProjectDescription description = project.getDescription();
+		ICommand command = description.newCommand();
+		command.setBuilderName(SortBuilder.BUILDER_NAME);
+		description.setBuildSpec(new ICommand[] {command});
+		project.setDescription(description, getMonitor());
+		getWorkspace().build(IncrementalProjectBuilder.FULL_BUILD, getMonitor());
+		assertNotNull("1.0", ResourceMetrics.getMetric(ResourceMetrics.PROJECTS, project.getName()));
+
+		// a renamed project starts over
+		IProject renamed = getWorkspace().getRoot().getProject("Renamed");
+		project.move(renamed.getFullPath(), true, getMonitor());
+		assertNull("2.0", ResourceMetrics.getMetric(ResourceMetrics.PROJECTS, project.getName()));
+		getWorkspace().build(IncrementalProjectBuilder.FULL_BUILD, getMonitor());
+		assertNotNull("2.1", ResourceMetrics.getMetric(ResourceMetrics.PROJECTS, renamed.getName()));
+
+		renamed.delete(true, getMonitor());
+		assertNull("3.0", ResourceMetrics.getMetric(ResourceMetrics.PROJECTS, renamed.getName()));
+		assertNull("3.1", ResourceMetrics.getMetric(ResourceMetrics.DELTAS, renamed.getName()));
+	}
+
+	public void testBuildAndSave() throws Exception {
+		setAutoBuilding(false);
+		IProject project = getWorkspace().getRoot().getProject("Project");
+		IFile file = project.getFile("file.txt");
+		ensureExistsInWorkspace(project, true);
+		IProjectDescription description = project.getDescription();
+		ICommand command = description.newCommand();
+		command.setBuilderName(SortBuilder.BUILDER_NAME);
+		description.setBuildSpec(new ICommand[] {command});
+		project.setDescription(description, getMonitor());
+		IResourceChangeListener listener = event -> {
+			// only the time spent is of interest
+		};
+		getWorkspace().addResourceChangeListener(listener);
+		try {
+			long checkIns = getCount(ResourceMetrics.LOCKS, "checkIn");
+			long listenerRuns = getCount(ResourceMetrics.LISTENERS, listener.getClass().getName());
+			long builderRuns = getCount(ResourceMetrics.BUILDERS, SortBuilder.BUILDER_NAME);
+			long projectRuns = getCount(ResourceMetrics.PROJECTS, project.getName());
+			long deltas = getCount(ResourceMetrics.DELTAS, project.getName());
+
+			getWorkspace().build(IncrementalProjectBuilder.FULL_BUILD, getMonitor());
+			assertEquals("1.0", builderRuns + 1, getCount(ResourceMetrics.BUILDERS, SortBuilder.BUILDER_NAME));
+			assertEquals("1.1", projectRuns + 1, getCount(ResourceMetrics.PROJECTS, project.getName()));
+
+			ensureExistsInWorkspace(file, true);
+			getWorkspace().build(IncrementalProjectBuilder.INCREMENTAL_BUILD, getMonitor());
+			assertEquals("2.0", builderRuns + 2, getCount(ResourceMetrics.BUILDERS, SortBuilder.BUILDER_NAME));
+			assertEquals("2.1", deltas + 1, getCount(ResourceMetrics.DELTAS, project.getName()));
+			// the project and the file
+			assertTrue("2.2", ResourceMetrics.getMetric(ResourceMetrics.DELTAS, project.getName()).getMax() >= 2);
+			assertTrue("2.3", getCount(ResourceMetrics.LOCKS, "checkIn") > checkIns);
+			assertTrue("2.4", getCount(ResourceMetrics.LISTENERS, listener.getClass().getName()) > listenerRuns);
+
+			long saves = getCount(ResourceMetrics.SAVE, "full save");
+			getWorkspace().save(true, getMonitor());
+			assertEquals("3.0", saves + 1, getCount(ResourceMetrics.SAVE, "full save"));
+			assertTrue("3.1", getCount(ResourceMetrics.SAVE, "tree") > 0);
+			assertTrue("3.2", ResourceMetrics.toJSON().contains("\"" + ResourceMetrics.SAVE + "\":{"));
+		} finally {
+			getWorkspace().removeResourceChangeListener(listener);
+		}
+	}
+}
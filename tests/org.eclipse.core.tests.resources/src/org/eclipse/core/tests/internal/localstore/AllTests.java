@@ -20,7 +20,7 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({ BlobStoreTest.class, BucketTreeTests.class, CaseSensitivityTest.class, CopyTest.class,
 		DeleteTest.class, FileSystemResourceManagerTest.class, HistoryBucketTest.class, HistoryStoreTest.class,
-		LocalSyncTest.class, MoveTest.class, PrefixPoolTest.class, RefreshLocalTest.class,
+		LocalSyncTest.class, MoveTest.class, PrefixPoolTest.class, ProjectDescriptionCacheTest.class, RefreshLocalTest.class,
 		SafeChunkyInputOutputStreamTest.class, SafeFileInputOutputStreamTest.class, SymlinkResourceTest.class,
 		UnifiedTreeTest.class })
 public class AllTests {
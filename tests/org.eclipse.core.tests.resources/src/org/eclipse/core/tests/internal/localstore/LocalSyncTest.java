@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,6 +13,11 @@
  *******************************************************************************/
 package org.eclipse.core.tests.internal.localstore;
 
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import org.eclipse.core.filesystem.*;
+import org.eclipse.core.internal.localstore.FileSystemResourceManager;
 import org.eclipse.core.internal.resources.*;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IResource;
@@ -165,4 +170,51 @@ public class LocalSyncTest extends LocalStoreTest implements ICoreConstants {
 		assertTrue(folder.getType() == IResource.FILE);
 		//-----------------------------------------------------------
 	}
+
+	/**
+	 * Tests that fingerprints are compared only when both the resource and the
+	 * file system have one, independent of whether the file system provides them.
+	 */
+	public void testIsInSyncWithFingerprint() {
+		ResourceInfo info = new ResourceInfo();
+		info.setLocalSyncInfo(1000);
+		assertTrue("1.0", FileSystemResourceManager.isInSync(info, 1000, EFS.NONE));
+		assertTrue("1.1", FileSystemResourceManager.isInSync(info, 1000, 42));
+		assertFalse("1.2", FileSystemResourceManager.isInSync(info, 2000, EFS.NONE));
+
+		info.setLocalSyncFingerprint(42);
+		assertTrue("2.0", FileSystemResourceManager.isInSync(info, 1000, 42));
+		assertTrue("2.1", FileSystemResourceManager.isInSync(info, 1000, EFS.NONE));
+		assertFalse("2.2", FileSystemResourceManager.isInSync(info, 1000, 43));
+		assertFalse("2.3", FileSystemResourceManager.isInSync(info, 2000, 42));
+	}
+
+	/**
+	 * Tests that a file that is replaced by one with the same length and time
+	 * stamp is out of sync, if the file system provides fingerprints.
+	 */
+	public void testFingerprint() throws Exception {
+		IFile file = projects[0].getFile("fingerprint.txt");
+		ensureExistsInWorkspace(file, "abc");
+		IFileStore store = ((Resource) file).getStore();
+		IFileInfo info = store.fetchInfo();
+		if (info.getFingerprint() == EFS.NONE) {
+			System.out.println("Skipping LocalSyncTest.testFingerprint because the file system provides no fingerprints");
+			return;
+		}
+		assertTrue("1.0", file.isSynchronized(IResource.DEPTH_ZERO));
+
+		File location = file.getLocation().toFile();
+		File replacement = new File(location.getParentFile(), "replacement.txt");
+		Files.write(replacement.toPath(), "xyz".getBytes());
+		assertTrue("2.0", replacement.setLastModified(info.getLastModified()));
+		Files.move(replacement.toPath(), location.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		assertEquals("2.1", info.getLastModified(), store.fetchInfo().getLastModified());
+		assertFalse("2.2", file.isSynchronized(IResource.DEPTH_ZERO));
+
+		long stamp = file.getModificationStamp();
+		file.refreshLocal(IResource.DEPTH_ZERO, getMonitor());
+		assertTrue("3.0", file.isSynchronized(IResource.DEPTH_ZERO));
+		assertTrue("3.1", stamp != file.getModificationStamp());
+	}
 }
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ *  Copyright (c) 2022 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *
+ *  Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.internal.localstore;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.filesystem.IFileStore;
+import org.eclipse.core.internal.localstore.ProjectDescriptionCache;
+import org.eclipse.core.internal.resources.ProjectDescription;
+import org.eclipse.core.resources.*;
+import org.eclipse.core.tests.resources.ResourceTest;
+
+/**
+ * Tests {@link ProjectDescriptionCache}.
+ */
+public class ProjectDescriptionCacheTest extends ResourceTest {
+	private IProject project;
+	private IFileStore store;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		project = getWorkspace().getRoot().getProject("Project");
+		ensureExistsInWorkspace(project, true);
+		store = EFS.getStore(project.getFile(IProjectDescription.DESCRIPTION_FILE_NAME).getLocationURI());
+	}
+
+	private byte[] readContents() throws Exception {
+		try (InputStream in = store.openInputStream(EFS.NONE, getMonitor())) {
+			return in.readAllBytes();
+		}
+	}
+
+	private void writeContents(byte[] contents) throws Exception {
+		try (OutputStream out = store.openOutputStream(EFS.NONE, getMonitor())) {
+			out.write(contents);
+		}
+	}
+
+	public void testPrefetch() {
+		ProjectDescriptionCache cache = new ProjectDescriptionCache();
+		cache.prefetch(project, store);
+		ProjectDescription description = cache.take(project, store);
+		assertNotNull("1.0", description);
+		assertEquals("1.1", project.getName(), description.getName());
+		// a prefetched description is only handed out once
+		assertNull("1.2", cache.take(project, store));
+	}
+
+	public void testPrefetchedDescriptionIsDroppedWhenChanged() throws Exception {
+		ProjectDescriptionCache cache = new ProjectDescriptionCache();
+		cache.prefetch(project, store);
+		byte[] contents = readContents();
+		writeContents(new String(contents, StandardCharsets.UTF_8).concat("\n\n").getBytes(StandardCharsets.UTF_8));
+		assertNull("1.0", cache.take(project, store));
+	}
+
+	public void testIsChanged() throws Exception {
+		ProjectDescriptionCache cache = new ProjectDescriptionCache();
+		byte[] contents = readContents();
+		// nothing is known before the file is read
+		assertFalse("1.0", cache.isChanged(project, store, new byte[0]));
+
+		assertNotNull("2.0", cache.parse(project, store));
+		assertFalse("2.1", cache.isChanged(project, store, contents));
+		// line endings are ignored
+		String text = new String(contents, StandardCharsets.UTF_8);
+		assertFalse("2.2", cache.isChanged(project, store, text.replace("\n", "\r\n").getBytes(StandardCharsets.UTF_8)));
+		assertTrue("2.3", cache.isChanged(project, store, text.replace("Project", "Other").getBytes(StandardCharsets.UTF_8)));
+
+		// the file has to be compared once it changed on disk
+		writeContents(text.concat("\n\n").getBytes(StandardCharsets.UTF_8));
+		assertFalse("3.0", cache.isChanged(project, store, text.replace("Project", "Other").getBytes(StandardCharsets.UTF_8)));
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2015 IBM Corporation and others.
+ * Copyright (c) 2004, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,10 +17,13 @@ package org.eclipse.core.tests.internal.resources;
 import java.io.*;
 import java.util.*;
 import org.eclipse.core.internal.preferences.EclipsePreferences;
+import org.eclipse.core.internal.resources.CharsetDeltaJob;
 import org.eclipse.core.internal.resources.ProjectPreferences;
+import org.eclipse.core.internal.resources.Resource;
 import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.*;
 import org.eclipse.core.runtime.content.IContentType;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.core.runtime.preferences.*;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences.PreferenceChangeEvent;
 import org.eclipse.core.tests.resources.ResourceTest;
@@ -1638,6 +1641,80 @@ public class ProjectPreferencesTest extends ResourceTest {
 		ProjectPreferences.updatePreferences(prefsFile);
 	}
 
+	private int getCharsetGenerationCount(IResource resource) {
+		return ((Resource) resource).getResourceInfo(false, false).getCharsetGenerationCount();
+	}
+
+	/*
+	 * Rewriting a preference file with the contents it was loaded from or saved
+	 * to must not reload it, but any other contents must be loaded.
+	 */
+	public void testUnchangedFileIsNotReloaded() throws Exception {
+		IProject project = getProject(getUniqueString());
+		IFile other = project.getFile("other.txt");
+		ensureExistsInWorkspace(other, true);
+		// changes of the resources preferences are broadcast as encoding changes
+		String qualifier = ResourcesPlugin.PI_RESOURCES;
+		IEclipsePreferences node = new ProjectScope(project).getNode(qualifier);
+		IFile file = getFileInWorkspace(project, qualifier);
+		node.put("key", "value1");
+		node.flush();
+		byte[] contents;
+		try (InputStream input = file.getContents()) {
+			contents = input.readAllBytes();
+		}
+		node.put("key", "value2");
+		node.flush();
+		Job.getJobManager().join(CharsetDeltaJob.FAMILY_CHARSET_DELTA, getMonitor());
+		int generation = getCharsetGenerationCount(other);
+
+		// going back to the old contents must load them
+		file.setContents(new ByteArrayInputStream(contents), IResource.NONE, getMonitor());
+		assertEquals("1.0", "value1", node.get("key", null));
+		Job.getJobManager().join(CharsetDeltaJob.FAMILY_CHARSET_DELTA, getMonitor());
+		assertEquals("1.1", generation + 1, getCharsetGenerationCount(other));
+
+		// writing the same contents again changes nothing and broadcasts no encoding change
+		Tracer tracer = new Tracer();
+		node.addPreferenceChangeListener(tracer);
+		try {
+			file.setContents(new ByteArrayInputStream(contents), IResource.NONE, getMonitor());
+			assertEquals("2.0", "value1", node.get("key", null));
+			assertEquals("2.1", "", tracer.log.toString());
+			Job.getJobManager().join(CharsetDeltaJob.FAMILY_CHARSET_DELTA, getMonitor());
+			assertEquals("2.2", generation + 1, getCharsetGenerationCount(other));
+		} finally {
+			node.removePreferenceChangeListener(tracer);
+		}
+	}
+
+	/*
+	 * Changes of the resources preferences of a project that happen before the
+	 * pending encoding changes are broadcast are broadcast by one visit of the
+	 * project.
+	 */
+	public void testPreferenceChangesAreCoalesced() throws Exception {
+		IProject project = getProject(getUniqueString());
+		IFile other = project.getFile("other.txt");
+		ensureExistsInWorkspace(other, true);
+		String qualifier = ResourcesPlugin.PI_RESOURCES;
+		IEclipsePreferences node = new ProjectScope(project).getNode(qualifier);
+		IFile file = getFileInWorkspace(project, qualifier);
+		node.put("key", "value1");
+		node.flush();
+		Job.getJobManager().join(CharsetDeltaJob.FAMILY_CHARSET_DELTA, getMonitor());
+		int generation = getCharsetGenerationCount(other);
+
+		// the broadcast can't start before the operation ends
+		getWorkspace().run((IWorkspaceRunnable) monitor -> {
+			file.setContents(new ByteArrayInputStream("key=value2\n".getBytes()), IResource.NONE, monitor);
+			file.setContents(new ByteArrayInputStream("key=value3\n".getBytes()), IResource.NONE, monitor);
+		}, getMonitor());
+		assertEquals("1.0", "value3", node.get("key", null));
+		Job.getJobManager().join(CharsetDeltaJob.FAMILY_CHARSET_DELTA, getMonitor());
+		assertEquals("1.1", generation + 1, getCharsetGenerationCount(other));
+	}
+
 	public void testSettingsFolderCreatedOutsideWorkspace() throws CoreException, BackingStoreException, IOException {
 		String nodeA = "nodeA";
 		String key = "key";
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,7 +15,9 @@
 package org.eclipse.core.tests.internal.resources;
 
 import java.io.*;
+import java.util.Arrays;
 import java.util.Map;
+import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.internal.resources.ResourceInfo;
 import org.eclipse.core.runtime.QualifiedName;
 import org.eclipse.core.tests.resources.ResourceTest;
@@ -123,4 +125,29 @@ public class ResourceInfoTest extends ResourceTest {
 		}
 		assertEquals("2.2", info, newInfo);
 	}
+
+	public void testSerializationWithFingerprint() throws IOException {
+		ResourceInfo info = new ResourceInfo();
+		info.setLocalSyncInfo(1234);
+		info.setLocalSyncFingerprint(5678);
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		info.writeTo(new DataOutputStream(output));
+		ResourceInfo newInfo = new ResourceInfo();
+		DataInputStream input = new DataInputStream(new ByteArrayInputStream(output.toByteArray()));
+		newInfo.readFrom(info.getFlags(), input);
+		assertEquals("1.0", 1234, newInfo.getLocalSyncInfo());
+		assertEquals("1.1", 5678, newInfo.getLocalSyncFingerprint());
+		assertEquals("1.2", 0, input.available());
+
+		// infos saved before fingerprints were added end before the fingerprint
+		ByteArrayOutputStream legacyOutput = new ByteArrayOutputStream();
+		info.writeTo(new DataOutputStream(legacyOutput), false);
+		assertEquals("2.0", Arrays.copyOf(output.toByteArray(), output.size() - Long.BYTES), legacyOutput.toByteArray());
+		newInfo = new ResourceInfo();
+		input = new DataInputStream(new ByteArrayInputStream(legacyOutput.toByteArray()));
+		newInfo.readFrom(info.getFlags(), input, false);
+		assertEquals("2.1", 1234, newInfo.getLocalSyncInfo());
+		assertEquals("2.2", EFS.NONE, newInfo.getLocalSyncFingerprint());
+		assertEquals("2.3", 0, input.available());
+	}
 }
@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.internal.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.core.internal.utils.ConcurrentCache;
+import org.junit.Test;
+
+public class ConcurrentCacheTest {
+	@Test
+	public void testBasic() {
+		ConcurrentCache<String, String> cache = new ConcurrentCache<>(2);
+		cache.addEntry("foo", "foo", 1);
+		ConcurrentCache.Entry<String, String> foo = cache.getEntry("foo", false);
+		assertNotNull("1.0", foo);
+		assertEquals("1.1", "foo", foo.getCached());
+		assertEquals("1.2", 1, foo.getTimestamp());
+		cache.addEntry("foo", "bar", 2);
+		foo = cache.getEntry("foo", false);
+		assertEquals("2.0", "bar", foo.getCached());
+		assertEquals("2.1", 2, foo.getTimestamp());
+		assertEquals("2.2", 1, cache.size());
+	}
+
+	@Test
+	public void testDiscard() {
+		ConcurrentCache<String, String> cache = new ConcurrentCache<>(2);
+		ConcurrentCache.Entry<String, String> stale = cache.addEntry("foo", "foo", 1);
+		cache.addEntry("foo", "foo", 2);
+		// a replaced entry must not remove its successor
+		cache.discard(stale);
+		assertNotNull("1.0", cache.getEntry("foo", false));
+		cache.discard(cache.getEntry("foo", false));
+		assertNull("2.0", cache.getEntry("foo", false));
+		cache.addEntry("foo", "foo", 1);
+		cache.addEntry("bar", "bar", 1);
+		cache.discardAll();
+		assertEquals("3.0", 0, cache.size());
+	}
+
+	@Test
+	public void testCacheLimit() {
+		ConcurrentCache<String, String> cache = new ConcurrentCache<>(1, 3, 0.34);
+		cache.addEntry("foo", "foo", 0);
+		cache.addEntry("bar", "bar", 0);
+		cache.addEntry("zoo", "zoo", 0);
+		cache.addEntry("fred", "fred", 0);
+		assertEquals("1.0", 4, cache.size());
+		cache.addEntry("zar", "zar", 0);
+		assertEquals("2.0", 3, cache.size());
+		assertNull("2.1", cache.getEntry("foo", false));
+		assertNull("2.2", cache.getEntry("bar", false));
+		assertNotNull("2.3", cache.getEntry("zoo", false));
+		assertNotNull("2.4", cache.getEntry("fred", false));
+		assertNotNull("2.5", cache.getEntry("zar", false));
+		// force zoo to go up in the list
+		cache.getEntry("zoo");
+		cache.addEntry("foo", "foo", 0);
+		cache.addEntry("bar", "bar", 0);
+		assertEquals("3.0", 3, cache.size());
+		assertNotNull("3.1", cache.getEntry("foo", false));
+		assertNotNull("3.2", cache.getEntry("bar", false));
+		assertNotNull("3.3", cache.getEntry("zoo", false));
+		assertNull("3.4", cache.getEntry("fred", false));
+		assertNull("3.5", cache.getEntry("zar", false));
+	}
+
+	@Test
+	public void testHitRatio() {
+		ConcurrentCache<String, String> cache = new ConcurrentCache<>(2);
+		assertEquals("1.0", 0, cache.getHitRatio(), 0);
+		cache.addEntry("foo", "foo", 0);
+		cache.getEntry("foo");
+		cache.getEntry("foo");
+		cache.getEntry("foo");
+		cache.getEntry("bar");
+		// lookups that do not update do not count
+		cache.getEntry("bar", false);
+		assertEquals("2.0", 3, cache.getHitCount());
+		assertEquals("2.1", 1, cache.getMissCount());
+		assertEquals("2.2", 0.75, cache.getHitRatio(), 0.0001);
+		cache.resetStatistics();
+		assertEquals("3.0", 0, cache.getHitRatio(), 0);
+	}
+
+	@Test
+	public void testConcurrentAccess() throws InterruptedException {
+		ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<>(10, 100, 0.1);
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			int offset = t;
+			threads.add(new Thread(() -> {
+				for (int i = 0; i < 10000; i++) {
+					Integer key = Integer.valueOf((i * 4 + offset) % 1000);
+					if (cache.getEntry(key) == null)
+						cache.addEntry(key, key, i);
+				}
+			}));
+		}
+		for (Thread thread : threads)
+			thread.start();
+		for (Thread thread : threads)
+			thread.join();
+		assertEquals("1.0", 40000, cache.getHitCount() + cache.getMissCount());
+		// trimming may lag behind concurrent additions, the next addition catches up
+		cache.addEntry(Integer.valueOf(-1), Integer.valueOf(-1), 0);
+		assertTrue("2.0", cache.size() <= 110);
+		assertNotNull("2.1", cache.getEntry(Integer.valueOf(-1), false));
+	}
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.internal.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.core.internal.utils.PathInterner;
+import org.eclipse.core.internal.watson.ElementTree;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.junit.Test;
+
+public class PathInternerTest {
+	@Test
+	public void testSegments() {
+		String first = "segment" + System.nanoTime();
+		String second = new String(first);
+		assertSame("1.0", first, PathInterner.intern(first));
+		assertSame("1.1", first, PathInterner.intern(second));
+		assertNull("1.2", PathInterner.intern((String) null));
+	}
+
+	@Test
+	public void testPaths() {
+		IPath first = new Path("/project/folder/file.txt");
+		IPath second = new Path("/project/folder/" + new String("file.txt"));
+		IPath interned = PathInterner.intern(first);
+		assertEquals("1.0", first, interned);
+		assertSame("1.1", interned, PathInterner.intern(second));
+		assertSame("1.2", interned, PathInterner.internPath("/project/folder/file.txt"));
+		assertSame("1.3", interned.segment(1), PathInterner.intern(new String("folder")));
+
+		// the trailing separator and the device are kept
+		IPath folder = new Path("c:/project/folder/");
+		interned = PathInterner.intern(folder);
+		assertEquals("2.0", folder, interned);
+		assertTrue("2.1", interned.hasTrailingSeparator());
+		assertEquals("2.2", folder.getDevice(), interned.getDevice());
+		assertNull("2.3", PathInterner.intern((IPath) null));
+	}
+
+	@Test
+	public void testTrailingSeparator() {
+		String name = "trailing" + System.nanoTime();
+		IPath withoutSeparator = PathInterner.intern(new Path("/project/" + name));
+		IPath withSeparator = PathInterner.intern(new Path("/project/" + name + "/"));
+		assertFalse("1.0", withoutSeparator.hasTrailingSeparator());
+		assertTrue("1.1", withSeparator.hasTrailingSeparator());
+		assertSame("1.2", withSeparator, PathInterner.intern(new Path("/project/" + name + "/")));
+		assertSame("1.3", withoutSeparator, PathInterner.intern(new Path("/project/" + name)));
+		assertSame("1.4", withoutSeparator.lastSegment(), withSeparator.lastSegment());
+	}
+
+	@Test
+	public void testCanonicalSegments() {
+		String name = "canonical" + System.nanoTime();
+		// a path of canonical segments is canonical itself
+		IPath path = Path.ROOT.append(PathInterner.intern("project")).append(PathInterner.intern(name));
+		assertSame("1.0", path, PathInterner.intern(path));
+
+		// other paths are created again from canonical segments
+		StringBuilder deep = new StringBuilder("/" + name);
+		for (int i = 0; i < 40; i++)
+			deep.append("/segment").append(i);
+		IPath deepPath = new Path(deep.toString());
+		IPath interned = PathInterner.intern(deepPath);
+		assertEquals("2.0", deepPath, interned);
+		for (int i = 0; i < interned.segmentCount(); i++)
+			assertSame("2.1." + i, PathInterner.intern(new String(deepPath.segment(i))), interned.segment(i));
+	}
+
+	@Test
+	public void testElementTreeNames() {
+		IPath file = new Path("/project/folder/File.java");
+		ElementTree first = new ElementTree();
+		ElementTree second = new ElementTree();
+		for (ElementTree tree : new ElementTree[] {first, second}) {
+			tree.createElement(new Path("/project"), null);
+			tree.createElement(new Path("/project/folder"), null);
+			tree.createElement(new Path("/project/folder/" + new String("File.java")), null);
+		}
+		String firstName = first.getChildren(file.removeLastSegments(1))[0].lastSegment();
+		String secondName = second.getChildren(file.removeLastSegments(1))[0].lastSegment();
+		assertEquals("1.0", "File.java", firstName);
+		assertSame("1.1", firstName, secondName);
+	}
+
+	@Test
+	public void testStatistics() {
+		long saved = PathInterner.getSavedBytes();
+		long shared = PathInterner.getSharedCount();
+		String segment = "statistics" + System.nanoTime();
+		PathInterner.intern(segment);
+		PathInterner.intern(new String(segment));
+		assertEquals("1.0", shared + 1, PathInterner.getSharedCount());
+		assertTrue("1.1", PathInterner.getSavedBytes() > saved);
+		assertTrue("1.2", PathInterner.getSegmentCount() > 0);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2004, 2017 IBM Corporation and others.
+ *  Copyright (c) 2004, 2022 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -29,6 +29,7 @@ import org.eclipse.core.runtime.jobs.*;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.osgi.service.prefs.BackingStoreException;
+import org.osgi.service.prefs.Preferences;
 
 public class CharsetTest extends ResourceTest {
 
@@ -1462,6 +1463,34 @@ public class CharsetTest extends ResourceTest {
 
 	}
 
+	/**
+	 * Tests that charsets inherited from folders are cached, and that the cache
+	 * notices changes made through the preferences API.
+	 */
+	public void testInheritedCharsetCache() throws CoreException, BackingStoreException {
+		IProject project = getWorkspace().getRoot().getProject("MyProject");
+		IFolder folder = project.getFolder("folder");
+		IFile file = folder.getFolder("subfolder").getFile("file.txt");
+		try {
+			ensureExistsInWorkspace(file, true);
+			CharsetManager charsetManager = ((Workspace) getWorkspace()).getCharsetManager();
+			folder.setDefaultCharset("FOO", getMonitor());
+			assertEquals("1.0", "FOO", file.getCharset());
+			long skipped = charsetManager.getSkippedLookups();
+			assertEquals("1.1", "FOO", file.getCharset());
+			assertTrue("1.2", charsetManager.getSkippedLookups() > skipped);
+
+			Preferences encodings = new ProjectScope(project).getNode(ResourcesPlugin.PI_RESOURCES).node(ResourcesPlugin.PREF_ENCODING);
+			encodings.put("folder", "BAR");
+			assertEquals("2.0", "BAR", file.getCharset());
+			encodings.remove("folder");
+			assertEquals("2.1", project.getDefaultCharset(), file.getCharset());
+			encodings.flush();
+		} finally {
+			clearAllEncodings(project);
+		}
+	}
+
 	/**
 	 * Moves a project and ensures the charsets are preserved.
 	 */
@@ -1213,6 +1213,44 @@ public class FilteredResourceTest extends ResourceTest {
 		assertEquals("3.5", members[0].getName(), "bar.h");
 	}
 
+	/**
+	 * Tests that many exclude filters combining plain names, regular expressions
+	 * and back references give the same result as evaluating them one by one,
+	 * including filters inherited from the project.
+	 */
+	public void testManyExcludeFilters() throws CoreException {
+		existingProject.createFilter(IResourceFilterDescription.EXCLUDE_ALL | IResourceFilterDescription.FOLDERS | IResourceFilterDescription.INHERITABLE, new FileInfoMatcherDescription(REGEX_FILTER_PROVIDER, "node_modules"), 0, getMonitor());
+		existingProject.createFilter(IResourceFilterDescription.EXCLUDE_ALL | IResourceFilterDescription.FILES | IResourceFilterDescription.INHERITABLE, new FileInfoMatcherDescription(REGEX_FILTER_PROVIDER, "\\.gitignore"), 0, getMonitor());
+		existingFolderInExistingProject.createFilter(IResourceFilterDescription.EXCLUDE_ALL | IResourceFilterDescription.FILES, new FileInfoMatcherDescription(REGEX_FILTER_PROVIDER, ".*\\.class"), 0, getMonitor());
+		existingFolderInExistingProject.createFilter(IResourceFilterDescription.EXCLUDE_ALL | IResourceFilterDescription.FILES, new FileInfoMatcherDescription(REGEX_FILTER_PROVIDER, "(?i)readme\\.TXT"), 0, getMonitor());
+		existingFolderInExistingProject.createFilter(IResourceFilterDescription.EXCLUDE_ALL | IResourceFilterDescription.FILES, new FileInfoMatcherDescription(REGEX_FILTER_PROVIDER, "(a)\\1\\.txt"), 0, getMonitor());
+
+		IFolder nodeModules = existingFolderInExistingProject.getFolder("node_modules");
+		IFile gitignore = existingFolderInExistingProject.getFile(".gitignore");
+		IFile gitignoreInProject = existingProject.getFile(".gitignore");
+		IFile classFile = existingFolderInExistingProject.getFile("Foo.class");
+		IFile readme = existingFolderInExistingProject.getFile("README.txt");
+		IFile backReference = existingFolderInExistingProject.getFile("aa.txt");
+		IFile source = existingFolderInExistingProject.getFile("Foo.java");
+		IFile classFileInProject = existingProject.getFile("Foo.class");
+		ensureExistsInFileSystem(new IResource[] {nodeModules, gitignore, gitignoreInProject, classFile, readme, backReference, source, classFileInProject});
+
+		long evaluations = FilterPlan.getEvaluationCount();
+		existingProject.refreshLocal(IResource.DEPTH_INFINITE, getMonitor());
+		assertTrue("1.0", FilterPlan.getEvaluationCount() > evaluations);
+
+		assertTrue("2.0", source.exists());
+		assertTrue("2.1", classFileInProject.exists());
+		assertTrue("2.2", !nodeModules.exists());
+		assertTrue("2.3", !gitignore.exists());
+		assertTrue("2.4", !gitignoreInProject.exists());
+		assertTrue("2.5", !classFile.exists());
+		assertTrue("2.6", !readme.exists());
+		assertTrue("2.7", !backReference.exists());
+		assertTrue("2.8", nodeModules.isFiltered());
+		assertTrue("2.9", !source.isFiltered());
+	}
+
 	/**
 	 * Tests the creation of the mixed include-only exclude-all filter.
 	 */
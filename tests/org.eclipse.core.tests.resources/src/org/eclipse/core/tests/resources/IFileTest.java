@@ -16,7 +16,8 @@
 package org.eclipse.core.tests.resources;
 
 import java.io.*;
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
+import java.util.*;
 import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.*;
 import org.eclipse.core.tests.harness.FussyProgressMonitor;
@@ -1120,6 +1121,115 @@ public class IFileTest extends ResourceTest {
 		}
 	}
 
+	public void testReadBuffer() {
+		IFile target = projects[0].getFile("file1");
+		byte[] bytes = getRandomString().getBytes();
+		try {
+			target.write(bytes, IResource.NONE, getMonitor());
+			ByteBuffer buffer = target.readBuffer();
+			assertTrue("1.0", buffer.isReadOnly());
+			assertEquals("1.1", ByteBuffer.wrap(bytes), buffer);
+		} catch (CoreException e) {
+			fail("1.2", e);
+		}
+
+		// the file is checked like by getContents()
+		ensureOutOfSync(target);
+		try {
+			target.readBuffer();
+			fail("2.0");
+		} catch (CoreException e) {
+			assertEquals("2.1", IResourceStatus.OUT_OF_SYNC_LOCAL, e.getStatus().getCode());
+		}
+		try {
+			projects[0].getFile("missing").readBuffer();
+			fail("2.2");
+		} catch (CoreException e) {
+			assertEquals("2.3", IResourceStatus.RESOURCE_NOT_FOUND, e.getStatus().getCode());
+		}
+	}
+
+	public void testWriteBytes() {
+		IFile target = projects[0].getFile("file1");
+		byte[] bytes = getRandomString().getBytes();
+		try {
+			FussyProgressMonitor monitor = new FussyProgressMonitor();
+			target.write(bytes, IResource.DERIVED, monitor);
+			monitor.assertUsedUp();
+		} catch (CoreException e) {
+			fail("1.0", e);
+		}
+		assertTrue("1.1", target.exists());
+		assertTrue("1.2", target.isDerived());
+		try {
+			assertTrue("1.3", Arrays.equals(bytes, target.readAllBytes()));
+		} catch (CoreException e) {
+			fail("1.4", e);
+		}
+
+		String testString = "\u00e4\u00f6\u00fc" + getRandomString();
+		try {
+			target.setCharset("UTF-8", getMonitor());
+			FussyProgressMonitor monitor = new FussyProgressMonitor();
+			target.write(testString.getBytes("UTF-8"), IResource.KEEP_HISTORY, monitor);
+			monitor.assertUsedUp();
+		} catch (CoreException | UnsupportedEncodingException e) {
+			fail("2.0", e);
+		}
+		try {
+			assertEquals("2.1", testString, new String(target.readAllChars()));
+			assertTrue("2.2", compareContent(target.getContents(false), new ByteArrayInputStream(testString.getBytes("UTF-8"))));
+			assertEquals("2.3", 1, target.getHistory(getMonitor()).length);
+		} catch (CoreException | UnsupportedEncodingException e) {
+			fail("2.4", e);
+		}
+	}
+
+	public void testWriteBytesSkipUnchanged() {
+		IFile target = projects[0].getFile("file1");
+		byte[] bytes = getRandomString().getBytes();
+		try {
+			target.write(bytes, IResource.NONE, getMonitor());
+		} catch (CoreException e) {
+			fail("0.0", e);
+		}
+		long stamp = target.getModificationStamp();
+
+		List<IResourceDelta> deltas = new ArrayList<>();
+		IResourceChangeListener listener = event -> {
+			IResourceDelta delta = event.getDelta() == null ? null : event.getDelta().findMember(target.getFullPath());
+			if (delta != null)
+				deltas.add(delta);
+		};
+		getWorkspace().addResourceChangeListener(listener, IResourceChangeEvent.POST_CHANGE);
+		try {
+			// identical contents are skipped
+			FussyProgressMonitor monitor = new FussyProgressMonitor();
+			target.write(bytes.clone(), IResource.SKIP_UNCHANGED, monitor);
+			monitor.assertUsedUp();
+			assertEquals("1.0", stamp, target.getModificationStamp());
+			assertTrue("1.1", deltas.isEmpty());
+
+			// identical contents are written without the flag
+			target.write(bytes.clone(), IResource.NONE, getMonitor());
+			assertTrue("2.0", stamp != target.getModificationStamp());
+			assertEquals("2.1", 1, deltas.size());
+			assertEquals("2.2", IResourceDelta.CONTENT, deltas.get(0).getFlags() & IResourceDelta.CONTENT);
+
+			// different contents are written with the flag
+			stamp = target.getModificationStamp();
+			byte[] changed = getRandomString().getBytes();
+			target.write(changed, IResource.SKIP_UNCHANGED, getMonitor());
+			assertTrue("3.0", stamp != target.getModificationStamp());
+			assertEquals("3.1", 2, deltas.size());
+			assertTrue("3.2", Arrays.equals(changed, target.readAllBytes()));
+		} catch (CoreException e) {
+			fail("4.0", e);
+		} finally {
+			getWorkspace().removeResourceChangeListener(listener);
+		}
+	}
+
 	public void testSetGetFolderPersistentProperty() throws Throwable {
 		IResource target = getWorkspace().getRoot().getFile(new Path("/Project/File.txt"));
 		String value = "this is a test property value";
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,6 +13,9 @@
  *******************************************************************************/
 package org.eclipse.core.tests.resources;
 
+import java.io.*;
+import java.util.*;
+import java.util.function.Supplier;
 import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.*;
 
@@ -165,6 +168,136 @@ public class IFolderTest extends ResourceTest {
 		assertTrue("2.1", !teamPrivate.isDerived());
 	}
 
+	public void testCreateTree() throws Exception {
+		IProject project = getWorkspace().getRoot().getProject("Project");
+		ensureExistsInWorkspace(project, true);
+		IFolder target = project.getFolder("Tree");
+		Map<IPath, Supplier<InputStream>> files = new HashMap<>();
+		for (int i = 0; i < 20; i++) {
+			String contents = "contents" + i;
+			files.put(new Path("a" + i % 3 + "/b" + i % 2 + "/file" + i + ".txt"), () -> new ByteArrayInputStream(contents.getBytes()));
+		}
+		files.put(new Path("empty.txt"), () -> null);
+
+		// all resources are added by a single delta
+		List<IResourceDelta> deltas = new ArrayList<>();
+		IResourceChangeListener listener = event -> {
+			IResourceDelta delta = event.getDelta().findMember(target.getFullPath());
+			if (delta != null)
+				deltas.add(delta);
+		};
+		getWorkspace().addResourceChangeListener(listener, IResourceChangeEvent.POST_CHANGE);
+		try {
+			target.create(files, IResource.DERIVED, getMonitor());
+		} finally {
+			getWorkspace().removeResourceChangeListener(listener);
+		}
+		assertEquals("1.0", 1, deltas.size());
+		assertEquals("1.0.1", IResourceDelta.ADDED, deltas.get(0).getKind());
+		assertTrue("1.1", target.exists());
+		assertTrue("1.2", target.isDerived());
+		assertTrue("1.3", target.isSynchronized(IResource.DEPTH_INFINITE));
+		for (int i = 0; i < 20; i++) {
+			IFile file = target.getFile(new Path("a" + i % 3 + "/b" + i % 2 + "/file" + i + ".txt"));
+			assertTrue("2.0." + i, file.exists());
+			assertTrue("2.1." + i, file.isDerived());
+			assertTrue("2.2." + i, file.getParent().isDerived());
+			try (InputStream in = file.getContents()) {
+				assertEquals("2.3." + i, "contents" + i, new String(in.readAllBytes()));
+			}
+		}
+		assertTrue("3.0", target.getFile("empty.txt").exists());
+		assertEquals("3.1", 0, target.getFile("empty.txt").getLocation().toFile().length());
+		assertEquals("3.2", 4, target.members().length);
+
+		// the same tree can not be created twice
+		try {
+			target.create(files, IResource.NONE, getMonitor());
+			fail("4.0");
+		} catch (CoreException e) {
+			// expected
+		}
+	}
+
+	public void testCreateTreeInvalid() {
+		IProject project = getWorkspace().getRoot().getProject("Project");
+		ensureExistsInWorkspace(project, true);
+		IFolder target = project.getFolder("Tree");
+		Supplier<InputStream> contents = () -> getRandomContents();
+
+		// absolute paths are not allowed
+		try {
+			target.create(Map.of(new Path("/file.txt"), contents), IResource.NONE, getMonitor());
+			fail("1.0");
+		} catch (CoreException e) {
+			assertTrue("1.1", !target.exists());
+		}
+
+		// a file can not contain another file
+		try {
+			target.create(Map.of(new Path("a"), contents, new Path("a/b"), contents), IResource.NONE, getMonitor());
+			fail("2.0");
+		} catch (CoreException e) {
+			assertTrue("2.1", !target.exists());
+			assertDoesNotExistInFileSystem("2.2", target);
+		}
+
+		// a supplier that fails leaves nothing behind
+		Supplier<InputStream> failing = () -> new InputStream() {
+			@Override
+			public int read() throws IOException {
+				throw new IOException("failing");
+			}
+		};
+		try {
+			target.create(Map.of(new Path("a/b"), contents, new Path("c"), failing), IResource.NONE, getMonitor());
+			fail("3.0");
+		} catch (CoreException e) {
+			assertTrue("3.1", !target.exists());
+			assertDoesNotExistInFileSystem("3.2", target);
+		}
+
+		// a failure under FORCE only removes what was created
+		java.io.File existing = target.getLocation().append("existing/old.txt").toFile();
+		existing.getParentFile().mkdirs();
+		try (OutputStream out = new FileOutputStream(existing)) {
+			out.write("old contents".getBytes());
+		} catch (IOException e) {
+			fail("4.1", e);
+		}
+		try {
+			target.create(Map.of(new Path("existing/old.txt"), contents, new Path("new/b"), failing), IResource.FORCE, getMonitor());
+			fail("4.2");
+		} catch (CoreException e) {
+			assertTrue("4.3", !target.exists());
+			assertTrue("4.4", existing.exists());
+			assertTrue("4.5", !target.getLocation().append("new").toFile().exists());
+		}
+		// existing files keep their contents, and no temporary files are left
+		try (InputStream in = new FileInputStream(existing)) {
+			assertEquals("4.6", "old contents", new String(in.readAllBytes()));
+		} catch (IOException e) {
+			fail("4.7", e);
+		}
+		assertEquals("4.8", Arrays.asList("old.txt"), Arrays.asList(existing.getParentFile().list()));
+
+		// a case variant of an existing folder is not written through
+		java.io.File variant = target.getLocation().append("Variant").toFile();
+		variant.mkdirs();
+		if (new java.io.File(variant.getParentFile(), "variant").exists()) {
+			try {
+				target.create(Map.of(new Path("variant/file.txt"), contents), IResource.FORCE, getMonitor());
+				fail("5.0");
+			} catch (CoreException e) {
+				assertEquals("5.1", IResourceStatus.CASE_VARIANT_EXISTS, e.getStatus().getCode());
+				assertTrue("5.2", !target.exists());
+				assertEquals("5.3", 0, variant.list().length);
+			}
+		} else {
+			System.out.println("Skipping IFolderTest.testCreateTreeInvalid case variants on a case sensitive file system");
+		}
+	}
+
 	public void testFolderCreation() throws Exception {
 		// basic folder creation
 		IProject project = getWorkspace().getRoot().getProject("Project");
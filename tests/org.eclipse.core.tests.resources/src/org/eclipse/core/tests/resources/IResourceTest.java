@@ -17,6 +17,7 @@ package org.eclipse.core.tests.resources;
 import java.io.File;
 import java.util.*;
 import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.internal.resources.ResourceRuleSet;
 import org.eclipse.core.internal.resources.Workspace;
 import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.*;
@@ -1882,6 +1883,55 @@ public class IResourceTest extends ResourceTest {
 		project.delete(true, getMonitor());
 	}
 
+	public void testIsConflictingResourceRuleSet() throws CoreException {
+		IProject project = getWorkspace().getRoot().getProject("Project");
+		IProject other = getWorkspace().getRoot().getProject("Other");
+		IFolder a = project.getFolder("a");
+		IFolder b = project.getFolder("b");
+		IFolder c = project.getFolder("c");
+		IFile a1 = a.getFile("1");
+		IFile b1 = b.getFile("1");
+
+		ensureExistsInWorkspace(new IResource[] {project, other, a, b, c, a1, b1}, true);
+
+		// a1 is contained by a, so it is dropped
+		ISchedulingRule set = ResourceRuleSet.combine(new ISchedulingRule[] {a1, a, b1});
+		assertTrue("1.0", set instanceof ResourceRuleSet);
+		assertEquals("1.1", 2, ((MultiRule) set).getChildren().length);
+		assertEquals("1.2", a, ResourceRuleSet.combine(new ISchedulingRule[] {a, null, a1}));
+		assertNull("1.3", ResourceRuleSet.combine(new ISchedulingRule[] {null}));
+
+		assertTrue("2.0", set.isConflicting(a1));
+		assertTrue("2.1", set.isConflicting(b));
+		assertTrue("2.2", set.isConflicting(project));
+		assertTrue("2.3", set.isConflicting(getWorkspace().getRoot()));
+		assertFalse("2.4", set.isConflicting(c));
+		assertFalse("2.5", set.isConflicting(b.getFile("2")));
+		assertFalse("2.6", set.isConflicting(other));
+		assertTrue("2.7", set.isConflicting(MultiRule.combine(c, b)));
+		assertFalse("2.8", set.isConflicting(ResourceRuleSet.combine(new ISchedulingRule[] {c, other})));
+		assertTrue("2.9", set.isConflicting(ResourceRuleSet.combine(new ISchedulingRule[] {c, a1})));
+
+		// the other direction must agree
+		assertTrue("3.0", a1.isConflicting(set));
+		assertTrue("3.1", project.isConflicting(set));
+		assertFalse("3.2", c.isConflicting(set));
+		assertTrue("3.3", MultiRule.combine(c, b).isConflicting(set));
+
+		assertTrue("4.0", set.contains(a1));
+		assertTrue("4.1", set.contains(b1));
+		assertFalse("4.2", set.contains(b));
+		assertTrue("4.3", set.contains(MultiRule.combine(a1, b1)));
+		assertTrue("4.4", project.contains(set));
+		assertFalse("4.5", a.contains(set));
+		assertFalse("4.6", other.contains(set));
+		assertTrue("4.7", getWorkspace().getRoot().contains(set));
+		assertTrue("4.8", MultiRule.combine(a, b).contains(set));
+
+		project.delete(true, getMonitor());
+		other.delete(true, getMonitor());
+	}
+
 	/**
 	 * This method tests the IResource.isSynchronized() operation */
 	public void testIsSynchronized() {
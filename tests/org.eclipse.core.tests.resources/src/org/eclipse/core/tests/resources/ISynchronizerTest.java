@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2000, 2017 IBM Corporation and others.
+ *  Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -83,6 +83,74 @@ public class ISynchronizerTest extends ResourceTest {
 		super.tearDown();
 	}
 
+	public void testAccept() throws CoreException {
+		QualifiedName partner = new QualifiedName("org.eclipse.core.tests.resources", "myTarget");
+		ISynchronizer synchronizer = getWorkspace().getSynchronizer();
+		IProject project = getWorkspace().getRoot().getProject("Project");
+		IFolder folder = project.getFolder("folder");
+		IFile file = folder.getFile("file.txt");
+		IFile otherFile = project.getFile("other.txt");
+		IFile deleted = folder.getFile("deleted.txt");
+		IFile hidden = folder.getFile("hidden.txt");
+		ensureExistsInWorkspace(new IResource[] {file, otherFile, deleted, hidden}, true);
+		hidden.setHidden(true);
+
+		synchronizer.add(partner);
+		try {
+			for (IResource resource : new IResource[] {folder, file, deleted, hidden})
+				synchronizer.setSyncInfo(partner, resource, new byte[] {1});
+			deleted.delete(true, getMonitor());
+			assertTrue("1.0", deleted.isPhantom());
+
+			List<IResource> visited = new ArrayList<>();
+			synchronizer.accept(partner, getWorkspace().getRoot(), resource -> visited.add(resource), IResource.DEPTH_INFINITE);
+			// phantoms and hidden resources are skipped, like by members()
+			assertEquals("2.0", Arrays.asList(folder, file), visited);
+
+			visited.clear();
+			synchronizer.accept(partner, project, resource -> visited.add(resource), IResource.DEPTH_ONE);
+			assertEquals("3.0", Arrays.asList(folder), visited);
+
+			// the resource itself is always visited
+			visited.clear();
+			synchronizer.accept(partner, hidden, resource -> visited.add(resource), IResource.DEPTH_ZERO);
+			assertEquals("4.0", Arrays.asList(hidden), visited);
+
+			// the children are skipped if the visitor says so
+			visited.clear();
+			synchronizer.accept(partner, project, resource -> {
+				visited.add(resource);
+				return false;
+			}, IResource.DEPTH_INFINITE);
+			assertEquals("5.0", Arrays.asList(folder), visited);
+
+			// resources that the visitor removes are not visited
+			synchronizer.setSyncInfo(partner, otherFile, new byte[] {1});
+			visited.clear();
+			synchronizer.accept(partner, project, resource -> {
+				visited.add(resource);
+				if (resource.equals(folder)) {
+					file.delete(true, getMonitor());
+					otherFile.delete(true, getMonitor());
+				}
+				return true;
+			}, IResource.DEPTH_INFINITE);
+			assertEquals("5.1", Arrays.asList(folder), visited);
+			assertTrue("5.2", file.isPhantom());
+
+			project.close(getMonitor());
+			try {
+				synchronizer.accept(partner, project, resource -> true, IResource.DEPTH_INFINITE);
+				fail("6.0");
+			} catch (CoreException e) {
+				// expected
+			}
+		} finally {
+			synchronizer.remove(partner);
+			ensureDoesNotExistInWorkspace(project);
+		}
+	}
+
 	public void testDeleteResources() {
 		final QualifiedName qname = new QualifiedName("org.eclipse.core.tests.resources", "myTarget");
 		final ISynchronizer synchronizer = ResourcesPlugin.getWorkspace().getSynchronizer();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,9 +17,12 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
 import org.eclipse.core.filesystem.URIUtil;
+import org.eclipse.core.internal.events.LifecycleEvent;
+import org.eclipse.core.internal.resources.Workspace;
 import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.*;
 import org.eclipse.core.tests.internal.filesystem.wrapper.WrapperFileSystem;
@@ -249,6 +252,76 @@ public class IWorkspaceRootTest extends ResourceTest {
 		assertResources("2.1", child, result);
 	}
 
+	/**
+	 * Tests that findFilesForLocation follows projects that are created,
+	 * moved and deleted, also within an operation.
+	 */
+	public void testFindFilesForLocationAfterProjectChanges() throws CoreException {
+		IWorkspaceRoot root = getWorkspace().getRoot();
+		IProject project = root.getProject("p1");
+		IFile file = project.getFile("file1");
+		ensureExistsInWorkspace(file, true);
+		IPath oldLocation = file.getLocation();
+		assertResources("1.0", file, root.findFilesForLocation(oldLocation));
+
+		IPath projectLocation = getRandomLocation();
+		deleteOnTearDown(projectLocation);
+		IProjectDescription description = project.getDescription();
+		description.setLocation(projectLocation);
+		project.move(description, IResource.NONE, getMonitor());
+		assertEquals("2.0", 0, root.findFilesForLocation(oldLocation).length);
+		assertResources("2.1", file, root.findFilesForLocation(projectLocation.append(file.getName())));
+
+		IProject other = root.getProject("p2");
+		IPath otherLocation = getRandomLocation();
+		deleteOnTearDown(otherLocation);
+		getWorkspace().run((IWorkspaceRunnable) monitor -> {
+			IProjectDescription otherDescription = getWorkspace().newProjectDescription(other.getName());
+			otherDescription.setLocation(otherLocation);
+			other.create(otherDescription, monitor);
+			other.open(monitor);
+			assertResources("3.0", other.getFile("file2"), root.findFilesForLocation(otherLocation.append("file2")));
+			other.delete(true, monitor);
+			assertEquals("3.1", 0, root.findFilesForLocation(otherLocation.append("file2")).length);
+		}, getMonitor());
+
+		project.delete(true, getMonitor());
+		assertEquals("4.0", 0, root.findFilesForLocation(projectLocation.append(file.getName())).length);
+	}
+
+	/**
+	 * Tests that findFilesForLocationURI finds a file below the first link of a
+	 * project in another file system, also within the operation, when locations
+	 * were looked up while the link was being created.
+	 */
+	public void testFindFilesForLocationAfterFirstLink() throws CoreException {
+		IWorkspaceRoot root = getWorkspace().getRoot();
+		IProject project = root.getProject("p1");
+		ensureExistsInWorkspace(project, true);
+		replaceProject(project, WrapperFileSystem.getWrappedURI(project.getLocationURI()));
+		IFileStore linkStore = getTempStore();
+		linkStore.mkdir(EFS.NONE, getMonitor());
+		URI childLocation = linkStore.getChild("child.txt").toURI();
+		assertEquals("1.0", 0, root.findFilesForLocationURI(childLocation).length);
+
+		// look up locations after the lifecycle event of the link, before the link exists
+		AtomicBoolean lookUp = new AtomicBoolean(true);
+		((Workspace) getWorkspace()).addLifecycleListener(event -> {
+			if (lookUp.get() && event.kind == LifecycleEvent.PRE_LINK_CREATE)
+				root.findFilesForLocationURI(childLocation);
+		});
+		IFolder link = project.getFolder("link");
+		try {
+			getWorkspace().run((IWorkspaceRunnable) monitor -> {
+				link.createLink(linkStore.toURI(), IResource.NONE, monitor);
+				assertResources("2.0", link.getFile("child.txt"), root.findFilesForLocationURI(childLocation));
+			}, getMonitor());
+		} finally {
+			lookUp.set(false);
+		}
+		assertResources("3.0", link.getFile("child.txt"), root.findFilesForLocationURI(childLocation));
+	}
+
 	/**
 	 * Asserts that the given result array contains only the given resource.
 	 * @param string
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -536,4 +536,37 @@ public class ProjectOrderTest extends ResourceTest {
 		}
 	}
 
+	/**
+	 * The order is cached between calls, so checks that it follows changes
+	 * of the references and of the accessible projects.
+	 */
+	public void testOrderFollowsChanges() throws CoreException {
+		IWorkspace ws = getWorkspace();
+		IWorkspaceRoot root = ws.getRoot();
+		IProject p1 = root.getProject("p1");
+		IProject p2 = root.getProject("p2");
+		IProject p3 = root.getProject("p3");
+		ensureExistsInWorkspace(new IResource[] {p1, p2, p3}, true);
+		IProject[] projects = new IProject[] {p1, p2, p3};
+
+		assertEquals("1.0", Arrays.asList(p1, p2, p3), Arrays.asList(ws.computeProjectOrder(projects).projects));
+		// repeated calls return the same order
+		assertEquals("1.1", Arrays.asList(p1, p2, p3), Arrays.asList(ws.computeProjectOrder(projects).projects));
+
+		IProjectDescription description = p1.getDescription();
+		description.setDynamicReferences(new IProject[] {p3});
+		p1.setDescription(description, getMonitor());
+		List<IProject> order = Arrays.asList(ws.computeProjectOrder(projects).projects);
+		assertEquals("2.0", 3, order.size());
+		assertTrue("2.1", order.indexOf(p3) < order.indexOf(p1));
+
+		p2.close(getMonitor());
+		assertEquals("3.0", Arrays.asList(p3, p1), Arrays.asList(ws.computeProjectOrder(projects).projects));
+
+		p3.delete(true, getMonitor());
+		assertEquals("4.0", Arrays.asList(p1), Arrays.asList(ws.computeProjectOrder(projects).projects));
+
+		p2.open(getMonitor());
+		assertEquals("5.0", Arrays.asList(p1, p2), Arrays.asList(ws.computeProjectOrder(projects).projects));
+	}
 }
@@ -13,6 +13,9 @@
  *******************************************************************************/
 package org.eclipse.core.tests.resources.perf;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
 import org.eclipse.core.runtime.CoreException;
@@ -43,6 +46,48 @@ public class BenchCopyFile extends OldCorePerformanceTest {
 
 	}
 
+	/**
+	 * Compares the throughput of copying a large local file with
+	 * {@link IFileStore#copy} against copying it through streams.
+	 */
+	public void testCopyLargeFile() throws Exception {
+		final int size = 64 * 1024 * 1024;
+		final int repeat = 4;
+		IFileStore input = getTempStore();
+		byte[] chunk = new byte[1024 * 1024];
+		new Random().nextBytes(chunk);
+		try (OutputStream out = input.openOutputStream(EFS.NONE, null)) {
+			for (int i = 0; i < size / chunk.length; i++) {
+				out.write(chunk);
+			}
+		}
+
+		startBench();
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < repeat; i++) {
+			input.copy(getTempStore(), EFS.NONE, null);
+		}
+		stopBench("copyLargeFile (" + throughput((long) size * repeat, start) + ")", repeat);
+
+		startBench();
+		start = System.currentTimeMillis();
+		for (int i = 0; i < repeat; i++) {
+			try (InputStream in = input.openInputStream(EFS.NONE, null); OutputStream out = getTempStore().openOutputStream(EFS.NONE, null)) {
+				byte[] buffer = new byte[8192];
+				int read;
+				while ((read = in.read(buffer)) != -1) {
+					out.write(buffer, 0, read);
+				}
+			}
+		}
+		stopBench("copyLargeFileStreams (" + throughput((long) size * repeat, start) + ")", repeat);
+	}
+
+	private String throughput(long bytes, long start) {
+		long duration = Math.max(1, System.currentTimeMillis() - start);
+		return (bytes / 1024 / 1024 * 1000 / duration) + "MB/s";
+	}
+
 	/**
 	 * Override to get a bigger string
 	 */
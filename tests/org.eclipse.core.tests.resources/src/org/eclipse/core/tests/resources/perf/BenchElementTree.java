@@ -15,6 +15,8 @@
 package org.eclipse.core.tests.resources.perf;
 
 import java.util.ArrayList;
+import org.eclipse.core.internal.utils.PathInterner;
+import org.eclipse.core.internal.utils.StringPool;
 import org.eclipse.core.internal.watson.ElementTree;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
@@ -141,6 +143,67 @@ public class BenchElementTree extends OldCorePerformanceTest {
 		stopBench("benchRoutineOperations", opCount);
 	}
 
+	/**
+	 * Compares the heap held by many element trees without and with their
+	 * element names shared by the always-on <code>PathInterner</code>, and
+	 * with what the periodic <code>StringPoolJob</code> would still find to
+	 * share afterwards.
+	 */
+	public void benchPathInterner() {
+		final int repeat = 200;
+		long withoutInterner;
+		PathInterner.setEnabled(false);
+		try {
+			long usedBefore = usedHeap();
+			ElementTree[] trees = createNameTrees(repeat);
+			withoutInterner = usedHeap() - usedBefore;
+			// keep the trees reachable until the heap was measured
+			trees[0].getDataTree();
+		} finally {
+			PathInterner.setEnabled(true);
+		}
+
+		long savedBefore = PathInterner.getSavedBytes();
+		long usedBefore = usedHeap();
+		ElementTree[] trees = createNameTrees(repeat);
+		long withInterner = usedHeap() - usedBefore;
+
+		StringPool pool = new StringPool();
+		for (ElementTree tree : trees)
+			tree.shareStrings(pool);
+
+		perfLog("benchPathInterner: " + repeat + " trees hold " + withoutInterner / 1024 + "KB without the interner"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		perfLog("benchPathInterner: " + repeat + " trees hold " + withInterner / 1024 + "KB with the interner"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		perfLog("benchPathInterner: interner saved an estimated " + (PathInterner.getSavedBytes() - savedBefore) / 1024 + "KB"); //$NON-NLS-1$ //$NON-NLS-2$
+		perfLog("benchPathInterner: string pool found " + pool.getSavedStringCount() + " more strings to share"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Returns trees of the java.lang units. Their element names are copied, as
+	 * if read from disk, so every tree gets its own copies.
+	 */
+	private static ElementTree[] createNameTrees(int count) {
+		ElementTree[] trees = new ElementTree[count];
+		for (int i = 0; i < count; i++) {
+			ElementTree tree = new ElementTree();
+			Object data = new Object();
+			tree.createElement(solution, data);
+			tree.createElement(project, data);
+			tree.createElement(folder, data);
+			for (String javaLangUnit : javaLangUnits)
+				tree.createElement(folder.append(new String(javaLangUnit)), data);
+			trees[i] = tree;
+		}
+		return trees;
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++)
+			System.gc();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
 	/**
 	 * Tests the performance of the setElementData operation.
 	 */
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2005, 2015 IBM Corporation and others.
+ *  Copyright (c) 2005, 2022 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -13,9 +13,12 @@
  *******************************************************************************/
 package org.eclipse.core.tests.resources.perf;
 
-import java.io.IOException;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
+import org.eclipse.core.internal.filesystem.local.LocalFileNativesManager;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.tests.harness.PerformanceTestRunner;
 import org.eclipse.core.tests.resources.ResourceTest;
@@ -37,6 +40,11 @@ public class BenchFileStore extends ResourceTest {
 		}
 	}
 
+	private static final int CHILD_COUNT = 100000;
+
+	private static final int LARGE_FILE_SIZE = 64 * 1024 * 1024;
+	private static final int READ_CHUNK_SIZE = 8192;
+
 	private static final int LOOP_SIZE = 5000;
 
 	private static final int REPEATS = 30;
@@ -80,6 +88,147 @@ public class BenchFileStore extends ResourceTest {
 		storeTestRunner.run(this, REPEATS, LOOP_SIZE);
 	}
 
+	/**
+	 * Lists a directory with 100 000 files, fetching the information of all children.
+	 */
+	public void testChildInfos() throws CoreException {
+		IFileStore dir = createLargeDirectory();
+		try {
+			if (LocalFileNativesManager.fetchChildInfos(dir.toLocalFile(EFS.NONE, null).getAbsolutePath()) == null) {
+				// without the natives this would measure the same as testChildInfosOneByOne
+				System.out.println("Skipping testChildInfos because the natives cannot fetch all children at once");
+				return;
+			}
+			new PerformanceTestRunner() {
+				@Override
+				protected void test() {
+					try {
+						assertEquals(CHILD_COUNT, dir.childInfos(EFS.NONE, null).length);
+					} catch (CoreException e) {
+						fail("1.0", e);
+					}
+				}
+			}.run(this, 10, 1);
+		} finally {
+			dir.delete(EFS.NONE, null);
+		}
+	}
+
+	/**
+	 * Fetches the information of each child of a directory with 100 000 files,
+	 * which is how directories were listed before the natives could stat a whole
+	 * directory at once. Compare with {@link #testChildInfos()}.
+	 */
+	public void testChildInfosOneByOne() throws CoreException {
+		IFileStore dir = createLargeDirectory();
+		try {
+			new PerformanceTestRunner() {
+				@Override
+				protected void test() {
+					try {
+						IFileStore[] children = dir.childStores(EFS.NONE, null);
+						for (IFileStore child : children)
+							child.fetchInfo();
+						assertEquals(CHILD_COUNT, children.length);
+					} catch (CoreException e) {
+						fail("1.0", e);
+					}
+				}
+			}.run(this, 10, 1);
+		} finally {
+			dir.delete(EFS.NONE, null);
+		}
+	}
+
+	private IFileStore createLargeDirectory() throws CoreException {
+		IFileStore dir = EFS.getFileSystem(EFS.SCHEME_FILE).getStore(getRandomLocation());
+		dir.mkdir(EFS.NONE, null);
+		java.io.File file = dir.toLocalFile(EFS.NONE, null);
+		try {
+			for (int i = 0; i < CHILD_COUNT; i++)
+				new java.io.File(file, "file" + i).createNewFile();
+		} catch (IOException e) {
+			fail("BenchFileStore.createLargeDirectory", e);
+		}
+		return dir;
+	}
+
+	/**
+	 * Reads a 64 MB file through a memory-mapped buffer. Compare with
+	 * {@link #testReadLargeFileStream()}.
+	 */
+	public void testReadLargeFileBuffer() throws CoreException {
+		IFileStore file = createLargeFile();
+		try {
+			new PerformanceTestRunner() {
+				@Override
+				protected void test() {
+					try {
+						ByteBuffer buffer = file.readBuffer(EFS.NONE, null);
+						byte[] chunk = new byte[READ_CHUNK_SIZE];
+						long sum = 0;
+						while (buffer.hasRemaining()) {
+							int read = Math.min(chunk.length, buffer.remaining());
+							buffer.get(chunk, 0, read);
+							sum += sum(chunk, read);
+						}
+						assertEquals(LARGE_FILE_SIZE, sum);
+					} catch (CoreException e) {
+						fail("1.0", e);
+					}
+				}
+			}.run(this, 10, 1);
+		} finally {
+			file.delete(EFS.NONE, null);
+		}
+	}
+
+	/**
+	 * Reads a 64 MB file through an input stream into a reused array, which is
+	 * how file contents were read before stores could return a buffer.
+	 */
+	public void testReadLargeFileStream() throws CoreException {
+		IFileStore file = createLargeFile();
+		try {
+			new PerformanceTestRunner() {
+				@Override
+				protected void test() {
+					try (InputStream in = file.openInputStream(EFS.NONE, null)) {
+						byte[] chunk = new byte[READ_CHUNK_SIZE];
+						long sum = 0;
+						for (int read; (read = in.read(chunk)) != -1;)
+							sum += sum(chunk, read);
+						assertEquals(LARGE_FILE_SIZE, sum);
+					} catch (CoreException | IOException e) {
+						fail("1.0", e);
+					}
+				}
+			}.run(this, 10, 1);
+		} finally {
+			file.delete(EFS.NONE, null);
+		}
+	}
+
+	private IFileStore createLargeFile() throws CoreException {
+		IFileStore file = EFS.getFileSystem(EFS.SCHEME_FILE).getStore(getRandomLocation());
+		byte[] chunk = new byte[1024 * 1024];
+		Arrays.fill(chunk, (byte) 1);
+		try (OutputStream out = file.openOutputStream(EFS.NONE, null)) {
+			for (int i = 0; i < LARGE_FILE_SIZE / chunk.length; i++)
+				out.write(chunk);
+		} catch (IOException e) {
+			fail("BenchFileStore.createLargeFile", e);
+		}
+		return file;
+	}
+
+	private static long sum(byte[] chunk, int length) {
+		long sum = 0;
+		for (int i = 0; i < length; i++)
+			sum += chunk[i];
+		return sum;
+	}
+
 	public void testStoreLastModified() {
 		StoreTestRunner runner = new StoreTestRunner() {
 			@Override
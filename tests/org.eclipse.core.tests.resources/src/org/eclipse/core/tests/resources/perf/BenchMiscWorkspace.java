@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2000, 2017 IBM Corporation and others.
+ *  Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -13,6 +13,9 @@
  *******************************************************************************/
 package org.eclipse.core.tests.resources.perf;
 
+import java.net.URI;
+import org.eclipse.core.filesystem.IFileStore;
+import org.eclipse.core.internal.propertytester.ResourcePropertyTester;
 import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.tests.harness.PerformanceTestRunner;
@@ -42,6 +45,105 @@ public class BenchMiscWorkspace extends ResourceTest {
 		}.run(this, 10, 100000);
 	}
 
+	/**
+	 * Benchmarks finding the files for a location in a workspace with many projects.
+	 */
+	public void testFindFilesForLocation() throws CoreException {
+		final int projectCount = 700;
+		IWorkspaceRoot root = getWorkspace().getRoot();
+		getWorkspace().run((IWorkspaceRunnable) monitor -> {
+			for (int i = 0; i < projectCount; i++) {
+				IProject project = root.getProject("Project" + i);
+				project.create(monitor);
+				project.open(monitor);
+			}
+		}, getMonitor());
+		final URI location = root.getProject("Project" + projectCount / 2).getFile("src/Test.java").getLocationURI();
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				for (int i = 0; i < 1000; i++) {
+					assertEquals(1, root.findFilesForLocationURI(location).length);
+				}
+			}
+		}.run(this, 10, 10);
+	}
+
+	/**
+	 * Benchmarks updating the aliases after link changes in a project with many links.
+	 */
+	public void testUpdateAliasesWithManyLinks() throws CoreException {
+		final int linkCount = 2000;
+		IWorkspaceRoot root = getWorkspace().getRoot();
+		final IProject project = root.getProject("Project");
+		final IFile file = project.getFile("file.txt");
+		final IFileStore store = getTempStore();
+		getWorkspace().run((IWorkspaceRunnable) monitor -> {
+			project.create(monitor);
+			project.open(monitor);
+			file.create(getRandomContents(), true, monitor);
+			for (int i = 0; i < linkCount; i++)
+				project.getFolder("link" + i).createLink(store.getChild("folder" + i).toURI(), IResource.ALLOW_MISSING_LOCAL, monitor);
+			// make the project aliased
+			project.getFolder("alias").createLink(store.getChild("folder0").toURI(), IResource.ALLOW_MISSING_LOCAL, monitor);
+		}, getMonitor());
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				try {
+					for (int i = 0; i < 100; i++) {
+						IFolder link = project.getFolder("newLink");
+						link.createLink(store.getChild("folder" + i).toURI(), IResource.ALLOW_MISSING_LOCAL, getMonitor());
+						// modifying a file updates the aliases
+						file.setContents(getRandomContents(), IResource.NONE, getMonitor());
+						link.delete(IResource.NONE, getMonitor());
+					}
+				} catch (CoreException e) {
+					fail("1.0", e);
+				}
+			}
+		}.run(this, 10, 1);
+	}
+
+	/**
+	 * Benchmarks nature queries like the ones of property testers and builders
+	 * in a workspace with many projects.
+	 */
+	public void testNatureQueries() throws CoreException {
+		final int projectCount = 200;
+		IWorkspaceRoot root = getWorkspace().getRoot();
+		final IProject[] projects = new IProject[projectCount];
+		getWorkspace().run((IWorkspaceRunnable) monitor -> {
+			for (int i = 0; i < projectCount; i++) {
+				projects[i] = root.getProject("Project" + i);
+				projects[i].create(monitor);
+				projects[i].open(monitor);
+				if (i % 2 == 0) {
+					IProjectDescription description = projects[i].getDescription();
+					description.setNatureIds(new String[] {NATURE_SIMPLE});
+					projects[i].setDescription(description, monitor);
+				}
+			}
+		}, getMonitor());
+		final ResourcePropertyTester tester = new ResourcePropertyTester();
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				try {
+					for (int i = 0; i < 100; i++) {
+						for (IProject project : projects) {
+							tester.test(project.getFile("file.txt"), "projectNature", null, NATURE_SIMPLE);
+							project.hasNature(NATURE_SIMPLE);
+							project.isNatureEnabled(NATURE_SIMPLE);
+						}
+					}
+				} catch (CoreException e) {
+					fail("1.0", e);
+				}
+			}
+		}.run(this, 10, 10);
+	}
+
 	public void testGetProject() {
 		new PerformanceTestRunner() {
 			@Override
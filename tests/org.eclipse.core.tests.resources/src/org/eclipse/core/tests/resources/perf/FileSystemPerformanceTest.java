@@ -70,6 +70,63 @@ public class FileSystemPerformanceTest extends LocalStoreTest {
 		}
 	}
 
+	public void testCopyTree() throws CoreException {
+		copyTree(EFS.NONE);
+	}
+
+	public void testCopyTreeParallel() throws CoreException {
+		copyTree(EFS.PARALLEL);
+	}
+
+	private void copyTree(int options) throws CoreException {
+		createStructure();
+		IFileStore destination = baseStore.getParent().getChild(createString(8));
+		PerformanceTestRunner runner = new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				try {
+					baseStore.copy(destination, options, null);
+				} catch (CoreException e) {
+					fail("Failed to copy tree during performance test", e);
+				}
+			}
+
+			@Override
+			protected void tearDown() throws CoreException {
+				destination.delete(EFS.NONE, null);
+			}
+		};
+		runner.run(this, OUTER, INNER);
+		baseStore.delete(EFS.NONE, null);
+	}
+
+	public void testDeleteTree() {
+		deleteTree(EFS.NONE);
+	}
+
+	public void testDeleteTreeParallel() {
+		deleteTree(EFS.PARALLEL);
+	}
+
+	private void deleteTree(int options) {
+		PerformanceTestRunner runner = new PerformanceTestRunner() {
+			@Override
+			protected void setUp() throws CoreException {
+				createStructure();
+			}
+
+			@Override
+			protected void test() {
+				try {
+					baseStore.delete(options, null);
+				} catch (CoreException e) {
+					fail("Failed to delete tree during performance test", e);
+				}
+			}
+		};
+		runner.run(this, OUTER, INNER);
+	}
+
 	public void testPutFileInfo() throws CoreException {
 		createStructure();
 		PerformanceTestRunner runner = new PerformanceTestRunner() {
@@ -15,8 +15,10 @@
 package org.eclipse.core.tests.resources.perf;
 
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.net.URI;
-import java.util.Random;
+import java.util.*;
+import java.util.function.Supplier;
 import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.*;
 import org.eclipse.core.runtime.jobs.Job;
@@ -61,6 +63,25 @@ public class WorkspacePerformanceTest extends ResourceTest {
 		}
 	}
 
+	/**
+	 * Creates a project and fills it with the same amount of contents as
+	 * {@link #createAndPopulateProject(int)}, using a single bulk creation.
+	 */
+	void createAndPopulateProjectInBulk(final int totalResources) {
+		try {
+			getWorkspace().run((IWorkspaceRunnable) monitor -> {
+				testProject.create(getMonitor());
+				testProject.open(getMonitor());
+				Map<IPath, Supplier<InputStream>> files = new HashMap<>();
+				int depth = (int) (Math.log(totalResources) / Math.log(TREE_WIDTH));
+				recursiveCollectChildren(Path.EMPTY, depth - 1, files);
+				testFolder.create(files, IResource.NONE, getMonitor());
+			}, getMonitor());
+		} catch (CoreException e) {
+			fail("Failed to create project in performance test", e);
+		}
+	}
+
 	private byte[] createBytes(int length) {
 		byte[] bytes = new byte[length];
 		random.nextBytes(bytes);
@@ -130,6 +151,23 @@ public class WorkspacePerformanceTest extends ResourceTest {
 		}
 	}
 
+	/**
+	 * Collects the children {@link #recursiveCreateChildren(IFolder, int)} would create
+	 * below the given path.
+	 */
+	private void recursiveCollectChildren(IPath parent, int depth, Map<IPath, Supplier<InputStream>> files) {
+		for (int i = 0; i < TREE_WIDTH; i++) {
+			byte[] bytes = createBytes(5000);
+			files.put(parent.append(createString(10)), () -> new ByteArrayInputStream(bytes));
+		}
+		if (depth <= 0) {
+			return;
+		}
+		for (int i = 0; i < TREE_WIDTH; i++) {
+			recursiveCollectChildren(parent.append(createString(6)), depth - 1, files);
+		}
+	}
+
 	@Override
 	protected void setUp() throws Exception {
 		testProject = getWorkspace().getRoot().getProject("Project");
@@ -159,6 +197,30 @@ public class WorkspacePerformanceTest extends ResourceTest {
 		runner.run(this, REPEATS, 1);
 	}
 
+	/**
+	 * Benchmark test of creating a project and populating it with folders and
+	 * files using the bulk creation of a folder tree.
+	 */
+	public void testCreateResourcesInBulk() {
+		PerformanceTestRunner runner = new PerformanceTestRunner() {
+			@Override
+			protected void setUp() {
+				waitForBackgroundActivity();
+			}
+
+			@Override
+			protected void tearDown() throws CoreException {
+				testProject.delete(IResource.FORCE, null);
+			}
+
+			@Override
+			protected void test() {
+				createAndPopulateProjectInBulk(DEFAULT_TOTAL_RESOURCES);
+			}
+		};
+		runner.run(this, REPEATS, 1);
+	}
+
 	public void testDeleteProject() {
 		//create the project contents
 		PerformanceTestRunner runner = new PerformanceTestRunner() {
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ *  Copyright (c) 2022 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *
+ *  Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.resources.refresh;
+
+import java.io.File;
+import org.eclipse.core.internal.localstore.LightweightRefresher;
+import org.eclipse.core.resources.*;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.core.tests.resources.ResourceTest;
+
+/**
+ * Tests {@link ResourcesPlugin#PREF_LIGHTWEIGHT_AUTO_REFRESH_ON_ACCESS}.
+ */
+public class RefreshOnAccessTest extends ResourceTest {
+	private IProject project;
+	private IFolder folder;
+
+	private IEclipsePreferences getPrefs() {
+		return InstanceScope.INSTANCE.getNode(ResourcesPlugin.PI_RESOURCES);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		getPrefs().putBoolean(ResourcesPlugin.PREF_LIGHTWEIGHT_AUTO_REFRESH_ON_ACCESS, true);
+		project = getWorkspace().getRoot().getProject("Project");
+		folder = project.getFolder("folder");
+		ensureExistsInWorkspace(folder, true);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		getPrefs().remove(ResourcesPlugin.PREF_LIGHTWEIGHT_AUTO_REFRESH_ON_ACCESS);
+		super.tearDown();
+	}
+
+	/**
+	 * Creates a file in the directory of the folder behind the back of the
+	 * workspace, late enough to be found by the next check of the folder.
+	 */
+	private IFile createExternally(String name) throws Exception {
+		Thread.sleep(LightweightRefresher.CHECK_INTERVAL + 100);
+		IFile file = folder.getFile(name);
+		assertTrue("createExternally", new File(file.getLocation().toOSString()).createNewFile());
+		return file;
+	}
+
+	public void testMembers() throws Exception {
+		// the first access remembers the state of the directory
+		assertEquals("1.0", 0, folder.members().length);
+		IFile file = createExternally("file.txt");
+		assertEquals("1.1", 0, folder.members().length);
+		waitForRefresh();
+		assertEquals("2.0", 1, folder.members().length);
+		assertTrue("2.1", file.exists());
+		assertTrue("2.2", file.isSynchronized(IResource.DEPTH_ZERO));
+	}
+
+	public void testExists() throws Exception {
+		IFile file = folder.getFile("file.txt");
+		assertFalse("1.0", file.exists());
+		createExternally(file.getName());
+		assertFalse("1.1", file.exists());
+		waitForRefresh();
+		assertTrue("2.0", file.exists());
+	}
+
+	public void testDisabled() throws Exception {
+		getPrefs().putBoolean(ResourcesPlugin.PREF_LIGHTWEIGHT_AUTO_REFRESH_ON_ACCESS, false);
+		assertEquals("1.0", 0, folder.members().length);
+		IFile file = createExternally("file.txt");
+		assertEquals("1.1", 0, folder.members().length);
+		waitForRefresh();
+		assertFalse("2.0", file.exists());
+		assertFalse("2.1", folder.isSynchronized(IResource.DEPTH_ONE));
+	}
+}
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ *  Copyright (c) 2022 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *
+ *  Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.resources.refresh;
+
+import org.eclipse.core.internal.refresh.RefreshRequestQueue;
+import org.eclipse.core.resources.*;
+import org.eclipse.core.tests.resources.ResourceTest;
+
+/**
+ * Tests the queue of pending auto-refresh requests.
+ */
+public class RefreshRequestQueueTest extends ResourceTest {
+	private IProject project;
+	private IFolder folder;
+	private IFolder subFolder;
+	private IFile file;
+	private IProject otherProject;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		IWorkspaceRoot root = getWorkspace().getRoot();
+		project = root.getProject("Project");
+		folder = project.getFolder("folder");
+		subFolder = folder.getFolder("subfolder");
+		file = subFolder.getFile("file.txt");
+		otherProject = root.getProject("Other");
+	}
+
+	public void testCoveredRequestsAreDropped() {
+		RefreshRequestQueue queue = new RefreshRequestQueue();
+		assertTrue("1.0", queue.addFirst(folder, false));
+		assertFalse("1.1", queue.addFirst(folder, false));
+		assertFalse("1.2", queue.addLast(subFolder, false));
+		assertFalse("1.3", queue.addFirst(file, false));
+		assertEquals("1.4", 1, queue.size());
+		assertEquals("1.5", 3, queue.getMergedCount());
+
+		assertEquals("2.0", folder, queue.poll());
+		assertTrue("2.1", queue.isEmpty());
+		assertNull("2.2", queue.poll());
+
+		// once handled, the same resources can be requested again
+		assertTrue("3.0", queue.addFirst(subFolder, false));
+		assertEquals("3.1", subFolder, queue.poll());
+	}
+
+	public void testRequestsAreMerged() {
+		RefreshRequestQueue queue = new RefreshRequestQueue();
+		assertTrue("1.0", queue.addFirst(file, false));
+		assertTrue("1.1", queue.addFirst(subFolder.getFolder("other"), false));
+		assertTrue("1.2", queue.addFirst(otherProject, false));
+		assertEquals("1.3", 3, queue.size());
+
+		// the new request replaces the requests below it
+		assertTrue("2.0", queue.addLast(folder, false));
+		assertEquals("2.1", 2, queue.size());
+		assertEquals("2.2", otherProject, queue.poll());
+		assertEquals("2.3", folder, queue.poll());
+		assertNull("2.4", queue.poll());
+		assertTrue("2.5", queue.isEmpty());
+	}
+
+	public void testOrder() {
+		RefreshRequestQueue queue = new RefreshRequestQueue();
+		queue.addLast(subFolder, false);
+		queue.addFirst(otherProject, false);
+		queue.addLast(project.getFolder("last"), false);
+		queue.addLast(file.getParent().getFile("open.txt"), true);
+		assertEquals("1.0", file.getParent().getFile("open.txt"), queue.poll());
+		assertEquals("1.1", otherProject, queue.poll());
+		assertEquals("1.2", subFolder, queue.poll());
+		assertEquals("1.3", project.getFolder("last"), queue.poll());
+		assertNull("1.4", queue.poll());
+	}
+
+	public void testUrgentRequests() {
+		RefreshRequestQueue queue = new RefreshRequestQueue();
+		assertTrue("1.0", queue.addFirst(file, true));
+		// a normal request does not replace an urgent one
+		assertTrue("1.1", queue.addFirst(project, false));
+		assertEquals("1.2", 2, queue.size());
+		// an urgent request is not held up by a normal one
+		assertTrue("1.3", queue.addFirst(folder, true));
+		assertEquals("1.4", 2, queue.size());
+
+		assertEquals("2.0", folder, queue.poll());
+		assertEquals("2.1", project, queue.poll());
+		assertNull("2.2", queue.poll());
+
+		// an urgent request replaces the normal requests below it
+		queue.addFirst(file, false);
+		assertTrue("3.0", queue.addFirst(project, true));
+		assertFalse("3.1", queue.addFirst(subFolder, true));
+		assertEquals("3.2", 1, queue.size());
+		assertEquals("3.3", project, queue.poll());
+		assertTrue("3.4", queue.isEmpty());
+	}
+
+	public void testLag() throws InterruptedException {
+		RefreshRequestQueue queue = new RefreshRequestQueue();
+		assertEquals("1.0", 0, queue.getOldestAge());
+		queue.addFirst(folder, false);
+		Thread.sleep(20);
+		queue.addFirst(otherProject, false);
+		assertTrue("1.1", queue.getOldestAge() >= 20);
+		assertEquals("2.0", otherProject, queue.poll());
+		assertEquals("2.1", folder, queue.poll());
+		assertTrue("2.2", queue.getLag() >= 20);
+		assertEquals("2.3", 0, queue.getOldestAge());
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2014 IBM Corporation and others.
+ * Copyright (c) 2004, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -21,6 +21,7 @@ import org.junit.runners.Suite;
 		TestCloseNoSave.class, TestMultiSnap.class, TestSaveCreateProject.class, TestSaveSnap.class,
 		TestSaveWithClosedProject.class, TestSnapSaveSnap.class, TestBug6995.class,
 		TestInterestingProjectPersistence.class, TestBuilderDeltaSerialization.class, Test1GALH44.class,
+		TestBuilderInputFingerprintPersistence.class,
 		TestMissingBuilder.class, TestClosedProjectLocation.class, FindDeletedMembersTest.class, TestBug20127.class,
 		TestBug12575.class, WorkspaceDescriptionTest.class, TestBug30015.class,
 		TestMasterTableCleanup.class,
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ *  Copyright (c) 2022 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *
+ *  Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.tests.resources.session;
+
+import java.io.ByteArrayInputStream;
+import junit.framework.Test;
+import org.eclipse.core.internal.events.BuildManager;
+import org.eclipse.core.internal.resources.Workspace;
+import org.eclipse.core.resources.*;
+import org.eclipse.core.tests.internal.builders.FingerprintBuilder;
+import org.eclipse.core.tests.resources.AutomatedTests;
+import org.eclipse.core.tests.resources.WorkspaceSessionTest;
+import org.eclipse.core.tests.session.WorkspaceSessionTestSuite;
+
+/**
+ * Tests that the fingerprints of the inputs of builders, and the hashes of the
+ * contents they were computed from, are saved between sessions.
+ */
+public class TestBuilderInputFingerprintPersistence extends WorkspaceSessionTest {
+	private IProject project;
+	private IFile file;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		project = getWorkspace().getRoot().getProject("TestFingerprint");
+		file = project.getFile("file.txt");
+	}
+
+	private void setContents(String contents) throws Exception {
+		file.setContents(new ByteArrayInputStream(contents.getBytes()), true, true, getMonitor());
+	}
+
+	/**
+	 * Create a project with a builder that fingerprints its inputs, build it and save.
+	 */
+	public void test1() throws Exception {
+		ensureExistsInWorkspace(project, true);
+		ensureExistsInWorkspace(file, "contents");
+		IWorkspaceDescription desc = getWorkspace().getDescription();
+		desc.setAutoBuilding(false);
+		getWorkspace().setDescription(desc);
+
+		IProjectDescription description = project.getDescription();
+		ICommand command = description.newCommand();
+		command.setBuilderName(FingerprintBuilder.BUILDER_NAME);
+		description.setBuildSpec(new ICommand[] {command});
+		project.setDescription(description, getMonitor());
+
+		project.build(IncrementalProjectBuilder.INCREMENTAL_BUILD, getMonitor());
+		((Workspace) getWorkspace()).getBuildManager().joinInputFingerprints(getMonitor());
+		getWorkspace().save(true, getMonitor());
+	}
+
+	/**
+	 * Writing the same contents is not built, which needs both the saved
+	 * fingerprint and the saved hash of the contents of the file.
+	 */
+	public void test2() throws Exception {
+		BuildManager buildManager = ((Workspace) getWorkspace()).getBuildManager();
+		long skipped = buildManager.getSkippedBuildCount();
+		setContents("contents");
+		project.build(IncrementalProjectBuilder.INCREMENTAL_BUILD, getMonitor());
+		assertEquals("1.0", skipped + 1, buildManager.getSkippedBuildCount());
+
+		// other contents are still built
+		setContents("other contents");
+		project.build(IncrementalProjectBuilder.INCREMENTAL_BUILD, getMonitor());
+		assertEquals("2.0", skipped + 1, buildManager.getSkippedBuildCount());
+		getWorkspace().save(true, getMonitor());
+	}
+
+	/**
+	 * The fingerprint updated from the delta in the last session is saved too.
+	 */
+	public void test3() throws Exception {
+		BuildManager buildManager = ((Workspace) getWorkspace()).getBuildManager();
+		long skipped = buildManager.getSkippedBuildCount();
+		setContents("other contents");
+		project.build(IncrementalProjectBuilder.INCREMENTAL_BUILD, getMonitor());
+		assertEquals("1.0", skipped + 1, buildManager.getSkippedBuildCount());
+	}
+
+	public static Test suite() {
+		return new WorkspaceSessionTestSuite(AutomatedTests.PI_RESOURCES_TESTS, TestBuilderInputFingerprintPersistence.class);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,8 +13,11 @@
  *******************************************************************************/
 package org.eclipse.core.tests.resources.usecase;
 
-import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.internal.resources.ResourceRuleSet;
+import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.MultiRule;
 import org.eclipse.core.tests.harness.PerformanceTestRunner;
 import org.eclipse.core.tests.resources.ResourceTest;
 
@@ -35,4 +38,57 @@ public class ConcurrencyPerformanceTest extends ResourceTest {
 			}
 		}.run(this, 10, 50);
 	}
+
+	/**
+	 * Benchmarks conflict checks of single resources against a rule made of
+	 * many resources, as done by the job manager for queued workspace jobs.
+	 */
+	public void testResourceRuleSetConflicts() {
+		final ISchedulingRule[] rules = createRules(500);
+		final ISchedulingRule set = ResourceRuleSet.combine(rules);
+		final IResource[] probes = createProbes();
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				for (IResource probe : probes) {
+					set.isConflicting(probe);
+					probe.isConflicting(set);
+				}
+			}
+		}.run(this, 10, 100);
+	}
+
+	/**
+	 * The same as {@link #testResourceRuleSetConflicts()}, using a plain
+	 * {@link MultiRule} for comparison.
+	 */
+	public void testMultiRuleConflicts() {
+		final ISchedulingRule multi = MultiRule.combine(createRules(500));
+		final IResource[] probes = createProbes();
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				for (IResource probe : probes) {
+					multi.isConflicting(probe);
+					probe.isConflicting(multi);
+				}
+			}
+		}.run(this, 10, 100);
+	}
+
+	private ISchedulingRule[] createRules(int count) {
+		IProject project = getWorkspace().getRoot().getProject("Project");
+		ISchedulingRule[] rules = new ISchedulingRule[count];
+		for (int i = 0; i < count; i++)
+			rules[i] = project.getFolder("folder" + (i % 20)).getFile("file" + i);
+		return rules;
+	}
+
+	private IResource[] createProbes() {
+		IProject project = getWorkspace().getRoot().getProject("Project");
+		IResource[] probes = new IResource[200];
+		for (int i = 0; i < probes.length; i++)
+			probes[i] = project.getFolder("folder" + (i % 40)).getFile("probe" + i);
+		return probes;
+	}
 }